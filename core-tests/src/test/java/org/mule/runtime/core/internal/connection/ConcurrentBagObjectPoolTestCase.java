@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class ConcurrentBagObjectPoolTestCase extends AbstractMuleTestCase {
+
+  private static final int MAX_ACTIVE = 2;
+
+  private PoolableObjectFactory<Object> factory;
+  private ConcurrentBagObjectPool<Object> pool;
+  private ExecutorService executor;
+
+  @Before
+  public void before() throws Exception {
+    factory = mock(PoolableObjectFactory.class);
+    when(factory.makeObject()).thenAnswer(inv -> new Object());
+    when(factory.validateObject(any())).thenReturn(true);
+    executor = newFixedThreadPool(4);
+  }
+
+  @After
+  public void after() throws Exception {
+    executor.shutdownNow();
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  @Test
+  public void returnedObjectReused() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, DEFAULT_MAX_POOL_WAIT);
+
+    Object object = pool.borrowObject();
+    pool.returnObject(object);
+
+    assertThat(pool.borrowObject(), is(sameInstance(object)));
+    verify(factory, times(1)).makeObject();
+  }
+
+  @Test
+  public void borrowedObjectsAreDifferent() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, DEFAULT_MAX_POOL_WAIT);
+
+    assertThat(pool.borrowObject(), is(not(sameInstance(pool.borrowObject()))));
+    assertThat(pool.getNumActive(), is(MAX_ACTIVE));
+    assertThat(pool.getNumIdle(), is(0));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void exhaustedFail() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_FAIL, DEFAULT_MAX_POOL_WAIT);
+    pool.borrowObject();
+    pool.borrowObject();
+    pool.borrowObject();
+  }
+
+  @Test
+  public void exhaustedGrow() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_GROW, DEFAULT_MAX_POOL_WAIT);
+    pool.borrowObject();
+    pool.borrowObject();
+    pool.borrowObject();
+
+    assertThat(pool.getNumActive(), is(MAX_ACTIVE + 1));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void exhaustedWaitTimesOut() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, 50);
+    pool.borrowObject();
+    pool.borrowObject();
+    pool.borrowObject();
+  }
+
+  @Test
+  public void exhaustedWaitHandedOff() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, -1);
+    Object object = pool.borrowObject();
+    pool.borrowObject();
+
+    CountDownLatch waiting = new CountDownLatch(1);
+    Future<Object> waiter = executor.submit(() -> {
+      waiting.countDown();
+      return pool.borrowObject();
+    });
+    waiting.await();
+    pool.returnObject(object);
+
+    assertThat(waiter.get(5, SECONDS), is(sameInstance(object)));
+    verify(factory, times(MAX_ACTIVE)).makeObject();
+  }
+
+  @Test
+  public void exhaustedWaitWithoutMaxWaitWaitsForever() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, 0);
+    Object object = pool.borrowObject();
+    pool.borrowObject();
+
+    CountDownLatch waiting = new CountDownLatch(1);
+    Future<Object> waiter = executor.submit(() -> {
+      waiting.countDown();
+      return pool.borrowObject();
+    });
+    waiting.await();
+    // longer than what a maxWait of zero would wait if it was honored literally
+    Thread.sleep(100);
+    pool.returnObject(object);
+
+    assertThat(waiter.get(5, SECONDS), is(sameInstance(object)));
+  }
+
+  @Test
+  public void borrowedObjectsActivatedAndReturnedOnesPassivated() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, DEFAULT_MAX_POOL_WAIT);
+
+    Object object = pool.borrowObject();
+    verify(factory).activateObject(object);
+    verify(factory, never()).validateObject(object);
+
+    pool.returnObject(object);
+    verify(factory).passivateObject(object);
+
+    assertThat(pool.borrowObject(), is(sameInstance(object)));
+    verify(factory, times(2)).activateObject(object);
+    // only validated by the evictor
+    verify(factory, never()).validateObject(object);
+  }
+
+  @Test
+  public void idleObjectFailingActivationReplacedWhenBorrowed() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, DEFAULT_MAX_POOL_WAIT);
+    Object failing = pool.borrowObject();
+    pool.returnObject(failing);
+    doThrow(new Exception("Expected")).when(factory).activateObject(failing);
+
+    assertThat(pool.borrowObject(), is(not(sameInstance(failing))));
+    verify(factory).destroyObject(failing);
+    assertThat(pool.getNumActive(), is(1));
+  }
+
+  @Test
+  public void returnedObjectFoundFromAnotherThread() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, DEFAULT_MAX_POOL_WAIT);
+    Object object = pool.borrowObject();
+
+    executor.submit(() -> {
+      pool.returnObject(object);
+      return null;
+    }).get(5, SECONDS);
+
+    assertThat(pool.getNumIdle(), is(1));
+    assertThat(pool.borrowObject(), is(sameInstance(object)));
+  }
+
+  @Test
+  public void invalidatedObjectDestroyed() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, DEFAULT_MAX_POOL_WAIT);
+    Object object = pool.borrowObject();
+    pool.invalidateObject(object);
+
+    verify(factory).destroyObject(object);
+    assertThat(pool.getNumActive(), is(0));
+    assertThat(pool.borrowObject(), is(not(sameInstance(object))));
+  }
+
+  @Test
+  public void invalidIdleObjectsEvicted() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, DEFAULT_MAX_POOL_WAIT);
+    Object valid = pool.borrowObject();
+    Object invalid = pool.borrowObject();
+    pool.returnObject(valid);
+    pool.returnObject(invalid);
+    when(factory.validateObject(invalid)).thenReturn(false);
+
+    pool.evict();
+
+    verify(factory).destroyObject(invalid);
+    verify(factory, never()).destroyObject(valid);
+    assertThat(pool.getNumIdle(), is(1));
+    assertThat(pool.borrowObject(), is(sameInstance(valid)));
+  }
+
+  @Test
+  public void closeDestroysIdleObjects() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, DEFAULT_MAX_POOL_WAIT);
+    Object idle = pool.borrowObject();
+    Object active = pool.borrowObject();
+    pool.returnObject(idle);
+
+    pool.close();
+    verify(factory).destroyObject(idle);
+    verify(factory, never()).destroyObject(active);
+
+    pool.returnObject(active);
+    verify(factory).destroyObject(active);
+  }
+
+  @Test
+  public void concurrentBorrowsWithinMaxActive() throws Exception {
+    pool = createPool(WHEN_EXHAUSTED_WAIT, -1);
+    final AtomicInteger active = new AtomicInteger();
+    final AtomicInteger maxSeen = new AtomicInteger();
+
+    Future<?>[] futures = new Future<?>[4];
+    for (int i = 0; i < futures.length; ++i) {
+      futures[i] = executor.submit(() -> {
+        for (int j = 0; j < 500; ++j) {
+          Object object = pool.borrowObject();
+          maxSeen.accumulateAndGet(active.incrementAndGet(), Integer::max);
+          active.decrementAndGet();
+          pool.returnObject(object);
+        }
+        return null;
+      });
+    }
+    for (Future<?> future : futures) {
+      future.get(10, SECONDS);
+    }
+
+    assertThat(maxSeen.get(), lessThanOrEqualTo(MAX_ACTIVE));
+    verify(factory, atMost(MAX_ACTIVE)).makeObject();
+  }
+
+  private ConcurrentBagObjectPool<Object> createPool(int exhaustedAction, long maxWait) {
+    return new ConcurrentBagObjectPool<>(factory,
+                                         new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, maxWait, exhaustedAction, INITIALISE_NONE),
+                                         null);
+  }
+}
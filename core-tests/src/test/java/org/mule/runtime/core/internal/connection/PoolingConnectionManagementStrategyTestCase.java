@@ -13,8 +13,10 @@ import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyObject;
 import static org.mockito.ArgumentMatchers.anyVararg;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -36,6 +38,7 @@ import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.core.api.Injector;
+import org.mule.runtime.core.api.connection.BorrowWaitPoolingListener;
 import org.mule.runtime.api.lifecycle.Lifecycle;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
@@ -82,6 +85,33 @@ public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleCon
     verify(poolingListener).onBorrow(connection2.getConnection());
   }
 
+  @Test
+  public void getConnectionFromConcurrentBag() throws Exception {
+    strategy = new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile, poolingListener, muleContext, true);
+    connection1 = strategy.getConnectionHandler();
+    connection2 = strategy.getConnectionHandler();
+
+    assertThat(connection1.getConnection(), is(not(sameInstance(connection2.getConnection()))));
+    verify(poolingListener).onBorrow(connection1.getConnection());
+
+    Object connection = connection1.getConnection();
+    connection1.release();
+    assertThat(strategy.getConnectionHandler().getConnection(), is(sameInstance(connection)));
+    verify(connectionProvider, times(2)).connect();
+  }
+
+  @Test
+  public void borrowWaitNotified() throws Exception {
+    BorrowWaitPoolingListener<Object> borrowWaitListener = mock(BorrowWaitPoolingListener.class);
+    poolingListener = borrowWaitListener;
+    initStrategy();
+    strategy.getConnectionHandler();
+    strategy.getConnectionHandler();
+
+    assertThat(strategy.getBorrowWaitHistogram().getCount(), is(2L));
+    verify(borrowWaitListener, times(2)).onBorrowWait(anyLong(), same(strategy.getBorrowWaitHistogram()));
+  }
+
   @Test
   public void poolingListenerFailsOnBorrow() throws Exception {
     initStrategy();
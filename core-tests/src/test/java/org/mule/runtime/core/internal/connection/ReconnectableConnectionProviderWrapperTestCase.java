@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.connection.ConnectionValidationResult.success;
+
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.core.api.retry.policy.SimpleRetryPolicyTemplate;
+import org.mule.runtime.core.internal.retry.ReconnectionConfig;
+import org.mule.runtime.extension.api.runtime.connectivity.ReconnectionCallback;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReconnectableConnectionProviderWrapperTestCase extends AbstractMuleContextTestCase {
+
+  private final Object connection = new Object();
+  private final CountDownLatch backendUp = new CountDownLatch(1);
+  private ConnectionProvider<Object> delegate;
+  private ReconnectableConnectionProviderWrapper<Object> wrapper;
+
+  @Before
+  public void before() throws Exception {
+    delegate = mock(ConnectionProvider.class);
+    when(delegate.validate(any())).thenReturn(success());
+    when(delegate.connect())
+        .thenThrow(new ConnectionException("backend down"))
+        .thenAnswer(inv -> {
+          backendUp.await();
+          return connection;
+        });
+  }
+
+  @After
+  public void after() throws Exception {
+    backendUp.countDown();
+    if (wrapper != null) {
+      wrapper.stop();
+    }
+  }
+
+  @Test
+  public void fastFailWhileReconnecting() throws Exception {
+    wrapper = createWrapper(true);
+
+    assertConnectFails("backend down");
+    assertConnectFails("Reconnection in progress");
+    // only the failed attempt and the background reconnection hit the backend
+    verify(delegate, atMost(2)).connect();
+
+    CompletableFuture<Void> reconnected = new CompletableFuture<>();
+    wrapper.onReconnection(new ReconnectionCallback() {
+
+      @Override
+      public void success() {
+        reconnected.complete(null);
+      }
+
+      @Override
+      public void failed(ConnectionException exception) {
+        reconnected.completeExceptionally(exception);
+      }
+    });
+    backendUp.countDown();
+    reconnected.get(5, SECONDS);
+
+    // the connection obtained by the reconnection is handed to the next caller
+    assertThat(wrapper.connect(), is(sameInstance(connection)));
+    verify(delegate, times(2)).connect();
+  }
+
+  @Test
+  public void exhaustedReconnectionFailsCallbacks() throws Exception {
+    CountDownLatch backendChecked = new CountDownLatch(1);
+    when(delegate.connect())
+        .thenThrow(new ConnectionException("backend down"))
+        .thenAnswer(inv -> {
+          backendChecked.await();
+          throw new ConnectionException("backend still down");
+        });
+    wrapper = createWrapper(true, 1);
+
+    assertConnectFails("backend down");
+
+    CompletableFuture<ConnectionException> failure = new CompletableFuture<>();
+    wrapper.onReconnection(new ReconnectionCallback() {
+
+      @Override
+      public void success() {
+        failure.complete(null);
+      }
+
+      @Override
+      public void failed(ConnectionException exception) {
+        failure.complete(exception);
+      }
+    });
+    backendChecked.countDown();
+
+    // success is reported with a null exception
+    assertThat(failure.get(5, SECONDS), is(notNullValue()));
+  }
+
+  @Test
+  public void withoutFastFailConnectsOnCallerThread() throws Exception {
+    wrapper = createWrapper(false);
+    backendUp.countDown();
+
+    assertConnectFails("backend down");
+    assertThat(wrapper.connect(), is(sameInstance(connection)));
+  }
+
+  private ReconnectableConnectionProviderWrapper<Object> createWrapper(boolean fastFail) throws Exception {
+    return createWrapper(fastFail, 5);
+  }
+
+  private ReconnectableConnectionProviderWrapper<Object> createWrapper(boolean fastFail, int retries) throws Exception {
+    ReconnectableConnectionProviderWrapper<Object> wrapper =
+        new ReconnectableConnectionProviderWrapper<>(delegate,
+                                                     new ReconnectionConfig(false, new SimpleRetryPolicyTemplate(10, retries),
+                                                                            fastFail));
+    muleContext.getInjector().inject(wrapper);
+    wrapper.start();
+    return wrapper;
+  }
+
+  private void assertConnectFails(String message) {
+    try {
+      wrapper.connect();
+      fail("Was expecting the connection to fail");
+    } catch (ConnectionException e) {
+      assertThat(e.getMessage(), containsString(message));
+    }
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lifecycle;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.synchronizedList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mule.runtime.api.scheduler.SchedulerConfig.config;
+import static org.mule.test.allure.AllureConstants.LifecycleAndDependencyInjectionFeature.LIFECYCLE_AND_DEPENDENCY_INJECTION;
+import static org.mule.test.allure.AllureConstants.LifecycleAndDependencyInjectionFeature.LifecyclePhaseStory.LIFECYCLE_PHASE_STORY;
+
+import org.mule.runtime.api.lifecycle.LifecycleException;
+import org.mule.runtime.core.api.util.func.CheckedRunnable;
+import org.mule.runtime.core.internal.context.DefaultMuleContext;
+import org.mule.runtime.core.internal.lifecycle.phases.LifecycleObjectGraph;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+@Feature(LIFECYCLE_AND_DEPENDENCY_INJECTION)
+@Story(LIFECYCLE_PHASE_STORY)
+public class ConcurrentLifecycleApplierTestCase extends AbstractMuleTestCase {
+
+  private final SimpleUnitTestSupportSchedulerService schedulerService = new SimpleUnitTestSupportSchedulerService();
+  private final ConcurrentLifecycleApplier applier =
+      new ConcurrentLifecycleApplier(4, schedulerService, config().withName("test.lifecycle"));
+  private final List<String> applied = synchronizedList(new ArrayList<>());
+
+  @After
+  public void after() throws Exception {
+    schedulerService.stop();
+  }
+
+  @Test
+  public void independentObjectsAreAppliedConcurrently() throws Exception {
+    LifecycleObjectGraph graph = new LifecycleObjectGraph();
+    graph.addGroup(asList("a", "b"));
+    CountDownLatch bothRunning = new CountDownLatch(2);
+
+    applier.apply(graph, object -> false, object -> {
+      bothRunning.countDown();
+      try {
+        // would time out if the objects were applied one after the other
+        assertThat(bothRunning.await(5, SECONDS), is(true));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      record(object);
+    });
+
+    assertThat(applied, containsInAnyOrder("a", "b"));
+  }
+
+  @Test
+  public void dependenciesAreAppliedFirst() throws Exception {
+    LifecycleObjectGraph graph = new LifecycleObjectGraph();
+    graph.addGroup(asList("flow", "config", "connection"));
+    graph.addDependency("flow", "config");
+    graph.addDependency("config", "connection");
+
+    applier.apply(graph, object -> false, this::record);
+
+    assertThat(applied, contains("connection", "config", "flow"));
+  }
+
+  @Test
+  public void groupsAreAppliedInOrder() throws Exception {
+    LifecycleObjectGraph graph = new LifecycleObjectGraph();
+    graph.addGroup(asList("config1", "config2"));
+    graph.addGroup(asList("flow1", "flow2"));
+
+    applier.apply(graph, object -> false, this::record);
+
+    assertThat(applied.subList(0, 2), containsInAnyOrder("config1", "config2"));
+    assertThat(applied.subList(2, 4), containsInAnyOrder("flow1", "flow2"));
+  }
+
+  @Test
+  public void alreadyAppliedObjectsAreSkipped() throws Exception {
+    LifecycleObjectGraph graph = new LifecycleObjectGraph();
+    graph.addGroup(asList("config"));
+    graph.addGroup(asList("config", "flow"));
+    graph.addDependency("flow", "config");
+
+    applier.apply(graph, applied::contains, this::record);
+
+    assertThat(applied, contains("config", "flow"));
+  }
+
+  @Test
+  public void cyclicDependenciesAreAppliedInGroupOrder() throws Exception {
+    LifecycleObjectGraph graph = new LifecycleObjectGraph();
+    graph.addGroup(asList("a", "b", "c"));
+    graph.addDependency("a", "b");
+    graph.addDependency("b", "a");
+
+    applier.apply(graph, object -> false, this::record);
+
+    assertThat(applied, contains("c", "a", "b"));
+  }
+
+  @Test
+  public void failureStopsFurtherObjects() {
+    LifecycleObjectGraph graph = new LifecycleObjectGraph();
+    graph.addGroup(asList("failing", "dependant"));
+    graph.addDependency("dependant", "failing");
+    graph.addGroup(asList("flow"));
+    LifecycleException failure = new LifecycleException(new RuntimeException("expected"), "failing");
+
+    LifecycleException thrown = null;
+    try {
+      applier.apply(graph, object -> false, object -> {
+        if ("failing".equals(object)) {
+          throw failure;
+        }
+        record(object);
+      });
+    } catch (LifecycleException e) {
+      thrown = e;
+    }
+
+    assertThat(thrown, is(sameInstance(failure)));
+    assertThat(applied.isEmpty(), is(true));
+  }
+
+  @Test
+  public void contextClassLoaderIsPropagated() throws Exception {
+    LifecycleObjectGraph graph = new LifecycleObjectGraph();
+    graph.addGroup(asList("a", "b"));
+    Thread callerThread = Thread.currentThread();
+    ClassLoader contextClassLoader = callerThread.getContextClassLoader();
+    List<Thread> threads = synchronizedList(new ArrayList<>());
+    List<ClassLoader> classLoaders = synchronizedList(new ArrayList<>());
+
+    applier.apply(graph, object -> false, object -> {
+      threads.add(Thread.currentThread());
+      classLoaders.add(Thread.currentThread().getContextClassLoader());
+    });
+
+    assertThat(threads, everyItem(not(sameInstance(callerThread))));
+    assertThat(classLoaders, everyItem(sameInstance(contextClassLoader)));
+  }
+
+  @Test(timeout = 10000)
+  public void objectsRegisteringOtherObjectsDontDeadlock() throws Exception {
+    DefaultMuleContext muleContext = new DefaultMuleContext();
+    LifecycleObjectGraph graph = new LifecycleObjectGraph();
+    graph.addGroup(asList("a", "b"));
+    Thread callerThread = Thread.currentThread();
+    List<Thread> registeringThreads = synchronizedList(new ArrayList<>());
+
+    // as the registry does when starting an artifact, the caller holds the lifecycle lock while applying the phase
+    muleContext.withLifecycleLock((CheckedRunnable) () -> applier.apply(graph, object -> false, object -> {
+      // as the registry does when registering an object
+      muleContext.withLifecycleLock(() -> {
+        registeringThreads.add(Thread.currentThread());
+        record(object);
+      });
+    }));
+
+    assertThat(applied, containsInAnyOrder("a", "b"));
+    assertThat(registeringThreads, everyItem(sameInstance(callerThread)));
+  }
+
+  @Test
+  public void failureOfActionRequiringLockIsPropagated() {
+    DefaultMuleContext muleContext = new DefaultMuleContext();
+    LifecycleObjectGraph graph = new LifecycleObjectGraph();
+    graph.addGroup(asList("a"));
+    IllegalStateException failure = new IllegalStateException("expected");
+
+    Throwable thrown = null;
+    try {
+      muleContext.withLifecycleLock((CheckedRunnable) () -> applier.apply(graph, object -> false, object -> {
+        muleContext.withLifecycleLock(() -> {
+          throw failure;
+        });
+      }));
+    } catch (RuntimeException e) {
+      thrown = e;
+    }
+
+    assertThat(thrown, is(sameInstance(failure)));
+  }
+
+  private void record(Object object) {
+    applied.add((String) object);
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimiter.NOT_ACQUIRED;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SmallTest
+public class AdaptiveConcurrencyLimiterTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void limitBoundedByMaxConcurrency() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5);
+    assertThat(limiter.getLimit(), is(5));
+
+    long permit = NOT_ACQUIRED;
+    for (int i = 0; i < 5; ++i) {
+      permit = limiter.tryAcquire();
+      assertThat(permit, is(not(NOT_ACQUIRED)));
+    }
+    assertThat(limiter.tryAcquire(), is(NOT_ACQUIRED));
+
+    for (int i = 0; i < 100; ++i) {
+      limiter.release(permit, nanoTime(), false);
+      limiter.tryAcquire();
+    }
+    assertThat(limiter.getLimit(), is(5));
+  }
+
+  @Test
+  public void limitGrowsWhileUsedWithStableLatency() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1000);
+    final int initialLimit = limiter.getLimit();
+
+    for (int i = 0; i < 50; ++i) {
+      saturateAndRelease(limiter, 1_000_000, false);
+    }
+
+    assertThat(limiter.getLimit(), greaterThan(initialLimit));
+  }
+
+  @Test
+  public void limitDoesNotGrowWhileIdle() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1000);
+    final int initialLimit = limiter.getLimit();
+
+    for (int i = 0; i < 50; ++i) {
+      long permit = limiter.tryAcquire();
+      assertThat(permit, is(not(NOT_ACQUIRED)));
+      limiter.release(permit, nanoTime(), false);
+    }
+
+    assertThat(limiter.getLimit(), is(initialLimit));
+  }
+
+  @Test
+  public void limitShrinksWhenLatencyGrows() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100);
+    for (int i = 0; i < 50; ++i) {
+      saturateAndRelease(limiter, 1_000_000, false);
+    }
+    final int limitBeforeQueueing = limiter.getLimit();
+
+    // all the permits are of the same generation
+    final long permit = limiter.tryAcquire();
+    int acquired = 1;
+    while (limiter.tryAcquire() != NOT_ACQUIRED) {
+      ++acquired;
+    }
+    final long start = nanoTime() - SECONDS.toNanos(1);
+    for (int i = 0; i < 20; ++i) {
+      limiter.release(permit, start, false);
+    }
+
+    assertThat(limiter.getLimit(), lessThan(limitBeforeQueueing));
+    assertThat(limiter.getRoundTripTimeEstimate(), greaterThan(1_000_000L));
+
+    for (int i = 20; i < acquired; ++i) {
+      limiter.releaseWithoutSample(permit);
+    }
+    assertThat(limiter.getInFlight(), is(0));
+  }
+
+  @Test
+  public void limitShrinksOnErrors() {
+    AtomicInteger notifiedLimit = new AtomicInteger();
+    AdaptiveConcurrencyLimiter limiter =
+        new AdaptiveConcurrencyLimiter(1000, (limit, rtt) -> notifiedLimit.set(limit));
+    final int initialLimit = limiter.getLimit();
+
+    for (int i = 0; i < 100; ++i) {
+      saturateAndRelease(limiter, 0, true);
+    }
+
+    assertThat(limiter.getLimit(), lessThan(initialLimit));
+    assertThat(limiter.getLimit(), greaterThanOrEqualTo(1));
+    assertThat(notifiedLimit.get(), is(limiter.getLimit()));
+  }
+
+  @Test
+  public void waiterAcquiresOnRelease() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1);
+    final long permit = limiter.tryAcquire();
+    assertThat(permit, is(not(NOT_ACQUIRED)));
+
+    AtomicBoolean acquired = new AtomicBoolean();
+    limiter.acquire(waiterPermit -> acquired.set(true));
+    assertThat(acquired.get(), is(false));
+
+    limiter.release(permit, nanoTime() - SECONDS.toNanos(1), false);
+    assertThat(acquired.get(), is(true));
+    assertThat(limiter.getInFlight(), is(1));
+  }
+
+  @Test
+  public void waitersFinishingRightAwayDontRecurse() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1);
+    final long permit = limiter.tryAcquire();
+
+    final int waiters = 100_000;
+    AtomicInteger completed = new AtomicInteger();
+    for (int i = 0; i < waiters; ++i) {
+      limiter.acquire(waiterPermit -> {
+        completed.incrementAndGet();
+        limiter.releaseWithoutSample(waiterPermit);
+      });
+    }
+
+    // would overflow the stack if each waiter drained the next one
+    limiter.releaseWithoutSample(permit);
+    assertThat(completed.get(), is(waiters));
+    assertThat(limiter.getInFlight(), is(0));
+  }
+
+  @Test
+  public void releasesFromBeforeResetIgnored() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5);
+    final long stalePermit = limiter.tryAcquire();
+    limiter.tryAcquire();
+
+    limiter.reset();
+    assertThat(limiter.getInFlight(), is(0));
+    final long permit = limiter.tryAcquire();
+    assertThat(permit, is(not(stalePermit)));
+
+    limiter.release(stalePermit, nanoTime(), false);
+    limiter.releaseWithoutSample(stalePermit);
+    assertThat(limiter.getInFlight(), is(1));
+
+    limiter.release(permit, nanoTime(), false);
+    assertThat(limiter.getInFlight(), is(0));
+  }
+
+  private void saturateAndRelease(AdaptiveConcurrencyLimiter limiter, long rttNanos, boolean failed) {
+    // all the permits are of the same generation
+    final long permit = limiter.tryAcquire();
+    int acquired = 1;
+    while (limiter.tryAcquire() != NOT_ACQUIRED) {
+      ++acquired;
+    }
+
+    final long start = nanoTime() - rttNanos;
+    for (int i = 0; i < acquired; ++i) {
+      limiter.release(permit, start, failed);
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.api.construct.BackPressureReason.EVENTS_ACCUMULATED;
+import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.CORES;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.PROACTOR;
+import static reactor.util.concurrent.Queues.XS_BUFFER_SIZE;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.AbstractProcessingStrategy.DefaultReactorSink;
+import org.mule.runtime.core.internal.processor.strategy.AbstractProcessingStrategy.ReactorSink;
+import org.mule.runtime.core.internal.processor.strategy.CoreAffineStreamEmitterProcessingStrategyFactory.CoreAffineStreamEmitterProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.CoreAffineStreamEmitterProcessingStrategyFactory.QueueDepthAwareReactorSink;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Runs the {@link ProactorStreamEmitterProcessingStrategyTestCase} scenarios with the queue depth aware dispatching of the
+ * {@link CoreAffineStreamEmitterProcessingStrategy}.
+ */
+@Feature(PROCESSING_STRATEGIES)
+@Story(PROACTOR)
+public class CoreAffineStreamEmitterProcessingStrategyTestCase extends ProactorStreamEmitterProcessingStrategyTestCase {
+
+  public CoreAffineStreamEmitterProcessingStrategyTestCase(Mode mode) {
+    super(mode);
+  }
+
+  @Override
+  protected ProcessingStrategy createProcessingStrategy(MuleContext muleContext, String schedulersNamePrefix,
+                                                        int maxConcurrency) {
+    return new CoreAffineStreamEmitterProcessingStrategy(XS_BUFFER_SIZE,
+                                                         2,
+                                                         () -> cpuLight,
+                                                         () -> cpuLight,
+                                                         () -> blocking,
+                                                         () -> cpuIntensive,
+                                                         CORES,
+                                                         maxConcurrency,
+                                                         true,
+                                                         () -> muleContext.getConfiguration().getShutdownTimeout());
+  }
+
+  @Test
+  @Description("An event is dispatched to the sink with more room among the home sink of the emitting thread and another one.")
+  public void dispatchesToLeastLoadedSink() {
+    ReactorSink<CoreEvent> busy = sinkWithRemainingCapacity(1);
+    ReactorSink<CoreEvent> idle = sinkWithRemainingCapacity(100);
+    QueueDepthAwareReactorSink<CoreEvent> sink = new QueueDepthAwareReactorSink<>(asList(busy, idle));
+
+    CoreEvent event = mock(CoreEvent.class);
+    assertThat(sink.emit(event), is(nullValue()));
+
+    verify(idle).emit(event);
+    verify(busy, never()).emit(any());
+  }
+
+  @Test
+  @Description("An event that can't be emitted to the selected sink is emitted to any other sink with room.")
+  public void fullSinkSpillsToSibling() {
+    ReactorSink<CoreEvent> full = sinkWithRemainingCapacity(10);
+    when(full.emit(any())).thenReturn(EVENTS_ACCUMULATED);
+    ReactorSink<CoreEvent> withRoom = sinkWithRemainingCapacity(1);
+    QueueDepthAwareReactorSink<CoreEvent> sink = new QueueDepthAwareReactorSink<>(asList(full, withRoom));
+
+    CoreEvent event = mock(CoreEvent.class);
+    assertThat(sink.emit(event), is(nullValue()));
+
+    verify(full).emit(event);
+    verify(withRoom).emit(event);
+  }
+
+  @Test
+  @Description("Back pressure is only signaled when no sink can take the event.")
+  public void backPressureWhenAllSinksFull() {
+    ReactorSink<CoreEvent> full1 = sinkWithRemainingCapacity(0);
+    when(full1.emit(any())).thenReturn(EVENTS_ACCUMULATED);
+    ReactorSink<CoreEvent> full2 = sinkWithRemainingCapacity(0);
+    when(full2.emit(any())).thenReturn(EVENTS_ACCUMULATED);
+    QueueDepthAwareReactorSink<CoreEvent> sink = new QueueDepthAwareReactorSink<>(asList(full1, full2));
+
+    assertThat(sink.emit(mock(CoreEvent.class)), is(EVENTS_ACCUMULATED));
+  }
+
+  @Test
+  @Description("An event spilled to a sibling of the selected sink is notified once, when the sibling takes it.")
+  public void spilledEventNotifiedOnce() {
+    List<CoreEvent> notified = new CopyOnWriteArrayList<>();
+    ReactorSink<CoreEvent> full = reactorSinkRequesting(0, notified);
+    ReactorSink<CoreEvent> withRoom = reactorSinkRequesting(XS_BUFFER_SIZE, notified);
+    QueueDepthAwareReactorSink<CoreEvent> sink = new QueueDepthAwareReactorSink<>(asList(full, withRoom));
+
+    CoreEvent event = mock(CoreEvent.class);
+    assertThat(sink.emit(event), is(nullValue()));
+
+    assertThat(notified, contains(event));
+  }
+
+  @Test
+  @Description("An event a sink can't take is not notified.")
+  public void rejectedEventNotNotified() {
+    List<CoreEvent> notified = new CopyOnWriteArrayList<>();
+    ReactorSink<CoreEvent> full = reactorSinkRequesting(0, notified);
+
+    assertThat(full.emit(mock(CoreEvent.class)), is(EVENTS_ACCUMULATED));
+
+    assertThat(notified, is(empty()));
+  }
+
+  private ReactorSink<CoreEvent> reactorSinkRequesting(long requested, List<CoreEvent> notified) {
+    FluxSink<CoreEvent> fluxSink = mock(FluxSink.class);
+    when(fluxSink.requestedFromDownstream()).thenReturn(requested);
+    return new DefaultReactorSink<>(fluxSink, timestamp -> {
+    }, notified::add, XS_BUFFER_SIZE);
+  }
+
+  private ReactorSink<CoreEvent> sinkWithRemainingCapacity(long remainingCapacity) {
+    ReactorSink<CoreEvent> sink = mock(ReactorSink.class);
+    when(sink.remainingCapacity()).thenReturn(remainingCapacity);
+    return sink;
+  }
+}
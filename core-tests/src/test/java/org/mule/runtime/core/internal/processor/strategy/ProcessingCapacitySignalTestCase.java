@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+@SmallTest
+public class ProcessingCapacitySignalTestCase extends AbstractMuleTestCase {
+
+  private final ProcessingCapacitySignal signal = new ProcessingCapacitySignal();
+
+  @Test
+  public void timesOutWithoutSignal() throws InterruptedException {
+    assertThat(signal.awaitCapacity(signal.getGeneration(), 10, MILLISECONDS), is(false));
+    assertThat(signal.getWaiters(), is(0));
+  }
+
+  @Test
+  public void signalBeforeWaitIsNotLost() throws InterruptedException {
+    long generation = signal.getGeneration();
+    signal.signalCapacityAvailable();
+    assertThat(signal.awaitCapacity(generation, 0, MILLISECONDS), is(true));
+  }
+
+  @Test
+  public void signalWakesUpWaiter() throws Exception {
+    long generation = signal.getGeneration();
+    CompletableFuture<Boolean> awaited = CompletableFuture.supplyAsync(() -> {
+      try {
+        return signal.awaitCapacity(generation, 10, SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    });
+
+    new PollingProber().check(new JUnitLambdaProbe(() -> signal.getWaiters() == 1));
+    signal.signalCapacityAvailable();
+
+    assertThat(awaited.get(5, SECONDS), is(true));
+    assertThat(signal.getWaiters(), is(0));
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.util.concurrent.Executors.defaultThreadFactory;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.rules.ExpectedException.none;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.PROACTOR;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.util.concurrent.Latch;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(PROCESSING_STRATEGIES)
+@Story(PROACTOR)
+public class VirtualThreadSchedulerTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public ExpectedException expected = none();
+
+  private Scheduler delegate;
+  private VirtualThreadScheduler scheduler;
+  private final Latch release = new Latch();
+
+  @Before
+  public void before() {
+    delegate = mock(Scheduler.class);
+    // the behavior of the scheduler doesn't depend on the threads being virtual
+    scheduler = new VirtualThreadScheduler(delegate, defaultThreadFactory(), 2);
+  }
+
+  @After
+  public void after() throws InterruptedException {
+    release.release();
+    scheduler.stop();
+    scheduler.awaitTermination(5, SECONDS);
+  }
+
+  @Test
+  @Description("Tasks over the concurrency limit are rejected, so that the processing strategy applies back pressure.")
+  public void rejectsOverMaxConcurrency() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(2);
+    scheduler.execute(blockingTask(started));
+    scheduler.execute(blockingTask(started));
+    started.await(5, SECONDS);
+    assertThat(scheduler.getActiveCount(), is(2));
+
+    expected.expect(RejectedExecutionException.class);
+    scheduler.execute(() -> {
+    });
+  }
+
+  @Test
+  @Description("Once a task finishes, another one may be run in its place.")
+  public void permitReleasedOnCompletion() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(2);
+    scheduler.execute(blockingTask(started));
+    scheduler.execute(started::countDown);
+    started.await(5, SECONDS);
+
+    new PollingProber().check(new JUnitLambdaProbe(() -> scheduler.getActiveCount() == 1));
+
+    CountDownLatch executed = new CountDownLatch(1);
+    scheduler.execute(executed::countDown);
+    assertThat(executed.await(5, SECONDS), is(true));
+  }
+
+  @Test
+  @Description("Tasks are rejected once the scheduler is stopped, and the delegate is stopped with it.")
+  public void rejectsAfterStop() {
+    scheduler.stop();
+    verify(delegate).stop();
+    assertThat(scheduler.isShutdown(), is(true));
+
+    expected.expect(RejectedExecutionException.class);
+    scheduler.execute(() -> {
+    });
+  }
+
+  @Test
+  @Description("Delayed tasks are run by the delegate scheduler.")
+  public void delayedTasksRunOnDelegate() {
+    Runnable task = () -> {
+    };
+    scheduler.schedule(task, 1, SECONDS);
+    verify(delegate).schedule(task, 1, SECONDS);
+  }
+
+  private Runnable blockingTask(CountDownLatch started) {
+    return () -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.retry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.retry.ReconnectionConfig.FAST_FAIL_RECONNECTION_PROPERTY;
+
+import org.mule.runtime.core.api.retry.policy.NoRetryPolicyTemplate;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+@SmallTest
+public class ReconnectionConfigTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public SystemProperty fastFail = new SystemProperty(FAST_FAIL_RECONNECTION_PROPERTY, "true");
+
+  @Test
+  public void fastFailEnabledThroughSystemProperty() {
+    assertThat(new ReconnectionConfig(false, new NoRetryPolicyTemplate()).isFastFail(), is(true));
+    assertThat(ReconnectionConfig.getDefault().isFastFail(), is(true));
+  }
+
+  @Test
+  public void explicitFastFailPrevails() {
+    assertThat(new ReconnectionConfig(false, new NoRetryPolicyTemplate(), false).isFastFail(), is(false));
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics.State.CLOSED;
+import static org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics.State.HALF_OPEN;
+import static org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics.State.OPEN;
+import static org.mule.runtime.core.internal.routing.CircuitBreakerState.NOT_TRIAL;
+import static org.mule.runtime.core.internal.routing.CircuitBreakerState.REJECTED;
+
+import org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class CircuitBreakerStateTestCase extends AbstractMuleTestCase {
+
+  private static final int FAILURE_THRESHOLD = 3;
+  private static final long ROLLING_WINDOW_MILLIS = 1000;
+  private static final long OPEN_MILLIS = 500;
+  private static final long TRIAL_TIMEOUT_MILLIS = 2000;
+
+  private final AtomicLong nanoTime = new AtomicLong(MILLISECONDS.toNanos(10000));
+  private CircuitBreakerStatistics statistics;
+  private CircuitBreakerState state;
+
+  @Before
+  public void before() {
+    statistics = new CircuitBreakerStatistics("test");
+    state = new CircuitBreakerState(FAILURE_THRESHOLD, ROLLING_WINDOW_MILLIS, OPEN_MILLIS, TRIAL_TIMEOUT_MILLIS, statistics,
+                                    nanoTime::get);
+  }
+
+  @Test
+  public void opensWhenThresholdReached() {
+    failTimes(FAILURE_THRESHOLD - 1);
+    assertThat(state.getState(), is(CLOSED));
+    assertThat(state.tryAcquire(), is(NOT_TRIAL));
+
+    failTimes(1);
+    assertThat(state.getState(), is(OPEN));
+    assertThat(state.tryAcquire(), is(REJECTED));
+
+    assertThat(statistics.getState(), is(OPEN));
+    assertThat(statistics.getFailedEvents(), is((long) FAILURE_THRESHOLD));
+    assertThat(statistics.getShortCircuitedEvents(), is(1L));
+    assertThat(statistics.getTimesOpened(), is(1L));
+  }
+
+  @Test
+  public void failuresOutsideWindowNotAccounted() {
+    failTimes(FAILURE_THRESHOLD - 1);
+    advance(ROLLING_WINDOW_MILLIS + ROLLING_WINDOW_MILLIS / 10);
+    failTimes(FAILURE_THRESHOLD - 1);
+
+    assertThat(state.getState(), is(CLOSED));
+  }
+
+  @Test
+  public void singleTrialWhenHalfOpen() {
+    failTimes(FAILURE_THRESHOLD);
+    advance(OPEN_MILLIS);
+
+    assertThat(state.tryAcquire(), is(not(REJECTED)));
+    assertThat(state.getState(), is(HALF_OPEN));
+    assertThat(state.tryAcquire(), is(REJECTED));
+  }
+
+  @Test
+  public void closesWhenTrialSucceeds() {
+    failTimes(FAILURE_THRESHOLD);
+    advance(OPEN_MILLIS);
+    state.onSuccess(state.tryAcquire());
+
+    assertThat(state.getState(), is(CLOSED));
+    assertThat(statistics.getState(), is(CLOSED));
+
+    // the failures before opening are no longer accounted
+    failTimes(FAILURE_THRESHOLD - 1);
+    assertThat(state.getState(), is(CLOSED));
+  }
+
+  @Test
+  public void reopensWhenTrialFails() {
+    failTimes(FAILURE_THRESHOLD);
+    advance(OPEN_MILLIS);
+    state.onFailure(state.tryAcquire());
+
+    assertThat(state.getState(), is(OPEN));
+    assertThat(state.tryAcquire(), is(REJECTED));
+    assertThat(statistics.getTimesOpened(), is(2L));
+
+    advance(OPEN_MILLIS);
+    assertThat(state.tryAcquire(), is(not(REJECTED)));
+  }
+
+  @Test
+  public void trialAbandonedAfterTimeout() {
+    failTimes(FAILURE_THRESHOLD);
+    advance(OPEN_MILLIS);
+    final long abandoned = state.tryAcquire();
+
+    advance(TRIAL_TIMEOUT_MILLIS - 1);
+    assertThat(state.tryAcquire(), is(REJECTED));
+
+    advance(1);
+    final long trial = state.tryAcquire();
+    assertThat(trial, is(not(REJECTED)));
+    assertThat(trial, is(not(abandoned)));
+    assertThat(state.getState(), is(HALF_OPEN));
+    assertThat(statistics.getTimesOpened(), is(1L));
+
+    // the outcome of the abandoned trial is no longer relevant
+    state.onFailure(abandoned);
+    assertThat(state.getState(), is(HALF_OPEN));
+
+    state.onSuccess(trial);
+    assertThat(state.getState(), is(CLOSED));
+  }
+
+  @Test
+  public void outcomeOfEventRoutedBeforeOpeningIgnoredWhenHalfOpen() {
+    final long routedWhileClosed = state.tryAcquire();
+    failTimes(FAILURE_THRESHOLD);
+    advance(OPEN_MILLIS);
+    final long trial = state.tryAcquire();
+
+    state.onSuccess(routedWhileClosed);
+    assertThat(state.getState(), is(HALF_OPEN));
+
+    state.onFailure(routedWhileClosed);
+    assertThat(state.getState(), is(HALF_OPEN));
+
+    state.onFailure(trial);
+    assertThat(state.getState(), is(OPEN));
+  }
+
+  @Test
+  public void openedAtTakenWhenOpening() {
+    failTimes(FAILURE_THRESHOLD);
+    advance(OPEN_MILLIS);
+    state.onFailure(state.tryAcquire());
+
+    // reopened by the trial, so it stays open for a whole period from then on
+    advance(OPEN_MILLIS - 1);
+    assertThat(state.tryAcquire(), is(REJECTED));
+    advance(1);
+    assertThat(state.tryAcquire(), is(not(REJECTED)));
+  }
+
+  @Test
+  public void statesSharedByKey() {
+    CircuitBreakerState shared = CircuitBreakerStates.acquire("app-shared", () -> state);
+    try {
+      assertThat(CircuitBreakerStates.acquire("app-shared", () -> {
+        throw new AssertionError("state must be reused");
+      }), sameInstance(shared));
+      CircuitBreakerStates.release("app-shared");
+
+      CircuitBreakerState other =
+          CircuitBreakerStates.acquire("app-other", () -> new CircuitBreakerState(1, 1000, 0, 1000, statistics));
+      assertThat(other, not(sameInstance(shared)));
+      CircuitBreakerStates.release("app-other");
+    } finally {
+      CircuitBreakerStates.release("app-shared");
+    }
+  }
+
+  private void failTimes(int times) {
+    for (int i = 0; i < times; ++i) {
+      final long permit = state.tryAcquire();
+      assertThat(permit, is(NOT_TRIAL));
+      state.onFailure(permit);
+    }
+  }
+
+  private void advance(long millis) {
+    nanoTime.addAndGet(MILLISECONDS.toNanos(millis));
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+import static org.mule.runtime.api.component.location.ConfigurationComponentLocator.REGISTRY_KEY;
+import static org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics.State.CLOSED;
+import static org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics.State.OPEN;
+import static org.mule.tck.MuleTestUtils.APPLE_FLOW;
+import static org.mule.tck.MuleTestUtils.createAndRegisterFlow;
+
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.routing.UntilSuccessfulTestCase.ConfigurableMessageProcessor;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class CircuitBreakerTestCase extends AbstractMuleContextTestCase {
+
+  private static final int FAILURE_THRESHOLD = 2;
+
+  private ConfigurableMessageProcessor targetMessageProcessor;
+  private CircuitBreaker circuitBreaker;
+
+  @Override
+  protected Map<String, Object> getStartUpRegistryObjects() {
+    return singletonMap(REGISTRY_KEY, componentLocator);
+  }
+
+  @Override
+  protected void doSetUp() throws Exception {
+    super.doSetUp();
+    createAndRegisterFlow(muleContext, APPLE_FLOW, componentLocator);
+
+    targetMessageProcessor = new ConfigurableMessageProcessor();
+    circuitBreaker = new CircuitBreaker();
+    circuitBreaker.setFailureThreshold(FAILURE_THRESHOLD);
+    circuitBreaker.setAnnotations(getAppleFlowComponentLocationAnnotations());
+    circuitBreaker.setMessageProcessors(singletonList(targetMessageProcessor));
+    muleContext.getInjector().inject(circuitBreaker);
+  }
+
+  @After
+  public void doTeardown() throws Exception {
+    circuitBreaker.dispose();
+    super.doTearDown();
+  }
+
+  @Test
+  public void eventsShortCircuitedOnceOpen() throws Exception {
+    targetMessageProcessor.setNumberOfFailuresToSimulate(FAILURE_THRESHOLD);
+    circuitBreaker.initialise();
+    circuitBreaker.start();
+
+    failTimes(FAILURE_THRESHOLD);
+    assertThat(circuitBreaker.getStatistics().getState(), is(OPEN));
+
+    try {
+      circuitBreaker.process(testEvent());
+      fail("Event routed through an open circuit");
+    } catch (MessagingException e) {
+      assertThat(e.getCause(), instanceOf(CircuitBreakerOpenException.class));
+    }
+    assertThat(targetMessageProcessor.getEventCount(), is(FAILURE_THRESHOLD));
+    assertThat(circuitBreaker.getStatistics().getShortCircuitedEvents(), is(1L));
+  }
+
+  @Test
+  public void closedWhenTrialSucceeds() throws Exception {
+    targetMessageProcessor.setNumberOfFailuresToSimulate(FAILURE_THRESHOLD);
+    circuitBreaker.setOpenMillis(0);
+    circuitBreaker.initialise();
+    circuitBreaker.start();
+
+    failTimes(FAILURE_THRESHOLD);
+    assertThat(circuitBreaker.getStatistics().getState(), is(OPEN));
+
+    circuitBreaker.process(testEvent());
+    assertThat(targetMessageProcessor.getEventCount(), is(FAILURE_THRESHOLD + 1));
+    assertThat(circuitBreaker.getStatistics().getState(), is(CLOSED));
+  }
+
+  @Test
+  public void reopenedWhenTrialFails() throws Exception {
+    targetMessageProcessor.setNumberOfFailuresToSimulate(FAILURE_THRESHOLD + 1);
+    circuitBreaker.setOpenMillis(0);
+    circuitBreaker.initialise();
+    circuitBreaker.start();
+
+    failTimes(FAILURE_THRESHOLD + 1);
+    assertThat(circuitBreaker.getStatistics().getState(), is(OPEN));
+    assertThat(circuitBreaker.getStatistics().getTimesOpened(), is(2L));
+  }
+
+  private void failTimes(int times) throws Exception {
+    for (int i = 0; i < times; ++i) {
+      try {
+        circuitBreaker.process(testEvent());
+        fail("Event expected to fail");
+      } catch (MessagingException e) {
+        assertThat(e.getCause(), instanceOf(RuntimeException.class));
+      }
+    }
+  }
+}
@@ -16,6 +16,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItems;
@@ -60,6 +61,7 @@ import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.routing.ForeachInternalContextManager.ForeachInternalContext;
 import org.mule.runtime.core.internal.streaming.ManagedCursorProvider;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.event.PrivilegedEvent;
@@ -232,7 +234,11 @@ public class ForeachTestCase extends AbstractReactiveProcessorTestCase {
   public void mapPayload() throws Exception {
     expectedException.expect(IllegalArgumentException.class);
     expectedException.expectMessage(MAP_NOT_SUPPORTED_MESSAGE);
-    process(simpleForeach, eventBuilder(muleContext).message(of(singletonMap("foo", "bar"))).build());
+    try {
+      process(simpleForeach, eventBuilder(muleContext).message(of(singletonMap("foo", "bar"))).build());
+    } finally {
+      assertThat(processedEvents, hasSize(0));
+    }
   }
 
   @Test
@@ -477,6 +483,20 @@ public class ForeachTestCase extends AbstractReactiveProcessorTestCase {
     assertForEachContextConsumption((InternalEvent) processedEvents.get(1));
   }
 
+  @Test
+  public void foreachContextCopiesAreIndependent() throws Exception {
+    CoreEvent event = eventBuilder(muleContext).message(of("")).build();
+    ForeachInternalContext original = new ForeachInternalContext();
+    ForeachContext foreachContext = mock(ForeachContext.class);
+    original.put(event, foreachContext);
+
+    ForeachInternalContext copy = original.copy();
+    copy.remove(event);
+
+    assertThat(original.get(event), sameInstance(foreachContext));
+    assertThat(copy.get(event), is(nullValue()));
+  }
+
   @Test
   public void variables() throws Exception {
     List<String> arrayList = new ArrayList<>();
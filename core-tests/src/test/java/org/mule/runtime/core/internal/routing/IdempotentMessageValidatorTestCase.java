@@ -6,12 +6,18 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.Thread.sleep;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.junit.rules.ExpectedException.none;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.message.Message.of;
@@ -20,12 +26,15 @@ import org.mule.runtime.api.artifact.Registry;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.api.util.IOUtils;
 import org.mule.runtime.core.internal.el.ExpressionLanguageAdaptor;
 import org.mule.runtime.core.internal.el.dataweave.DataWeaveExpressionLanguageAdaptor;
 import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.store.AtomicObjectStore;
+import org.mule.runtime.core.internal.util.store.AbstractMonitoredObjectStore;
 import org.mule.tck.core.util.store.InMemoryObjectStore;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 import org.mule.weave.v2.el.ByteArrayBasedCursorStreamProvider;
@@ -228,5 +237,110 @@ public class IdempotentMessageValidatorTestCase extends AbstractMuleContextTestC
     assertThat(idempotent.getObjectStore(), is(notNullValue()));
   }
 
+  @Test
+  public void atomicObjectStoreIsAccessedOncePerMessage() throws Exception {
+    AtomicObjectStore<String> store = mock(AtomicObjectStore.class);
+    when(store.storeIfAbsent("1", "1")).thenReturn(true, false);
+    idempotent.setObjectStore(store);
+    idempotent.initialise();
+
+    CoreEvent event = eventWithCorrelationId("1");
+    assertThat(idempotent.process(event), sameInstance(event));
+    verify(store, never()).contains(anyString());
+    verify(store, never()).store(anyString(), anyString());
+
+    expected.expect(ValidationException.class);
+    idempotent.process(eventWithCorrelationId("1"));
+  }
+
+  @Test
+  public void frontCacheAvoidsObjectStoreLookups() throws Exception {
+    ObjectStore<String> store = mock(ObjectStore.class);
+    idempotent.setObjectStore(store);
+    idempotent.setFrontCacheMaxEntries(16);
+    idempotent.initialise();
+
+    // the id was never seen, so its presence is not checked
+    CoreEvent event = eventWithCorrelationId("1");
+    assertThat(idempotent.process(event), sameInstance(event));
+    verify(store, never()).contains(anyString());
+    verify(store).store("1", "1");
+
+    // the duplicate is rejected without accessing the store
+    try {
+      idempotent.process(eventWithCorrelationId("1"));
+      fail("Duplicate message was accepted");
+    } catch (ValidationException e) {
+      // expected
+    }
+    verify(store, never()).contains(anyString());
+    verify(store, times(1)).store(anyString(), anyString());
+  }
+
+  @Test
+  public void frontCacheDoesNotOutliveObjectStoreEntries() throws Exception {
+    AbstractMonitoredObjectStore<String> store = mock(AbstractMonitoredObjectStore.class);
+    when(store.getEntryTTL()).thenReturn(1);
+    when(store.getMaxEntries()).thenReturn(-1);
+    idempotent.setObjectStore(store);
+    idempotent.setFrontCacheMaxEntries(16);
+    idempotent.initialise();
+
+    assertThat(idempotent.process(eventWithCorrelationId("1")), is(notNullValue()));
+    sleep(20);
+
+    // the id expired from the store, so the redelivery is checked against it and accepted
+    CoreEvent redelivery = eventWithCorrelationId("1");
+    assertThat(idempotent.process(redelivery), sameInstance(redelivery));
+    verify(store).contains("1");
+    verify(store, times(2)).store("1", "1");
+  }
+
+  @Test
+  public void frontCacheNotUsedWithBoundedObjectStore() throws Exception {
+    AbstractMonitoredObjectStore<String> store = mock(AbstractMonitoredObjectStore.class);
+    when(store.getMaxEntries()).thenReturn(1);
+    idempotent.setObjectStore(store);
+    idempotent.setFrontCacheMaxEntries(16);
+    idempotent.initialise();
+
+    assertThat(idempotent.process(eventWithCorrelationId("1")), is(notNullValue()));
+
+    // the id may have been evicted from the store, so the redelivery is checked against it
+    CoreEvent redelivery = eventWithCorrelationId("1");
+    assertThat(idempotent.process(redelivery), sameInstance(redelivery));
+    verify(store, times(2)).contains("1");
+    verify(store, times(2)).store("1", "1");
+  }
+
+  @Test
+  public void overriddenNewMessageCheckIsUsed() throws Exception {
+    ObjectStore<String> store = mock(ObjectStore.class);
+    idempotent = new IdempotentMessageValidator() {
+
+      @Override
+      protected boolean isNewMessage(CoreEvent event, String id) {
+        return !"duplicate".equals(id);
+      }
+    };
+    idempotent.setStorePrefix("foo");
+    idempotent.setMuleContext(muleContext);
+    idempotent.setObjectStore(store);
+    idempotent.setFrontCacheMaxEntries(16);
+    idempotent.initialise();
+
+    CoreEvent event = eventWithCorrelationId("1");
+    assertThat(idempotent.process(event), sameInstance(event));
+
+    expected.expect(ValidationException.class);
+    idempotent.process(eventWithCorrelationId("duplicate"));
+  }
+
+  private CoreEvent eventWithCorrelationId(String correlationId) {
+    final BaseEventContext context = mock(BaseEventContext.class);
+    when(context.getCorrelationId()).thenReturn(correlationId);
+    return CoreEvent.builder(context).message(of("OK")).build();
+  }
+
 
 }
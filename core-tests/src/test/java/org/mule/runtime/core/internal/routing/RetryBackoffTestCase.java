@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Long.MAX_VALUE;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class RetryBackoffTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void constant() {
+    assertThat(RetryBackoff.CONSTANT.delayFor(100, 1), is(100L));
+    assertThat(RetryBackoff.CONSTANT.delayFor(100, 10), is(100L));
+  }
+
+  @Test
+  public void exponential() {
+    RetryBackoff backoff = new RetryBackoff(2, MAX_VALUE, 0);
+    assertThat(backoff.delayFor(100, 1), is(100L));
+    assertThat(backoff.delayFor(100, 2), is(200L));
+    assertThat(backoff.delayFor(100, 4), is(800L));
+  }
+
+  @Test
+  public void exponentialBoundedByMaxDelay() {
+    RetryBackoff backoff = new RetryBackoff(2, 500, 0);
+    assertThat(backoff.delayFor(100, 4), is(500L));
+    assertThat(backoff.delayFor(100, 1000), is(500L));
+  }
+
+  @Test
+  public void jitterWithinFactor() {
+    RetryBackoff backoff = new RetryBackoff(1, MAX_VALUE, 0.5);
+    for (int i = 0; i < 100; ++i) {
+      long delay = backoff.delayFor(1000, 1);
+      assertThat(delay, lessThanOrEqualTo(1000L));
+      assertThat(delay, greaterThanOrEqualTo(500L));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidJitterFactor() {
+    new RetryBackoff(1, MAX_VALUE, 2);
+  }
+}
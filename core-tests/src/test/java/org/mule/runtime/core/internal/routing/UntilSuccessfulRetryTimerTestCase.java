@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
+import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+public class UntilSuccessfulRetryTimerTestCase extends AbstractMuleContextTestCase {
+
+  private UntilSuccessfulRetryTimer retryTimer;
+
+  @Override
+  protected void doSetUp() throws Exception {
+    retryTimer = new UntilSuccessfulRetryTimer();
+    initialiseIfNeeded(retryTimer, true, muleContext);
+    startIfNeeded(retryTimer);
+  }
+
+  @Override
+  protected void doTearDown() throws MuleException {
+    retryTimer.stop();
+    retryTimer.dispose();
+  }
+
+  @Test
+  public void retryHandedOverOnceDue() throws Exception {
+    CountDownLatch retried = new CountDownLatch(1);
+
+    retryTimer.schedule(Runnable::run, retried::countDown, e -> {
+    }, 10);
+
+    assertThat(retried.await(5, SECONDS), is(true));
+  }
+
+  @Test
+  public void retryRejectedBySchedulerFailed() throws Exception {
+    CompletableFuture<Throwable> failure = new CompletableFuture<>();
+
+    retryTimer.schedule(task -> {
+      throw new RejectedExecutionException();
+    }, () -> {
+    }, failure::complete, 10);
+
+    assertThat(failure.get(5, SECONDS), instanceOf(RejectedExecutionException.class));
+  }
+
+  @Test
+  public void pendingRetryFailedOnStop() throws Exception {
+    CompletableFuture<Throwable> failure = new CompletableFuture<>();
+
+    retryTimer.schedule(Runnable::run, () -> {
+    }, failure::complete, 60000);
+    retryTimer.stop();
+
+    assertThat(failure.get(5, SECONDS), instanceOf(RejectedExecutionException.class));
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void retryRejectedOnceStopped() throws Exception {
+    retryTimer.stop();
+    retryTimer.schedule(Runnable::run, () -> {
+    }, e -> {
+    }, 10);
+  }
+}
@@ -37,6 +37,7 @@ import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.core.api.construct.Flow;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+import org.mule.runtime.core.api.management.stats.RetryStatistics;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
@@ -223,6 +224,44 @@ public class UntilSuccessfulTestCase extends AbstractMuleContextTestCase {
     assertEquals(targetMessageProcessor.getEventCount(), Integer.parseInt(untilSuccessful.getMaxRetries()) + 1);
   }
 
+  @Test
+  public void retryStatisticsOnRecovery() throws Exception {
+    targetMessageProcessor.setNumberOfFailuresToSimulate(Integer.parseInt(untilSuccessful.getMaxRetries()));
+    untilSuccessful.initialise();
+    untilSuccessful.start();
+
+    untilSuccessful.process(eventBuilder(muleContext).message(of("ERROR")).build());
+
+    RetryStatistics statistics = untilSuccessful.getRetryStatistics();
+    assertThat(statistics.getRetriesScheduled(), is(2L));
+    assertThat(statistics.getRetriesPending(), is(0L));
+    assertThat(statistics.getRecoveredEvents(), is(1L));
+    assertThat(statistics.getExhaustedEvents(), is(0L));
+    assertThat(statistics.getTotalRetryDelay(), is(2 * Long.parseLong(MILLIS_BETWEEN_RETRIES)));
+  }
+
+  @Test
+  public void retryStatisticsOnExhaustion() throws Exception {
+    targetMessageProcessor.setNumberOfFailuresToSimulate(Integer.MAX_VALUE);
+    untilSuccessful.setBackoffMultiplier(2);
+    untilSuccessful.initialise();
+    untilSuccessful.start();
+
+    try {
+      untilSuccessful.process(eventBuilder(muleContext).message(of("ERROR")).build());
+      fail("An exhaustion error was expected from an until successful scope");
+    } catch (MessagingException e) {
+      assertThat(e.getCause(), instanceOf(RetryPolicyExhaustedException.class));
+    }
+
+    RetryStatistics statistics = untilSuccessful.getRetryStatistics();
+    assertThat(statistics.getRetriesScheduled(), is(2L));
+    assertThat(statistics.getRecoveredEvents(), is(0L));
+    assertThat(statistics.getExhaustedEvents(), is(1L));
+    // the second retry waits twice as long as the first one
+    assertThat(statistics.getTotalRetryDelay(), is(3 * Long.parseLong(MILLIS_BETWEEN_RETRIES)));
+  }
+
   @Test
   public void testProcessingStrategyUsage() throws Exception {
     targetMessageProcessor.setNumberOfFailuresToSimulate(Integer.parseInt(untilSuccessful.getMaxRetries()));
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.ForkJoinStrategiesStory.STREAMING;
+
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Story;
+
+@Story(STREAMING)
+public class StreamingForkJoinStrategyTestCase extends AbstractForkJoinStrategyTestCase {
+
+  @Override
+  protected ForkJoinStrategy createStrategy(ProcessingStrategy processingStrategy, int concurrency, boolean delayErrors,
+                                            long timeout) {
+    return new StreamingForkJoinStrategyFactory(16, false).createForkJoinStrategy(processingStrategy, concurrency, delayErrors,
+                                                                                  timeout, scheduler, timeoutErrorType);
+  }
+
+  @Test
+  @Description("This strategy collects the results into a list, in the order of the routing pairs.")
+  public void collectList() throws Throwable {
+    CoreEvent original = testEvent();
+    Message route1Result = of(1);
+    Message route2Result = of(2);
+    Message route3Result = of(3);
+
+    RoutingPair pair1 = RoutingPair.of(original, createChain(new SleepingProcessor(route1Result, 100)));
+    RoutingPair pair2 = createRoutingPair(route2Result);
+    RoutingPair pair3 = createRoutingPair(route3Result);
+
+    CoreEvent result = invokeStrategyBlocking(strategy, original, asList(pair1, pair2, pair3));
+
+    assertThat(result.getMessage().getPayload().getValue(), instanceOf(List.class));
+    List<Message> resultList = (List<Message>) result.getMessage().getPayload().getValue();
+    assertThat(resultList, contains(route1Result, route2Result, route3Result));
+  }
+
+  @Test
+  @Description("When configured for completion order, a slow route doesn't hold the results of the routes that follow it.")
+  public void completionOrder() throws Throwable {
+    strategy = new StreamingForkJoinStrategyFactory(16, true).createForkJoinStrategy(processingStrategy, 16, true, 5000,
+                                                                                     scheduler, timeoutErrorType);
+    CoreEvent original = testEvent();
+    Message slowResult = of(1);
+    Message fastResult = of(2);
+
+    RoutingPair slowPair = RoutingPair.of(original, createChain(new SleepingProcessor(slowResult, 500)));
+    RoutingPair fastPair = createRoutingPair(fastResult);
+
+    CoreEvent result = invokeStrategyBlocking(strategy, original, asList(slowPair, fastPair));
+
+    List<Message> resultList = (List<Message>) result.getMessage().getPayload().getValue();
+    assertThat(resultList, contains(fastResult, slowResult));
+  }
+
+  @Test
+  @Description("When a reducer is provided, the results are aggregated into a single value instead of being collected.")
+  public void reduce() throws Throwable {
+    strategy = new StreamingForkJoinStrategyFactory(2, false, (accumulated, event) -> {
+      int current = accumulated.getValue() == null ? 0 : (Integer) accumulated.getValue();
+      return TypedValue.of(current + (Integer) event.getMessage().getPayload().getValue());
+    }).createForkJoinStrategy(processingStrategy, 16, true, 5000, scheduler, timeoutErrorType);
+
+    CoreEvent result = invokeStrategyBlocking(strategy, testEvent(),
+                                              asList(createRoutingPair(of(1)), createRoutingPair(of(2)),
+                                                     createRoutingPair(of(3)), createRoutingPair(of(4))));
+
+    assertThat(result.getMessage().getPayload().getValue(), is(10));
+  }
+
+  @Test
+  @Description("No more than maxInFlight routes are processed at the same time.")
+  public void maxInFlight() throws Throwable {
+    final int maxInFlight = 2;
+    strategy = new StreamingForkJoinStrategyFactory(maxInFlight, false).createForkJoinStrategy(processingStrategy, 16, true,
+                                                                                               5000, scheduler,
+                                                                                               timeoutErrorType);
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger maxObserved = new AtomicInteger();
+    CoreEvent original = testEvent();
+
+    RoutingPair[] pairs = new RoutingPair[8];
+    for (int i = 0; i < pairs.length; ++i) {
+      pairs[i] = RoutingPair.of(original, createChain(event -> {
+        maxObserved.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        inFlight.decrementAndGet();
+        return event;
+      }));
+    }
+
+    invokeStrategyBlocking(strategy, original, asList(pairs));
+
+    assertThat(maxObserved.get(), lessThanOrEqualTo(maxInFlight));
+  }
+
+  @Override
+  @Test
+  @Description("Variables from each route are not merged into the result, since that would require retaining all results.")
+  public void flowVarsMerged() throws Throwable {
+    final String beforeVarName = "before";
+    final String beforeVarValue = "beforeValue";
+    final String fooVarName = "foo";
+
+    CoreEvent original = builder(this.<CoreEvent>newEvent())
+        .addVariable(beforeVarName, beforeVarValue)
+        .build();
+
+    RoutingPair pair1 = RoutingPair.of(original, createChain(event -> builder(event)
+        .addVariable(beforeVarName, "beforeNewValue")
+        .addVariable(fooVarName, "fooValue")
+        .build()));
+
+    CoreEvent result = invokeStrategyBlocking(strategy, original, asList(pair1));
+
+    assertThat(result.getVariables().keySet(), hasSize(1));
+    assertThat(result.getVariables().keySet(), hasItems(beforeVarName));
+    assertThat(result.getVariables().keySet(), not(hasItems(fooVarName)));
+    assertThat(result.getVariables().get(beforeVarName).getValue(), equalTo(beforeVarValue));
+  }
+
+}
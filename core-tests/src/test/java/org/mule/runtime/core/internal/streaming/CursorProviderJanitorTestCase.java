@@ -58,6 +58,26 @@ public class CursorProviderJanitorTestCase extends AbstractMuleTestCase {
     verify(provider).releaseResources();
   }
 
+  @Test
+  public void releaseListenerNotifiedOnRelease() {
+    Runnable listener = mock(Runnable.class);
+    janitor.setReleaseListener(listener);
+    verify(listener, never()).run();
+
+    janitor.releaseResources();
+    janitor.releaseResources();
+    verify(listener).run();
+  }
+
+  @Test
+  public void releaseListenerSetAfterReleaseIsNotifiedRightAway() {
+    janitor.releaseResources();
+
+    Runnable listener = mock(Runnable.class);
+    janitor.setReleaseListener(listener);
+    verify(listener).run();
+  }
+
   @Test
   public void releaseSingleCursorOnOpenProvider() {
     when(provider.isClosed()).thenReturn(false);
@@ -12,9 +12,11 @@ import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.internal.streaming.IdentifiableCursorProviderDecorator.of;
+import static org.mule.runtime.core.internal.streaming.StreamingGhostBuster.IDLE_PROVIDER_TIMEOUT_PROPERTY;
 import static org.mule.tck.probe.PollingProber.DEFAULT_POLLING_INTERVAL;
 import static org.mule.tck.probe.PollingProber.check;
 import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
@@ -23,19 +25,27 @@ import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingSto
 import io.qameta.allure.Feature;
 import io.qameta.allure.Issue;
 import io.qameta.allure.Story;
+import org.junit.Rule;
 import org.junit.Test;
+import org.mule.runtime.api.component.location.ComponentLocation;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
 import org.mule.runtime.core.internal.streaming.bytes.ManagedCursorStreamProvider;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
 
 import java.lang.ref.WeakReference;
+import java.util.Optional;
 
 @Feature(STREAMING)
 @Story(STREAM_MANAGEMENT)
 public class StreamingGhostBusterTestCase extends AbstractMuleContextTestCase {
 
   private static final int GC_POLLING_TIMEOUT = 10000;
+  private static final String FLOW_NAME = "leakingFlow";
+
+  @Rule
+  public SystemProperty idleProviderTimeout = new SystemProperty(IDLE_PROVIDER_TIMEOUT_PROPERTY, "200");
 
   private StreamingGhostBuster ghostBuster;
 
@@ -72,4 +82,53 @@ public class StreamingGhostBusterTestCase extends AbstractMuleContextTestCase {
     });
   }
 
+  @Test
+  public void collectedProviderIsCountedAsLeakOfItsFlow() {
+    CursorStreamProvider provider = providerOfFlow(FLOW_NAME);
+    ManagedCursorStreamProvider managedCursorProvider =
+        new ManagedCursorStreamProvider(of(provider), mock(MutableStreamingStatistics.class));
+
+    WeakReference<ManagedCursorProvider> reference = ghostBuster.track(managedCursorProvider);
+
+    // Force GC collection
+    managedCursorProvider = null;
+
+    check(GC_POLLING_TIMEOUT, DEFAULT_POLLING_INTERVAL, () -> {
+      gc();
+      assertThat(reference.get(), is(nullValue()));
+      assertThat(ghostBuster.getLeakedProvidersPerFlow().get(FLOW_NAME), is(1L));
+      return true;
+    });
+  }
+
+  @Test
+  public void providerNotReleasedInTimeIsReportedAsIdle() {
+    ManagedCursorStreamProvider idle =
+        new ManagedCursorStreamProvider(of(providerOfFlow(FLOW_NAME)),
+                                        mock(MutableStreamingStatistics.class));
+    ManagedCursorStreamProvider released =
+        new ManagedCursorStreamProvider(of(providerOfFlow("releasingFlow")),
+                                        mock(MutableStreamingStatistics.class));
+
+    ghostBuster.track(idle);
+    ghostBuster.track(released);
+    released.releaseResources();
+
+    check(GC_POLLING_TIMEOUT, DEFAULT_POLLING_INTERVAL, () -> {
+      assertThat(ghostBuster.getIdleProvidersPerFlow().get(FLOW_NAME), is(1L));
+      return true;
+    });
+    assertThat(ghostBuster.getIdleProvidersPerFlow().containsKey("releasingFlow"), is(false));
+    // keep the idle provider reachable until verified
+    assertThat(idle.isClosed(), is(false));
+  }
+
+  private CursorStreamProvider providerOfFlow(String flowName) {
+    ComponentLocation location = mock(ComponentLocation.class);
+    when(location.getRootContainerName()).thenReturn(flowName);
+
+    CursorStreamProvider provider = mock(CursorStreamProvider.class);
+    when(provider.getOriginatingLocation()).thenReturn(Optional.of(location));
+    return provider;
+  }
 }
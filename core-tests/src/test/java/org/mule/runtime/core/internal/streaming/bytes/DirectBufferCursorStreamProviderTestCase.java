@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamProvider;
+import org.mule.tck.size.SmallTest;
+
+import java.io.InputStream;
+
+import io.qameta.allure.Feature;
+import org.junit.After;
+
+/**
+ * Runs the {@link CursorStreamProviderTestCase} scenarios with buffers allocated by a {@link DirectPoolingByteBufferManager}
+ */
+@SmallTest
+@Feature(STREAMING)
+public class DirectBufferCursorStreamProviderTestCase extends CursorStreamProviderTestCase {
+
+  private DirectPoolingByteBufferManager directBufferManager;
+
+  public DirectBufferCursorStreamProviderTestCase(String name, int dataSize, int bufferSize, int maxBufferSize) {
+    super(name, dataSize, bufferSize, maxBufferSize);
+  }
+
+  @Override
+  protected CursorStreamProvider createStreamProvider(int bufferSize, int maxBufferSize, InputStream dataStream) {
+    directBufferManager = new DirectPoolingByteBufferManager();
+    InMemoryCursorStreamConfig config =
+        new InMemoryCursorStreamConfig(new DataSize(bufferSize, BYTE),
+                                       new DataSize(bufferSize / 2, BYTE),
+                                       new DataSize(maxBufferSize, BYTE));
+
+    return new InMemoryCursorStreamProvider(dataStream, config, directBufferManager, from("log"), false);
+  }
+
+  @Override
+  @After
+  public void after() {
+    super.after();
+    directBufferManager.dispose();
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.util.DataUnit.KB;
+import static org.mule.runtime.core.internal.streaming.bytes.DirectPoolingByteBufferManager.MIN_CHUNK_SIZE;
+import static org.mule.runtime.core.internal.streaming.bytes.DirectPoolingByteBufferManager.sizeClassCapacity;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.tck.size.SmallTest;
+
+import java.nio.ByteBuffer;
+
+import io.qameta.allure.Feature;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+public class DirectPoolingByteBufferManagerTestCase extends MemoryBoundByteBufferManagerContractTestCase {
+
+  @Override
+  protected MemoryBoundByteBufferManager createDefaultBoundBuffer() {
+    return new DirectPoolingByteBufferManager();
+  }
+
+  @Override
+  protected MemoryBoundByteBufferManager createBuffer(MemoryManager memoryManager, int capacity) {
+    return new DirectPoolingByteBufferManager(memoryManager, capacity * 8, capacity, capacity);
+  }
+
+  @Test
+  public void sizeClasses() {
+    assertThat(sizeClassCapacity(1), is(MIN_CHUNK_SIZE));
+    assertThat(sizeClassCapacity(MIN_CHUNK_SIZE), is(MIN_CHUNK_SIZE));
+    assertThat(sizeClassCapacity(MIN_CHUNK_SIZE + 1), is(MIN_CHUNK_SIZE * 2));
+    assertThat(sizeClassCapacity(KB.toBytes(8)), is(KB.toBytes(8)));
+  }
+
+  @Test
+  public void pooledBuffersAreDirect() {
+    DirectPoolingByteBufferManager manager = newManager();
+    try {
+      ManagedByteBufferWrapper buffer = manager.allocateManaged(KB.toBytes(8));
+      assertThat(buffer.getDelegate().isDirect(), is(true));
+      buffer.release();
+    } finally {
+      manager.dispose();
+    }
+  }
+
+  @Test
+  public void oversizedBuffersAreNotPooled() {
+    DirectPoolingByteBufferManager manager = newManager();
+    try {
+      ManagedByteBufferWrapper buffer = manager.allocateManaged(KB.toBytes(64));
+      assertThat(buffer.getDelegate().isDirect(), is(false));
+      assertThat(buffer.getDelegate().capacity(), is(KB.toBytes(64)));
+      buffer.release();
+    } finally {
+      manager.dispose();
+    }
+  }
+
+  @Test
+  public void releasedChunkIsReusedCleared() {
+    DirectPoolingByteBufferManager manager = newManager();
+    try {
+      ManagedByteBufferWrapper buffer = manager.allocateManaged(100);
+      buffer.getDelegate().put((byte) 42);
+      buffer.release();
+
+      ByteBuffer reused = manager.allocateManaged(200).getDelegate();
+      assertThat(reused.position(), is(0));
+      assertThat(reused.capacity(), is(200));
+      assertThat(reused.get(0), is((byte) 42));
+    } finally {
+      manager.dispose();
+    }
+  }
+
+  @Test
+  public void doubleReleaseDoesNotShareChunk() {
+    DirectPoolingByteBufferManager manager = newManager();
+    try {
+      ManagedByteBufferWrapper buffer = manager.allocateManaged(100);
+      buffer.release();
+      buffer.release();
+
+      ByteBuffer first = manager.allocateManaged(100).getDelegate();
+      ByteBuffer second = manager.allocateManaged(100).getDelegate();
+      first.put(0, (byte) 1);
+      second.put(0, (byte) 2);
+      assertThat(first.get(0), is((byte) 1));
+    } finally {
+      manager.dispose();
+    }
+  }
+
+  @Test
+  public void buffersAllocatedOnceDisposedAreNotPooled() {
+    DirectPoolingByteBufferManager manager = newManager();
+    manager.allocateManaged(100).release();
+    manager.dispose();
+
+    ManagedByteBufferWrapper buffer = manager.allocateManaged(100);
+    assertThat(buffer.getDelegate().isDirect(), is(false));
+    assertThat(buffer.getDelegate().capacity(), is(100));
+    buffer.release();
+  }
+
+  private DirectPoolingByteBufferManager newManager() {
+    return new DirectPoolingByteBufferManager(new DefaultMemoryManager(), KB.toBytes(32), KB.toBytes(16), KB.toBytes(16));
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.runtime.core.internal.streaming.bytes.MappedFileStoreStreamBuffer.SEGMENT_SIZE_PROPERTY;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.api.util.DataSize;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+
+import io.qameta.allure.Feature;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Runs the {@link CursorStreamProviderTestCase} scenarios with a {@link MappedFileStoreCursorStreamProvider} which spills most of
+ * the data to disk
+ */
+@SmallTest
+@Feature(STREAMING)
+public class MappedFileStoreCursorStreamProviderTestCase extends CursorStreamProviderTestCase {
+
+  private static final int SEGMENT_SIZE = 64 * 1024;
+
+  @Rule
+  public SystemProperty segmentSize = new SystemProperty(SEGMENT_SIZE_PROPERTY, String.valueOf(SEGMENT_SIZE));
+
+  private ExecutorService writeExecutor;
+
+  public MappedFileStoreCursorStreamProviderTestCase(String name, int dataSize, int bufferSize, int maxBufferSize) {
+    super(name, dataSize, bufferSize, maxBufferSize);
+  }
+
+  @Override
+  protected CursorStreamProvider createStreamProvider(int bufferSize, int maxBufferSize, InputStream dataStream) {
+    writeExecutor = newSingleThreadExecutor();
+    return new MappedFileStoreCursorStreamProvider(dataStream, inMemoryUpTo(bufferSize / 8), bufferManager, writeExecutor,
+                                                   from("log"), false);
+  }
+
+  @Override
+  @After
+  public void after() {
+    super.after();
+    writeExecutor.shutdownNow();
+  }
+
+  @Test
+  public void spilledDataIsReadFromMappedFile() throws Exception {
+    FileStoreCursorStreamConfig config = inMemoryUpTo(data.length() / 8);
+    long inMemorySize = config.getMaxInMemorySize().toBytes();
+    MappedFileStoreStreamBuffer buffer = new MappedFileStoreStreamBuffer(new ByteArrayInputStream(data.getBytes()), config,
+                                                                         bufferManager, Runnable::run, SEGMENT_SIZE);
+
+    assertEquals(readFully(buffer), data);
+
+    File bufferFile = buffer.getBufferFile();
+    assertThat(bufferFile.exists(), is(true));
+    assertThat(buffer.getFlushedSize(), is(data.length() - inMemorySize));
+
+    assertThat(buffer.get(0, 10).isDirect(), is(false));
+    ByteBuffer spilled = buffer.get(inMemorySize, 10);
+    assertThat(spilled.isDirect(), is(true));
+    assertThat(spilled.isReadOnly(), is(true));
+
+    ByteBuffer tail = buffer.get(data.length() - 10, 10);
+    assertThat(tail.isDirect(), is(true));
+    assertEquals(toString(tail), data.substring(data.length() - 10));
+
+    buffer.close();
+    assertThat(bufferFile.exists(), is(false));
+  }
+
+  @Test
+  public void streamFittingInMemoryIsNotSpilled() throws Exception {
+    MappedFileStoreStreamBuffer buffer = new MappedFileStoreStreamBuffer(new ByteArrayInputStream(data.getBytes()),
+                                                                         inMemoryUpTo(data.length() * 2), bufferManager,
+                                                                         Runnable::run, SEGMENT_SIZE);
+    try {
+      assertEquals(readFully(buffer), data);
+      assertThat(buffer.getBufferFile(), is(nullValue()));
+    } finally {
+      buffer.close();
+    }
+  }
+
+  private String readFully(MappedFileStoreStreamBuffer buffer) throws Exception {
+    StringBuilder read = new StringBuilder();
+    ByteBuffer chunk;
+    while ((chunk = buffer.get(read.length(), SEGMENT_SIZE)) != null) {
+      read.append(toString(chunk));
+    }
+    return read.toString();
+  }
+
+  private FileStoreCursorStreamConfig inMemoryUpTo(int bytes) {
+    return new FileStoreCursorStreamConfig(new DataSize(bytes, BYTE));
+  }
+}
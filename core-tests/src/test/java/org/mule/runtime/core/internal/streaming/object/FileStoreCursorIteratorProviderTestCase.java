@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.dsl.api.component.config.DefaultComponentLocation.from;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.OBJECT_STREAMING;
+
+import org.mule.runtime.api.streaming.object.CursorIterator;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.util.List;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.Test;
+
+/**
+ * Runs the {@link CursorIteratorProviderTestCase} scenarios with a {@link FileStoreCursorIteratorProvider} which spills most of
+ * the items to disk
+ */
+@SmallTest
+@Feature(STREAMING)
+@Story(OBJECT_STREAMING)
+public class FileStoreCursorIteratorProviderTestCase extends CursorIteratorProviderTestCase {
+
+  private static final FileStoreCursorIteratorConfig CONFIG = new FileStoreCursorIteratorConfig(100, 20);
+
+  public FileStoreCursorIteratorProviderTestCase(String name, int dataSize, int initialBufferSize, int bufferSizeIncrement,
+                                                 int maxBufferSize) {
+    super(name, dataSize, initialBufferSize, bufferSizeIncrement, maxBufferSize);
+  }
+
+  @Override
+  protected CursorIteratorProvider createStreamProvider(List<Object> data) {
+    return new FileStoreCursorIteratorProvider(toStreamingIterator(data), CONFIG,
+                                               muleContext.getObjectSerializer().getInternalProtocol(), from("log"), false);
+  }
+
+  @Override
+  @Test
+  @Description("Go beyond the in memory capacity and expect the items to be spilled instead of failing")
+  public void bufferSizeExceeded() throws Exception {
+    data.add("I do fit");
+    CursorIteratorProvider provider = createStreamProvider(data);
+
+    try (CursorIterator cursor = provider.openCursor()) {
+      checkEquals(data, cursor);
+    } finally {
+      provider.close();
+      provider.releaseResources();
+    }
+  }
+
+  @Test
+  @Description("Spilled items are read back from the file with a bounded amount of buckets in memory")
+  public void spilledBucketsAreReadBackFromFile() throws Exception {
+    FileStoreObjectStreamBuffer<Object> buffer =
+        new FileStoreObjectStreamBuffer<>(toStreamingIterator(data), CONFIG,
+                                          muleContext.getObjectSerializer().getInternalProtocol());
+    buffer.initialise();
+
+    for (int i = 0; i < data.size(); i++) {
+      assertThat(buffer.getBucketFor(buffer.toPosition(i)).get(i % CONFIG.getBucketSize()).get(), is(data.get(i)));
+    }
+    assertThat(buffer.getInMemoryBucketsCount(), lessThanOrEqualTo(CONFIG.getMaxInMemoryBuckets()));
+
+    // first bucket was evicted a long time ago
+    for (int i = 0; i < CONFIG.getBucketSize(); i++) {
+      assertThat(buffer.getBucketFor(buffer.toPosition(i)).get(i).get(), is(data.get(i)));
+    }
+
+    File bufferFile = buffer.getBufferFile();
+    assertThat(bufferFile.exists(), is(true));
+
+    buffer.close();
+    assertThat(bufferFile.exists(), is(false));
+  }
+}
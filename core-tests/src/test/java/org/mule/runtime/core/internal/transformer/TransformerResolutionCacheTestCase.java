@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.core.api.transformer.Transformer;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SmallTest
+public class TransformerResolutionCacheTestCase extends AbstractMuleTestCase {
+
+  private final TransformerResolutionCache cache = new TransformerResolutionCache(10);
+  private final Transformer transformer = mock(Transformer.class);
+  private final AtomicInteger lookups = new AtomicInteger();
+
+  @Test
+  public void cachesResolvedTransformer() throws ResolverException {
+    assertThat(resolve(DataType.STRING, DataType.BYTE_ARRAY, transformer), is(sameInstance(transformer)));
+    assertThat(resolve(DataType.STRING, DataType.BYTE_ARRAY, transformer), is(sameInstance(transformer)));
+
+    assertThat(lookups.get(), is(1));
+    assertThat(cache.getStatistics().getMisses(), is(1L));
+    assertThat(cache.getStatistics().getHits(), is(1L));
+  }
+
+  @Test
+  public void cachesMissingTransformer() throws ResolverException {
+    assertThat(resolve(DataType.STRING, DataType.NUMBER, null), is(nullValue()));
+    assertThat(resolve(DataType.STRING, DataType.NUMBER, null), is(nullValue()));
+
+    assertThat(lookups.get(), is(1));
+    assertThat(cache.getStatistics().getNegativeHits(), is(1L));
+  }
+
+  @Test
+  public void distinguishesDataTypeOrder() throws ResolverException {
+    resolve(DataType.STRING, DataType.BYTE_ARRAY, transformer);
+    assertThat(resolve(DataType.BYTE_ARRAY, DataType.STRING, null), is(nullValue()));
+
+    assertThat(lookups.get(), is(2));
+  }
+
+  @Test
+  public void invalidateDiscardsResolutions() throws ResolverException {
+    resolve(DataType.STRING, DataType.NUMBER, null);
+    cache.invalidate();
+
+    assertThat(resolve(DataType.STRING, DataType.NUMBER, transformer), is(sameInstance(transformer)));
+    assertThat(lookups.get(), is(2));
+    assertThat(cache.getStatistics().getInvalidations(), is(1L));
+  }
+
+  @Test
+  public void resolutionConcurrentWithInvalidationIsDiscarded() throws ResolverException {
+    cache.resolve(DataType.STRING, DataType.NUMBER, (source, result) -> {
+      lookups.incrementAndGet();
+      // a transformer is registered while this resolution is being computed
+      cache.invalidate();
+      return null;
+    });
+
+    assertThat(resolve(DataType.STRING, DataType.NUMBER, transformer), is(sameInstance(transformer)));
+    assertThat(lookups.get(), is(2));
+  }
+
+  @Test
+  public void boundedSize() throws ResolverException {
+    DataType[] types = {DataType.STRING, DataType.NUMBER, DataType.BOOLEAN, DataType.OBJECT, DataType.BYTE_ARRAY};
+    for (DataType source : types) {
+      for (DataType result : types) {
+        resolve(source, result, null);
+      }
+    }
+
+    assertThat(cache.size() <= 10, is(true));
+  }
+
+  private Transformer resolve(DataType source, DataType result, Transformer resolved) throws ResolverException {
+    return cache.resolve(source, result, (s, r) -> {
+      lookups.incrementAndGet();
+      return resolved;
+    });
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.StreamingStory.STREAM_MANAGEMENT;
+
+import org.mule.runtime.core.internal.util.HashedWheelTimer.Timeout;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+@Story(STREAM_MANAGEMENT)
+public class HashedWheelTimerTestCase extends AbstractMuleTestCase {
+
+  private ExecutorService executor;
+  private HashedWheelTimer timer;
+
+  @Before
+  public void before() {
+    executor = newSingleThreadExecutor();
+    // small wheel, so that timeouts span several rounds
+    timer = new HashedWheelTimer("test-timer", 10, MILLISECONDS, 4);
+    timer.start(executor);
+  }
+
+  @After
+  public void after() {
+    timer.stop();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void timeoutExpiresAfterDelay() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    long start = System.nanoTime();
+
+    timer.newTimeout(latch::countDown, 100, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(System.nanoTime() - start, greaterThanOrEqualTo(MILLISECONDS.toNanos(100)));
+  }
+
+  @Test
+  public void cancelledTimeoutIsNotExecuted() throws Exception {
+    AtomicBoolean executed = new AtomicBoolean(false);
+    CountDownLatch latch = new CountDownLatch(1);
+
+    Timeout cancelled = timer.newTimeout(() -> executed.set(true), 50, MILLISECONDS);
+    cancelled.cancel();
+    timer.newTimeout(latch::countDown, 100, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+    assertThat(cancelled.isCancelled(), is(true));
+    assertThat(executed.get(), is(false));
+  }
+
+  @Test
+  public void stopReturnsUnexecutedTasks() {
+    Runnable pending = () -> {
+    };
+    Runnable cancelled = () -> {
+    };
+    timer.newTimeout(pending, 1, SECONDS);
+    timer.newTimeout(cancelled, 1, SECONDS).cancel();
+
+    assertThat(timer.stop(), contains(pending));
+  }
+
+  @Test
+  public void executorThreadReleasedOnceStopped() throws Exception {
+    timer.stop();
+
+    assertThat(executor.submit(() -> currentThread().isInterrupted()).get(5, SECONDS), is(false));
+  }
+
+  @Test
+  public void restartedAfterStopped() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+
+    timer.stop();
+    timer.start(executor);
+    timer.newTimeout(latch::countDown, 10, MILLISECONDS);
+
+    assertThat(latch.await(5, SECONDS), is(true));
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void newTimeoutRejectedBeforeStarted() {
+    new HashedWheelTimer("test-timer", 10, MILLISECONDS, 4).newTimeout(() -> {
+    }, 1, SECONDS);
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void newTimeoutRejectedOnceStopped() {
+    timer.stop();
+    timer.newTimeout(() -> {
+    }, 1, SECONDS);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.collection;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class OverlayCaseInsensitiveHashMapTestCase extends AbstractMuleTestCase {
+
+  private static final int SIZE = 10;
+
+  @Test
+  public void copyOfImmutableIsIndependent() {
+    CaseInsensitiveHashMap<String, Object> immutable = createMap().toImmutableCaseInsensitiveMap();
+
+    CaseInsensitiveHashMap<String, Object> copy = OverlayCaseInsensitiveHashMap.copyOf(immutable);
+    copy.put("KEY0", "changed");
+    copy.remove("key1");
+    copy.put("new", "newValue");
+
+    assertThat(copy.size(), is(SIZE));
+    assertThat(copy.get("key0"), is("changed"));
+    assertThat(copy.containsKey("KEY1"), is(false));
+    assertThat(copy.get("NEW"), is("newValue"));
+    assertThat(immutable.size(), is(SIZE));
+    assertThat(immutable.get("key0"), is("value0"));
+    assertThat(immutable.get("key1"), is("value1"));
+  }
+
+  @Test
+  public void copiesOfCopiesAreIndependent() {
+    CaseInsensitiveHashMap<String, Object> map = createMap();
+    for (int i = 0; i < SIZE; i++) {
+      CaseInsensitiveHashMap<String, Object> previous = map.toImmutableCaseInsensitiveMap();
+      map = OverlayCaseInsensitiveHashMap.copyOf(previous);
+      map.put("level" + i, i);
+
+      assertThat(previous.containsKey("level" + i), is(false));
+    }
+
+    assertThat(map.size(), is(SIZE * 2));
+    assertThat(map.get("LEVEL0"), is(0));
+  }
+
+  @Test
+  public void serializedAsRegularMap() {
+    CaseInsensitiveHashMap<String, Object> copy = OverlayCaseInsensitiveHashMap.copyOf(createMap()
+        .toImmutableCaseInsensitiveMap());
+    copy.put("new", "newValue");
+
+    CaseInsensitiveHashMap<String, Object> deserialized = SerializationUtils.deserialize(SerializationUtils.serialize(copy));
+
+    assertThat(deserialized, not(instanceOf(OverlayCaseInsensitiveHashMap.class)));
+    assertThat(deserialized.size(), is(SIZE + 1));
+    assertThat(deserialized.get("NEW"), is("newValue"));
+  }
+
+  private static CaseInsensitiveHashMap<String, Object> createMap() {
+    CaseInsensitiveHashMap<String, Object> map = OverlayCaseInsensitiveHashMap.copyOf(new CaseInsensitiveHashMap<>());
+    for (int i = 0; i < SIZE; i++) {
+      map.put("key" + i, "value" + i);
+    }
+    return map;
+  }
+}
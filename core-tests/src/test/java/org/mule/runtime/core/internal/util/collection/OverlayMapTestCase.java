@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.collection;
+
+import static java.lang.Math.max;
+import static java.lang.System.gc;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mule.tck.probe.PollingProber.DEFAULT_POLLING_INTERVAL;
+import static org.mule.tck.probe.PollingProber.check;
+
+import org.mule.runtime.api.util.CaseInsensitiveMapWrapper;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SuppressWarnings("unchecked")
+@SmallTest
+public class OverlayMapTestCase extends AbstractMuleTestCase {
+
+  private static final int BASE_SIZE = 10;
+
+  @Test
+  public void sharesBaseEntries() {
+    Map<String, Object> base = createBase(BASE_SIZE);
+    Map<String, Object> map = overlay(base);
+
+    assertThat(map, instanceOf(OverlayMap.class));
+    assertThat(map.size(), is(BASE_SIZE));
+    assertThat(map.get("key0"), is("value0"));
+    assertThat(map.containsKey("key9"), is(true));
+    assertThat(map, is(base));
+  }
+
+  @Test
+  public void changesDontAffectBase() {
+    Map<String, Object> base = createBase(BASE_SIZE);
+    Map<String, Object> map = overlay(base);
+
+    assertThat(map.put("key0", "changed"), is("value0"));
+    assertThat(map.put("new", "newValue"), is(nullValue()));
+    assertThat(map.remove("key1"), is("value1"));
+
+    assertThat(map.size(), is(BASE_SIZE));
+    assertThat(map.get("key0"), is("changed"));
+    assertThat(map.get("new"), is("newValue"));
+    assertThat(map.containsKey("key1"), is(false));
+
+    assertThat(base, is(createBase(BASE_SIZE)));
+  }
+
+  @Test
+  public void removeChangedBaseEntry() {
+    Map<String, Object> map = overlay(createBase(BASE_SIZE));
+
+    map.put("key0", "changed");
+    assertThat(map.remove("key0"), is("changed"));
+
+    assertThat(map.size(), is(BASE_SIZE - 1));
+    assertThat(map.get("key0"), is(nullValue()));
+    assertThat(map.remove("key0"), is(nullValue()));
+    assertThat(map.size(), is(BASE_SIZE - 1));
+  }
+
+  @Test
+  public void putRemovedBaseEntry() {
+    Map<String, Object> map = overlay(createBase(BASE_SIZE));
+
+    map.remove("key0");
+    assertThat(map.put("key0", "again"), is(nullValue()));
+
+    assertThat(map.size(), is(BASE_SIZE));
+    assertThat(map.get("key0"), is("again"));
+  }
+
+  @Test
+  public void removedBaseValueNotRetained() {
+    Map<String, Object> base = createBase(BASE_SIZE);
+    Object value = new Object();
+    base.put("removed", value);
+    WeakReference<Object> valueReference = new WeakReference<>(value);
+    Map<String, Object> map = overlay(base);
+
+    map.remove("removed");
+    base = null;
+    value = null;
+
+    assertThat(map.size(), is(BASE_SIZE));
+    assertThat(map, is(createBase(BASE_SIZE)));
+    check(10000, DEFAULT_POLLING_INTERVAL, () -> {
+      gc();
+      assertThat(valueReference.get(), is(nullValue()));
+      return true;
+    });
+  }
+
+  @Test
+  public void nullValues() {
+    Map<String, Object> map = overlay(createBase(BASE_SIZE));
+
+    map.put("key0", null);
+
+    assertThat(map.containsKey("key0"), is(true));
+    assertThat(map.get("key0"), is(nullValue()));
+  }
+
+  @Test
+  public void iteration() {
+    Map<String, Object> map = overlay(createBase(BASE_SIZE));
+
+    map.put("key0", "changed");
+    map.put("new", "newValue");
+    for (int i = 1; i < BASE_SIZE; i++) {
+      map.remove("key" + i);
+    }
+
+    assertThat(map.keySet(), contains("key0", "new"));
+    assertThat(map.values(), contains("changed", "newValue"));
+  }
+
+  @Test
+  public void clear() {
+    Map<String, Object> map = overlay(createBase(BASE_SIZE));
+    map.put("new", "newValue");
+
+    map.clear();
+
+    assertThat(map.isEmpty(), is(true));
+    assertThat(map.get("key0"), is(nullValue()));
+    assertThat(map.entrySet().iterator().hasNext(), is(false));
+  }
+
+  @Test
+  public void smallBaseIsCopied() {
+    Map<String, Object> base = createBase(3);
+    Map<String, Object> map = overlay(base);
+
+    assertThat(map, not(instanceOf(OverlayMap.class)));
+    assertThat(map, is(base));
+  }
+
+  @Test
+  public void depthIsBounded() {
+    Map<String, Object> map = createBase(BASE_SIZE);
+    int maxDepth = 0;
+    for (int i = 0; i < 10; i++) {
+      map = overlay(map);
+      map.put("level" + i, i);
+      if (map instanceof OverlayMap) {
+        maxDepth = max(maxDepth, ((OverlayMap<String, Object>) map).getDepth());
+      }
+    }
+
+    assertThat(maxDepth, is(4));
+    assertThat(map.size(), is(BASE_SIZE + 10));
+    assertThat(map.get("level0"), is(0));
+    assertThat(map.get("level9"), is(9));
+  }
+
+  @Test
+  public void caseInsensitiveKeys() {
+    Map<String, Object> base = new CaseInsensitiveMapWrapper<>();
+    base.putAll(createBase(BASE_SIZE));
+    Map<String, Object> map = OverlayMap.overlay(base, CaseInsensitiveMapWrapper::new, LinkedHashMap::new);
+
+    map.put("KEY0", "changed");
+    map.remove("KEY1");
+
+    assertThat(map.size(), is(BASE_SIZE - 1));
+    assertThat(map.get("key0"), is("changed"));
+    assertThat(map.containsKey("key1"), is(false));
+  }
+
+  @Test
+  public void serialization() {
+    Map<String, Object> map = overlay(createBase(BASE_SIZE));
+    map.put("new", "newValue");
+    map.remove("key0");
+
+    Map<String, Object> deserialized = SerializationUtils.deserialize(SerializationUtils.serialize((Serializable) map));
+
+    assertThat(deserialized, not(instanceOf(OverlayMap.class)));
+    assertThat(deserialized, is(map));
+  }
+
+  private static Map<String, Object> overlay(Map<String, Object> base) {
+    return OverlayMap.overlay(base, LinkedHashMap::new, LinkedHashMap::new);
+  }
+
+  private static Map<String, Object> createBase(int size) {
+    Map<String, Object> base = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      base.put("key" + i, "value" + i);
+    }
+    return base;
+  }
+}
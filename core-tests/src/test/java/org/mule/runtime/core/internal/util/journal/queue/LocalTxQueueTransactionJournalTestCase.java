@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.util.journal.queue;
 
 import static java.lang.Math.abs;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.core.Is.is;
@@ -23,8 +24,14 @@ import org.mule.runtime.core.internal.util.queue.DefaultQueueStore;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -228,6 +235,68 @@ public class LocalTxQueueTransactionJournalTestCase extends AbstractMuleContextT
     }
   }
 
+  @Test
+  public void rollFileWhileLongRunningTransactionIsPending() throws Exception {
+    LocalTxQueueTransactionJournal transactionJournal =
+        new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext, 1);
+    transactionJournal.logAdd(TX_ID, mockQueueInfo, TEST_PAYLOAD);
+    for (int i = 0; i < 20; i++) {
+      addSeveralEntriesToLogFile(transactionJournal);
+      File[] logFiles = temporaryFolder.getRoot().listFiles();
+      for (File logFile : logFiles) {
+        assertLogFileIsWithinBoundaries(logFile);
+      }
+      // the file with the pending transaction plus the current one, and the one just rolled at most
+      assertThat(logFiles.length, lessThan(4));
+    }
+    transactionJournal.close();
+
+    transactionJournal = new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext, 1);
+    assertThat(transactionJournal.getLogEntriesForTx(TX_ID).size(), is(1));
+    transactionJournal.logCommit(TX_ID);
+    assertThat(transactionJournal.getAllLogEntries().size(), is(0));
+  }
+
+  @Test
+  public void concurrentTransactionsAreAllLogged() throws Exception {
+    final int threads = 8;
+    final int txsPerThread = 50;
+    LocalTxQueueTransactionJournal transactionJournal =
+        new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+    ExecutorService executor = newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        final int thread = i;
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < txsPerThread; j++) {
+            int txId = thread * txsPerThread + j;
+            transactionJournal.logAdd(txId, mockQueueInfo, "add" + txId);
+            transactionJournal.logRemove(txId, mockQueueInfo, "remove" + txId);
+            if (txId % 2 == 0) {
+              transactionJournal.logCommit(txId);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    transactionJournal.close();
+
+    transactionJournal = new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+    Map<Integer, Collection<LocalQueueTxJournalEntry>> pendingTxs = new HashMap<>();
+    transactionJournal.forEachTransaction(pendingTxs::put);
+    assertThat(pendingTxs.size(), is(threads * txsPerThread / 2));
+    for (Map.Entry<Integer, Collection<LocalQueueTxJournalEntry>> pendingTx : pendingTxs.entrySet()) {
+      assertThat(pendingTx.getKey() % 2, is(1));
+      assertThat(pendingTx.getValue().size(), is(2));
+    }
+  }
+
   private void assertLogFileIsWithinBoundaries(File file) {
     assertThat(file.length(), lessThan(MAXIMUM_FILE_SIZE_EXPECTED));
   }
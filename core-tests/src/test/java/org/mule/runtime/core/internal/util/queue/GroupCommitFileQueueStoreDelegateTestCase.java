@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.scheduler.SchedulerConfig.config;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.SimpleUnitTestSupportSchedulerService;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class GroupCommitFileQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty maxLength =
+      new SystemProperty(DualRandomAccessFileQueueStoreDelegate.MAX_LENGTH_PER_FILE_PROPERTY_KEY, "512");
+
+  private SimpleUnitTestSupportSchedulerService schedulerService;
+  private MuleContext mockMuleContext;
+  private GroupCommitFileQueueStoreDelegate queueStore;
+
+  @Before
+  public void before() {
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    schedulerService = new SimpleUnitTestSupportSchedulerService();
+    when(mockMuleContext.getSchedulerService()).thenReturn(schedulerService);
+    when(mockMuleContext.getSchedulerBaseConfig()).thenReturn(config());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+    queueStore = createTestQueueStore(0);
+  }
+
+  @After
+  public void after() throws Exception {
+    queueStore.dispose();
+    schedulerService.stop();
+  }
+
+  @Test
+  public void fifoOrder() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      queueStore.putNow("value " + i);
+    }
+    assertThat(queueStore.getSize(), is(100));
+    for (int i = 0; i < 100; i++) {
+      assertThat(queueStore.poll(0), is("value " + i));
+    }
+    assertThat(queueStore.poll(0), is(nullValue()));
+  }
+
+  @Test
+  public void untakeGoesFirst() throws Exception {
+    queueStore.putNow("second");
+    queueStore.untake("first");
+    assertThat(queueStore.peek(), is("first"));
+    assertThat(queueStore.poll(0), is("first"));
+    assertThat(queueStore.poll(0), is("second"));
+  }
+
+  @Test
+  public void recoversPendingEntries() throws Exception {
+    queueStore.addAll(asList("a", "b", "c", "d"));
+    assertThat(queueStore.poll(0), is("a"));
+    queueStore.close();
+
+    queueStore = createTestQueueStore(0);
+    assertThat(queueStore.getSize(), is(3));
+    assertThat(queueStore.contains("c"), is(true));
+    queueStore.remove("c");
+    assertThat(queueStore.poll(0), is("b"));
+    assertThat(queueStore.poll(0), is("d"));
+  }
+
+  @Test
+  public void offerRespectsCapacity() throws Exception {
+    queueStore.dispose();
+    queueStore = createTestQueueStore(2);
+    assertThat(queueStore.offer("a", 0, 0), is(true));
+    assertThat(queueStore.offer("b", 0, 0), is(true));
+    assertThat(queueStore.offer("c", 0, 10), is(false));
+    queueStore.poll(0);
+    assertThat(queueStore.offer("c", 0, 0), is(true));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    queueStore.addAll(asList("a", "b"));
+    queueStore.clear();
+    assertThat(queueStore.getSize(), is(0));
+    queueStore.putNow("c");
+    assertThat(queueStore.poll(0), is("c"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void putFailsOnceClosed() throws Exception {
+    queueStore.putNow("a");
+    queueStore.close();
+    queueStore.putNow("b");
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void pollFailsOnceClosed() throws Exception {
+    queueStore.putNow("a");
+    queueStore.close();
+    queueStore.poll(0);
+  }
+
+  @Test
+  public void consumedSegmentsDeletedWhileWriting() throws Exception {
+    // every entry fills most of a segment, so each append seals the previous segment
+    String entry = new String(new char[300]).replace('\0', 'x');
+    for (int i = 0; i < 20; i++) {
+      queueStore.putNow(entry + i);
+      assertThat(queueStore.poll(0), is(entry + i));
+    }
+    queueStore.putNow("last");
+
+    File segmentsDirectory = new File(workingDirectory.getRoot(), "queuestore/" + TEST_QUEUE_NAME + "-segments");
+    assertThat(segmentsDirectory.listFiles().length <= 2, is(true));
+
+    queueStore.close();
+    queueStore = createTestQueueStore(0);
+    assertThat(queueStore.poll(0), is("last"));
+    assertThat(queueStore.poll(0), is(nullValue()));
+  }
+
+  @Test
+  public void concurrentProducers() throws Exception {
+    ExecutorService producers = newFixedThreadPool(4);
+    try {
+      for (int i = 0; i < 400; i++) {
+        final String value = "value " + i;
+        producers.submit(() -> queueStore.putNow(value));
+      }
+      Set<Serializable> polled = new HashSet<>();
+      while (polled.size() < 400) {
+        Serializable value = queueStore.poll(SECONDS.toMillis(5));
+        assertThat(value == null, is(false));
+        polled.add(value);
+      }
+    } finally {
+      producers.shutdownNow();
+    }
+  }
+
+  private GroupCommitFileQueueStoreDelegate createTestQueueStore(int capacity) {
+    return new GroupCommitFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(),
+                                                 mockMuleContext, capacity);
+  }
+}
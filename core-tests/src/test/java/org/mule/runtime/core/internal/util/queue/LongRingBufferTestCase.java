@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class LongRingBufferTestCase extends AbstractMuleTestCase {
+
+  private final LongRingBuffer ring = new LongRingBuffer(2);
+
+  @Test
+  public void growsKeepingOrder() {
+    ring.addLast(1);
+    ring.pollFirst();
+    for (long i = 0; i < 10; i++) {
+      ring.addLast(i);
+    }
+    ring.addFirst(-1);
+
+    assertThat(ring.size(), is(11));
+    for (long i = -1; i < 10; i++) {
+      assertThat(ring.pollFirst(), is(i));
+    }
+    assertThat(ring.isEmpty(), is(true));
+  }
+
+  @Test
+  public void removeAt() {
+    for (long i = 0; i < 5; i++) {
+      ring.addLast(i);
+    }
+
+    assertThat(ring.removeAt(2), is(2L));
+    assertThat(ring.size(), is(4));
+    assertThat(ring.get(2), is(3L));
+    assertThat(ring.get(3), is(4L));
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.MAX_SEGMENT_SIZE_PROPERTY;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.SEGMENT_FILE_EXTENSION;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.isLogStructuredPartition;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.config.MuleConfiguration;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY = "key";
+  private static final String VALUE = "value";
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  @Rule
+  public SystemProperty maxSegmentSize = new SystemProperty(MAX_SEGMENT_SIZE_PROPERTY, "1024");
+
+  private MuleContext muleContext = mockMuleContext();
+
+  @Mock
+  private MuleConfiguration muleConfiguration;
+
+  private LogStructuredObjectStorePartition<String> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    when(muleContext.getConfiguration()).thenReturn(muleConfiguration);
+    when(muleConfiguration.getWorkingDirectory()).thenReturn(objectStoreFolder.getRoot().getParentFile().getPath());
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot());
+    partition.open();
+  }
+
+  @Test
+  public void storeRetrieveAndRemove() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+    assertThat(partition.contains(KEY), is(true));
+    assertThat(partition.retrieve(KEY), is(VALUE));
+
+    assertThat(partition.remove(KEY), is(VALUE));
+    assertThat(partition.contains(KEY), is(false));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeSameKeyTwice() throws ObjectStoreException {
+    partition.store(KEY, VALUE);
+    partition.store(KEY, VALUE);
+  }
+
+  @Test
+  public void indicatesUnexistentKeyOnRetrieveError() throws ObjectStoreException {
+    try {
+      partition.retrieve(KEY);
+      fail("Supposed to thrown an exception as key is not valid");
+    } catch (ObjectDoesNotExistException e) {
+      assertTrue(e.getMessage().contains(KEY));
+    }
+  }
+
+  @Test
+  public void isDetectedAsLogStructured() {
+    assertThat(isLogStructuredPartition(objectStoreFolder.getRoot()), is(true));
+  }
+
+  @Test
+  public void recoversIndexOnReopen() throws Exception {
+    partition.store(KEY, VALUE);
+    partition.store("removed", VALUE);
+    partition.remove("removed");
+
+    LogStructuredObjectStorePartition<String> reopened = new LogStructuredObjectStorePartition<>(muleContext,
+                                                                                                 objectStoreFolder.getRoot());
+    reopened.open();
+
+    assertThat(reopened.getPartitionName(), is("test"));
+    assertThat(reopened.retrieve(KEY), is(VALUE));
+    assertThat(reopened.contains("removed"), is(false));
+  }
+
+  @Test
+  public void truncatesCorruptedTailOnRecovery() throws Exception {
+    partition.store(KEY, VALUE);
+
+    File segment = objectStoreFolder.getRoot()
+        .listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION))[0];
+    long validLength = segment.length();
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.seek(validLength);
+      file.write(new byte[] {0, 0, 1, 0, 42, 42});
+    }
+
+    LogStructuredObjectStorePartition<String> reopened = new LogStructuredObjectStorePartition<>(muleContext,
+                                                                                                 objectStoreFolder.getRoot());
+    reopened.open();
+
+    assertThat(reopened.retrieve(KEY), is(VALUE));
+    assertThat(segment.length(), is(validLength));
+
+    reopened.store("other", VALUE);
+    assertThat(reopened.retrieve("other"), is(VALUE));
+  }
+
+  @Test
+  public void compactsSegmentsWithoutLiveData() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      partition.store(KEY + i, VALUE);
+      partition.remove(KEY + i);
+    }
+    partition.store(KEY, VALUE);
+    partition.compact();
+
+    assertThat(partition.getSegmentsCount(), lessThan(3));
+    assertThat(partition.allKeys(), hasSize(1));
+    assertThat(partition.retrieve(KEY), is(VALUE));
+  }
+
+  @Test
+  public void tombstonesWithoutOlderValueDroppedOnCompaction() throws Exception {
+    storeUntilRolled("live");
+    storeAndRemoveUntilRolled("removed");
+    partition.compact();
+
+    // only the records of the last key, which may straddle the roll, are left in the active segment
+    assertThat(activeSegmentFile().length(), lessThan(256L));
+    assertThat(partition.getSegmentsCount(), is(2));
+  }
+
+  @Test
+  public void tombstoneOfOlderValueSurvivesCompaction() throws Exception {
+    partition.store(KEY, VALUE);
+    storeUntilRolled("live");
+    partition.remove(KEY);
+    storeAndRemoveUntilRolled("removed");
+    partition.compact();
+
+    LogStructuredObjectStorePartition<String> reopened = new LogStructuredObjectStorePartition<>(muleContext,
+                                                                                                 objectStoreFolder.getRoot());
+    reopened.open();
+
+    assertThat(reopened.contains(KEY), is(false));
+  }
+
+  @Test
+  public void expireMaxEntries() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      partition.store(KEY + i, VALUE);
+    }
+
+    partition.expire(0, 4);
+
+    assertThat(partition.allKeys(), hasSize(4));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    partition.store(KEY, VALUE);
+
+    partition.clear();
+    assertThat(partition.contains(KEY), is(false));
+    assertThat("Partition descriptor doesn't exists", new File(objectStoreFolder.getRoot(), "partition-descriptor").exists(),
+               is(true));
+
+    partition.store(KEY, VALUE);
+    assertThat(partition.retrieve(KEY), is(VALUE));
+  }
+
+  private void storeUntilRolled(String keyPrefix) throws ObjectStoreException {
+    File segment = activeSegmentFile();
+    for (int i = 0; activeSegmentFile().equals(segment); i++) {
+      partition.store(keyPrefix + i, VALUE);
+    }
+  }
+
+  private void storeAndRemoveUntilRolled(String keyPrefix) throws ObjectStoreException {
+    File segment = activeSegmentFile();
+    for (int i = 0; activeSegmentFile().equals(segment); i++) {
+      partition.store(keyPrefix + i, VALUE);
+      partition.remove(keyPrefix + i);
+    }
+  }
+
+  private File activeSegmentFile() {
+    File[] segments = objectStoreFolder.getRoot().listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION));
+    Arrays.sort(segments);
+    return segments[segments.length - 1];
+  }
+}
@@ -120,4 +120,22 @@ public class PartitionedInMemoryObjectStoreTestCase extends AbstractMuleTestCase
     verify(os, times(1)).disposePartition(TEST_PARTITION);
   }
 
+  @Test
+  public void storeIfAbsentDoesNotOverwrite() throws ObjectStoreException {
+    assertThat(store.storeIfAbsent(TEST_KEY1, TEST_VALUE, TEST_PARTITION), is(true));
+    assertThat(store.storeIfAbsent(TEST_KEY1, "otherValue", TEST_PARTITION), is(false));
+
+    assertThat(store.retrieve(TEST_KEY1, TEST_PARTITION), equalTo(TEST_VALUE));
+  }
+
+  @Test
+  public void keyStoredIfAbsentExpires() throws ObjectStoreException {
+    store.storeIfAbsent(TEST_KEY1, TEST_VALUE, TEST_PARTITION);
+
+    currentNanoTime = MILLISECONDS.toNanos(2);
+    store.expire(1, 100, TEST_PARTITION);
+
+    assertThat(store.contains(TEST_KEY1, TEST_PARTITION), is(false));
+  }
+
 }
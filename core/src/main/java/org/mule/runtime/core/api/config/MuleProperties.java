@@ -213,6 +213,7 @@ public class MuleProperties {
   public static final String OBJECT_POLICY_POINTCUT_FACTORY = "_mulePolicyPointcutFactory";
   public static final String OBJECT_STREAMING_MANAGER = "_muleStreamingManager";
   public static final String OBJECT_STREAMING_GHOST_BUSTER = "_muleStreamingGhostBuster";
+  public static final String OBJECT_UNTIL_SUCCESSFUL_RETRY_TIMER = "_muleUntilSuccessfulRetryTimer";
   public static final String OBJECT_REGISTRY = "_muleRegistry";
   public static final String OBJECT_TRANSFORMATION_SERVICE = "_muleTransformationService";
   public static final String OBJECT_COMPONENT_INITIAL_STATE_MANAGER = ComponentInitialStateManager.SERVICE_ID;
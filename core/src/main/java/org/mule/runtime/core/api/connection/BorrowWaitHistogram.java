@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.connection;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import org.mule.api.annotation.NoExtend;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of the time spent waiting to borrow a connection from a pool.
+ * <p>
+ * Wait times are accounted in microseconds, in buckets of power of two sizes: the bucket {@code i} accounts for the waits
+ * shorter than {@code 2^i} microseconds that don't fit in a previous bucket. The last bucket accounts for all the longer waits.
+ * Recording a wait is lock free.
+ *
+ * @since 4.4.0
+ */
+@NoExtend
+public class BorrowWaitHistogram {
+
+  /**
+   * The amount of buckets. The last one accounts for waits of more than about 17 minutes.
+   */
+  public static final int BUCKETS = 32;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong totalWaitMicros = new AtomicLong();
+
+  /**
+   * Accounts for a borrow that waited {@code waitNanos} for the connection.
+   *
+   * @param waitNanos the time waited, in nanoseconds.
+   */
+  public void record(long waitNanos) {
+    final long micros = NANOSECONDS.toMicros(waitNanos);
+    buckets.incrementAndGet(bucketFor(micros));
+    count.incrementAndGet();
+    totalWaitMicros.addAndGet(micros);
+  }
+
+  private static int bucketFor(long micros) {
+    if (micros <= 0) {
+      return 0;
+    }
+    return Integer.min(Long.SIZE - numberOfLeadingZeros(micros), BUCKETS - 1);
+  }
+
+  /**
+   * @param bucket the index of the bucket.
+   * @return the amount of borrows accounted in that bucket.
+   */
+  public long getBucketCount(int bucket) {
+    return buckets.get(bucket);
+  }
+
+  /**
+   * @param bucket the index of the bucket.
+   * @return the exclusive upper bound, in microseconds, of the waits accounted in that bucket.
+   */
+  public static long getBucketUpperBoundMicros(int bucket) {
+    return bucket == BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+  }
+
+  /**
+   * @return the amount of borrows accounted.
+   */
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * @return the mean wait, in microseconds.
+   */
+  public double getMeanMicros() {
+    final long total = count.get();
+    return total == 0 ? 0 : (double) totalWaitMicros.get() / total;
+  }
+
+  /**
+   * @param percentile between {@code 0} and {@code 100}.
+   * @return the upper bound, in microseconds, of the bucket the given percentile falls in.
+   */
+  public long getPercentileUpperBoundMicros(double percentile) {
+    checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+    final long target = (long) ceil(count.get() * percentile / 100);
+    long accumulated = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      accumulated += buckets.get(i);
+      if (accumulated >= target && accumulated > 0) {
+        return getBucketUpperBoundMicros(i);
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.connection;
+
+import org.mule.runtime.api.connection.PoolingListener;
+
+/**
+ * A {@link PoolingListener} that is also notified of the time spent waiting to borrow each connection from the pool.
+ *
+ * @param <C> the generic type of the pooled connections
+ * @since 4.4.0
+ */
+public interface BorrowWaitPoolingListener<C> extends PoolingListener<C> {
+
+  /**
+   * Invoked after a connection has been borrowed from the pool and {@link #onBorrow(Object)} has been called for it.
+   *
+   * @param waitNanos the time spent waiting for the connection, in nanoseconds.
+   * @param histogram the histogram of all the waits for connections of the pool, including this one.
+   */
+  void onBorrowWait(long waitNanos, BorrowWaitHistogram histogram);
+}
@@ -37,6 +37,9 @@ public class AllStatistics {
   private final ApplicationStatistics appStats;
   private final Map<String, FlowConstructStatistics> flowConstructStats = new HashMap<>();
   private final Map<String, PayloadStatistics> payloadStatistics = new ConcurrentHashMap<>();
+  private final Map<String, CircuitBreakerStatistics> circuitBreakerStatistics = new ConcurrentHashMap<>();
+  private final TransformerResolutionStatistics transformerResolutionStatistics = new TransformerResolutionStatistics();
+  private final LifecycleStatistics lifecycleStatistics = new LifecycleStatistics();
 
   /**
    *
@@ -46,12 +49,14 @@ public class AllStatistics {
     appStats = new ApplicationStatistics(this);
     appStats.setEnabled(isStatisticsEnabled);
     add(appStats);
+    transformerResolutionStatistics.setEnabled(isStatisticsEnabled);
   }
 
   public synchronized void clear() {
     for (FlowConstructStatistics statistics : getServiceStatistics()) {
       statistics.clear();
     }
+    transformerResolutionStatistics.clear();
     startTime = currentTimeMillis();
   }
 
@@ -71,6 +76,7 @@ public class AllStatistics {
     for (FlowConstructStatistics statistics : flowConstructStats.values()) {
       statistics.setEnabled(enable);
     }
+    transformerResolutionStatistics.setEnabled(enable);
 
     if (isPayloadStatisticsEnabled()) {
       enablePayloadStatistics(enable);
@@ -145,6 +151,39 @@ public class AllStatistics {
     return payloadStatistics.get(componentLocation);
   }
 
+  /**
+   * @return the available statistics for all circuit breakers.
+   * @since 4.4.0
+   */
+  public Collection<CircuitBreakerStatistics> getCircuitBreakerStatistics() {
+    return circuitBreakerStatistics.values();
+  }
+
+  /**
+   * @param name the name of the circuit breaker to get the statistics for.
+   * @return the statistics for the circuit breaker with the provided {@code name}.
+   * @since 4.4.0
+   */
+  public CircuitBreakerStatistics computeCircuitBreakerStatisticsIfAbsent(String name) {
+    return circuitBreakerStatistics.computeIfAbsent(name, CircuitBreakerStatistics::new);
+  }
+
+  /**
+   * @return the statistics of the cache of transformers resolved for implicit conversions.
+   * @since 4.4.0
+   */
+  public TransformerResolutionStatistics getTransformerResolutionStatistics() {
+    return transformerResolutionStatistics;
+  }
+
+  /**
+   * @return the time it took to apply each lifecycle phase to the objects of the artifact.
+   * @since 4.4.0
+   */
+  public LifecycleStatistics getLifecycleStatistics() {
+    return lifecycleStatistics;
+  }
+
   /**
    * @return whether the payload statistics are enabled
    * @since 4.4, 4.3.1
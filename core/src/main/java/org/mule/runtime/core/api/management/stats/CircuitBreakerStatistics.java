@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import org.mule.api.annotation.NoExtend;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contains statistics about a circuit breaker, which may be shared by several {@code circuit-breaker} scopes of an application.
+ *
+ * @since 4.4.0
+ */
+@NoExtend
+public class CircuitBreakerStatistics implements Statistics {
+
+  private static final long serialVersionUID = 6470263413839521466L;
+
+  /**
+   * The states a circuit breaker may be in.
+   */
+  public enum State {
+    /**
+     * Events are routed, and failures are accounted.
+     */
+    CLOSED,
+    /**
+     * Events are rejected without being routed.
+     */
+    OPEN,
+    /**
+     * A trial event is routed, to find out whether the circuit can be closed again.
+     */
+    HALF_OPEN
+  }
+
+  private final String name;
+
+  private final AtomicLong successfulEvents = new AtomicLong();
+  private final AtomicLong failedEvents = new AtomicLong();
+  private final AtomicLong shortCircuitedEvents = new AtomicLong();
+  private final AtomicLong timesOpened = new AtomicLong();
+  private volatile State state = State.CLOSED;
+
+  public CircuitBreakerStatistics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return the name of the circuit breaker these statistics are for.
+   */
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  public void incrementSuccessfulEvents() {
+    successfulEvents.incrementAndGet();
+  }
+
+  public void incrementFailedEvents() {
+    failedEvents.incrementAndGet();
+  }
+
+  public void incrementShortCircuitedEvents() {
+    shortCircuitedEvents.incrementAndGet();
+  }
+
+  /**
+   * @param state the state the circuit breaker just transitioned to.
+   */
+  public void stateChanged(State state) {
+    this.state = state;
+    if (state == State.OPEN) {
+      timesOpened.incrementAndGet();
+    }
+  }
+
+  /**
+   * @return the amount of events routed that did not fail with an error accounted by the circuit breaker.
+   */
+  public long getSuccessfulEvents() {
+    return successfulEvents.get();
+  }
+
+  /**
+   * @return the amount of events routed that failed with an error accounted by the circuit breaker.
+   */
+  public long getFailedEvents() {
+    return failedEvents.get();
+  }
+
+  /**
+   * @return the amount of events rejected without being routed because the circuit was open.
+   */
+  public long getShortCircuitedEvents() {
+    return shortCircuitedEvents.get();
+  }
+
+  /**
+   * @return the amount of times the circuit was opened.
+   */
+  public long getTimesOpened() {
+    return timesOpened.get();
+  }
+
+  /**
+   * @return the current state of the circuit breaker.
+   */
+  public State getState() {
+    return state;
+  }
+}
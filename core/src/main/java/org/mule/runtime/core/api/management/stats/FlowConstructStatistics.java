@@ -40,6 +40,23 @@ public interface FlowConstructStatistics extends Statistics {
    */
   default void incConnectionErrors() {}
 
+  /**
+   * Indicates that a source had to wait for the flow to have capacity before an event could be accepted.
+   *
+   * @param waitTimeNanos the time the source waited, in nanoseconds
+   * @since 4.4.0
+   */
+  default void addBackPressureWait(long waitTimeNanos) {}
+
+  /**
+   * Indicates that the adaptive limit of events the flow may process concurrently has been updated.
+   *
+   * @param limit                      the current limit
+   * @param roundTripTimeEstimateNanos the current estimate of the time to process an event, in nanoseconds
+   * @since 4.4.0
+   */
+  default void updateConcurrencyLimit(int limit, long roundTripTimeEstimateNanos) {}
+
   /**
    * Adds the execution time of a processed event
    */
@@ -100,4 +117,46 @@ public interface FlowConstructStatistics extends Statistics {
   default long getConnectionErrors() {
     return 0;
   }
+
+  /**
+   * @return the number of events that had to wait for the flow to have capacity before being accepted.
+   * @since 4.4.0
+   */
+  default long getBackPressureWaits() {
+    return 0;
+  }
+
+  /**
+   * @return the total time, in nanoseconds, sources waited for the flow to have capacity.
+   * @since 4.4.0
+   */
+  default long getTotalBackPressureWaitTime() {
+    return 0;
+  }
+
+  /**
+   * @return the maximum time, in nanoseconds, a source waited for the flow to have capacity for a single event.
+   * @since 4.4.0
+   */
+  default long getMaxBackPressureWaitTime() {
+    return 0;
+  }
+
+  /**
+   * @return the current adaptive limit of events the flow may process concurrently, or {@code -1} if its {@code maxConcurrency}
+   *         is not adaptive.
+   * @since 4.4.0
+   */
+  default int getConcurrencyLimit() {
+    return -1;
+  }
+
+  /**
+   * @return the current estimate, in nanoseconds, of the time to process an event used to adapt the concurrency limit, or
+   *         {@code 0} if its {@code maxConcurrency} is not adaptive.
+   * @since 4.4.0
+   */
+  default long getRoundTripTimeEstimate() {
+    return 0;
+  }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import static java.util.Collections.unmodifiableList;
+
+import org.mule.api.annotation.NoExtend;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contains the time it took to apply each lifecycle phase to the objects of an artifact.
+ * <p>
+ * If a phase is applied more than once, as when an artifact is stopped and started again, the last application is kept.
+ *
+ * @since 4.4.0
+ */
+@NoExtend
+public class LifecycleStatistics implements Statistics {
+
+  private static final long serialVersionUID = 2810264837154907543L;
+
+  private final List<PhaseTiming> phases = new ArrayList<>();
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  /**
+   * Records the application of a lifecycle phase.
+   *
+   * @param phaseName      the name of the phase
+   * @param objectCount    the amount of objects the phase was applied to
+   * @param durationMillis the time it took to apply the phase to all the objects
+   * @param parallel       whether the phase was applied to independent objects in parallel
+   */
+  public synchronized void phaseCompleted(String phaseName, int objectCount, long durationMillis, boolean parallel) {
+    phases.removeIf(phase -> phase.getPhaseName().equals(phaseName));
+    phases.add(new PhaseTiming(phaseName, objectCount, durationMillis, parallel));
+  }
+
+  /**
+   * @return the timings of the phases applied, in the order they completed.
+   */
+  public synchronized List<PhaseTiming> getPhaseTimings() {
+    return unmodifiableList(new ArrayList<>(phases));
+  }
+
+  /**
+   * The time it took to apply a lifecycle phase.
+   */
+  public static final class PhaseTiming {
+
+    private final String phaseName;
+    private final int objectCount;
+    private final long durationMillis;
+    private final boolean parallel;
+
+    private PhaseTiming(String phaseName, int objectCount, long durationMillis, boolean parallel) {
+      this.phaseName = phaseName;
+      this.objectCount = objectCount;
+      this.durationMillis = durationMillis;
+      this.parallel = parallel;
+    }
+
+    /**
+     * @return the name of the phase
+     */
+    public String getPhaseName() {
+      return phaseName;
+    }
+
+    /**
+     * @return the amount of objects the phase was applied to
+     */
+    public int getObjectCount() {
+      return objectCount;
+    }
+
+    /**
+     * @return the time it took to apply the phase to all the objects
+     */
+    public long getDurationMillis() {
+      return durationMillis;
+    }
+
+    /**
+     * @return whether the phase was applied to independent objects in parallel
+     */
+    public boolean isParallel() {
+      return parallel;
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import org.mule.api.annotation.NoExtend;
+import org.mule.runtime.api.component.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contains statistics about the retries performed by a component, such as {@code until-successful}.
+ *
+ * @since 4.4.0
+ */
+@NoExtend
+public class RetryStatistics implements Statistics {
+
+  private static final long serialVersionUID = -3390218264318734937L;
+
+  private final String componentLocation;
+
+  private final AtomicLong retriesScheduled = new AtomicLong();
+  private final AtomicLong retriesPending = new AtomicLong();
+  private final AtomicLong recoveredEvents = new AtomicLong();
+  private final AtomicLong exhaustedEvents = new AtomicLong();
+  private final AtomicLong totalRetryDelay = new AtomicLong();
+
+  public RetryStatistics(String componentLocation) {
+    this.componentLocation = componentLocation;
+  }
+
+  /**
+   * Ref: {@link Component#getLocation()}
+   *
+   * @return the location of the component this statistics are for. i.e: {@code flow/processors/2}
+   */
+  public String getComponentLocation() {
+    return componentLocation;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+
+  /**
+   * Accounts for a retry that has been scheduled to be performed after the given {@code delayMillis}.
+   *
+   * @param delayMillis the delay before performing the retry
+   */
+  public void addRetryScheduled(long delayMillis) {
+    retriesScheduled.incrementAndGet();
+    retriesPending.incrementAndGet();
+    totalRetryDelay.addAndGet(delayMillis);
+  }
+
+  /**
+   * Accounts for a scheduled retry that is being performed.
+   */
+  public void retryPerformed() {
+    retriesPending.decrementAndGet();
+  }
+
+  /**
+   * Accounts for a scheduled retry that could not be performed, failing the retried event.
+   */
+  public void retryAborted() {
+    retriesPending.decrementAndGet();
+  }
+
+  /**
+   * Accounts for an event that was successfully processed after having been retried at least once.
+   */
+  public void incrementRecoveredEvents() {
+    recoveredEvents.incrementAndGet();
+  }
+
+  /**
+   * Accounts for an event that exhausted its retries.
+   */
+  public void incrementExhaustedEvents() {
+    exhaustedEvents.incrementAndGet();
+  }
+
+  /**
+   * @return the total amount of retries scheduled.
+   */
+  public long getRetriesScheduled() {
+    return retriesScheduled.get();
+  }
+
+  /**
+   * @return the amount of retries currently waiting for their delay to elapse.
+   */
+  public long getRetriesPending() {
+    return retriesPending.get();
+  }
+
+  /**
+   * @return the amount of events that were successfully processed after having been retried at least once.
+   */
+  public long getRecoveredEvents() {
+    return recoveredEvents.get();
+  }
+
+  /**
+   * @return the amount of events that exhausted their retries.
+   */
+  public long getExhaustedEvents() {
+    return exhaustedEvents.get();
+  }
+
+  /**
+   * @return the sum of the delays of all the retries scheduled, in milliseconds.
+   */
+  public long getTotalRetryDelay() {
+    return totalRetryDelay.get();
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import org.mule.api.annotation.NoExtend;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contains statistics about the cache of transformers resolved for a pair of source and result
+ * {@link org.mule.runtime.api.metadata.DataType}s, used for implicit conversions.
+ *
+ * @since 4.4.0
+ */
+@NoExtend
+public class TransformerResolutionStatistics implements Statistics {
+
+  private static final long serialVersionUID = -2395470931745208329L;
+
+  private volatile boolean enabled = false;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder negativeHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Indicates that a resolution was served from the cache with a transformer.
+   */
+  public void incHits() {
+    if (enabled) {
+      hits.increment();
+    }
+  }
+
+  /**
+   * Indicates that a resolution was served from the cache, which remembered that there is no transformer for the pair.
+   */
+  public void incNegativeHits() {
+    if (enabled) {
+      negativeHits.increment();
+    }
+  }
+
+  /**
+   * Indicates that a resolution was not cached and had to be computed.
+   */
+  public void incMisses() {
+    if (enabled) {
+      misses.increment();
+    }
+  }
+
+  /**
+   * Indicates that the cache was invalidated because the registered transformers changed.
+   */
+  public void incInvalidations() {
+    if (enabled) {
+      invalidations.increment();
+    }
+  }
+
+  /**
+   * @return the number of resolutions served from the cache with a transformer.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of resolutions served from the cache without a transformer.
+   */
+  public long getNegativeHits() {
+    return negativeHits.sum();
+  }
+
+  /**
+   * @return the number of resolutions that had to be computed.
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the number of times the cache was invalidated.
+   */
+  public long getInvalidations() {
+    return invalidations.sum();
+  }
+
+  /**
+   * Resets all the statistic state
+   */
+  public void clear() {
+    hits.reset();
+    negativeHits.reset();
+    misses.reset();
+    invalidations.reset();
+  }
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.System.identityHashCode;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool.BaseObjectPool;
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.slf4j.Logger;
+
+/**
+ * An {@link org.apache.commons.pool.ObjectPool} that doesn't take any lock to borrow or return objects.
+ * <p>
+ * Each pooled object is held in an entry whose state is changed with atomic operations, so that borrowing an idle object is just
+ * a matter of winning the race for its entry:
+ * <ul>
+ * <li>Each thread first tries to borrow the objects it has returned before, which are likely to be idle and not contended by
+ * other threads.</li>
+ * <li>Then, it tries the rest of the idle objects.</li>
+ * <li>If there are no idle objects, a new one is created if {@code maxActive} allows it. Otherwise, the exhausted action of the
+ * {@link PoolingProfile} is applied, and the thread may wait for an object to be handed off by another thread returning it.</li>
+ * </ul>
+ * As {@link org.apache.commons.pool.impl.GenericObjectPool} does, borrowed objects are activated and returned ones are
+ * passivated. Objects are not validated when borrowed, so that borrowing never waits for a validation. Instead, when an eviction
+ * interval is configured, idle objects are evicted and validated on a background thread, and the ones no longer valid are
+ * destroyed.
+ * <p>
+ * A {@code maxWait} lower than or equal to zero makes threads wait for an object indefinitely.
+ *
+ * @param <T> the generic type of the pooled objects
+ * @since 4.4.0
+ */
+final class ConcurrentBagObjectPool<T> extends BaseObjectPool<T> {
+
+  private static final Logger LOGGER = getLogger(ConcurrentBagObjectPool.class);
+
+  private static final int IDLE = 0;
+  private static final int IN_USE = 1;
+  private static final int RESERVED = 2;
+  private static final int REMOVED = 3;
+
+  private static final int MAX_THREAD_ENTRIES = 16;
+
+  private final PoolableObjectFactory<T> factory;
+  private final int maxActive;
+  private final int maxIdle;
+  private final long maxWaitNanos;
+  private final boolean waitForever;
+  private final int exhaustedAction;
+  private final long minEvictionNanos;
+
+  private final CopyOnWriteArrayList<Entry<T>> entries = new CopyOnWriteArrayList<>();
+  // the entry of each pooled object, so that returning an object doesn't need to go through all the entries
+  private final ConcurrentHashMap<IdentityKey, Entry<T>> entriesByObject = new ConcurrentHashMap<>();
+  // weakly referenced, so that the threads outliving the pool don't keep its objects (or their classes) reachable
+  private final ThreadLocal<List<WeakReference<Entry<T>>>> threadEntries = ThreadLocal.withInitial(ArrayList::new);
+  private final SynchronousQueue<Entry<T>> handoffQueue = new SynchronousQueue<>(true);
+  private final AtomicInteger total = new AtomicInteger();
+  private final AtomicInteger idle = new AtomicInteger();
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  private final Scheduler evictionScheduler;
+  private ScheduledFuture<?> evictionTask;
+
+  /**
+   * Creates a new instance
+   *
+   * @param factory           the factory for the pooled objects
+   * @param poolingProfile    the configuration of the pool
+   * @param evictionScheduler the scheduler on which to run eviction and validation of idle objects, which is stopped when the
+   *                          pool is closed. May be {@code null} if the {@code poolingProfile} doesn't set an eviction interval.
+   */
+  ConcurrentBagObjectPool(PoolableObjectFactory<T> factory, PoolingProfile poolingProfile, Scheduler evictionScheduler) {
+    this.factory = factory;
+    this.maxActive = poolingProfile.getMaxActive();
+    this.maxIdle = poolingProfile.getMaxIdle();
+    this.maxWaitNanos = MILLISECONDS.toNanos(poolingProfile.getMaxWait());
+    this.waitForever = poolingProfile.getMaxWait() <= 0;
+    this.exhaustedAction = poolingProfile.getExhaustedAction();
+    this.minEvictionNanos = MILLISECONDS.toNanos(poolingProfile.getMinEvictionMillis());
+    this.evictionScheduler = evictionScheduler;
+
+    final long evictionInterval = poolingProfile.getEvictionCheckIntervalMillis();
+    if (evictionScheduler != null && evictionInterval > 0) {
+      evictionTask = evictionScheduler.scheduleWithFixedDelay(this::evict, evictionInterval, evictionInterval, MILLISECONDS);
+    }
+  }
+
+  @Override
+  public T borrowObject() throws Exception {
+    assertOpen();
+
+    while (true) {
+      Entry<T> entry = borrowIdle();
+      if (entry == null) {
+        if (reserveSlot(exhaustedAction == WHEN_EXHAUSTED_GROW)) {
+          entry = create(IN_USE);
+        } else if (exhaustedAction == WHEN_EXHAUSTED_FAIL) {
+          throw new NoSuchElementException("Pool exhausted");
+        } else {
+          entry = awaitHandoff();
+        }
+      }
+
+      if (activate(entry)) {
+        return entry.object;
+      }
+    }
+  }
+
+  /**
+   * Activates a borrowed object.
+   *
+   * @return whether the object can be handed to the borrower. If not, it was destroyed.
+   * @throws Exception if a new object could not be activated
+   */
+  private boolean activate(Entry<T> entry) throws Exception {
+    final boolean reused = entry.borrowed;
+    entry.borrowed = true;
+    try {
+      factory.activateObject(entry.object);
+      return true;
+    } catch (Exception e) {
+      destroyQuietly(entry, IN_USE);
+      if (!reused) {
+        throw e;
+      }
+      LOGGER.debug("Exception activating pooled object. It was destroyed", e);
+      return false;
+    }
+  }
+
+  private Entry<T> borrowIdle() {
+    final List<WeakReference<Entry<T>>> local = threadEntries.get();
+    for (int i = local.size() - 1; i >= 0; --i) {
+      Entry<T> entry = local.get(i).get();
+      if (entry == null || entry.get() == REMOVED) {
+        local.remove(i);
+      } else if (entry.compareAndSet(IDLE, IN_USE)) {
+        idle.decrementAndGet();
+        return entry;
+      }
+    }
+
+    for (Entry<T> entry : entries) {
+      if (entry.compareAndSet(IDLE, IN_USE)) {
+        idle.decrementAndGet();
+        return entry;
+      }
+    }
+
+    return null;
+  }
+
+  private Entry<T> awaitHandoff() throws Exception {
+    final long deadline = nanoTime() + maxWaitNanos;
+    waiters.incrementAndGet();
+    try {
+      long remaining = waitForever ? Long.MAX_VALUE : deadline - nanoTime();
+      while (remaining > 0) {
+        // recheck periodically, in case an object was returned or removed before this thread started waiting
+        Entry<T> entry = handoffQueue.poll(Long.min(remaining, MILLISECONDS.toNanos(10)), NANOSECONDS);
+        if (entry == null) {
+          entry = borrowIdle();
+          if (entry == null && reserveSlot(false)) {
+            entry = create(IN_USE);
+          }
+        } else if (entry.compareAndSet(IDLE, IN_USE)) {
+          idle.decrementAndGet();
+        } else {
+          entry = null;
+        }
+
+        if (entry != null) {
+          return entry;
+        }
+        assertOpen();
+        if (!waitForever) {
+          remaining = deadline - nanoTime();
+        }
+      }
+    } finally {
+      waiters.decrementAndGet();
+    }
+
+    throw new NoSuchElementException("Timeout waiting for idle object");
+  }
+
+  private boolean reserveSlot(boolean grow) {
+    if (grow || maxActive < 0) {
+      total.incrementAndGet();
+      return true;
+    }
+
+    int current;
+    do {
+      current = total.get();
+      if (current >= maxActive) {
+        return false;
+      }
+    } while (!total.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private Entry<T> create(int state) throws Exception {
+    final T object;
+    try {
+      object = factory.makeObject();
+    } catch (Exception e) {
+      total.decrementAndGet();
+      throw e;
+    }
+
+    Entry<T> entry = new Entry<>(object, state);
+    if (state == IDLE) {
+      idle.incrementAndGet();
+    }
+    entriesByObject.put(new IdentityKey(object), entry);
+    entries.add(entry);
+    return entry;
+  }
+
+  @Override
+  public void returnObject(T object) throws Exception {
+    final Entry<T> entry = find(object);
+    if (entry == null || entry.get() != IN_USE) {
+      return;
+    }
+
+    if (isClosed() || (maxIdle >= 0 && idle.get() >= maxIdle && waiters.get() == 0)) {
+      destroy(entry, IN_USE);
+      return;
+    }
+
+    try {
+      factory.passivateObject(object);
+    } catch (Exception e) {
+      LOGGER.debug("Exception passivating pooled object. It will be destroyed", e);
+      destroy(entry, IN_USE);
+      return;
+    }
+
+    entry.lastReturned = nanoTime();
+    makeIdle(entry, IN_USE);
+
+    final List<WeakReference<Entry<T>>> local = threadEntries.get();
+    for (WeakReference<Entry<T>> reference : local) {
+      if (reference.get() == entry) {
+        return;
+      }
+    }
+    if (local.size() >= MAX_THREAD_ENTRIES) {
+      local.remove(0);
+    }
+    local.add(new WeakReference<>(entry));
+  }
+
+  private void makeIdle(Entry<T> entry, int from) {
+    if (entry.compareAndSet(from, IDLE)) {
+      idle.incrementAndGet();
+      // hand it to a thread waiting on the queue, if any. Waiters not polling it at this moment will find it when rechecking.
+      if (waiters.get() > 0) {
+        handoffQueue.offer(entry);
+      }
+    }
+  }
+
+  @Override
+  public void invalidateObject(T object) throws Exception {
+    final Entry<T> entry = find(object);
+    if (entry != null) {
+      destroy(entry, IN_USE);
+    }
+  }
+
+  private Entry<T> find(T object) {
+    return entriesByObject.get(new IdentityKey(object));
+  }
+
+  private void destroy(Entry<T> entry, int from) throws Exception {
+    if (!entry.compareAndSet(from, REMOVED)) {
+      return;
+    }
+    entries.remove(entry);
+    entriesByObject.remove(new IdentityKey(entry.object), entry);
+    total.decrementAndGet();
+    factory.destroyObject(entry.object);
+  }
+
+  @Override
+  public void addObject() throws Exception {
+    assertOpen();
+    reserveSlot(true);
+    create(IDLE);
+  }
+
+  @Override
+  public int getNumIdle() {
+    return idle.get();
+  }
+
+  @Override
+  public int getNumActive() {
+    return total.get() - idle.get();
+  }
+
+  @Override
+  public void clear() throws Exception {
+    for (Entry<T> entry : entries) {
+      if (entry.compareAndSet(IDLE, RESERVED)) {
+        idle.decrementAndGet();
+        destroyQuietly(entry, RESERVED);
+      }
+    }
+  }
+
+  /**
+   * Closes the pool, destroying the idle objects. Objects still borrowed are destroyed when returned.
+   */
+  @Override
+  public void close() throws Exception {
+    super.close();
+    if (evictionTask != null) {
+      evictionTask.cancel(false);
+    }
+    if (evictionScheduler != null) {
+      evictionScheduler.stop();
+    }
+    clear();
+    threadEntries.remove();
+  }
+
+  /**
+   * Destroys the idle objects that have been idle for longer than the minimum eviction time, and the ones that are no longer
+   * valid.
+   */
+  void evict() {
+    final long now = nanoTime();
+    for (Entry<T> entry : entries) {
+      if (!entry.compareAndSet(IDLE, RESERVED)) {
+        continue;
+      }
+      idle.decrementAndGet();
+
+      boolean keep;
+      if (minEvictionNanos > 0 && now - entry.lastReturned >= minEvictionNanos) {
+        keep = false;
+      } else {
+        try {
+          keep = factory.validateObject(entry.object);
+        } catch (Exception e) {
+          LOGGER.debug("Exception validating pooled object. It will be destroyed", e);
+          keep = false;
+        }
+      }
+
+      if (keep) {
+        makeIdle(entry, RESERVED);
+      } else {
+        destroyQuietly(entry, RESERVED);
+      }
+    }
+  }
+
+  private void destroyQuietly(Entry<T> entry, int from) {
+    try {
+      destroy(entry, from);
+    } catch (Exception e) {
+      LOGGER.warn("Exception destroying pooled object of type " + entry.object.getClass().getName(), e);
+    }
+  }
+
+  /**
+   * Compares the pooled objects by identity, since their {@code equals} may not be reliable.
+   */
+  private static final class IdentityKey {
+
+    private final Object object;
+
+    private IdentityKey(Object object) {
+      this.object = object;
+    }
+
+    @Override
+    public int hashCode() {
+      return identityHashCode(object);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof IdentityKey && ((IdentityKey) other).object == object;
+    }
+  }
+
+  private static final class Entry<T> extends AtomicInteger {
+
+    private static final long serialVersionUID = 1L;
+
+    private final T object;
+    private volatile long lastReturned = nanoTime();
+    // only accessed by the thread that borrowed the entry
+    private boolean borrowed;
+
+    private Entry(T object, int state) {
+      super(state);
+      this.object = object;
+    }
+  }
+}
@@ -6,9 +6,11 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.lang.Boolean.getBoolean;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.CACHED;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.NONE;
 import static org.mule.runtime.api.meta.model.connection.ConnectionManagementType.POOLING;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.connection.util.ConnectionProviderUtils.unwrapProviderWrapper;
 
 import org.mule.runtime.api.config.PoolingProfile;
@@ -21,11 +23,21 @@ import org.mule.runtime.api.meta.model.connection.ConnectionManagementType;
 
 /**
  * Creates instances of {@link ConnectionManagementStrategy}
+ * <p>
+ * Pooled connections are held in a lock free {@link ConcurrentBagObjectPool} instead of a commons-pool one when the
+ * {@link #CONCURRENT_BAG_POOL_PROPERTY} system property is set.
  *
  * @since 4.0
  */
 final class ConnectionManagementStrategyFactory {
 
+  /**
+   * System property to use a {@link ConcurrentBagObjectPool} for pooled connections.
+   *
+   * @since 4.4.0
+   */
+  static final String CONCURRENT_BAG_POOL_PROPERTY = SYSTEM_PROPERTY_PREFIX + "connection.pool.concurrentBag";
+
   private final PoolingProfile defaultPoolingProfile;
   private final MuleContext muleContext;
 
@@ -79,7 +91,7 @@ final class ConnectionManagementStrategyFactory {
         : new PoolingConnectionManagementStrategy<>(connectionProvider, poolingProfile,
                                                     (PoolingListener<C>) unwrapProviderWrapper(connectionProvider,
                                                                                                PoolingConnectionProvider.class),
-                                                    muleContext);
+                                                    muleContext, getBoolean(CONCURRENT_BAG_POOL_PROPERTY));
   }
 
   private <C> ConnectionManagementType getManagementType(ConnectionProvider<C> connectionProvider) {
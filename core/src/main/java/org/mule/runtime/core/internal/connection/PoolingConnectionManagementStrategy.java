@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.connection;
 
 import static java.lang.Integer.min;
+import static java.lang.System.nanoTime;
 import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ALL;
 import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
 import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ONE;
@@ -15,13 +16,17 @@ import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.connection.ConnectionProvider;
+import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.DefaultMuleException;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.connection.BorrowWaitHistogram;
+import org.mule.runtime.core.api.connection.BorrowWaitPoolingListener;
 
 import java.util.NoSuchElementException;
 
+import org.apache.commons.pool.BaseObjectPool;
 import org.apache.commons.pool.ObjectPool;
 import org.apache.commons.pool.PoolableObjectFactory;
 import org.apache.commons.pool.impl.GenericObjectPool;
@@ -30,6 +35,12 @@ import org.slf4j.LoggerFactory;
 
 /**
  * A {@link ConnectionManagementStrategy} which returns connections obtained from a {@link #pool}
+ * <p>
+ * The pool is a {@link GenericObjectPool}, unless the concurrent bag pool is requested, in which case a
+ * {@link ConcurrentBagObjectPool} is used so that borrowing and returning connections doesn't serialize the threads using them.
+ * <p>
+ * The time spent waiting to borrow each connection is accounted in a {@link BorrowWaitHistogram}, which is also notified to the
+ * {@link PoolingListener} if it is a {@link BorrowWaitPoolingListener}.
  *
  * @param <C> the generic type of the connections to be managed
  * @since 4.0
@@ -41,6 +52,8 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   private final PoolingProfile poolingProfile;
   private final ObjectPool<C> pool;
   private final PoolingListener<C> poolingListener;
+  private final boolean concurrentBag;
+  private final BorrowWaitHistogram borrowWaitHistogram = new BorrowWaitHistogram();
 
   /**
    * Creates a new instance
@@ -52,9 +65,25 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
    */
   PoolingConnectionManagementStrategy(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
                                       PoolingListener<C> poolingListener, MuleContext muleContext) {
+    this(connectionProvider, poolingProfile, poolingListener, muleContext, false);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param connectionProvider the {@link ConnectionProvider} used to manage the connections
+   * @param poolingProfile     the {@link PoolingProfile} which configures the {@link #pool}
+   * @param poolingListener    a {@link PoolingListener}
+   * @param muleContext        the application's {@link MuleContext}
+   * @param concurrentBag      whether to use a {@link ConcurrentBagObjectPool} instead of a {@link GenericObjectPool}
+   * @since 4.4.0
+   */
+  PoolingConnectionManagementStrategy(ConnectionProvider<C> connectionProvider, PoolingProfile poolingProfile,
+                                      PoolingListener<C> poolingListener, MuleContext muleContext, boolean concurrentBag) {
     super(connectionProvider, muleContext);
     this.poolingProfile = poolingProfile;
     this.poolingListener = poolingListener;
+    this.concurrentBag = concurrentBag;
     pool = createPool();
   }
 
@@ -78,9 +107,15 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   }
 
   private C borrowConnection() throws Exception {
+    final long borrowStart = nanoTime();
     C connection = pool.borrowObject();
+    final long waitNanos = nanoTime() - borrowStart;
+    borrowWaitHistogram.record(waitNanos);
     try {
       poolingListener.onBorrow(connection);
+      if (poolingListener instanceof BorrowWaitPoolingListener) {
+        ((BorrowWaitPoolingListener<C>) poolingListener).onBorrowWait(waitNanos, borrowWaitHistogram);
+      }
     } catch (Exception e) {
       pool.invalidateObject(connection);
       throw e;
@@ -105,6 +140,15 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   }
 
   private ObjectPool<C> createPool() {
+    if (concurrentBag) {
+      ConcurrentBagObjectPool<C> bagPool = new ConcurrentBagObjectPool<>(new ObjectFactoryAdapter(), poolingProfile,
+                                                                         poolingProfile.getEvictionCheckIntervalMillis() > 0
+                                                                             ? muleContext.getSchedulerService().ioScheduler()
+                                                                             : null);
+      applyInitialisationPolicy(bagPool);
+      return bagPool;
+    }
+
     GenericObjectPool.Config config = new GenericObjectPool.Config();
     config.maxIdle = poolingProfile.getMaxIdle();
     config.maxActive = poolingProfile.getMaxActive();
@@ -119,7 +163,7 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     return genericPool;
   }
 
-  protected void applyInitialisationPolicy(GenericObjectPool pool) {
+  protected void applyInitialisationPolicy(BaseObjectPool<C> pool) {
     int initialConnections;
     switch (poolingProfile.getInitialisationPolicy()) {
       case INITIALISE_NONE:
@@ -155,6 +199,14 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     return poolingProfile;
   }
 
+  /**
+   * @return the histogram of the time spent waiting to borrow connections from the {@link #pool}
+   * @since 4.4.0
+   */
+  public BorrowWaitHistogram getBorrowWaitHistogram() {
+    return borrowWaitHistogram;
+  }
+
   private class ObjectFactoryAdapter implements PoolableObjectFactory<C> {
 
     @Override
@@ -168,8 +220,9 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     }
 
     @Override
-    public boolean validateObject(C obj) {
-      return false;
+    public boolean validateObject(C connection) {
+      ConnectionValidationResult result = connectionProvider.validate(connection);
+      return result != null && result.isValid();
     }
 
     @Override
@@ -7,26 +7,51 @@
 package org.mule.runtime.core.internal.connection;
 
 import static java.util.Optional.ofNullable;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.function.Function.identity;
+import static org.slf4j.LoggerFactory.getLogger;
 
+import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.internal.retry.ReconnectionConfig;
+import org.mule.runtime.extension.api.runtime.connectivity.ReconnectionCallback;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
 
 /**
  * A {@link ConnectionProviderWrapper} which includes a {@link RetryPolicyTemplate} for reconnecting in case of problems
  * establishing the connection.
  * <p>
  * It also contains the ability to skip connection validation.
+ * <p>
+ * When the {@link ReconnectionConfig} is {@link ReconnectionConfig#isFastFail() fast fail}, a failed connection attempt starts
+ * applying the {@link RetryPolicyTemplate} on a dedicated scheduler. While it is being applied, connection attempts fail right
+ * away instead of hitting the failing backend from the caller's thread. The first connection attempt after the reconnection
+ * succeeds gets the connection it obtained. The outcome of the reconnection is reported to the {@link ReconnectionCallback}s
+ * registered through {@link #onReconnection(ReconnectionCallback)}.
  *
  * @param <C> The generic type of the connections provided by the {@link #delegate}
  * @since 4.0
  */
 public class ReconnectableConnectionProviderWrapper<C> extends AbstractConnectionProviderWrapper<C> {
 
+  private static final Logger LOGGER = getLogger(ReconnectableConnectionProviderWrapper.class);
+
   private final ReconnectionConfig reconnectionConfig;
+  private final AtomicReference<CompletableFuture<C>> reconnection = new AtomicReference<>();
+  private final List<ReconnectionCallback> reconnectionCallbacks = new CopyOnWriteArrayList<>();
+  private volatile Scheduler reconnectionScheduler;
 
   /**
    * Creates a new instance
@@ -54,4 +79,140 @@ public class ReconnectableConnectionProviderWrapper<C> extends AbstractConnectio
   public Optional<ReconnectionConfig> getReconnectionConfig() {
     return ofNullable(reconnectionConfig);
   }
+
+  /**
+   * Obtains a connection from the delegate. In fast fail mode, fails right away if a reconnection is in progress, and starts one
+   * in the background if obtaining the connection fails.
+   */
+  @Override
+  public C connect() throws ConnectionException {
+    if (reconnectionScheduler == null) {
+      return super.connect();
+    }
+
+    final CompletableFuture<C> pending = reconnection.get();
+    if (pending != null) {
+      if (!pending.isDone()) {
+        throw new ConnectionException("Reconnection in progress, connection attempt failed fast");
+      }
+      // only one caller takes the connection obtained by the reconnection
+      if (reconnection.compareAndSet(pending, null) && !pending.isCompletedExceptionally()) {
+        return pending.join();
+      }
+    }
+
+    try {
+      return super.connect();
+    } catch (ConnectionException e) {
+      reconnectInBackground();
+      throw e;
+    }
+  }
+
+  private void reconnectInBackground() {
+    final CompletableFuture<C> future = new CompletableFuture<>();
+    if (!reconnection.compareAndSet(null, future)) {
+      return;
+    }
+
+    final Scheduler scheduler = reconnectionScheduler;
+    getRetryPolicyTemplate().applyPolicy(() -> supplyAsync(this::connectAndValidate, scheduler),
+                                         e -> true,
+                                         e -> LOGGER.debug("Reconnection attempt failed", e),
+                                         e -> LOGGER.warn("Reconnection exhausted", e),
+                                         identity(),
+                                         scheduler)
+        .whenComplete((connection, e) -> {
+          if (e != null) {
+            future.completeExceptionally(e);
+          } else {
+            future.complete(connection);
+          }
+          for (ReconnectionCallback callback : reconnectionCallbacks) {
+            // removing it makes sure it is notified only once, even if it's being registered concurrently
+            if (reconnectionCallbacks.remove(callback)) {
+              notifyReconnection(callback, e);
+            }
+          }
+          if (e != null) {
+            // allow the next connection attempt to start over, only once the callbacks waiting for this one were failed
+            reconnection.compareAndSet(future, null);
+          }
+        });
+  }
+
+  private C connectAndValidate() {
+    try {
+      C connection = super.connect();
+      ConnectionValidationResult result = validate(connection);
+      if (result == null || !result.isValid()) {
+        disconnect(connection);
+        throw result != null && result.getException() != null
+            ? result.getException()
+            : new ConnectionException("Connection obtained while reconnecting is not valid");
+      }
+      return connection;
+    } catch (ConnectionException e) {
+      throw new CompletionException(e);
+    }
+  }
+
+  private void notifyReconnection(ReconnectionCallback callback, Throwable e) {
+    if (e == null) {
+      callback.success();
+      return;
+    }
+
+    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    callback.failed(cause instanceof ConnectionException ? (ConnectionException) cause : new ConnectionException(cause));
+  }
+
+  /**
+   * Registers a {@code callback} to be notified when the reconnection in progress finishes. If the reconnection already finished,
+   * the {@code callback} is notified of its outcome right away. If there is no reconnection, {@link ReconnectionCallback#success()}
+   * is called right away.
+   *
+   * @param callback the callback to notify
+   * @since 4.4.0
+   */
+  public void onReconnection(ReconnectionCallback callback) {
+    final CompletableFuture<C> pending = reconnection.get();
+    if (pending == null) {
+      callback.success();
+      return;
+    }
+    if (pending.isDone()) {
+      pending.whenComplete((c, e) -> notifyReconnection(callback, e));
+      return;
+    }
+
+    reconnectionCallbacks.add(callback);
+    // the reconnection may have finished while registering the callback
+    if (pending.isDone() && reconnectionCallbacks.remove(callback)) {
+      pending.whenComplete((c, e) -> notifyReconnection(callback, e));
+    }
+  }
+
+  @Override
+  public void start() throws MuleException {
+    super.start();
+    if (reconnectionConfig != null && reconnectionConfig.isFastFail() && muleContext != null) {
+      reconnectionScheduler = muleContext.getSchedulerService().ioScheduler(muleContext.getSchedulerBaseConfig()
+          .withName(getDelegate().getClass().getSimpleName() + ".reconnection"));
+    }
+  }
+
+  @Override
+  public void stop() throws MuleException {
+    if (reconnectionScheduler != null) {
+      reconnectionScheduler.stop();
+      reconnectionScheduler = null;
+    }
+    final CompletableFuture<C> pending = reconnection.getAndSet(null);
+    if (pending != null && pending.isDone() && !pending.isCompletedExceptionally()) {
+      // nobody took the connection obtained by the reconnection
+      disconnect(pending.join());
+    }
+    super.stop();
+  }
 }
@@ -29,6 +29,7 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNee
 import static org.mule.runtime.core.api.processor.strategy.AsyncProcessingStrategyFactory.DEFAULT_MAX_CONCURRENCY;
 import static org.mule.runtime.core.api.source.MessageSource.BackPressureStrategy.WAIT;
 import static org.mule.runtime.core.internal.processor.interceptor.ReactiveInterceptorAdapter.createInterceptors;
+import static org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimiter.isAdaptiveMaxConcurrencyEnabled;
 import static org.mule.runtime.core.internal.util.rx.RxUtils.KEY_ON_NEXT_ERROR_STRATEGY;
 import static org.mule.runtime.core.internal.util.rx.RxUtils.ON_NEXT_FAILURE_STRATEGY;
 import static org.mule.runtime.core.internal.util.rx.RxUtils.propagateCompletion;
@@ -77,6 +78,7 @@ import org.mule.runtime.core.internal.interception.InterceptorManager;
 import org.mule.runtime.core.internal.interception.ReactiveInterceptor;
 import org.mule.runtime.core.internal.message.ErrorBuilder;
 import org.mule.runtime.core.internal.processor.interceptor.FlowInterceptorFactoryAdapter;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyProcessingStrategy;
 import org.mule.runtime.core.internal.processor.strategy.DirectProcessingStrategyFactory;
 import org.mule.runtime.core.internal.rx.FluxSinkRecorder;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
@@ -162,6 +164,13 @@ public abstract class AbstractPipeline extends AbstractFlowConstruct implements
     }
 
     processingStrategy = this.processingStrategyFactory.create(muleContext, getName());
+    if (isAdaptiveMaxConcurrencyEnabled() && processingStrategy instanceof AdaptiveConcurrencyProcessingStrategy) {
+      ((AdaptiveConcurrencyProcessingStrategy) processingStrategy).enableAdaptiveConcurrency((limit, rtt) -> {
+        if (getStatistics() != null) {
+          getStatistics().updateConcurrencyLimit(limit, rtt);
+        }
+      });
+    }
     backpressureStrategySelector = new BackPressureStrategySelector(this);
     FLOW_BACKPRESSURE_ERROR_TYPE = muleContext.getErrorTypeRepository().getErrorType(FLOW_BACK_PRESSURE).get();
   }
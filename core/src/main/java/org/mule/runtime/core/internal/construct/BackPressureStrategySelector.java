@@ -6,14 +6,21 @@
  */
 package org.mule.runtime.core.internal.construct;
 
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
 import static java.lang.Thread.currentThread;
 import static java.lang.Thread.sleep;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.core.api.source.MessageSource.BackPressureStrategy.WAIT;
 import static org.mule.runtime.core.internal.construct.FlowBackPressureException.createAndThrowIfNeeded;
 
 import org.mule.runtime.core.api.construct.BackPressureReason;
 import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.api.source.MessageSource;
+import org.mule.runtime.core.internal.processor.strategy.CapacitySignalingProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.ProcessingCapacitySignal;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +38,12 @@ class BackPressureStrategySelector {
 
   private static int EVENT_LOOP_SCHEDULER_BUSY_RETRY_INTERVAL_MS = 2;
 
+  /**
+   * Upper bound for the time to wait for a capacity signal before checking the processing strategy again. Some causes of
+   * rejection, such as a busy scheduler, may go away without a signal, so waits are bounded and grow up to this value.
+   */
+  private static final long MAX_CAPACITY_SIGNAL_WAIT_MS = 16;
+
   private final AbstractPipeline abstractPipeline;
 
   public BackPressureStrategySelector(AbstractPipeline abstractPipeline) {
@@ -38,17 +51,29 @@ class BackPressureStrategySelector {
   }
 
   /**
-   * Wait backpressure strategy. Implements a busy-wait strategy.
+   * Wait backpressure strategy.
+   * <p/>
+   * If the processing strategy notifies when capacity is released (see {@link CapacitySignalingProcessingStrategy}), the calling
+   * thread blocks until that happens, with a bounded wait that doubles while no signal arrives. Otherwise, it falls back to a
+   * busy-wait. The time spent waiting is added to the {@link FlowConstructStatistics} of the flow.
    *
    * @param event the event about to begin processing
    * @throws FlowBackPressureException
    */
   protected void checkWithWaitStrategy(CoreEvent event)
       throws FlowBackPressureException {
+    final ProcessingStrategy processingStrategy = abstractPipeline.getProcessingStrategy();
+    final ProcessingCapacitySignal capacitySignal = processingStrategy instanceof CapacitySignalingProcessingStrategy
+        ? ((CapacitySignalingProcessingStrategy) processingStrategy).getCapacitySignal()
+        : null;
+
+    long waitStart = -1;
+    long waitInterval = EVENT_LOOP_SCHEDULER_BUSY_RETRY_INTERVAL_MS;
     boolean accepted = false;
     while (!accepted) {
+      final long generation = capacitySignal != null ? capacitySignal.getGeneration() : 0;
       try {
-        abstractPipeline.getProcessingStrategy().checkBackpressureAccepting(event);
+        processingStrategy.checkBackpressureAccepting(event);
         accepted = true;
       } catch (FromFlowRejectedExecutionException ree) {
         if (LOGGER.isDebugEnabled()) {
@@ -56,15 +81,30 @@ class BackPressureStrategySelector {
               + event.getContext().getOriginatingLocation().getRootContainerName() + ": " + ree.getReason());
         }
 
-        // TODO MULE-16106 Add a callback for WAIT back pressure applied on the source
+        if (waitStart == -1) {
+          waitStart = nanoTime();
+        }
         try {
-          sleep(EVENT_LOOP_SCHEDULER_BUSY_RETRY_INTERVAL_MS);
+          if (capacitySignal == null) {
+            sleep(EVENT_LOOP_SCHEDULER_BUSY_RETRY_INTERVAL_MS);
+          } else if (capacitySignal.awaitCapacity(generation, waitInterval, MILLISECONDS)) {
+            waitInterval = EVENT_LOOP_SCHEDULER_BUSY_RETRY_INTERVAL_MS;
+          } else {
+            waitInterval = min(waitInterval * 2, MAX_CAPACITY_SIGNAL_WAIT_MS);
+          }
         } catch (InterruptedException e) {
           currentThread().interrupt();
           createAndThrowIfNeeded(abstractPipeline, ree.getReason(), ree);
         }
       }
     }
+
+    if (waitStart != -1) {
+      final FlowConstructStatistics statistics = abstractPipeline.getStatistics();
+      if (statistics != null && statistics.isEnabled()) {
+        statistics.addBackPressureWait(nanoTime() - waitStart);
+      }
+    }
   }
 
   /**
@@ -121,6 +121,7 @@ import org.mule.runtime.core.internal.exception.ErrorHandler;
 import org.mule.runtime.core.internal.exception.ErrorHandlerFactory;
 import org.mule.runtime.core.internal.exception.GlobalErrorHandler;
 import org.mule.runtime.core.internal.lifecycle.LifecycleInterceptor;
+import org.mule.runtime.core.internal.lifecycle.LifecycleLockDelegate;
 import org.mule.runtime.core.internal.lifecycle.LifecycleStrategy;
 import org.mule.runtime.core.internal.lifecycle.MuleContextLifecycleManager;
 import org.mule.runtime.core.internal.lifecycle.MuleLifecycleInterceptor;
@@ -560,6 +561,11 @@ public class DefaultMuleContext implements MuleContextWithRegistry, PrivilegedMu
 
   @Override
   public void withLifecycleLock(Runnable command) {
+    // the objects being started concurrently can't acquire the lock, it is held by the thread starting them
+    if (LifecycleLockDelegate.runOnLockOwner(command)) {
+      return;
+    }
+
     synchronized (lifecycleStateLock) {
       command.run();
     }
@@ -21,6 +21,7 @@ import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.basedOn;
 import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.emptyCaseInsensitiveMap;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
 import static org.mule.runtime.core.internal.message.EventInternalContext.copyOf;
+import static org.mule.runtime.core.internal.util.collection.OverlayMap.overlay;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.fromGroupCorrelation;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.toGroupCorrelation;
 
@@ -47,6 +48,7 @@ import org.mule.runtime.core.internal.message.EventInternalContext;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.internal.message.InternalEvent.Builder;
 import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.util.collection.OverlayCaseInsensitiveHashMap;
 import org.mule.runtime.core.privileged.connector.ReplyToHandler;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.event.DefaultMuleSession;
@@ -87,6 +89,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   private InternalEvent originalEvent;
   private boolean modified;
   private boolean internalParametersInitialized = false;
+  private boolean internalParametersShared = false;
   private boolean notificationsEnabled = true;
 
   public DefaultEventBuilder(BaseEventContext messageContext) {
@@ -110,7 +113,13 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     this.originalVars = (CaseInsensitiveHashMap<String, TypedValue<?>>) event.getVariables();
     this.loggingVariables = (CaseInsensitiveHashMap<String, String>) event.getLoggingVariables().orElse(null);
-    this.internalParameters = (Map<String, Object>) event.getInternalParameters();
+    if (event instanceof InternalEventImplementation) {
+      // the unmodifiable view would hide the overlays the parameters may already have
+      this.internalParameters = (Map<String, Object>) ((InternalEventImplementation) event).internalParameters;
+      this.internalParametersShared = true;
+    } else {
+      this.internalParameters = (Map<String, Object>) event.getInternalParameters();
+    }
     flowProcessMediatorContext = copyOf(event.getFlowProcessMediatorContext());
     foreachInternalContext = copyOf(event.getForeachInternalContext());
     sdkInternalContext = copyOf(event.getSdkInternalContext());
@@ -349,34 +358,49 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     if (originalEvent != null && !modified) {
       return originalEvent;
     } else {
-      return new InternalEventImplementation(context,
-                                             requireNonNull(messageFactory.apply(context)),
-                                             varsModified ? flowVariables : originalVars,
-                                             loggingVariables,
-                                             internalParameters,
-                                             session,
-                                             securityContext,
-                                             itemSequenceInfo,
-                                             flowProcessMediatorContext,
-                                             sdkInternalContext,
-                                             foreachInternalContext,
-                                             sourcePolicyContext,
-                                             operationPolicyContext,
-                                             error,
-                                             legacyCorrelationId,
-                                             notificationsEnabled);
+      final InternalEventImplementation event = new InternalEventImplementation(context,
+                                                                                requireNonNull(messageFactory.apply(context)),
+                                                                                varsModified ? flowVariables : originalVars,
+                                                                                loggingVariables,
+                                                                                internalParameters,
+                                                                                session,
+                                                                                securityContext,
+                                                                                itemSequenceInfo,
+                                                                                flowProcessMediatorContext,
+                                                                                sdkInternalContext,
+                                                                                foreachInternalContext,
+                                                                                sourcePolicyContext,
+                                                                                operationPolicyContext,
+                                                                                error,
+                                                                                legacyCorrelationId,
+                                                                                notificationsEnabled);
+
+      // The maps are now owned by the built event and may be shared by the copies done from it, so further changes done
+      // through this builder must be done on new copies.
+      if (varsModified) {
+        originalVars = (CaseInsensitiveHashMap<String, TypedValue<?>>) event.getVariables();
+        flowVariables = null;
+        varsModified = false;
+      }
+      if (internalParametersInitialized) {
+        internalParametersInitialized = false;
+        internalParametersShared = true;
+      }
+      return event;
     }
   }
 
   protected void initVariables() {
     if (!varsModified && flowVariables == null) {
-      flowVariables = originalVars.copy();
+      flowVariables = OverlayCaseInsensitiveHashMap.copyOf(originalVars);
     }
   }
 
   protected void initInternalParameters() {
     if (!internalParametersInitialized) {
-      internalParameters = copy(internalParameters);
+      internalParameters = internalParametersShared
+          ? overlay(internalParameters, SmallMap::new, SmallMap::copy)
+          : copy(internalParameters);
       internalParametersInitialized = true;
     }
   }
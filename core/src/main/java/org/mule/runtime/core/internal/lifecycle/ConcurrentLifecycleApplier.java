@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lifecycle;
+
+import static java.lang.Math.min;
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.emptyList;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.util.ClassUtils.setContextClassLoader;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.LifecycleException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerConfig;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.internal.lifecycle.phases.LifecycleObjectGraph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Predicate;
+
+/**
+ * Applies a lifecycle phase to the objects of a {@link LifecycleObjectGraph}, processing the objects of each group that don't
+ * depend on each other concurrently in an io {@link Scheduler} limited to a bounded amount of concurrent tasks.
+ * <p>
+ * The groups of the graph are processed one after the other. If an object fails, no other object is submitted and the failure is
+ * thrown once the objects already being processed are done. If the dependencies of a group don't allow any further progress, as
+ * when they are cyclic, the remaining objects of the group are processed sequentially in the order of the group.
+ * <p>
+ * The calling thread may be holding the lifecycle lock of the {@link org.mule.runtime.core.api.MuleContext}, so while it waits
+ * for the objects it runs the actions that require that lock requested by them through {@link LifecycleLockDelegate}, such as
+ * registering other objects.
+ *
+ * @since 4.4.0
+ */
+final class ConcurrentLifecycleApplier {
+
+  /**
+   * Applies the lifecycle phase to a single object.
+   */
+  @FunctionalInterface
+  interface ObjectLifecycle {
+
+    void apply(Object object) throws LifecycleException;
+  }
+
+  private final int parallelism;
+  private final SchedulerService schedulerService;
+  private final SchedulerConfig schedulerConfig;
+
+  /**
+   * Creates a new instance
+   *
+   * @param parallelism      the maximum amount of objects to be processed concurrently
+   * @param schedulerService provides the scheduler in which the objects are processed
+   * @param schedulerConfig  the configuration of that scheduler
+   */
+  ConcurrentLifecycleApplier(int parallelism, SchedulerService schedulerService, SchedulerConfig schedulerConfig) {
+    checkArgument(parallelism > 0, "parallelism must be greater than zero");
+    this.parallelism = parallelism;
+    this.schedulerService = schedulerService;
+    this.schedulerConfig = schedulerConfig;
+  }
+
+  /**
+   * Processes the objects of the given {@code graph}.
+   *
+   * @param graph          the objects to process
+   * @param alreadyApplied tells the objects that have already been processed, which are considered done
+   * @param lifecycle      applies the lifecycle phase to an object. It is called from different threads, with the context class
+   *                       loader of the thread calling this method.
+   * @throws LifecycleException the first failure found processing the objects
+   */
+  void apply(LifecycleObjectGraph graph, Predicate<Object> alreadyApplied, ObjectLifecycle lifecycle)
+      throws LifecycleException {
+    final int maxGroupSize = graph.getGroups().stream().mapToInt(List::size).max().orElse(0);
+    if (maxGroupSize == 0) {
+      return;
+    }
+
+    // Only limits the concurrency, the threads are the ones of the io pool shared by the whole runtime
+    final Scheduler scheduler =
+        schedulerService.ioScheduler(schedulerConfig.withMaxConcurrentTasks(min(parallelism, maxGroupSize)));
+    // Completions of the objects and actions handed over to the calling thread, which may be holding the lifecycle lock
+    final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+    final Executor lockOwner = events::add;
+    final ClassLoader contextClassLoader = currentThread().getContextClassLoader();
+    final ObjectLifecycle contextLifecycle = object -> {
+      final Thread thread = currentThread();
+      final ClassLoader currentClassLoader = thread.getContextClassLoader();
+      setContextClassLoader(thread, currentClassLoader, contextClassLoader);
+      LifecycleLockDelegate.delegateTo(lockOwner);
+      try {
+        lifecycle.apply(object);
+      } finally {
+        LifecycleLockDelegate.clear();
+        setContextClassLoader(thread, contextClassLoader, currentClassLoader);
+      }
+    };
+
+    try {
+      for (List<Object> group : graph.getGroups()) {
+        applyGroup(graph, group, alreadyApplied, contextLifecycle, scheduler, events, lifecycle);
+      }
+    } finally {
+      scheduler.stop();
+    }
+  }
+
+  private void applyGroup(LifecycleObjectGraph graph, List<Object> group, Predicate<Object> alreadyApplied,
+                          ObjectLifecycle contextLifecycle, Executor executor, BlockingQueue<Object> events,
+                          ObjectLifecycle lifecycle)
+      throws LifecycleException {
+    final Map<Object, Integer> pendingDependencies = new IdentityHashMap<>();
+    for (Object object : group) {
+      if (!alreadyApplied.test(object)) {
+        pendingDependencies.put(object, 0);
+      }
+    }
+
+    final Map<Object, List<Object>> dependants = new IdentityHashMap<>();
+    for (Object object : pendingDependencies.keySet()) {
+      for (Object dependency : graph.getDependencies(object)) {
+        if (pendingDependencies.containsKey(dependency)) {
+          pendingDependencies.merge(object, 1, Integer::sum);
+          dependants.computeIfAbsent(dependency, k -> new ArrayList<>()).add(object);
+        }
+      }
+    }
+
+    final Deque<Object> ready = new ArrayDeque<>();
+    for (Object object : group) {
+      final Integer pending = pendingDependencies.get(object);
+      if (pending != null && pending == 0) {
+        ready.add(object);
+      }
+    }
+
+    int inFlight = 0;
+    Throwable failure = null;
+    while (true) {
+      while (failure == null && !ready.isEmpty()) {
+        final Object object = ready.poll();
+        executor.execute(() -> {
+          Throwable objectFailure = null;
+          try {
+            contextLifecycle.apply(object);
+          } catch (Throwable t) {
+            objectFailure = t;
+          }
+          events.add(new Completion(object, objectFailure));
+        });
+        inFlight++;
+      }
+
+      if (inFlight == 0) {
+        break;
+      }
+
+      final Object event;
+      try {
+        event = events.take();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        throw new MuleRuntimeException(e);
+      }
+
+      if (event instanceof Runnable) {
+        // An action requiring the lifecycle lock, the object requesting it won't complete until it is run
+        ((Runnable) event).run();
+        continue;
+      }
+
+      final Completion completion = (Completion) event;
+      inFlight--;
+      if (completion.failure != null) {
+        if (failure == null) {
+          failure = completion.failure;
+        }
+        continue;
+      }
+
+      pendingDependencies.remove(completion.object);
+      for (Object dependant : dependants.getOrDefault(completion.object, emptyList())) {
+        if (pendingDependencies.merge(dependant, -1, Integer::sum) == 0) {
+          ready.add(dependant);
+        }
+      }
+    }
+
+    if (failure != null) {
+      throwFailure(failure);
+    }
+
+    // Only cyclic dependencies leave objects behind, those are processed in the order of the group
+    for (Object object : group) {
+      if (pendingDependencies.containsKey(object) && !alreadyApplied.test(object)) {
+        lifecycle.apply(object);
+      }
+    }
+  }
+
+  private static void throwFailure(Throwable failure) throws LifecycleException {
+    if (failure instanceof LifecycleException) {
+      throw (LifecycleException) failure;
+    } else if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    }
+    throw new MuleRuntimeException(failure);
+  }
+
+  private static final class Completion {
+
+    private final Object object;
+    private final Throwable failure;
+
+    private Completion(Object object, Throwable failure) {
+      this.object = object;
+      this.failure = failure;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lifecycle;
+
+import static java.lang.Thread.currentThread;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.MuleContext;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Allows the threads applying a lifecycle phase on behalf of the thread holding the lifecycle lock of the
+ * {@link MuleContext} to run actions that require that lock.
+ * <p>
+ * Those threads can't acquire the lock, since it is held by the thread waiting for them. Instead, the actions are handed over to
+ * the thread holding the lock, which runs them while it waits, as if the lock had been acquired by the thread requesting them.
+ *
+ * @since 4.4.0
+ */
+public final class LifecycleLockDelegate {
+
+  private static final ThreadLocal<Executor> LOCK_OWNER = new ThreadLocal<>();
+
+  private LifecycleLockDelegate() {}
+
+  /**
+   * Makes the actions requiring the lifecycle lock on the current thread be run by the given {@code lockOwner}.
+   *
+   * @param lockOwner runs the actions on the thread holding the lifecycle lock.
+   */
+  static void delegateTo(Executor lockOwner) {
+    LOCK_OWNER.set(lockOwner);
+  }
+
+  /**
+   * Reverts the effect of {@link #delegateTo(Executor)}.
+   */
+  static void clear() {
+    LOCK_OWNER.remove();
+  }
+
+  /**
+   * Runs the given {@code command} on the thread holding the lifecycle lock, if the current thread is applying a lifecycle phase
+   * on behalf of it, and waits for it to finish.
+   *
+   * @param command the action that requires the lifecycle lock
+   * @return {@code false} if the current thread is not applying a lifecycle phase on behalf of another one, in which case the
+   *         {@code command} was not run and the caller has to acquire the lock.
+   */
+  public static boolean runOnLockOwner(Runnable command) {
+    final Executor lockOwner = LOCK_OWNER.get();
+    if (lockOwner == null) {
+      return false;
+    }
+
+    final FutureTask<Void> task = new FutureTask<>(command, null);
+    lockOwner.execute(task);
+    try {
+      task.get();
+      return true;
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new MuleRuntimeException(cause);
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new MuleRuntimeException(e);
+    }
+  }
+}
@@ -7,11 +7,15 @@
 package org.mule.runtime.core.internal.lifecycle;
 
 import static java.lang.String.format;
+import static java.lang.Integer.getInteger;
+import static java.lang.System.currentTimeMillis;
 import static java.lang.System.getProperty;
+import static java.util.Collections.synchronizedSet;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static org.mule.runtime.api.exception.ExceptionHelper.unwrap;
 import static org.mule.runtime.api.util.MuleSystemProperties.MULE_LIFECYCLE_FAIL_ON_FIRST_DISPOSE_ERROR;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.component.Component;
@@ -19,15 +23,21 @@ import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.lifecycle.Disposable;
 import org.mule.runtime.api.lifecycle.LifecycleException;
+import org.mule.runtime.api.lifecycle.Startable;
 import org.mule.runtime.api.lifecycle.Stoppable;
+import org.mule.runtime.api.scheduler.SchedulerConfig;
+import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.lifecycle.LifecycleCallback;
+import org.mule.runtime.core.api.management.stats.AllStatistics;
 import org.mule.runtime.core.api.util.ExceptionUtils;
 import org.mule.runtime.core.api.util.func.CheckedRunnable;
+import org.mule.runtime.core.internal.lifecycle.phases.LifecycleObjectGraph;
 import org.mule.runtime.core.internal.lifecycle.phases.LifecyclePhase;
 import org.mule.runtime.core.internal.registry.Registry;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.commons.collections.CollectionUtils;
@@ -42,6 +52,20 @@ public class RegistryLifecycleCallback<T> implements LifecycleCallback<T>, HasLi
 
   private static final Logger LOGGER = getLogger(RegistryLifecycleCallback.class);
 
+  /**
+   * System property to set the maximum amount of objects of an artifact that may be started concurrently.
+   * <p>
+   * Objects are only started concurrently when the registry knows the dependencies between them, and an object is always started
+   * after the ones it depends on. Defaults to {@code 1}, meaning that objects are started one after the other.
+   * <p>
+   * The lifecycle lock of the {@link org.mule.runtime.core.api.MuleContext} is held by the thread starting the artifact, so the
+   * actions requiring it done by the objects being started concurrently, such as registering other objects, are run by that
+   * thread. See {@link LifecycleLockDelegate}.
+   *
+   * @since 4.4.0
+   */
+  public static final String START_PARALLELISM_PROPERTY = SYSTEM_PROPERTY_PREFIX + "lifecycle.start.parallelism";
+
   protected final RegistryLifecycleManager registryLifecycleManager;
   private LifecycleInterceptor interceptor = new NullLifecycleInterceptor();
 
@@ -69,8 +93,39 @@ public class RegistryLifecycleCallback<T> implements LifecycleCallback<T>, HasLi
 
     LOGGER.debug("Applying lifecycle phase: {} for registry: {}", phase, object.getClass().getSimpleName());
 
-    doApplyLifecycle(phase, new HashSet<>(), registryLifecycleManager.getObjectsForPhase(phase));
+    final long startMillis = currentTimeMillis();
+    final int parallelism = Startable.PHASE_NAME.equals(phaseName) ? getInteger(START_PARALLELISM_PROPERTY, 1) : 1;
+    final int objectCount;
+    if (parallelism > 1) {
+      final LifecycleObjectGraph graph = registryLifecycleManager.getObjectGraphForPhase(phase);
+      objectCount = graph.size();
+      doApplyLifecycle(phase, graph, parallelism);
+    } else {
+      final List<Object> targetObjects = registryLifecycleManager.getObjectsForPhase(phase);
+      objectCount = targetObjects.size();
+      doApplyLifecycle(phase, new HashSet<>(), targetObjects);
+    }
     interceptor.onPhaseCompleted(phase);
+
+    final AllStatistics statistics = registryLifecycleManager.muleContext.getStatistics();
+    if (statistics != null) {
+      statistics.getLifecycleStatistics().phaseCompleted(phaseName, objectCount, currentTimeMillis() - startMillis,
+                                                         parallelism > 1);
+    }
+  }
+
+  private void doApplyLifecycle(LifecyclePhase phase, LifecycleObjectGraph graph, int parallelism) throws LifecycleException {
+    final Set<Object> duplicates = synchronizedSet(new HashSet<>());
+    final MuleContext muleContext = registryLifecycleManager.muleContext;
+    final SchedulerConfig schedulerConfig = muleContext.getSchedulerBaseConfig()
+        .withName(format("[%s].lifecycle.%s", muleContext.getId(), phase.getName()));
+
+    final ConcurrentLifecycleApplier applier =
+        new ConcurrentLifecycleApplier(parallelism, muleContext.getSchedulerService(), schedulerConfig);
+    applier.apply(graph, duplicates::contains, target -> {
+      LOGGER.debug("lifecycle phase: {} for object: {}", phase.getName(), target.getClass().getSimpleName());
+      applyLifecycle(phase, duplicates, target);
+    });
   }
 
   private void doApplyLifecycle(LifecyclePhase phase, Set<Object> duplicates, Collection<?> targetObjects)
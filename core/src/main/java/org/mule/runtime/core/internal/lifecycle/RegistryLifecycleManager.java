@@ -18,6 +18,7 @@ import org.mule.runtime.api.util.collection.SmallMap;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.connector.ConnectException;
 import org.mule.runtime.core.api.lifecycle.LifecycleCallback;
+import org.mule.runtime.core.internal.lifecycle.phases.LifecycleObjectGraph;
 import org.mule.runtime.core.internal.lifecycle.phases.LifecycleObjectSorter;
 import org.mule.runtime.core.internal.lifecycle.phases.LifecyclePhase;
 import org.mule.runtime.core.internal.lifecycle.phases.MuleContextDisposePhase;
@@ -187,6 +188,27 @@ public class RegistryLifecycleManager extends AbstractLifecycleManager<Registry>
     return sorter.getSortedObjects();
   }
 
+  /**
+   * Provides the objects to which the given {@code phase} is to be applied, along with the dependencies between them.
+   *
+   * @param phase the phase to be applied
+   * @return the graph of the objects for the phase
+   * @since 4.4.0
+   */
+  protected LifecycleObjectGraph getObjectGraphForPhase(LifecyclePhase phase) {
+    return getObjectGraph(phase.newLifecycleObjectSorter());
+  }
+
+  /**
+   * @param sorter the sorter to add the objects for the lifecycle to
+   * @return the graph of the objects for the lifecycle, as provided by the given {@code sorter}
+   * @since 4.4.0
+   */
+  protected LifecycleObjectGraph getObjectGraph(LifecycleObjectSorter sorter) {
+    lookupObjectsForLifecycle().forEach(sorter::addObject);
+    return sorter.getObjectGraph();
+  }
+
   protected Map<String, Object> lookupObjectsForLifecycle() {
     return getLifecycleObject().lookupByType(Object.class);
   }
@@ -83,4 +83,20 @@ public class DefaultLifecycleObjectSorter implements LifecycleObjectSorter {
 
     return sorted;
   }
+
+  /**
+   * @return the buckets in which the objects were classified, in the order given by the lifecycle types. Buckets with no objects
+   *         are not included.
+   * @since 4.4.0
+   */
+  protected List<List<Object>> getBuckets() {
+    List<List<Object>> nonEmptyBuckets = new ArrayList<>(buckets.length);
+    for (List<Object> bucket : buckets) {
+      if (bucket != null) {
+        nonEmptyBuckets.add(bucket);
+      }
+    }
+
+    return nonEmptyBuckets;
+  }
 }
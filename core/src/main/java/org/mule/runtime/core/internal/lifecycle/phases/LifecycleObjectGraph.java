@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lifecycle.phases;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The objects a {@link LifecyclePhase} is to be applied to, along with the dependencies between them.
+ * <p>
+ * Objects are arranged in groups that must be processed one after the other, in the order they were added. Within a group, an
+ * object may be processed as soon as all of its dependencies in the same group have been processed, so objects that don't depend
+ * on each other may be processed concurrently.
+ * <p>
+ * Objects are compared by identity, as done by the lifecycle when skipping objects it already processed.
+ *
+ * @since 4.4.0
+ */
+public final class LifecycleObjectGraph {
+
+  private final List<List<Object>> groups = new ArrayList<>();
+  private final Map<Object, Set<Object>> dependencies = new IdentityHashMap<>();
+
+  /**
+   * Creates a graph where each of the given {@code objects} is processed only after the previous one.
+   *
+   * @param objects the sorted objects
+   * @return a graph with no concurrency at all
+   */
+  public static LifecycleObjectGraph sequential(List<Object> objects) {
+    final LifecycleObjectGraph graph = new LifecycleObjectGraph();
+    objects.forEach(object -> graph.addGroup(singletonList(object)));
+    return graph;
+  }
+
+  /**
+   * Adds a group of objects to be processed after the ones of the groups previously added.
+   *
+   * @param objects the objects of the group. Objects repeated in the group are only kept once.
+   */
+  public void addGroup(List<Object> objects) {
+    final Map<Object, Object> unique = new IdentityHashMap<>();
+    final List<Object> group = new ArrayList<>(objects.size());
+    for (Object object : objects) {
+      if (object != null && unique.put(object, object) == null) {
+        group.add(object);
+      }
+    }
+
+    if (!group.isEmpty()) {
+      groups.add(unmodifiableList(group));
+    }
+  }
+
+  /**
+   * Records that {@code object} must be processed after {@code dependency}.
+   * <p>
+   * This is only relevant if both objects are in the same group. Otherwise the order is already given by the order of the
+   * groups.
+   *
+   * @param object     the dependant object
+   * @param dependency the object it depends on
+   */
+  public void addDependency(Object object, Object dependency) {
+    if (object != dependency) {
+      dependencies.computeIfAbsent(object, k -> newSetFromMap(new IdentityHashMap<>())).add(dependency);
+    }
+  }
+
+  /**
+   * @return the groups of objects, in the order they have to be processed.
+   */
+  public List<List<Object>> getGroups() {
+    return unmodifiableList(groups);
+  }
+
+  /**
+   * @param object an object of the graph
+   * @return the objects that have to be processed before the given one.
+   */
+  public Set<Object> getDependencies(Object object) {
+    return dependencies.getOrDefault(object, emptySet());
+  }
+
+  /**
+   * @return the amount of objects in all the groups of this graph
+   */
+  public int size() {
+    return groups.stream().mapToInt(List::size).sum();
+  }
+}
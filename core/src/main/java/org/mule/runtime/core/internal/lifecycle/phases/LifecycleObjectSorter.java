@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.lifecycle.phases;
 
+import static org.mule.runtime.core.internal.lifecycle.phases.LifecycleObjectGraph.sequential;
+
 import org.mule.runtime.core.internal.registry.Registry;
 
 import java.util.List;
@@ -30,4 +32,18 @@ public interface LifecycleObjectSorter {
    * @return The sorted list of objects previously added through {@link #addObject(String, Object)}
    */
   List<Object> getSortedObjects();
+
+  /**
+   * Provides the objects previously added through {@link #addObject(String, Object)} along with the dependencies between them, so
+   * that the objects that don't depend on each other may have the phase applied concurrently.
+   * <p>
+   * This default implementation has no knowledge of the dependencies between the objects, so it returns a graph that processes
+   * the {@link #getSortedObjects() sorted objects} one after the other.
+   *
+   * @return the graph of the objects previously added
+   * @since 4.4.0
+   */
+  default LifecycleObjectGraph getObjectGraph() {
+    return sequential(getSortedObjects());
+  }
 }
@@ -30,6 +30,13 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
   // Transient to avoid de-serialization backward compatibility problems (MULE-19020)
   private transient final AtomicLong connectionErrors = new AtomicLong(0);
 
+  private transient final AtomicLong backPressureWaits = new AtomicLong(0);
+  private transient final AtomicLong totalBackPressureWaitTime = new AtomicLong(0);
+  private transient final AtomicLong maxBackPressureWaitTime = new AtomicLong(0);
+
+  private transient volatile int concurrencyLimit = -1;
+  private transient volatile long roundTripTimeEstimate = 0;
+
   public DefaultFlowConstructStatistics(String flowConstructType, String name) {
     this.name = name;
     this.flowConstructType = flowConstructType;
@@ -82,6 +89,11 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
 
     executionError.set(0);
     fatalError.set(0);
+    if (backPressureWaits != null) {
+      backPressureWaits.set(0);
+      totalBackPressureWaitTime.set(0);
+      maxBackPressureWaitTime.set(0);
+    }
     if (flowStatistics != null) {
       flowStatistics.clear();
     }
@@ -147,6 +159,46 @@ public class DefaultFlowConstructStatistics implements FlowConstructStatistics {
     connectionErrors.addAndGet(1);
   }
 
+  @Override
+  public void addBackPressureWait(long waitTimeNanos) {
+    if (backPressureWaits != null) {
+      backPressureWaits.incrementAndGet();
+      totalBackPressureWaitTime.addAndGet(waitTimeNanos);
+      maxBackPressureWaitTime.accumulateAndGet(waitTimeNanos, Math::max);
+    }
+  }
+
+  @Override
+  public long getBackPressureWaits() {
+    return backPressureWaits.get();
+  }
+
+  @Override
+  public long getTotalBackPressureWaitTime() {
+    return totalBackPressureWaitTime.get();
+  }
+
+  @Override
+  public long getMaxBackPressureWaitTime() {
+    return maxBackPressureWaitTime.get();
+  }
+
+  @Override
+  public void updateConcurrencyLimit(int limit, long roundTripTimeEstimateNanos) {
+    concurrencyLimit = limit;
+    roundTripTimeEstimate = roundTripTimeEstimateNanos;
+  }
+
+  @Override
+  public int getConcurrencyLimit() {
+    return concurrencyLimit;
+  }
+
+  @Override
+  public long getRoundTripTimeEstimate() {
+    return roundTripTimeEstimate;
+  }
+
   @Override
   public long getTotalEventsReceived() {
     return receivedEvents.get();
@@ -113,6 +113,15 @@ public abstract class AbstractProcessingStrategy implements ProcessingStrategyAd
 
     void prepareDispose();
 
+    /**
+     * @return how many more events can be emitted to this sink before it starts accumulating them, or {@link Long#MAX_VALUE} if
+     *         unknown.
+     * @since 4.4.0
+     */
+    default long remainingCapacity() {
+      return Long.MAX_VALUE;
+    }
+
   }
 
   /**
@@ -143,7 +152,6 @@ public abstract class AbstractProcessingStrategy implements ProcessingStrategyAd
 
     @Override
     public final BackPressureReason emit(CoreEvent event) {
-      onEventConsumer.accept(event);
       // Optimization to avoid using synchronized block for all emissions.
       // See: https://github.com/reactor/reactor-core/issues/1037
       long remainingCapacity = fluxSink.requestedFromDownstream();
@@ -152,12 +160,14 @@ public abstract class AbstractProcessingStrategy implements ProcessingStrategyAd
       } else if (remainingCapacity > (bufferSize > CORES * 4 ? CORES : 0)) {
         // If there is sufficient room in buffer to significantly reduce change of concurrent emission when buffer is full then
         // emit without synchronized block.
+        onEventConsumer.accept(event);
         fluxSink.next(intoSink(event));
         return null;
       } else {
         // If there is very little room in buffer also emit but synchronized.
         synchronized (fluxSink) {
           if (remainingCapacity > 0) {
+            onEventConsumer.accept(event);
             fluxSink.next(intoSink(event));
             return null;
           } else {
@@ -172,6 +182,11 @@ public abstract class AbstractProcessingStrategy implements ProcessingStrategyAd
       return (E) event;
     }
 
+    @Override
+    public long remainingCapacity() {
+      return fluxSink.requestedFromDownstream();
+    }
+
     @Override
     public void prepareDispose() {
       prepareDisposeTimestamp = currentTimeMillis();
@@ -6,10 +6,12 @@
  */
 package org.mule.runtime.core.internal.processor.strategy;
 
+import static java.lang.System.nanoTime;
 import static org.mule.runtime.core.api.construct.BackPressureReason.MAX_CONCURRENCY_EXCEEDED;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE_ASYNC;
 import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.DEFAULT_BUFFER_SIZE;
+import static org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimiter.NOT_ACQUIRED;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.lifecycle.Disposable;
@@ -20,6 +22,7 @@ import org.mule.runtime.core.api.construct.BackPressureReason;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.internal.construct.FromFlowRejectedExecutionException;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimiter.LimitListener;
 import org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.AbstractStreamProcessingStrategy;
 import org.mule.runtime.core.internal.processor.strategy.enricher.CpuLiteAsyncNonBlockingProcessingStrategyEnricher;
 import org.mule.runtime.core.internal.processor.strategy.enricher.CpuLiteNonBlockingProcessingStrategyEnricher;
@@ -34,15 +37,20 @@ import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 abstract class AbstractReactorStreamProcessingStrategy extends AbstractStreamProcessingStrategy
-    implements Startable, Stoppable, Disposable {
+    implements CapacitySignalingProcessingStrategy, AdaptiveConcurrencyProcessingStrategy, Startable, Stoppable, Disposable {
 
   private final Supplier<Scheduler> cpuLightSchedulerSupplier;
   private final int parallelism;
   private final AtomicInteger inFlightEvents = new AtomicInteger();
-  private final BiConsumer<CoreEvent, Throwable> inFlightDecrementCallback = (e, t) -> inFlightEvents.decrementAndGet();
+  protected final ProcessingCapacitySignal capacitySignal = new ProcessingCapacitySignal();
+  private final BiConsumer<CoreEvent, Throwable> inFlightDecrementCallback = (e, t) -> {
+    inFlightEvents.decrementAndGet();
+    capacitySignal.signalCapacityAvailable();
+  };
 
   private Scheduler cpuLightScheduler;
   private ReactiveProcessorEnricher processorEnricher = null;
+  private AdaptiveConcurrencyLimiter concurrencyLimiter = null;
 
   AbstractReactorStreamProcessingStrategy(int subscribers,
                                           Supplier<Scheduler> cpuLightSchedulerSupplier,
@@ -83,7 +91,18 @@ abstract class AbstractReactorStreamProcessingStrategy extends AbstractStreamPro
    * @return true if the event can be accepted for processing
    */
   protected BackPressureReason checkCapacity(CoreEvent event) {
-    if (maxConcurrencyEagerCheck) {
+    if (concurrencyLimiter != null) {
+      final long permit = concurrencyLimiter.tryAcquire();
+      if (permit == NOT_ACQUIRED) {
+        return MAX_CONCURRENCY_EXCEEDED;
+      }
+
+      final long start = nanoTime();
+      ((BaseEventContext) event.getContext()).onBeforeResponse((e, t) -> {
+        concurrencyLimiter.release(permit, start, t != null);
+        capacitySignal.signalCapacityAvailable();
+      });
+    } else if (maxConcurrencyEagerCheck) {
       if (inFlightEvents.incrementAndGet() > maxConcurrency) {
         inFlightEvents.decrementAndGet();
         return MAX_CONCURRENCY_EXCEEDED;
@@ -97,6 +116,17 @@ abstract class AbstractReactorStreamProcessingStrategy extends AbstractStreamPro
     return null;
   }
 
+  @Override
+  public ProcessingCapacitySignal getCapacitySignal() {
+    return capacitySignal;
+  }
+
+  @Override
+  public AdaptiveConcurrencyLimiter enableAdaptiveConcurrency(LimitListener listener) {
+    concurrencyLimiter = new AdaptiveConcurrencyLimiter(maxConcurrency, listener);
+    return concurrencyLimiter;
+  }
+
   protected int getParallelism() {
     return parallelism;
   }
@@ -123,6 +153,10 @@ abstract class AbstractReactorStreamProcessingStrategy extends AbstractStreamPro
     // This counter relies on BaseEventContext.onResponse() and other ProcessingStrategy could be still processing
     // child events that will be dropped because of this stop, impeding such invocation.
     inFlightEvents.getAndSet(0);
+    if (concurrencyLimiter != null) {
+      concurrencyLimiter.reset();
+    }
+    capacitySignal.signalCapacityAvailable();
   }
 
   protected Scheduler createCpuLightScheduler(Supplier<Scheduler> cpuLightSchedulerSupplier) {
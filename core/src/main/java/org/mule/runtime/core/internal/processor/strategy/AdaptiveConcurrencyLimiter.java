@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Boolean.TRUE;
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+import static java.lang.System.nanoTime;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Limits the amount of concurrent executions, adjusting the limit according to the observed round trip time and error rate of
+ * those executions, within the bounds of the statically configured {@code maxConcurrency}.
+ * <p>
+ * The limit is adjusted on every completed execution, following a gradient:
+ * <ul>
+ * <li>Two moving averages of the round trip time are kept: a short term one, reacting quickly to the current load, and a long
+ * term one, representing the latency without queueing.</li>
+ * <li>While the short term average stays close to the long term one, the limit grows by roughly the square root of itself, so
+ * that it quickly finds the available capacity.</li>
+ * <li>When the short term average grows over the long term one, executions are being queued somewhere downstream, so the limit is
+ * reduced proportionally.</li>
+ * <li>When an execution fails, the limit is reduced multiplicatively, as an AIMD limiter does on packet loss.</li>
+ * </ul>
+ * The limit only grows while it is being used, so that a burst after an idle period doesn't find an inflated limit.
+ * <p>
+ * Each acquired execution gets a permit that has to be given back when releasing it. Permits belong to a generation, so that
+ * executions released after a {@link #reset()} don't affect the executions started after it.
+ *
+ * @since 4.4.0
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+  /**
+   * System property to enable the adaptive limiter for all flows and fork-join routers, using their {@code maxConcurrency} as
+   * upper bound.
+   */
+  public static final String ADAPTIVE_MAX_CONCURRENCY_PROPERTY = SYSTEM_PROPERTY_PREFIX + "adaptiveMaxConcurrency";
+
+  /**
+   * @return whether the adaptive limiter is enabled by default, through the {@link #ADAPTIVE_MAX_CONCURRENCY_PROPERTY} system
+   *         property.
+   */
+  public static boolean isAdaptiveMaxConcurrencyEnabled() {
+    return getBoolean(ADAPTIVE_MAX_CONCURRENCY_PROPERTY);
+  }
+
+  /**
+   * Listens for the updates of the limit of an {@link AdaptiveConcurrencyLimiter}.
+   */
+  @FunctionalInterface
+  public interface LimitListener {
+
+    /**
+     * @param limit                      the new concurrency limit
+     * @param roundTripTimeEstimateNanos the current estimate of the round trip time of an execution, in nanoseconds
+     */
+    void onLimitUpdated(int limit, long roundTripTimeEstimateNanos);
+  }
+
+  /**
+   * Returned by {@link #tryAcquire()} when the limit doesn't allow for another execution to start.
+   */
+  public static final long NOT_ACQUIRED = -1;
+
+  private static final int INITIAL_LIMIT = 20;
+  private static final int MIN_LIMIT = 1;
+  private static final double SHORT_RTT_ALPHA = 0.2;
+  private static final double LONG_RTT_ALPHA = 0.01;
+  private static final double RTT_TOLERANCE = 1.5;
+  private static final double LIMIT_SMOOTHING = 0.2;
+  private static final double ERROR_BACKOFF_RATIO = 0.9;
+
+  private final int maxLimit;
+  // the generation in the high 32 bits, and the executions in flight of that generation in the low ones
+  private final AtomicLong state = new AtomicLong();
+  private final Queue<LongConsumer> waiters = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<Boolean> draining = new ThreadLocal<>();
+  private final LimitListener listener;
+
+  private volatile int limit;
+  private volatile long roundTripTimeEstimate;
+
+  // guarded by this
+  private double estimatedLimit;
+  private double shortRtt;
+  private double longRtt;
+
+  /**
+   * Creates a new instance
+   *
+   * @param maxConcurrency the upper bound of the limit
+   */
+  public AdaptiveConcurrencyLimiter(int maxConcurrency) {
+    this(maxConcurrency, (limit, roundTripTimeEstimateNanos) -> {
+    });
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param maxConcurrency the upper bound of the limit
+   * @param listener       notified every time the limit is updated
+   */
+  public AdaptiveConcurrencyLimiter(int maxConcurrency, LimitListener listener) {
+    checkArgument(maxConcurrency > 0, "maxConcurrency must be greater than zero");
+    this.maxLimit = maxConcurrency;
+    this.listener = listener;
+    this.estimatedLimit = min(INITIAL_LIMIT, maxLimit);
+    this.limit = (int) estimatedLimit;
+    listener.onLimitUpdated(limit, 0);
+  }
+
+  /**
+   * Starts an execution if the limit allows for it.
+   *
+   * @return the permit of the execution, to be given to {@link #release(long, long, boolean)} when it finishes, or
+   *         {@link #NOT_ACQUIRED} if the execution may not start.
+   */
+  public long tryAcquire() {
+    long current;
+    do {
+      current = state.get();
+      if (inFlight(current) >= limit) {
+        return NOT_ACQUIRED;
+      }
+    } while (!state.compareAndSet(current, current + 1));
+    return generation(current);
+  }
+
+  /**
+   * Runs the given {@code onAcquired} callback as soon as the limit allows for another execution to start, either right away in
+   * the calling thread or in the thread of an execution that finishes.
+   * <p>
+   * {@link #release(long, long, boolean)} must be called with the permit passed to the callback once the execution started by it
+   * finishes.
+   *
+   * @param onAcquired the execution to start, receiving its permit
+   */
+  public void acquire(LongConsumer onAcquired) {
+    if (waiters.isEmpty()) {
+      final long permit = tryAcquire();
+      if (permit != NOT_ACQUIRED) {
+        onAcquired.accept(permit);
+        return;
+      }
+    }
+
+    waiters.add(onAcquired);
+    // capacity may have been released after the failed attempt, and before this was queued
+    drainWaiters();
+  }
+
+  /**
+   * Finishes an execution started through this limiter, taking its round trip time as a sample to adjust the limit.
+   *
+   * @param permit     the permit obtained when the execution was started
+   * @param startNanos the {@link System#nanoTime()} when the execution was started
+   * @param failed     whether the execution failed
+   */
+  public void release(long permit, long startNanos, boolean failed) {
+    final int inFlightBeforeRelease = decrement(permit);
+    if (inFlightBeforeRelease < 0) {
+      // started before a reset, already forgotten
+      return;
+    }
+    // avoid a zero round trip time, which would break the gradient
+    onSample(max(1, nanoTime() - startNanos), inFlightBeforeRelease, failed);
+    drainWaiters();
+  }
+
+  /**
+   * Finishes an execution started through this limiter without taking it into account to adjust the limit, for instance because
+   * it was cancelled.
+   *
+   * @param permit the permit obtained when the execution was started
+   */
+  public void releaseWithoutSample(long permit) {
+    if (decrement(permit) >= 0) {
+      drainWaiters();
+    }
+  }
+
+  /**
+   * Forgets about the executions in flight, for when those will never be released. If they are, they are ignored.
+   */
+  public void reset() {
+    long current;
+    do {
+      current = state.get();
+    } while (!state.compareAndSet(current, ((generation(current) + 1) & 0xFFFFFFFFL) << 32));
+    drainWaiters();
+  }
+
+  /**
+   * @return the executions in flight before decrementing them, or {@code -1} if the {@code permit} is from a previous generation
+   */
+  private int decrement(long permit) {
+    long current;
+    do {
+      current = state.get();
+      if (generation(current) != permit) {
+        return -1;
+      }
+    } while (!state.compareAndSet(current, current - 1));
+    return inFlight(current);
+  }
+
+  private static long generation(long state) {
+    return state >>> 32;
+  }
+
+  private static int inFlight(long state) {
+    return (int) state;
+  }
+
+  private void onSample(long rtt, int inFlight, boolean failed) {
+    final int newLimit;
+    final long rttEstimate;
+    synchronized (this) {
+      if (shortRtt == 0) {
+        shortRtt = rtt;
+        longRtt = rtt;
+      } else {
+        shortRtt += (rtt - shortRtt) * SHORT_RTT_ALPHA;
+        longRtt += (rtt - longRtt) * LONG_RTT_ALPHA;
+        if (longRtt > shortRtt * 2) {
+          // the load went down, don't wait for the long term average to notice
+          longRtt *= 0.95;
+        }
+      }
+
+      if (failed) {
+        estimatedLimit = estimatedLimit * ERROR_BACKOFF_RATIO;
+      } else if (inFlight * 2 >= estimatedLimit) {
+        final double gradient = max(0.5, min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        final double target = estimatedLimit * gradient + sqrt(estimatedLimit);
+        estimatedLimit = estimatedLimit * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING;
+      }
+      estimatedLimit = max(MIN_LIMIT, min(maxLimit, estimatedLimit));
+
+      newLimit = (int) estimatedLimit;
+      rttEstimate = (long) shortRtt;
+      limit = newLimit;
+      roundTripTimeEstimate = rttEstimate;
+    }
+
+    listener.onLimitUpdated(newLimit, rttEstimate);
+  }
+
+  private void drainWaiters() {
+    // a waiter may finish right away, releasing and draining again. The outer loop takes care of it instead of recursing.
+    if (draining.get() != null) {
+      return;
+    }
+
+    draining.set(TRUE);
+    try {
+      while (!waiters.isEmpty()) {
+        final long permit = tryAcquire();
+        if (permit == NOT_ACQUIRED) {
+          return;
+        }
+
+        final LongConsumer waiter = waiters.poll();
+        if (waiter == null) {
+          // another thread took it
+          decrement(permit);
+          return;
+        }
+        waiter.accept(permit);
+      }
+    } finally {
+      draining.remove();
+    }
+  }
+
+  /**
+   * @return the current concurrency limit
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @return the amount of executions currently in flight
+   */
+  public int getInFlight() {
+    return inFlight(state.get());
+  }
+
+  /**
+   * @return the current estimate of the round trip time of an execution, in nanoseconds
+   */
+  public long getRoundTripTimeEstimate() {
+    return roundTripTimeEstimate;
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimiter.LimitListener;
+
+/**
+ * A {@link ProcessingStrategy} that can limit the amount of events processed concurrently with an
+ * {@link AdaptiveConcurrencyLimiter}, instead of just with its static {@code maxConcurrency}.
+ *
+ * @since 4.4.0
+ */
+public interface AdaptiveConcurrencyProcessingStrategy {
+
+  /**
+   * Makes this strategy limit the amount of events processed concurrently with an {@link AdaptiveConcurrencyLimiter}, bounded by
+   * its {@code maxConcurrency}.
+   * <p>
+   * Must be called before the strategy is started.
+   *
+   * @param listener notified every time the limit is updated
+   * @return the limiter, or {@code null} if this strategy does not support it.
+   */
+  AdaptiveConcurrencyLimiter enableAdaptiveConcurrency(LimitListener listener);
+}
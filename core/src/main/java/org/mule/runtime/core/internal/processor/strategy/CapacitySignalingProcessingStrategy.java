@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+
+/**
+ * A {@link ProcessingStrategy} that notifies when the capacity that made it reject an event in
+ * {@link ProcessingStrategy#checkBackpressureAccepting(org.mule.runtime.core.api.event.CoreEvent)} may have been released.
+ *
+ * @since 4.4.0
+ */
+public interface CapacitySignalingProcessingStrategy {
+
+  /**
+   * @return the signal notified when capacity is released, or {@code null} if this strategy does not provide one.
+   */
+  ProcessingCapacitySignal getCapacitySignal();
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.ThreadLocalRandom.current;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.BackPressureReason;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategyFactory;
+import org.mule.runtime.core.internal.processor.strategy.AbstractProcessingStrategy.ReactorSink;
+import org.mule.runtime.core.internal.processor.strategy.ProactorStreamEmitterProcessingStrategyFactory.ProactorStreamEmitterProcessingStrategy;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Creates a processing strategy with same behavior as {@link TransactionAwareProactorStreamEmitterProcessingStrategyFactory},
+ * apart from how the events emitted to a flow are distributed among the per core sinks of the flow.
+ * <p>
+ * Instead of the round robin used by default, which ignores how many events each sink already has queued and so may place an
+ * event behind a slow one while other sinks are idle, each event is dispatched taking the queue depth of the sinks into account:
+ * <ul>
+ * <li>Each emitting thread has a home sink, so that events from the same source thread usually go through the same sink and
+ * emitters don't contend on the same queue.</li>
+ * <li>The home sink is compared with another randomly picked sink, and the event goes to the one with the most room.</li>
+ * <li>If the chosen sink is full, the event is placed in any other sink with room before signaling back pressure.</li>
+ * </ul>
+ * Back pressure is signaled with the same {@link BackPressureReason reasons} as the default processing strategy, only when none
+ * of the sinks can take the event.
+ * <p>
+ * It can be set as the default by setting the {@link ProcessingStrategyFactory} class name system property to the name of this
+ * class.
+ *
+ * @since 4.4.0
+ */
+public class CoreAffineStreamEmitterProcessingStrategyFactory extends ProactorStreamEmitterProcessingStrategyFactory
+    implements TransactionAwareProcessingStrategyFactory {
+
+  @Override
+  public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
+    Supplier<Scheduler> cpuLightSchedulerSupplier = getCpuLightSchedulerSupplier(muleContext, schedulersNamePrefix);
+    Supplier<Scheduler> blockingSchedulerSupplier = () -> muleContext.getSchedulerService()
+        .ioScheduler(muleContext.getSchedulerBaseConfig().withName(schedulersNamePrefix + "." + BLOCKING.name()));
+    Supplier<Scheduler> cpuIntensiveSchedulerSupplier = () -> muleContext.getSchedulerService()
+        .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig().withName(schedulersNamePrefix + "." + CPU_INTENSIVE.name()));
+
+    ProcessingStrategy processingStrategy =
+        new CoreAffineStreamEmitterProcessingStrategy(getBufferSize(),
+                                                      getSubscriberCount(),
+                                                      cpuLightSchedulerSupplier,
+                                                      cpuLightSchedulerSupplier,
+                                                      blockingSchedulerSupplier,
+                                                      cpuIntensiveSchedulerSupplier,
+                                                      resolveParallelism(),
+                                                      getMaxConcurrency(),
+                                                      isMaxConcurrencyEagerCheck(),
+                                                      () -> muleContext.getConfiguration().getShutdownTimeout());
+    return new TransactionAwareStreamEmitterProcessingStrategyDecorator(processingStrategy);
+  }
+
+  @Override
+  public Class<? extends ProcessingStrategy> getProcessingStrategyType() {
+    return TransactionAwareStreamEmitterProcessingStrategyDecorator.class;
+  }
+
+  static class CoreAffineStreamEmitterProcessingStrategy extends ProactorStreamEmitterProcessingStrategy {
+
+    public CoreAffineStreamEmitterProcessingStrategy(int bufferSize,
+                                                     int subscriberCount,
+                                                     Supplier<Scheduler> flowDispatchSchedulerSupplier,
+                                                     Supplier<Scheduler> cpuLightSchedulerSupplier,
+                                                     Supplier<Scheduler> blockingSchedulerSupplier,
+                                                     Supplier<Scheduler> cpuIntensiveSchedulerSupplier,
+                                                     int parallelism,
+                                                     int maxConcurrency,
+                                                     boolean maxConcurrencyEagerCheck,
+                                                     Supplier<Long> shutdownTimeoutSupplier) {
+      super(bufferSize, subscriberCount, flowDispatchSchedulerSupplier, cpuLightSchedulerSupplier, blockingSchedulerSupplier,
+            cpuIntensiveSchedulerSupplier, parallelism, maxConcurrency, maxConcurrencyEagerCheck, shutdownTimeoutSupplier);
+    }
+
+    @Override
+    protected ReactorSink<CoreEvent> createDispatchingSink(List<ReactorSink<CoreEvent>> sinks) {
+      return new QueueDepthAwareReactorSink<>(sinks);
+    }
+  }
+
+  /**
+   * Dispatches each event to the least loaded of the emitting thread's home sink and another random one, falling back to any
+   * other sink with room if that one is full.
+   * <p>
+   * The {@code sinks} only notify an event to their {@code onEventConsumer} when they actually take it, so trying more than one
+   * of them still notifies each event once.
+   */
+  static class QueueDepthAwareReactorSink<E> implements ReactorSink<E> {
+
+    private final List<ReactorSink<E>> fluxSinks;
+
+    public QueueDepthAwareReactorSink(List<ReactorSink<E>> sinks) {
+      this.fluxSinks = sinks;
+    }
+
+    @Override
+    public void prepareDispose() {
+      fluxSinks.forEach(ReactorSink::prepareDispose);
+    }
+
+    @Override
+    public void dispose() {
+      fluxSinks.forEach(ReactorSink::prepareDispose);
+      fluxSinks.forEach(ReactorSink::dispose);
+    }
+
+    @Override
+    public void accept(CoreEvent event) {
+      fluxSinks.get(selectIndex()).accept(event);
+    }
+
+    @Override
+    public BackPressureReason emit(CoreEvent event) {
+      final int selected = selectIndex();
+      BackPressureReason reason = fluxSinks.get(selected).emit(event);
+      if (reason == null) {
+        return null;
+      }
+
+      // The selected sink is full, use the spare room of the others before signaling back pressure
+      final int size = fluxSinks.size();
+      for (int i = 1; i < size; ++i) {
+        ReactorSink<E> sibling = fluxSinks.get((selected + i) % size);
+        if (sibling.remainingCapacity() > 0) {
+          BackPressureReason siblingReason = sibling.emit(event);
+          if (siblingReason == null) {
+            return null;
+          }
+        }
+      }
+
+      return reason;
+    }
+
+    int selectIndex() {
+      final int size = fluxSinks.size();
+      final int home = (int) (currentThread().getId() % size);
+      if (size == 1) {
+        return home;
+      }
+
+      final int other = (home + 1 + current().nextInt(size - 1)) % size;
+      return fluxSinks.get(other).remainingCapacity() > fluxSinks.get(home).remainingCapacity() ? other : home;
+    }
+
+    @Override
+    public E intoSink(CoreEvent event) {
+      return (E) event;
+    }
+  }
+}
@@ -140,6 +140,10 @@ public class ProactorStreamEmitterProcessingStrategyFactory extends AbstractStre
           .register(CPU_INTENSIVE, getEnricher(cpuIntensiveScheduler));
     }
 
+    protected Scheduler getBlockingScheduler() {
+      return blockingScheduler;
+    }
+
     private ProactorProcessingStrategyEnricher getEnricher(Scheduler blockingScheduler) {
       return new ProactorProcessingStrategyEnricher(() -> blockingScheduler,
                                                     getSchedulerDecorator().compose(this::getRetryScheduler),
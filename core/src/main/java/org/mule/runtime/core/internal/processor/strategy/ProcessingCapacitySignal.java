@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Allows sources applying the {@code WAIT} back pressure strategy to block until a {@link
+ * org.mule.runtime.core.api.processor.strategy.ProcessingStrategy} has capacity again, instead of polling it.
+ * <p/>
+ * Each time capacity may have been released the generation of this signal is incremented. A waiter takes the generation before
+ * checking the capacity of the processing strategy and, if rejected, waits for the generation to change. This way a release that
+ * happens between the check and the wait is not lost.
+ *
+ * @since 4.4.0
+ */
+public final class ProcessingCapacitySignal {
+
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicInteger waiters = new AtomicInteger();
+  private final Lock lock = new ReentrantLock();
+  private final Condition capacityAvailable = lock.newCondition();
+
+  /**
+   * @return the current generation, to be taken before checking the capacity of the processing strategy.
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Notifies that capacity may be available, waking up any thread waiting in {@link #awaitCapacity(long, long, TimeUnit)}.
+   * <p/>
+   * The lock is only taken when there are waiters, so this is cheap enough to be called on every event completion.
+   */
+  public void signalCapacityAvailable() {
+    generation.incrementAndGet();
+    if (waiters.get() > 0) {
+      lock.lock();
+      try {
+        capacityAvailable.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Waits until {@link #signalCapacityAvailable()} is called after the given generation was taken, or the timeout elapses.
+   *
+   * @param observedGeneration the generation taken before the rejected capacity check
+   * @param timeout            the maximum time to wait
+   * @param unit               the unit of {@code timeout}
+   * @return {@code true} if capacity was signaled, {@code false} if the timeout elapsed
+   * @throws InterruptedException if the current thread is interrupted while waiting
+   */
+  public boolean awaitCapacity(long observedGeneration, long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    waiters.incrementAndGet();
+    lock.lock();
+    try {
+      while (generation.get() == observedGeneration) {
+        if (nanos <= 0) {
+          return false;
+        }
+        nanos = capacityAvailable.awaitNanos(nanos);
+      }
+      return true;
+    } finally {
+      lock.unlock();
+      waiters.decrementAndGet();
+    }
+  }
+
+  /**
+   * @return the number of threads currently waiting for capacity.
+   */
+  public int getWaiters() {
+    return waiters.get();
+  }
+}
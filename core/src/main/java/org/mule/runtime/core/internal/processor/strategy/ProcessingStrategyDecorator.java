@@ -20,6 +20,7 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.Sink;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimiter.LimitListener;
 
 import java.util.concurrent.RejectedExecutionException;
 
@@ -33,7 +34,8 @@ import org.reactivestreams.Publisher;
  *
  * @since 4.3.0
  */
-public abstract class ProcessingStrategyDecorator implements ProcessingStrategy, Lifecycle {
+public abstract class ProcessingStrategyDecorator
+    implements ProcessingStrategy, CapacitySignalingProcessingStrategy, AdaptiveConcurrencyProcessingStrategy, Lifecycle {
 
   protected final ProcessingStrategy delegate;
 
@@ -81,6 +83,20 @@ public abstract class ProcessingStrategyDecorator implements ProcessingStrategy,
     return delegate.checkBackpressureEmitting(event);
   }
 
+  @Override
+  public ProcessingCapacitySignal getCapacitySignal() {
+    return delegate instanceof CapacitySignalingProcessingStrategy
+        ? ((CapacitySignalingProcessingStrategy) delegate).getCapacitySignal()
+        : null;
+  }
+
+  @Override
+  public AdaptiveConcurrencyLimiter enableAdaptiveConcurrency(LimitListener listener) {
+    return delegate instanceof AdaptiveConcurrencyProcessingStrategy
+        ? ((AdaptiveConcurrencyProcessingStrategy) delegate).enableAdaptiveConcurrency(listener)
+        : null;
+  }
+
   @Override
   public void initialise() throws InitialisationException {
     initialiseIfNeeded(delegate);
@@ -113,7 +113,10 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
     private final LazyValue<Scheduler> flowDispatchSchedulerLazy;
     private final AtomicLong lastRetryTimestamp = new AtomicLong(MIN_VALUE);
     private final AtomicInteger queuedEvents = new AtomicInteger();
-    private final BiConsumer<CoreEvent, Throwable> queuedDecrementCallback = (e, t) -> queuedEvents.decrementAndGet();
+    private final BiConsumer<CoreEvent, Throwable> queuedDecrementCallback = (e, t) -> {
+      queuedEvents.decrementAndGet();
+      capacitySignal.signalCapacityAvailable();
+    };
     private final LongUnaryOperator lastRetryTimestampCheckOperator =
         v -> nanoTime() - v < SCHEDULER_BUSY_RETRY_INTERVAL_NS * 2
             ? v
@@ -250,6 +253,17 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
       }
 
       activeSinksCount.addAndGet(sinksCount);
+      return createDispatchingSink(sinks);
+    }
+
+    /**
+     * Creates the sink that distributes the events emitted to a flow among its {@code sinks}.
+     *
+     * @param sinks the sinks of the flow, one per subscriber of the flow's pipeline
+     * @return a sink dispatching to the given {@code sinks} in round robin.
+     * @since 4.4.0
+     */
+    protected ReactorSink<CoreEvent> createDispatchingSink(List<ReactorSink<CoreEvent>> sinks) {
       return new RoundRobinReactorSink<>(sinks);
     }
 
@@ -280,7 +294,10 @@ public class StreamEmitterProcessingStrategyFactory extends AbstractStreamProces
     protected ScheduledExecutorService getRetryScheduler(ScheduledExecutorService scheduler) {
       return new RejectionCallbackExecutorServiceDecorator(scheduler, scheduler,
                                                            () -> onRejected(scheduler),
-                                                           () -> lastRetryTimestamp.set(MIN_VALUE),
+                                                           () -> {
+                                                             lastRetryTimestamp.set(MIN_VALUE);
+                                                             capacitySignal.signalCapacityAvailable();
+                                                           },
                                                            ofMillis(SCHEDULER_BUSY_RETRY_INTERVAL_MS));
     }
 
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Thread.currentThread;
+import static java.util.Collections.emptyList;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static java.util.concurrent.ConcurrentHashMap.newKeySet;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+/**
+ * A {@link Scheduler} that runs each task on its own virtual thread, bounding how many of them may run at the same time instead
+ * of how many threads there are in a pool.
+ * <p>
+ * Tasks submitted when the concurrency limit has been reached are rejected with a {@link RejectedExecutionException}, which the
+ * processing strategies already handle as a busy scheduler, applying back pressure.
+ * <p>
+ * Delayed and periodic tasks are run on the {@code delegate} scheduler.
+ *
+ * @since 4.4.0
+ */
+final class VirtualThreadScheduler extends AbstractExecutorService implements Scheduler {
+
+  private static final Logger LOGGER = getLogger(VirtualThreadScheduler.class);
+
+  private final Scheduler delegate;
+  private final ThreadFactory threadFactory;
+  private final int maxConcurrency;
+  private final Semaphore permits;
+  private final Set<Thread> runningThreads = newKeySet();
+
+  private volatile boolean shutdown = false;
+
+  /**
+   * Returns a {@link ThreadFactory} for virtual threads, if the running JVM supports them.
+   * <p>
+   * The runtime is built for Java 8, so the virtual threads API is looked up reflectively.
+   *
+   * @param namePrefix the prefix of the names of the created threads
+   * @return a factory of virtual threads, or {@link Optional#empty()} if the JVM does not support them.
+   */
+  static Optional<ThreadFactory> virtualThreadFactory(String namePrefix) {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+      return of((ThreadFactory) builderClass.getMethod("factory").invoke(builder));
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      // Not available, or a preview feature not enabled for the running JVM
+      LOGGER.debug("Virtual threads are not supported by the running JVM", e);
+      return empty();
+    }
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param delegate       the {@link Scheduler} to run delayed and periodic tasks on
+   * @param threadFactory  the factory of the threads to run each task on
+   * @param maxConcurrency the maximum amount of tasks that may run at the same time
+   */
+  VirtualThreadScheduler(Scheduler delegate, ThreadFactory threadFactory, int maxConcurrency) {
+    checkArgument(maxConcurrency > 0, "maxConcurrency must be greater than zero");
+    this.delegate = delegate;
+    this.threadFactory = threadFactory;
+    this.maxConcurrency = maxConcurrency;
+    this.permits = new Semaphore(maxConcurrency);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (shutdown) {
+      throw new RejectedExecutionException(getName() + " is shutdown");
+    }
+    if (!permits.tryAcquire()) {
+      throw new RejectedExecutionException(getName() + " is already running " + maxConcurrency + " tasks");
+    }
+
+    try {
+      threadFactory.newThread(() -> {
+        final Thread thread = currentThread();
+        runningThreads.add(thread);
+        try {
+          command.run();
+        } finally {
+          runningThreads.remove(thread);
+          permits.release();
+        }
+      }).start();
+    } catch (Throwable t) {
+      permits.release();
+      throw t;
+    }
+  }
+
+  /**
+   * @return the amount of tasks currently running
+   */
+  int getActiveCount() {
+    return maxConcurrency - permits.availablePermits();
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    return delegate.schedule(command, delay, unit);
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    return delegate.schedule(callable, delay, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+    return delegate.scheduleAtFixedRate(command, initialDelay, period, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+    return delegate.scheduleWithFixedDelay(command, initialDelay, delay, unit);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression) {
+    return delegate.scheduleWithCronExpression(command, cronExpression);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithCronExpression(Runnable command, String cronExpression, TimeZone timeZone) {
+    return delegate.scheduleWithCronExpression(command, cronExpression, timeZone);
+  }
+
+  @Override
+  public void stop() {
+    shutdown();
+    delegate.stop();
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown();
+    runningThreads.forEach(Thread::interrupt);
+    // tasks are never queued
+    return emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return shutdown && getActiveCount() == 0;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    if (permits.tryAcquire(maxConcurrency, timeout, unit)) {
+      permits.release(maxConcurrency);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public String toString() {
+    return "VirtualThreadScheduler{" + delegate.toString() + "}";
+  }
+}
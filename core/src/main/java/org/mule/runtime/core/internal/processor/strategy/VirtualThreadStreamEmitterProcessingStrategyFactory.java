@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Integer.getInteger;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.IO_RW;
+import static org.mule.runtime.core.internal.processor.strategy.VirtualThreadScheduler.virtualThreadFactory;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategyFactory;
+import org.mule.runtime.core.internal.processor.strategy.ProactorStreamEmitterProcessingStrategyFactory.ProactorStreamEmitterProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.enricher.ProcessingTypeBasedReactiveProcessorEnricher;
+import org.mule.runtime.core.internal.processor.strategy.enricher.VirtualThreadProcessingStrategyEnricher;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Creates a processing strategy with same behavior as {@link TransactionAwareProactorStreamEmitterProcessingStrategyFactory},
+ * apart from how {@link ReactiveProcessor.ProcessingType#BLOCKING} and
+ * {@link ReactiveProcessor.ProcessingType#IO_RW} components are run.
+ * <p>
+ * Instead of the IO scheduler, whose pool of threads may be exhausted by a flow with many slow blocking operations, each
+ * execution of those components is run on its own virtual thread. Rather than by the size of a pool, how many of them may run
+ * at the same time is limited per flow:
+ * <ul>
+ * <li>by the {@code maxConcurrency} of the flow, if set,</li>
+ * <li>or else by the value of the {@link #VIRTUAL_THREADS_MAX_CONCURRENCY_PROPERTY} system property (10000 by default).</li>
+ * </ul>
+ * Once that limit is reached, back pressure is applied as with a busy scheduler.
+ * <p>
+ * If the running JVM does not support virtual threads, this processing strategy behaves just like the default one.
+ * <p>
+ * It can be set as the default by setting the {@link ProcessingStrategyFactory} class name system property to the name of this
+ * class.
+ *
+ * @since 4.4.0
+ */
+public class VirtualThreadStreamEmitterProcessingStrategyFactory extends ProactorStreamEmitterProcessingStrategyFactory
+    implements TransactionAwareProcessingStrategyFactory {
+
+  private static final Logger LOGGER = getLogger(VirtualThreadStreamEmitterProcessingStrategyFactory.class);
+
+  public static final String VIRTUAL_THREADS_MAX_CONCURRENCY_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "VIRTUAL_THREADS_MAX_CONCURRENCY";
+  private static final int DEFAULT_VIRTUAL_THREADS_MAX_CONCURRENCY = getInteger(VIRTUAL_THREADS_MAX_CONCURRENCY_PROPERTY, 10000);
+
+  private static final AtomicBoolean UNSUPPORTED_LOGGED = new AtomicBoolean(false);
+
+  @Override
+  public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
+    final int virtualThreadsMaxConcurrency = resolveVirtualThreadsMaxConcurrency();
+
+    Supplier<Scheduler> cpuLightSchedulerSupplier = getCpuLightSchedulerSupplier(muleContext, schedulersNamePrefix);
+    Supplier<Scheduler> blockingSchedulerSupplier = () -> {
+      final String schedulerName = schedulersNamePrefix + "." + BLOCKING.name();
+      Scheduler ioScheduler = muleContext.getSchedulerService()
+          .ioScheduler(muleContext.getSchedulerBaseConfig().withName(schedulerName));
+
+      Optional<ThreadFactory> threadFactory = virtualThreadFactory(schedulerName + ".virtual-");
+      if (threadFactory.isPresent()) {
+        return new VirtualThreadScheduler(ioScheduler, threadFactory.get(), virtualThreadsMaxConcurrency);
+      }
+
+      if (UNSUPPORTED_LOGGED.compareAndSet(false, true)) {
+        LOGGER.warn("Virtual threads are not supported by the running JVM. Blocking components will be run on the IO scheduler.");
+      }
+      return ioScheduler;
+    };
+    Supplier<Scheduler> cpuIntensiveSchedulerSupplier = () -> muleContext.getSchedulerService()
+        .cpuIntensiveScheduler(muleContext.getSchedulerBaseConfig().withName(schedulersNamePrefix + "." + CPU_INTENSIVE.name()));
+
+    ProcessingStrategy processingStrategy =
+        new VirtualThreadStreamEmitterProcessingStrategy(getBufferSize(),
+                                                         getSubscriberCount(),
+                                                         cpuLightSchedulerSupplier,
+                                                         cpuLightSchedulerSupplier,
+                                                         blockingSchedulerSupplier,
+                                                         cpuIntensiveSchedulerSupplier,
+                                                         resolveParallelism(),
+                                                         getMaxConcurrency(),
+                                                         isMaxConcurrencyEagerCheck(),
+                                                         () -> muleContext.getConfiguration().getShutdownTimeout(),
+                                                         virtualThreadsMaxConcurrency);
+    return new TransactionAwareStreamEmitterProcessingStrategyDecorator(processingStrategy);
+  }
+
+  private int resolveVirtualThreadsMaxConcurrency() {
+    return getMaxConcurrency() == MAX_VALUE ? DEFAULT_VIRTUAL_THREADS_MAX_CONCURRENCY : getMaxConcurrency();
+  }
+
+  @Override
+  public Class<? extends ProcessingStrategy> getProcessingStrategyType() {
+    return TransactionAwareStreamEmitterProcessingStrategyDecorator.class;
+  }
+
+  static class VirtualThreadStreamEmitterProcessingStrategy extends ProactorStreamEmitterProcessingStrategy {
+
+    private final int virtualThreadsMaxConcurrency;
+
+    public VirtualThreadStreamEmitterProcessingStrategy(int bufferSize,
+                                                        int subscriberCount,
+                                                        Supplier<Scheduler> flowDispatchSchedulerSupplier,
+                                                        Supplier<Scheduler> cpuLightSchedulerSupplier,
+                                                        Supplier<Scheduler> blockingSchedulerSupplier,
+                                                        Supplier<Scheduler> cpuIntensiveSchedulerSupplier,
+                                                        int parallelism,
+                                                        int maxConcurrency,
+                                                        boolean maxConcurrencyEagerCheck,
+                                                        Supplier<Long> shutdownTimeoutSupplier,
+                                                        int virtualThreadsMaxConcurrency) {
+      super(bufferSize, subscriberCount, flowDispatchSchedulerSupplier, cpuLightSchedulerSupplier, blockingSchedulerSupplier,
+            cpuIntensiveSchedulerSupplier, parallelism, maxConcurrency, maxConcurrencyEagerCheck, shutdownTimeoutSupplier);
+      this.virtualThreadsMaxConcurrency = virtualThreadsMaxConcurrency;
+    }
+
+    @Override
+    protected ProcessingTypeBasedReactiveProcessorEnricher getProcessingStrategyEnricher() {
+      final Scheduler blockingScheduler = getBlockingScheduler();
+      if (!(blockingScheduler instanceof VirtualThreadScheduler)) {
+        return super.getProcessingStrategyEnricher();
+      }
+
+      VirtualThreadProcessingStrategyEnricher blockingEnricher =
+          new VirtualThreadProcessingStrategyEnricher(() -> blockingScheduler,
+                                                      getSchedulerDecorator().compose(this::getRetryScheduler),
+                                                      virtualThreadsMaxConcurrency,
+                                                      getParallelism(),
+                                                      subscribers);
+      return super.getProcessingStrategyEnricher()
+          .register(BLOCKING, blockingEnricher)
+          .register(IO_RW, blockingEnricher);
+    }
+  }
+}
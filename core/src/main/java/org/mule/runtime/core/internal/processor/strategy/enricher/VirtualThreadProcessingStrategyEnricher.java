@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.processor.strategy.enricher;
+
+import static java.lang.Math.max;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.internal.processor.strategy.reactor.builder.ComponentProcessingStrategyReactiveProcessorBuilder.processingStrategyReactiveProcessorFrom;
+
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ReactiveProcessorEnricher} that dispatches each execution of the processor to a scheduler that runs it on its own
+ * virtual thread.
+ * <p>
+ * Unlike the {@link ProactorProcessingStrategyEnricher}, the parallelism of the chain is not derived from the size of a thread
+ * pool but from the concurrency cap of the flow, since the threads the processor is run on are cheap to create and block. As in
+ * the proactor, that cap is split among the parallel rails of all the subscribers of the flow. The cap itself is enforced by the
+ * scheduler, which rejects any task exceeding it.
+ *
+ * @since 4.4.0
+ */
+public class VirtualThreadProcessingStrategyEnricher implements ReactiveProcessorEnricher {
+
+  private final Supplier<Scheduler> contextSchedulerSupplier;
+  private final Function<ScheduledExecutorService, ScheduledExecutorService> schedulerDecorator;
+  private final int maxConcurrency;
+  private final int parallelism;
+  private final int subscribers;
+
+  public VirtualThreadProcessingStrategyEnricher(Supplier<Scheduler> contextSchedulerSupplier,
+                                                 Function<ScheduledExecutorService, ScheduledExecutorService> schedulerDecorator,
+                                                 int maxConcurrency,
+                                                 int parallelism,
+                                                 int subscribers) {
+    checkArgument(maxConcurrency > 0, "maxConcurrency must be greater than zero");
+    this.contextSchedulerSupplier = contextSchedulerSupplier;
+    this.schedulerDecorator = schedulerDecorator;
+    this.maxConcurrency = maxConcurrency;
+    this.parallelism = parallelism;
+    this.subscribers = subscribers;
+  }
+
+  @Override
+  public ReactiveProcessor enrich(ReactiveProcessor processor) {
+    return processingStrategyReactiveProcessorFrom(processor, contextSchedulerSupplier.get())
+        .withDispatcherScheduler(schedulerDecorator.apply(contextSchedulerSupplier.get()))
+        .withParallelism(max(maxConcurrency / (parallelism * subscribers), 1))
+        .build();
+  }
+
+}
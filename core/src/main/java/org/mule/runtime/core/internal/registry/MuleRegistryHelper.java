@@ -258,30 +258,32 @@ public class MuleRegistryHelper implements MuleRegistry {
 
   public void notifyTransformerResolvers(Transformer t, TransformerResolver.RegistryAction action) {
     if (t instanceof Converter) {
-      Lock transformerResolversReadLock = transformerResolversLock.readLock();
-      transformerResolversReadLock.lock();
+      // Update the transformers before notifying the resolvers, so that a resolution that starts after a resolver invalidated
+      // its cache already sees the change
+      Lock transformersWriteLock = transformersLock.writeLock();
+      transformersWriteLock.lock();
       try {
-
-        for (TransformerResolver resolver : transformerResolvers) {
-          resolver.transformerChange(t, action);
+        if (action == ADDED) {
+          transformers.add(t);
+        } else {
+          transformers.remove(t);
         }
       } finally {
-        transformerResolversReadLock.unlock();
+        transformersWriteLock.unlock();
       }
 
       transformerListCache.clear();
       exactTransformerCache.clear();
 
-      Lock transformersWriteLock = transformersLock.writeLock();
-      transformersWriteLock.lock();
+      Lock transformerResolversReadLock = transformerResolversLock.readLock();
+      transformerResolversReadLock.lock();
       try {
-        if (action == ADDED) {
-          transformers.add(t);
-        } else {
-          transformers.remove(t);
+
+        for (TransformerResolver resolver : transformerResolvers) {
+          resolver.transformerChange(t, action);
         }
       } finally {
-        transformersWriteLock.unlock();
+        transformerResolversReadLock.unlock();
       }
     }
   }
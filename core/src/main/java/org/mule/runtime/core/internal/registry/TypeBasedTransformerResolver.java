@@ -20,6 +20,7 @@ import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.transformer.ResolverException;
+import org.mule.runtime.core.internal.transformer.TransformerResolutionCache;
 import org.mule.runtime.core.internal.transformer.graph.GraphTransformerResolver;
 import org.mule.runtime.core.internal.transformer.simple.ObjectToByteArray;
 import org.mule.runtime.core.internal.transformer.simple.ObjectToString;
@@ -33,8 +34,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Will discover transformers based on type information only. It looks for transformers that support the source and result types
@@ -53,13 +52,16 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
 
   private MuleContext muleContext;
 
-  protected Map<String, Transformer> exactTransformerCache = new ConcurrentHashMap/* <String, Transformer> */(8);
+  protected TransformerResolutionCache exactTransformerCache = new TransformerResolutionCache();
 
   protected TransformerResolver graphTransformerResolver = new GraphTransformerResolver();
 
   @Override
   public void setMuleContext(MuleContext context) {
     this.muleContext = context;
+    if (context != null && context.getStatistics() != null) {
+      exactTransformerCache.setStatistics(context.getStatistics().getTransformerResolutionStatistics());
+    }
   }
 
   @Override
@@ -77,12 +79,12 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
     }
   }
 
+  @Override
   public Transformer resolve(DataType source, DataType result) throws ResolverException {
-    Transformer transformer = exactTransformerCache.get(source.toString() + result.toString());
-    if (transformer != null) {
-      return transformer;
-    }
+    return exactTransformerCache.resolve(source, result, this::lookupTransformer);
+  }
 
+  private Transformer lookupTransformer(DataType source, DataType result) throws ResolverException {
     MuleRegistry registry = ((MuleContextWithRegistry) muleContext).getRegistry();
     List<Transformer> trans = registry.lookupTransformers(source, result);
 
@@ -93,7 +95,7 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
       trans.add(compositeTransformer);
     }
 
-    transformer = getNearestTransformerMatch(trans, source.getType(), result.getType());
+    Transformer transformer = getNearestTransformerMatch(trans, source.getType(), result.getType());
     // If an exact mach is not found, we have a 'second pass' transformer that can be used to converting to String or
     // byte[]
     Transformer secondPass;
@@ -121,9 +123,6 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
       }
     }
 
-    if (transformer != null) {
-      exactTransformerCache.put(source.toString() + result.toString(), transformer);
-    }
     return transformer;
   }
 
@@ -170,14 +169,14 @@ public class TypeBasedTransformerResolver implements TransformerResolver, MuleCo
 
   @Override
   public void dispose() {
-    exactTransformerCache.clear();
+    exactTransformerCache.invalidate();
   }
 
   @Override
   public void transformerChange(Transformer transformer, RegistryAction registryAction) {
     if (transformer instanceof Converter) {
       graphTransformerResolver.transformerChange(transformer, registryAction);
-      exactTransformerCache.clear();
+      exactTransformerCache.invalidate();
     }
   }
 }
@@ -29,6 +29,13 @@ public class ReconnectionConfig extends AbstractComponent {
 
   public static final String DISABLE_ASYNC_RETRY_POLICY_ON_SOURCES = SYSTEM_PROPERTY_PREFIX + "disableAsyncRetryPolicyOnSources";
 
+  /**
+   * Enables {@link #isFastFail() fast fail} for the reconnection configurations not setting it explicitly.
+   *
+   * @since 4.4.0
+   */
+  public static final String FAST_FAIL_RECONNECTION_PROPERTY = SYSTEM_PROPERTY_PREFIX + "reconnection.fastFail";
+
   /**
    * When the application is deployed, a connectivity test is performed on all connectors. If set to {@code true}, deployment will
    * fail if the test doesn't pass after exhausting the associated reconnection strategy
@@ -40,6 +47,12 @@ public class ReconnectionConfig extends AbstractComponent {
    */
   private final RetryPolicyTemplate retryPolicyTemplate;
 
+  /**
+   * If set to {@code true}, once a connection attempt fails, subsequent attempts fail right away with a connectivity error while
+   * the reconnection strategy is applied in the background, instead of each caller applying it.
+   */
+  private final boolean fastFail;
+
   /**
    * @return a new instance with default values
    */
@@ -48,14 +61,30 @@ public class ReconnectionConfig extends AbstractComponent {
   }
 
   public ReconnectionConfig(boolean failsDeployment, RetryPolicyTemplate retryPolicyTemplate) {
+    this(failsDeployment, retryPolicyTemplate, valueOf(getProperty(FAST_FAIL_RECONNECTION_PROPERTY, "false")));
+  }
+
+  /**
+   * @since 4.4.0
+   */
+  public ReconnectionConfig(boolean failsDeployment, RetryPolicyTemplate retryPolicyTemplate, boolean fastFail) {
     this.failsDeployment = failsDeployment;
     this.retryPolicyTemplate = getRetryPolicyTemplate(retryPolicyTemplate);
+    this.fastFail = fastFail;
   }
 
   public boolean isFailsDeployment() {
     return failsDeployment;
   }
 
+  /**
+   * @return whether connection attempts fail right away while reconnecting in the background.
+   * @since 4.4.0
+   */
+  public boolean isFastFail() {
+    return fastFail;
+  }
+
   public RetryPolicyTemplate getRetryPolicyTemplate() {
     return retryPolicyTemplate;
   }
@@ -11,6 +11,7 @@ import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.error.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
 import static org.mule.runtime.core.internal.component.ComponentUtils.getFromAnnotatedObject;
 import static org.mule.runtime.core.internal.el.ExpressionLanguageUtils.compile;
+import static org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimiter.isAdaptiveMaxConcurrencyEnabled;
 import static org.mule.runtime.core.internal.processor.strategy.DirectProcessingStrategyFactory.DIRECT_PROCESSING_STRATEGY_INSTANCE;
 import static org.mule.runtime.core.internal.util.rx.Operators.outputToTarget;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
@@ -29,6 +30,7 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimiter;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
 import org.mule.runtime.core.privileged.processor.Scope;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
@@ -64,6 +66,8 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
   private ForkJoinStrategy forkJoinStrategy;
   private long timeout = Long.MAX_VALUE;
   private Integer maxConcurrency;
+  private Boolean adaptiveMaxConcurrency;
+  private AdaptiveConcurrencyLimiter concurrencyLimiter;
   private Scheduler timeoutScheduler;
   private ErrorType timeoutErrorType;
   private String target;
@@ -119,9 +123,16 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
     maxConcurrency = maxConcurrency != null ? maxConcurrency : getDefaultMaxConcurrency();
     forkJoinStrategyFactory = forkJoinStrategyFactory != null ? forkJoinStrategyFactory : getDefaultForkJoinStrategyFactory();
 
-    forkJoinStrategy =
-        forkJoinStrategyFactory.createForkJoinStrategy(resolveProcessingStrategy(), maxConcurrency,
-                                                       isDelayErrors(), timeout, timeoutScheduler, timeoutErrorType);
+    if (adaptiveMaxConcurrency != null ? adaptiveMaxConcurrency : isAdaptiveMaxConcurrencyEnabled()) {
+      concurrencyLimiter = new AdaptiveConcurrencyLimiter(maxConcurrency);
+      forkJoinStrategy =
+          forkJoinStrategyFactory.createForkJoinStrategy(resolveProcessingStrategy(), maxConcurrency, concurrencyLimiter,
+                                                         isDelayErrors(), timeout, timeoutScheduler, timeoutErrorType);
+    } else {
+      forkJoinStrategy =
+          forkJoinStrategyFactory.createForkJoinStrategy(resolveProcessingStrategy(), maxConcurrency,
+                                                         isDelayErrors(), timeout, timeoutScheduler, timeoutErrorType);
+    }
   }
 
   protected ProcessingStrategy resolveProcessingStrategy() {
@@ -173,6 +184,25 @@ public abstract class AbstractForkJoinRouter extends AbstractMuleObjectOwner<Mes
     this.maxConcurrency = maxConcurrency;
   }
 
+  /**
+   * Set whether the amount of routing pairs executed in parallel adapts to their observed latency and error rate, always within
+   * the limit set by {@link #setMaxConcurrency(int)}. If not set, the value of the
+   * {@link AdaptiveConcurrencyLimiter#ADAPTIVE_MAX_CONCURRENCY_PROPERTY} system property is used.
+   *
+   * @param adaptiveMaxConcurrency whether to adapt the concurrency.
+   */
+  public void setAdaptiveMaxConcurrency(boolean adaptiveMaxConcurrency) {
+    this.adaptiveMaxConcurrency = adaptiveMaxConcurrency;
+  }
+
+  /**
+   * @return the limiter adapting the amount of routing pairs executed in parallel, or {@code null} if the concurrency of this
+   *         router is not adaptive.
+   */
+  public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+    return concurrencyLimiter;
+  }
+
   /**
    * The variable where the result from this router should be stored. If this is not set then the result is set in the payload.
    *
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.String.format;
+import static java.util.Collections.singletonList;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.privileged.exception.TemplateOnErrorHandler.createErrorType;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.getProcessingStrategy;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.processToApply;
+
+import org.mule.runtime.api.exception.ErrorTypeRepository;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.exception.ErrorTypeMatcher;
+import org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics;
+import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.privileged.processor.Scope;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * CircuitBreaker routes an event to the message processors it contains, unless they have been failing recently, in which case
+ * the event is rejected right away with a {@code MULE:ROUTING} error instead of waiting for the failing processors.
+ * <p>
+ * Failures are counted in a rolling window, and only those with an error that matches the configured
+ * {@link #setErrorTypes(String) error types} are accounted. Once {@link #setFailureThreshold(int) enough} failures happen within
+ * the {@link #setRollingWindowMillis(long) window}, the circuit opens and events are rejected for
+ * {@link #setOpenMillis(long) some time}. After that, a single trial event is routed to find out whether the circuit can be
+ * closed again. A trial that takes {@link #setTrialTimeoutMillis(long) too long} is abandoned, and the next event is routed as
+ * trial instead.
+ * <p>
+ * Scopes with the same {@link #setName(String) name} in an application share the state of the circuit, so that a backend
+ * detected as failing in one flow is not hit from others. The configuration of the first scope initialised is the one used for
+ * the shared circuit. A circuit breaker may be used as each of the routes of a {@link FirstSuccessful} router, so that it skips
+ * to the next route right away when the circuit for a route is open.
+ *
+ * @since 4.4.0
+ */
+public class CircuitBreaker extends AbstractMuleObjectOwner implements Scope {
+
+  private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+  private static final long DEFAULT_ROLLING_WINDOW_MILLIS = 10000;
+  private static final long DEFAULT_OPEN_MILLIS = 30000;
+  private static final long DEFAULT_TRIAL_TIMEOUT_MILLIS = 60000;
+
+  @Inject
+  private ErrorTypeRepository errorTypeRepository;
+
+  private String name;
+  private String errorTypes;
+  private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+  private long rollingWindowMillis = DEFAULT_ROLLING_WINDOW_MILLIS;
+  private long openMillis = DEFAULT_OPEN_MILLIS;
+  private long trialTimeoutMillis = DEFAULT_TRIAL_TIMEOUT_MILLIS;
+  private List<Processor> processors;
+  private MessageProcessorChain nestedChain;
+  private ErrorTypeMatcher errorTypeMatcher;
+  private String stateKey;
+  private CircuitBreakerState state;
+
+  @Override
+  public void initialise() throws InitialisationException {
+    if (processors == null) {
+      throw new InitialisationException(createStaticMessage("One message processor must be configured within 'circuit-breaker'."),
+                                        this);
+    }
+
+    this.nestedChain = buildNewChainWithListOfProcessors(getProcessingStrategy(locator, this), processors);
+
+    super.initialise();
+
+    if (name == null) {
+      name = getLocation().getLocation();
+    }
+    errorTypeMatcher = createErrorType(errorTypeRepository, errorTypes);
+
+    final CircuitBreakerStatistics statistics = muleContext.getStatistics().computeCircuitBreakerStatisticsIfAbsent(name);
+    stateKey = format("%s-%s", muleContext.getConfiguration().getId(), name);
+    try {
+      state = CircuitBreakerStates.acquire(stateKey, () -> new CircuitBreakerState(failureThreshold, rollingWindowMillis,
+                                                                                      openMillis, trialTimeoutMillis,
+                                                                                      statistics));
+    } catch (IllegalArgumentException e) {
+      throw new InitialisationException(e, this);
+    }
+  }
+
+  @Override
+  public void dispose() {
+    super.dispose();
+    if (state != null) {
+      CircuitBreakerStates.release(stateKey);
+      state = null;
+    }
+  }
+
+  @Override
+  public CoreEvent process(CoreEvent event) throws MuleException {
+    return processToApply(event, this);
+  }
+
+  @Override
+  public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
+    return new CircuitBreakerRouter(this, publisher, nestedChain, state, errorTypeMatcher, name).getDownstreamPublisher();
+  }
+
+  /**
+   * @param name the name of the circuit, shared by all the scopes in the application with the same name. By default, each scope
+   *             has its own circuit.
+   */
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @param errorTypes a comma separated list of the error types that are accounted as failures. By default, any error is.
+   */
+  public void setErrorTypes(String errorTypes) {
+    this.errorTypes = errorTypes;
+  }
+
+  /**
+   * @param failureThreshold the amount of failures within the rolling window that opens the circuit. Default value is 5.
+   */
+  public void setFailureThreshold(int failureThreshold) {
+    this.failureThreshold = failureThreshold;
+  }
+
+  /**
+   * @param rollingWindowMillis the duration of the window in which failures are counted. Default value is 10000.
+   */
+  public void setRollingWindowMillis(long rollingWindowMillis) {
+    this.rollingWindowMillis = rollingWindowMillis;
+  }
+
+  /**
+   * @param openMillis the time the circuit stays open before routing a trial event. Default value is 30000.
+   */
+  public void setOpenMillis(long openMillis) {
+    this.openMillis = openMillis;
+  }
+
+  /**
+   * @param trialTimeoutMillis the time after which a trial event that didn't finish is abandoned, so that another one is routed.
+   *                           Default value is 60000.
+   */
+  public void setTrialTimeoutMillis(long trialTimeoutMillis) {
+    this.trialTimeoutMillis = trialTimeoutMillis;
+  }
+
+  /**
+   * @return the statistics of the circuit used by this scope.
+   */
+  public CircuitBreakerStatistics getStatistics() {
+    return state != null ? state.getStatistics() : null;
+  }
+
+  /**
+   * Configure the nested {@link Processor}'s to route events to while the circuit is closed.
+   *
+   * @param processors
+   */
+  public void setMessageProcessors(List<Processor> processors) {
+    this.processors = processors;
+  }
+
+  @Override
+  protected List<Object> getOwnedObjects() {
+    return singletonList(nestedChain);
+  }
+}
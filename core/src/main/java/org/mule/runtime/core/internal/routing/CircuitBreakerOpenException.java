@@ -0,0 +1,26 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.privileged.routing.RoutingException;
+
+/**
+ * Thrown by a {@link CircuitBreaker} when an event is rejected without being routed because the circuit is open.
+ *
+ * @since 4.4.0
+ */
+public final class CircuitBreakerOpenException extends RoutingException {
+
+  private static final long serialVersionUID = -5313380126437584781L;
+
+  public CircuitBreakerOpenException(String circuitBreakerName, Processor route) {
+    super(createStaticMessage("Circuit breaker '" + circuitBreakerName + "' is open"), route);
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.util.Optional.of;
+import static org.mule.runtime.api.functional.Either.left;
+import static org.mule.runtime.api.functional.Either.right;
+import static org.mule.runtime.core.internal.routing.CircuitBreakerState.NOT_TRIAL;
+import static org.mule.runtime.core.internal.routing.CircuitBreakerState.REJECTED;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.applyWithChildContext;
+import static reactor.core.Exceptions.propagate;
+import static reactor.core.publisher.Mono.subscriberContext;
+import static reactor.util.context.Context.empty;
+
+import org.mule.runtime.api.component.Component;
+import org.mule.runtime.api.functional.Either;
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.exception.ErrorTypeMatcher;
+import org.mule.runtime.core.internal.exception.MessagingException;
+import org.mule.runtime.core.internal.rx.FluxSinkRecorder;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+/**
+ * Router with {@link CircuitBreaker} routing logic.
+ * <p>
+ * Events rejected because the circuit is open are published downstream as errors right away, without going through the routing
+ * chain. The routing chain isolation is implemented the same way as in {@link FirstSuccessfulRouter}.
+ * <p>
+ * The permits of the trial events routed while the circuit is half-open are kept by event context, so that their outcome is
+ * given back with them. Other events have no permit to keep.
+ *
+ * @since 4.4.0
+ */
+class CircuitBreakerRouter {
+
+  private final Component owner;
+  private final ErrorTypeMatcher errorTypeMatcher;
+
+  private final Flux<CoreEvent> upstreamFlux;
+  private final Flux<CoreEvent> innerFlux;
+  private final FluxSinkRecorder<CoreEvent> innerRecorder = new FluxSinkRecorder<>();
+  private final Flux<CoreEvent> downstreamFlux;
+  private final FluxSinkRecorder<Either<Throwable, CoreEvent>> downstreamRecorder = new FluxSinkRecorder<>();
+  private final AtomicReference<Context> downstreamContextReference = new AtomicReference<>(empty());
+
+  // Completion of the downstream publisher is deferred until all events have evacuated the scope. Check FirstSuccessfulRouter
+  // for more details.
+  private final AtomicInteger inflightEvents = new AtomicInteger(0);
+  private final AtomicBoolean completeDeferred = new AtomicBoolean(false);
+
+  private final Map<String, Long> trialPermits = new ConcurrentHashMap<>();
+
+  CircuitBreakerRouter(Component owner, Publisher<CoreEvent> publisher, MessageProcessorChain nestedChain,
+                       CircuitBreakerState state, ErrorTypeMatcher errorTypeMatcher, String name) {
+    this.owner = owner;
+    this.errorTypeMatcher = errorTypeMatcher;
+
+    upstreamFlux = Flux.from(publisher)
+        .doOnNext(event -> {
+          inflightEvents.getAndIncrement();
+          final long permit = state.tryAcquire();
+          if (permit != REJECTED) {
+            if (permit != NOT_TRIAL) {
+              trialPermits.put(event.getContext().getId(), permit);
+            }
+            innerRecorder.next(event);
+          } else {
+            inflightEvents.decrementAndGet();
+            downstreamRecorder.next(left(new MessagingException(event, new CircuitBreakerOpenException(name, nestedChain), owner),
+                                         CoreEvent.class));
+            completeRouterIfNecessary();
+          }
+        })
+        .doOnComplete(() -> {
+          if (inflightEvents.get() == 0) {
+            completeRouter();
+          } else {
+            completeDeferred.set(true);
+          }
+        });
+
+    innerFlux = innerRecorder.flux()
+        .transform(innerPublisher -> applyWithChildContext(innerPublisher, nestedChain, of(owner.getLocation())))
+        .doOnNext(successfulEvent -> {
+          state.onSuccess(permitOf(successfulEvent));
+          inflightEvents.decrementAndGet();
+          downstreamRecorder.next(right(Throwable.class, successfulEvent));
+          completeRouterIfNecessary();
+        })
+        .onErrorContinue((error, object) -> {
+          if (error instanceof MessagingException) {
+            final CoreEvent failedEvent = ((MessagingException) error).getEvent();
+            if (isAccountedFailure(failedEvent.getError())) {
+              state.onFailure(permitOf(failedEvent));
+            } else {
+              state.onSuccess(permitOf(failedEvent));
+            }
+          } else {
+            // no event to find the permit, an abandoned trial is replaced after its timeout
+            state.onFailure(NOT_TRIAL);
+          }
+          inflightEvents.decrementAndGet();
+          downstreamRecorder.next(left(error, CoreEvent.class));
+          completeRouterIfNecessary();
+        });
+
+    downstreamFlux = Flux.<Either<Throwable, CoreEvent>>create(sink -> {
+      downstreamRecorder.accept(sink);
+      // Upstream chains subscription delayed until downstream sink is recorded. Check UntilSuccessfulRouter for more
+      // implementation details.
+      subscribeUpstreamChains(downstreamContextReference.get());
+    })
+        .map(either -> {
+          if (either.isLeft()) {
+            throw propagate(either.getLeft());
+          } else {
+            return either.getRight();
+          }
+        });
+  }
+
+  private long permitOf(CoreEvent event) {
+    if (trialPermits.isEmpty()) {
+      return NOT_TRIAL;
+    }
+    final Long permit = trialPermits.remove(event.getContext().getId());
+    return permit != null ? permit : NOT_TRIAL;
+  }
+
+  private boolean isAccountedFailure(Optional<Error> error) {
+    return errorTypeMatcher == null || error.map(e -> errorTypeMatcher.match(e.getErrorType())).orElse(true);
+  }
+
+  private void completeRouter() {
+    innerRecorder.complete();
+    downstreamRecorder.complete();
+  }
+
+  private void completeRouterIfNecessary() {
+    if (completeDeferred.get() && inflightEvents.get() == 0) {
+      completeRouter();
+    }
+  }
+
+  /**
+   * Assembles and returns the downstream {@link Publisher<CoreEvent>}.
+   *
+   * @return the successful {@link CoreEvent} or routing errors {@link Publisher}
+   */
+  Publisher<CoreEvent> getDownstreamPublisher() {
+    return downstreamFlux
+        .compose(downstreamPublisher -> subscriberContext().flatMapMany(downstreamContext -> downstreamPublisher
+            .doOnSubscribe(s -> downstreamContextReference.set(downstreamContext))));
+  }
+
+  private void subscribeUpstreamChains(Context downstreamContext) {
+    innerFlux.subscriberContext(downstreamContext).subscribe();
+    upstreamFlux.subscriberContext(downstreamContext).subscribe();
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Math.floorDiv;
+import static java.lang.Math.floorMod;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics.State.CLOSED;
+import static org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics.State.HALF_OPEN;
+import static org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics.State.OPEN;
+
+import org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics;
+import org.mule.runtime.core.api.management.stats.CircuitBreakerStatistics.State;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * The state of a circuit breaker, which may be shared by many {@link CircuitBreaker} scopes.
+ * <ul>
+ * <li>While {@link State#CLOSED closed}, events are routed, and failures are counted in a rolling window. Once the failures in
+ * the window reach the {@code failureThreshold}, the circuit is opened.</li>
+ * <li>While {@link State#OPEN open}, events are rejected without being routed, until {@code openMillis} elapse.</li>
+ * <li>After that, the circuit is {@link State#HALF_OPEN half-open}: a single trial event is routed, while others are still
+ * rejected. If the trial succeeds, the circuit is closed again, otherwise it is opened again. If the trial doesn't finish within
+ * {@code trialTimeoutMillis}, it is abandoned and another event is routed as trial.</li>
+ * </ul>
+ * {@link #tryAcquire()} hands out a permit for each routed event, which has to be given back with its outcome. Only the permit of
+ * the current trial may close or reopen a half-open circuit, so that events routed before the circuit was opened, or abandoned
+ * trials, don't change its state when they finish.
+ * <p>
+ * All operations are lock free, so that a closed circuit doesn't add contention to the events routed through it. The state and
+ * the data that goes with it change together, in a single atomic operation.
+ *
+ * @since 4.4.0
+ */
+final class CircuitBreakerState {
+
+  /**
+   * The permit of an event that may not be routed.
+   */
+  static final long REJECTED = -1;
+
+  /**
+   * The permit of an event routed while the circuit is closed.
+   */
+  static final long NOT_TRIAL = 0;
+
+  private static final int WINDOW_BUCKETS = 10;
+  private static final Circuit CLOSED_CIRCUIT = new Circuit(CLOSED, 0, NOT_TRIAL);
+
+  private final int failureThreshold;
+  private final long openNanos;
+  private final long trialTimeoutNanos;
+  private final long bucketNanos;
+  private final LongSupplier nanoClock;
+  private final CircuitBreakerStatistics statistics;
+
+  private final AtomicReference<Circuit> circuit = new AtomicReference<>(CLOSED_CIRCUIT);
+  private final AtomicLong trials = new AtomicLong(NOT_TRIAL);
+
+  // each bucket accounts for the failures of a slice of the window, tagged with the epoch of that slice
+  private final AtomicLongArray bucketFailures = new AtomicLongArray(WINDOW_BUCKETS);
+  private final AtomicLongArray bucketEpochs = new AtomicLongArray(WINDOW_BUCKETS);
+
+  /**
+   * Creates a new instance
+   *
+   * @param failureThreshold    the amount of failures within the rolling window that opens the circuit
+   * @param rollingWindowMillis the duration of the window in which failures are counted
+   * @param openMillis          the time the circuit stays open before routing a trial event
+   * @param trialTimeoutMillis  the time after which a trial event that didn't finish is abandoned
+   * @param statistics          where to account for the events and state changes
+   */
+  CircuitBreakerState(int failureThreshold, long rollingWindowMillis, long openMillis, long trialTimeoutMillis,
+                      CircuitBreakerStatistics statistics) {
+    this(failureThreshold, rollingWindowMillis, openMillis, trialTimeoutMillis, statistics, System::nanoTime);
+  }
+
+  CircuitBreakerState(int failureThreshold, long rollingWindowMillis, long openMillis, long trialTimeoutMillis,
+                      CircuitBreakerStatistics statistics, LongSupplier nanoClock) {
+    checkArgument(failureThreshold > 0, "failureThreshold must be greater than zero");
+    checkArgument(rollingWindowMillis >= WINDOW_BUCKETS, "rollingWindowMillis must be at least " + WINDOW_BUCKETS);
+    checkArgument(openMillis >= 0, "openMillis must not be negative");
+    checkArgument(trialTimeoutMillis > 0, "trialTimeoutMillis must be greater than zero");
+    this.failureThreshold = failureThreshold;
+    this.openNanos = MILLISECONDS.toNanos(openMillis);
+    this.trialTimeoutNanos = MILLISECONDS.toNanos(trialTimeoutMillis);
+    this.bucketNanos = MILLISECONDS.toNanos(rollingWindowMillis) / WINDOW_BUCKETS;
+    this.statistics = statistics;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Determines whether an event may be routed.
+   *
+   * @return {@link #REJECTED} if the event may not be routed. Otherwise, the permit to give to either {@link #onSuccess(long)} or
+   *         {@link #onFailure(long)} with its outcome.
+   */
+  long tryAcquire() {
+    while (true) {
+      final Circuit current = circuit.get();
+      if (current.state == CLOSED) {
+        return NOT_TRIAL;
+      }
+
+      final long now = nanoClock.getAsLong();
+      // open for long enough, or a half-open circuit whose trial was abandoned
+      final boolean trialDue = current.state == OPEN
+          ? now - current.since >= openNanos
+          : now - current.since >= trialTimeoutNanos;
+      if (!trialDue) {
+        statistics.incrementShortCircuitedEvents();
+        return REJECTED;
+      }
+
+      final Circuit trial = new Circuit(HALF_OPEN, now, trials.incrementAndGet());
+      if (circuit.compareAndSet(current, trial)) {
+        if (current.state == OPEN) {
+          statistics.stateChanged(HALF_OPEN);
+        }
+        return trial.trial;
+      }
+    }
+  }
+
+  /**
+   * Accounts for a routed event that did not fail, or failed with an error that is not accounted by the circuit breaker.
+   *
+   * @param permit the permit obtained when routing the event
+   */
+  void onSuccess(long permit) {
+    statistics.incrementSuccessfulEvents();
+    if (permit == NOT_TRIAL) {
+      return;
+    }
+
+    final Circuit current = circuit.get();
+    if (current.trial == permit && circuit.compareAndSet(current, CLOSED_CIRCUIT)) {
+      resetWindow();
+      statistics.stateChanged(CLOSED);
+    }
+  }
+
+  /**
+   * Accounts for a routed event that failed with an error accounted by the circuit breaker.
+   *
+   * @param permit the permit obtained when routing the event
+   */
+  void onFailure(long permit) {
+    statistics.incrementFailedEvents();
+    final long now = nanoClock.getAsLong();
+    final Circuit current = circuit.get();
+    if (permit == NOT_TRIAL) {
+      if (current.state == CLOSED && addFailure(now) >= failureThreshold) {
+        open(current, now);
+      }
+    } else if (current.trial == permit) {
+      open(current, now);
+    }
+  }
+
+  private void open(Circuit from, long now) {
+    if (circuit.compareAndSet(from, new Circuit(OPEN, now, NOT_TRIAL))) {
+      statistics.stateChanged(OPEN);
+    }
+  }
+
+  /**
+   * @return the amount of failures within the window, including the one just added.
+   */
+  private long addFailure(long now) {
+    // the nano clock may be negative
+    final long epoch = floorDiv(now, bucketNanos);
+    final int index = (int) floorMod(epoch, WINDOW_BUCKETS);
+
+    final long bucketEpoch = bucketEpochs.get(index);
+    if (bucketEpoch != epoch && bucketEpochs.compareAndSet(index, bucketEpoch, epoch)) {
+      // the bucket is reused for a new slice of the window
+      bucketFailures.set(index, 0);
+    }
+    bucketFailures.incrementAndGet(index);
+
+    long failures = 0;
+    for (int i = 0; i < WINDOW_BUCKETS; ++i) {
+      if (epoch - bucketEpochs.get(i) < WINDOW_BUCKETS) {
+        failures += bucketFailures.get(i);
+      }
+    }
+    return failures;
+  }
+
+  private void resetWindow() {
+    for (int i = 0; i < WINDOW_BUCKETS; ++i) {
+      bucketFailures.set(i, 0);
+    }
+  }
+
+  State getState() {
+    return circuit.get().state;
+  }
+
+  CircuitBreakerStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * A state of the circuit, along with the data that goes with it.
+   */
+  private static final class Circuit {
+
+    private final State state;
+    // when the circuit was opened, or when the trial was started
+    private final long since;
+    private final long trial;
+
+    private Circuit(State state, long since, long trial) {
+      this.state = state;
+      this.since = since;
+      this.trial = trial;
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Holds the {@link CircuitBreakerState}s shared by the {@link CircuitBreaker} scopes of an application that have the same name.
+ * <p>
+ * The state is created by the first scope that acquires it, with its configuration, and discarded when the last scope that uses
+ * it is disposed.
+ *
+ * @since 4.4.0
+ */
+final class CircuitBreakerStates {
+
+  private static final Map<String, SharedState> STATES = new HashMap<>();
+
+  private CircuitBreakerStates() {}
+
+  /**
+   * @param key          the key of the state, unique for the circuit breaker within the runtime.
+   * @param stateFactory creates the state if no other scope is using it.
+   * @return the shared state. {@link #release(String)} must be called once it is no longer used.
+   */
+  static synchronized CircuitBreakerState acquire(String key, Supplier<CircuitBreakerState> stateFactory) {
+    SharedState shared = STATES.computeIfAbsent(key, k -> new SharedState(stateFactory.get()));
+    shared.users++;
+    return shared.state;
+  }
+
+  /**
+   * Discards the state for the given {@code key} if there are no more users of it.
+   *
+   * @param key the key of the state, as passed to {@link #acquire(String, Supplier)}.
+   */
+  static synchronized void release(String key) {
+    SharedState shared = STATES.get(key);
+    if (shared != null && --shared.users == 0) {
+      STATES.remove(key);
+    }
+  }
+
+  private static final class SharedState {
+
+    private final CircuitBreakerState state;
+    private int users;
+
+    private SharedState(CircuitBreakerState state) {
+      this.state = state;
+    }
+  }
+}
@@ -166,7 +166,7 @@ public class Foreach extends AbstractMessageProcessorOwner implements Initialisa
     Iterator<TypedValue<?>> iterator = foreachContext.getIterator();
     if (batchSize > 1) {
       int counter = 0;
-      List currentBatch = new ArrayList<>();
+      List currentBatch = new ArrayList<>(batchSize);
       while (iterator.hasNext() && counter < batchSize) {
         TypedValue managedValue = manageTypeValueForStreaming(iterator.next(), event);
         currentBatch.add(managedValue);
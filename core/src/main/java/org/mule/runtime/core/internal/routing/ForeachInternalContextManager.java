@@ -39,27 +39,53 @@ class ForeachInternalContextManager {
     from(event).map(ctx -> ctx.remove(event));
   }
 
+  /**
+   * Events are copied, along with this, several times on each iteration of a foreach, while the contexts are only added or
+   * removed when a foreach starts or finishes. So, copies share the contexts until one of them is modified.
+   */
   static class ForeachInternalContext implements EventInternalContext<ForeachInternalContext> {
 
-    private Map<String, ForeachContext> contexts = new HashMap<>();
+    private Map<String, ForeachContext> contexts;
+    private boolean shared;
+
+    ForeachInternalContext() {
+      this(new HashMap<>(4), false);
+    }
+
+    private ForeachInternalContext(Map<String, ForeachContext> contexts, boolean shared) {
+      this.contexts = contexts;
+      this.shared = shared;
+    }
 
     public ForeachContext get(CoreEvent event) {
       return contexts.get(event.getContext().getId());
     }
 
     public void put(CoreEvent event, ForeachContext context) {
+      unshare();
       contexts.put(event.getContext().getId(), context);
     }
 
     public ForeachContext remove(CoreEvent event) {
-      return contexts.remove(event.getContext().getId());
+      final String id = event.getContext().getId();
+      if (!contexts.containsKey(id)) {
+        return null;
+      }
+      unshare();
+      return contexts.remove(id);
+    }
+
+    private void unshare() {
+      if (shared) {
+        contexts = new HashMap<>(contexts);
+        shared = false;
+      }
     }
 
     @Override
     public ForeachInternalContext copy() {
-      ForeachInternalContext other = new ForeachInternalContext();
-      other.contexts.putAll(this.contexts);
-      return other;
+      shared = true;
+      return new ForeachInternalContext(contexts, true);
     }
   }
 }
@@ -72,12 +72,15 @@ class ForeachRouter {
 
     upstreamFlux = from(publisher)
         .doOnNext(event -> {
+          inflightEvents.getAndIncrement();
 
           if (owner.validateExpression(event)) {
+            // the event is done, it must not be iterated nor reach downstream again
             downstreamRecorder.next(left(new IllegalArgumentException(MAP_NOT_SUPPORTED_MESSAGE)));
+            completeRouterIfNecessary();
+            return;
           }
 
-          inflightEvents.getAndIncrement();
           final CoreEvent responseEvent = prepareEvent(event, expression);
           if (responseEvent != null) {
             // Inject it into the inner flux
@@ -11,6 +11,7 @@ import org.mule.runtime.api.message.ErrorType;
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimiter;
 import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
 
 
@@ -30,6 +31,28 @@ public interface ForkJoinStrategyFactory {
                                           long timeout, Scheduler timeoutScheduler,
                                           ErrorType timeoutErrorType);
 
+  /**
+   * Create instance of {@link ForkJoinStrategy} that, besides {@code maxConcurrency}, limits the amount of routes/parts processed
+   * in parallel with the given {@link AdaptiveConcurrencyLimiter}.
+   * <p>
+   * Implementations that don't support it just ignore the {@code concurrencyLimiter}.
+   *
+   * @param processingStrategy processing strategy to use
+   * @param maxConcurrency     maximum number of routes/parts to be processed in parallel.
+   * @param concurrencyLimiter the limiter that adapts the number of routes/parts to be processed in parallel.
+   * @param delayErrors        if all routers/parts should be processed regardless of errors and a
+   *                           {@link CompositeRoutingException} thrown or not.
+   * @param timeoutErrorType   the timeout error type.
+   * @return new instance of {@link ForkJoinStrategy}
+   * @since 4.4.0
+   */
+  default ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency,
+                                                  AdaptiveConcurrencyLimiter concurrencyLimiter, boolean delayErrors,
+                                                  long timeout, Scheduler timeoutScheduler,
+                                                  ErrorType timeoutErrorType) {
+    return createForkJoinStrategy(processingStrategy, maxConcurrency, delayErrors, timeout, timeoutScheduler, timeoutErrorType);
+  }
+
   DataType getResultDataType();
 
 }
@@ -6,12 +6,16 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mule.runtime.api.el.BindingContextUtils.CORRELATION_ID;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_STORE_MANAGER;
 import static org.mule.runtime.core.api.el.ExpressionManager.DEFAULT_EXPRESSION_POSTFIX;
 import static org.mule.runtime.core.api.el.ExpressionManager.DEFAULT_EXPRESSION_PREFIX;
@@ -41,6 +45,9 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
+import org.mule.runtime.core.internal.store.AtomicObjectStore;
+import org.mule.runtime.core.internal.util.store.AbstractMonitoredObjectStore;
+import org.mule.runtime.core.internal.util.store.MonitoredObjectStoreWrapper;
 
 import java.util.UUID;
 
@@ -54,12 +61,34 @@ import org.slf4j.Logger;
  * <p>
  * <b>EIP Reference:</b> <a href="http://www.eaipatterns.com/IdempotentReceiver.html">
  * http://www.eaipatterns.com/IdempotentReceiver.html</a>
+ * <p>
+ * When the object store is an {@link AtomicObjectStore}, each message costs a single store operation. Optionally, a
+ * {@link MessageIdFrontCache} can be enabled through {@link #setFrontCacheMaxEntries(int)} so that recent duplicates are rejected
+ * without accessing the store, and so that the presence of ids never seen by this validator isn't checked in stores which are not
+ * atomic. The front cache is not used with stores that evict their entries when they exceed a maximum amount, since an evicted
+ * id would still be rejected by the cache.
  */
 public class IdempotentMessageValidator extends AbstractComponent
     implements Processor, MuleContextAware, Lifecycle {
 
   private static final Logger LOGGER = getLogger(IdempotentMessageValidator.class);
 
+  /**
+   * System property to set the default maximum amount of ids kept in the in process front cache of each validator. {@code 0},
+   * the default, disables the cache.
+   */
+  public static final String FRONT_CACHE_MAX_ENTRIES_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "idempotentValidator.frontCache.maxEntries";
+
+  /**
+   * System property to set the default time, in milliseconds, that an id in the front cache is trusted to still be in the object
+   * store. When the time the object store keeps the ids is known and shorter, that time is used instead.
+   */
+  public static final String FRONT_CACHE_ENTRY_TTL_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "idempotentValidator.frontCache.entryTtl";
+
+  private static final long DEFAULT_ENTRY_TTL = MINUTES.toMillis(5);
+
   protected MuleContext muleContext;
 
   protected volatile ObjectStore<String> store;
@@ -72,6 +101,11 @@ public class IdempotentMessageValidator extends AbstractComponent
   private CompiledExpression compiledIdExpression;
   private CompiledExpression compiledValueExpression;
 
+  private int frontCacheMaxEntries = getInteger(FRONT_CACHE_MAX_ENTRIES_PROPERTY, 0);
+  private long frontCacheEntryTtl = getLong(FRONT_CACHE_ENTRY_TTL_PROPERTY, DEFAULT_ENTRY_TTL);
+  private MessageIdFrontCache frontCache;
+  private long storeEntryTtl = -1;
+
   @Override
   public void setMuleContext(MuleContext context) {
     this.muleContext = context;
@@ -85,6 +119,14 @@ public class IdempotentMessageValidator extends AbstractComponent
                  this.getClass().getName(), UUID.randomUUID());
     }
     setupObjectStore();
+    if (frontCacheMaxEntries > 0) {
+      if (isStoreBounded()) {
+        LOGGER.debug("The object store of '{}' has a maximum amount of entries, the front cache is not used",
+                     getLocation() != null ? getLocation().getLocation() : storePrefix);
+      } else {
+        frontCache = new MessageIdFrontCache(frontCacheMaxEntries, resolveFrontCacheEntryTtl());
+      }
+    }
     compiledIdExpression = compile(idExpression, muleContext.getExpressionManager());
     compiledValueExpression = compile(valueExpression, muleContext.getExpressionManager());
   }
@@ -99,6 +141,7 @@ public class IdempotentMessageValidator extends AbstractComponent
     if (store == null) {
       if (privateStore == null) { // If no object store was defined, create one
         this.store = createMessageIdStore();
+        storeEntryTtl = DEFAULT_ENTRY_TTL;
       } else { // If object store was defined privately
         this.store = privateStore;
       }
@@ -106,6 +149,42 @@ public class IdempotentMessageValidator extends AbstractComponent
     initialiseIfNeeded(store, true, muleContext);
   }
 
+  /**
+   * An id can't be trusted to be in the store for longer than the store keeps it, otherwise messages redelivered after the id
+   * expired from the store would be rejected as duplicates.
+   */
+  private long resolveFrontCacheEntryTtl() {
+    long ttl = resolveStoreEntryTtl();
+    // stores that never expire their entries, or whose entries time-to-live is unknown, don't limit it
+    return ttl > 0 ? min(frontCacheEntryTtl, ttl) : frontCacheEntryTtl;
+  }
+
+  private long resolveStoreEntryTtl() {
+    if (storeEntryTtl > 0) {
+      return storeEntryTtl;
+    } else if (store instanceof MonitoredObjectStoreWrapper) {
+      Long ttl = ((MonitoredObjectStoreWrapper<?>) store).getEntryTtl();
+      return ttl == null ? -1 : ttl;
+    } else if (store instanceof AbstractMonitoredObjectStore) {
+      return ((AbstractMonitoredObjectStore<?>) store).getEntryTTL();
+    }
+    return -1;
+  }
+
+  /**
+   * Ids evicted from the store because it exceeded its maximum amount of entries must not be rejected by the front cache, and
+   * when those are evicted can't be known from here.
+   */
+  private boolean isStoreBounded() {
+    if (store instanceof MonitoredObjectStoreWrapper) {
+      Integer maxEntries = ((MonitoredObjectStoreWrapper<?>) store).getMaxEntries();
+      return maxEntries != null && maxEntries >= 0;
+    } else if (store instanceof AbstractMonitoredObjectStore) {
+      return ((AbstractMonitoredObjectStore<?>) store).getMaxEntries() >= 0;
+    }
+    return false;
+  }
+
   @Override
   public void start() throws MuleException {
     startIfNeeded(store);
@@ -125,7 +204,7 @@ public class IdempotentMessageValidator extends AbstractComponent
     ObjectStoreManager objectStoreManager = ((MuleContextWithRegistry) muleContext).getRegistry().get(OBJECT_STORE_MANAGER);
     return objectStoreManager.createObjectStore(storePrefix, ObjectStoreSettings.builder()
         .persistent(false)
-        .entryTtl(MINUTES.toMillis(5))
+        .entryTtl(DEFAULT_ENTRY_TTL)
         .expirationInterval(SECONDS.toMillis(6))
         .build());
   }
@@ -164,22 +243,7 @@ public class IdempotentMessageValidator extends AbstractComponent
       String id = getIdForEvent(session);
       String value = getValueForEvent(session);
 
-      if (event != null && isNewMessage(event, id)) {
-        try {
-          store.store(id, value);
-          return true;
-        } catch (ObjectAlreadyExistsException ex) {
-          return false;
-        } catch (ObjectStoreNotAvailableException e) {
-          LOGGER.error("ObjectStore not available: " + e.getMessage());
-          return false;
-        } catch (ObjectStoreException e) {
-          LOGGER.warn("ObjectStore exception: " + e.getMessage());
-          return false;
-        }
-      } else {
-        return false;
-      }
+      return event != null && storeIfNew(event, id, value);
     } catch (ExpressionRuntimeException e) {
       throw e;
     } catch (Exception e) {
@@ -197,22 +261,87 @@ public class IdempotentMessageValidator extends AbstractComponent
     }
   }
 
+  /**
+   * Stores the given {@code id} unless it is already present.
+   *
+   * @return {@code true} if the id was stored, which means that the message is not a duplicate
+   */
+  private boolean storeIfNew(CoreEvent event, String id, String value) {
+    if (!isNewMessage(event, id)) {
+      return false;
+    }
+
+    boolean stored;
+    try {
+      if (store instanceof AtomicObjectStore) {
+        stored = ((AtomicObjectStore<String>) store).storeIfAbsent(id, value);
+      } else {
+        store.store(id, value);
+        stored = true;
+      }
+    } catch (ObjectAlreadyExistsException ex) {
+      stored = false;
+    } catch (ObjectStoreNotAvailableException e) {
+      LOGGER.error("ObjectStore not available: " + e.getMessage());
+      return false;
+    } catch (ObjectStoreException e) {
+      LOGGER.warn("ObjectStore exception: " + e.getMessage());
+      return false;
+    }
+
+    if (frontCache != null) {
+      // either way, the id is in the store now
+      frontCache.stored(id);
+    }
+    return stored;
+  }
+
+  /**
+   * Tells whether the message with the given {@code id} may be new. Duplicates of recently stored ids are found in the front
+   * cache, if enabled. Otherwise, the store is checked only when it's not an {@link AtomicObjectStore}, and when the front cache
+   * doesn't know that the id was never seen. In those cases the message may still be found to be a duplicate when storing its id.
+   *
+   * @return {@code false} if the message is known to be a duplicate
+   */
   protected boolean isNewMessage(CoreEvent event, String id) {
+    if (frontCache != null && frontCache.isStored(id)) {
+      return false;
+    }
+
     try {
-      if (store == null) {
-        synchronized (this) {
-          initialise();
+      initialiseStoreIfNeeded();
+      if (store instanceof AtomicObjectStore || (frontCache != null && !frontCache.mightBeStored(id))) {
+        return true;
+      }
+      if (store.contains(id)) {
+        if (frontCache != null) {
+          frontCache.stored(id);
         }
+        return false;
       }
-      return !store.contains(id);
+      return true;
     } catch (MuleException e) {
-      LOGGER.error("Exception attempting to determine idempotency of incoming message for " + getLocation().getRootContainerName()
-          + " from the connector "
-          + event.getContext().getOriginatingLocation().getComponentIdentifier().getIdentifier().getNamespace(), e);
+      logIdempotencyError(event, e);
       return false;
     }
   }
 
+  private void initialiseStoreIfNeeded() throws InitialisationException {
+    if (store == null) {
+      synchronized (this) {
+        if (store == null) {
+          initialise();
+        }
+      }
+    }
+  }
+
+  private void logIdempotencyError(CoreEvent event, MuleException e) {
+    LOGGER.error("Exception attempting to determine idempotency of incoming message for " + getLocation().getRootContainerName()
+        + " from the connector "
+        + event.getContext().getOriginatingLocation().getComponentIdentifier().getIdentifier().getNamespace(), e);
+  }
+
   public String getValueExpression() {
     return valueExpression;
   }
@@ -228,4 +357,22 @@ public class IdempotentMessageValidator extends AbstractComponent
   public void setPrivateObjectStore(ObjectStore<String> privateStore) {
     this.privateStore = privateStore;
   }
+
+  /**
+   * @param frontCacheMaxEntries the maximum amount of ids to keep in the in process front cache. {@code 0} disables it.
+   * @since 4.4.0
+   */
+  public void setFrontCacheMaxEntries(int frontCacheMaxEntries) {
+    this.frontCacheMaxEntries = frontCacheMaxEntries;
+  }
+
+  /**
+   * @param frontCacheEntryTtl the time, in milliseconds, that an id in the front cache is trusted to still be in the object
+   *                           store. When the time the object store keeps the ids is known and shorter, that time is used
+   *                           instead.
+   * @since 4.4.0
+   */
+  public void setFrontCacheEntryTtl(long frontCacheEntryTtl) {
+    this.frontCacheEntryTtl = frontCacheEntryTtl;
+  }
 }
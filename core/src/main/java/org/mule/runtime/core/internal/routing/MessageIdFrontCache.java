@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In process cache in front of the object store of an {@link IdempotentMessageValidator}, which allows resolving most lookups
+ * without accessing the store.
+ * <p>
+ * It is made of two parts:
+ * <ul>
+ * <li>A bounded LRU of the ids recently known to be in the store. Each entry is only trusted for a configured time, which must
+ * not be greater than the time the store keeps the ids. The LRU is split in shards with their own lock, so that concurrent
+ * lookups of different ids seldom contend.</li>
+ * <li>A Bloom filter of all the ids stored through this cache. An id not found in the filter was never stored by this validator,
+ * so there's no point in asking the store whether it contains it. The filter is rotated in two generations once full, so that
+ * its false positive rate stays bounded regardless of the amount of ids seen.</li>
+ * </ul>
+ * Neither part accounts for ids stored by other validators sharing the same store (for instance, in other nodes of a cluster),
+ * so a negative answer doesn't replace the store's own rejection of existing keys.
+ *
+ * @since 4.4.0
+ */
+final class MessageIdFrontCache {
+
+  private static final int SHARDS = 16;
+  private static final int BLOOM_HASH_FUNCTIONS = 4;
+  private static final int BLOOM_BITS_PER_ENTRY = 16;
+  private static final int MIN_BLOOM_CAPACITY = 1024;
+
+  private final long entryTtlNanos;
+  private final Shard[] shards = new Shard[SHARDS];
+
+  private final int bloomCapacity;
+  private volatile BloomFilter currentFilter;
+  private volatile BloomFilter previousFilter;
+
+  /**
+   * Creates a new instance
+   *
+   * @param maxEntries the maximum amount of ids to keep in the LRU
+   * @param entryTtl   for how many milliseconds an id in the LRU is trusted to still be in the store
+   */
+  MessageIdFrontCache(int maxEntries, long entryTtl) {
+    checkArgument(maxEntries > 0, "maxEntries must be greater than zero");
+    checkArgument(entryTtl > 0, "entryTtl must be greater than zero");
+
+    entryTtlNanos = MILLISECONDS.toNanos(entryTtl);
+    int shardCapacity = max(1, (maxEntries + SHARDS - 1) / SHARDS);
+    for (int i = 0; i < SHARDS; i++) {
+      shards[i] = new Shard(shardCapacity);
+    }
+
+    // the filter remembers ids for longer than the LRU, which is what makes it useful
+    bloomCapacity = max(MIN_BLOOM_CAPACITY, maxEntries * 4);
+    currentFilter = new BloomFilter(bloomCapacity);
+    previousFilter = new BloomFilter(bloomCapacity);
+  }
+
+  /**
+   * @return {@code true} if the given {@code id} is known to be in the store, so the message carrying it is a duplicate.
+   */
+  boolean isStored(String id) {
+    return shardFor(id).isStored(id, nanoTime());
+  }
+
+  /**
+   * @return {@code false} if the given {@code id} was never stored through this cache, {@code true} if it may have been.
+   */
+  boolean mightBeStored(String id) {
+    long hash = hash(id);
+    return currentFilter.mightContain(hash) || previousFilter.mightContain(hash);
+  }
+
+  /**
+   * Records that the given {@code id} is in the store, either because it was just stored or because the store rejected it.
+   */
+  void stored(String id) {
+    shardFor(id).stored(id, nanoTime());
+
+    BloomFilter filter = currentFilter;
+    if (filter.add(hash(id)) >= bloomCapacity) {
+      rotateFilters(filter);
+    }
+  }
+
+  private synchronized void rotateFilters(BloomFilter full) {
+    if (currentFilter == full) {
+      previousFilter = full;
+      currentFilter = new BloomFilter(bloomCapacity);
+    }
+  }
+
+  private Shard shardFor(String id) {
+    int hash = id.hashCode();
+    return shards[(hash ^ (hash >>> 16)) & (SHARDS - 1)];
+  }
+
+  private static long hash(String id) {
+    // murmur3 finalizer, to get 64 well distributed bits out of the string hash
+    long hash = id.hashCode();
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private final class Shard {
+
+    private final Map<String, Long> entries;
+
+    private Shard(int capacity) {
+      entries = new LinkedHashMap<String, Long>(capacity, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+          return size() > capacity;
+        }
+      };
+    }
+
+    private synchronized boolean isStored(String id, long now) {
+      Long storedAt = entries.get(id);
+      if (storedAt == null) {
+        return false;
+      } else if (now - storedAt >= entryTtlNanos) {
+        entries.remove(id);
+        return false;
+      }
+      return true;
+    }
+
+    private synchronized void stored(String id, long now) {
+      // keep the original time, the store won't keep the id for longer because it was seen again
+      entries.putIfAbsent(id, now);
+    }
+  }
+
+  private static final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int mask;
+    private final AtomicInteger count = new AtomicInteger();
+
+    private BloomFilter(int capacity) {
+      int bitCount = highestOneBit(capacity * BLOOM_BITS_PER_ENTRY - 1) << 1;
+      bits = new AtomicLongArray(bitCount >>> 6);
+      mask = bitCount - 1;
+    }
+
+    private boolean mightContain(long hash) {
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 0; i < BLOOM_HASH_FUNCTIONS; i++) {
+        int bit = (h1 + i * h2) & mask;
+        if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @return the amount of entries added to this filter
+     */
+    private int add(long hash) {
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 0; i < BLOOM_HASH_FUNCTIONS; i++) {
+        int bit = (h1 + i * h2) & mask;
+        long word;
+        do {
+          word = bits.get(bit >>> 6);
+          if ((word & (1L << bit)) != 0) {
+            break;
+          }
+        } while (!bits.compareAndSet(bit >>> 6, word, word | (1L << bit)));
+      }
+      return count.incrementAndGet();
+    }
+  }
+}
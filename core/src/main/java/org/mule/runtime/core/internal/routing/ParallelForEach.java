@@ -9,12 +9,15 @@ package org.mule.runtime.core.internal.routing;
 
 import static java.util.Collections.singletonList;
 import static java.util.Optional.of;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.processor.strategy.AsyncProcessingStrategyFactory.DEFAULT_MAX_CONCURRENCY;
 import static org.mule.runtime.core.api.util.StreamingUtils.updateTypedValueForStreaming;
 import static org.mule.runtime.core.internal.routing.ExpressionSplittingStrategy.DEFAULT_SPLIT_EXPRESSION;
 import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
 import static reactor.core.publisher.Flux.fromIterable;
+
+import org.mule.runtime.api.el.BindingContext;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.TypedValue;
@@ -22,6 +25,7 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.forkjoin.StreamingForkJoinStrategyFactory;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 
 import java.util.Iterator;
@@ -40,6 +44,10 @@ import javax.inject.Inject;
  * For advanced use cases, a custom {@link ForkJoinStrategyFactory} can be applied to customize the logic used to aggregate the
  * route responses back into one single Event.
  * <p>
+ * For big collections, setting {@link #setMaxInFlight(int) maxInFlight}, {@link #setCompletionOrder(boolean) completionOrder}
+ * or a {@link #setReduceExpression(String) reduceExpression} makes the parts be pulled lazily from the collection and
+ * aggregated as they complete, with a {@link StreamingForkJoinStrategyFactory}.
+ * <p>
  * <b>EIP Reference:</b> <a href="http://www.eaipatterns.com/BroadcastAggregate.html"<a/>
  * </p>
  *
@@ -47,6 +55,10 @@ import javax.inject.Inject;
  */
 public class ParallelForEach extends AbstractForkJoinRouter {
 
+  public static final String ACCUMULATOR_BINDING_NAME = "accumulator";
+
+  private static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
   @Inject
   protected StreamingManager streamingManager;
 
@@ -56,6 +68,10 @@ public class ParallelForEach extends AbstractForkJoinRouter {
   private List<Processor> messageProcessors;
   private MessageProcessorChain nestedChain;
 
+  private Integer maxInFlight;
+  private boolean completionOrder = false;
+  private String reduceExpression;
+
   @Override
   public void initialise() throws InitialisationException {
     nestedChain = buildNewChainWithListOfProcessors(of(resolveProcessingStrategy()), messageProcessors);
@@ -95,7 +111,18 @@ public class ParallelForEach extends AbstractForkJoinRouter {
 
   @Override
   protected ForkJoinStrategyFactory getDefaultForkJoinStrategyFactory() {
-    return new CollectListForkJoinStrategyFactory(false);
+    if (maxInFlight == null && !completionOrder && reduceExpression == null) {
+      return new CollectListForkJoinStrategyFactory(false);
+    }
+
+    return new StreamingForkJoinStrategyFactory(maxInFlight != null ? maxInFlight : DEFAULT_MAX_IN_FLIGHT, completionOrder,
+                                                reduceExpression != null ? this::reduce : null);
+  }
+
+  private TypedValue<?> reduce(TypedValue<?> accumulator, CoreEvent result) {
+    return muleContext.getExpressionManager()
+        .evaluate(reduceExpression, result, getLocation(),
+                  BindingContext.builder().addBinding(ACCUMULATOR_BINDING_NAME, accumulator).build());
   }
 
   /**
@@ -106,4 +133,39 @@ public class ParallelForEach extends AbstractForkJoinRouter {
   public void setCollectionExpression(String collectionExpression) {
     this.collectionExpression = collectionExpression;
   }
+
+  /**
+   * Set the maximum number of parts taken from the split collection that may be in process or awaiting aggregation at the same
+   * time. When set, the parts are pulled lazily from the collection instead of all at once, so that big collections are not
+   * materialized in memory.
+   *
+   * @param maxInFlight the maximum number of parts in flight.
+   * @throws IllegalArgumentException if the value is zero or less.
+   */
+  public void setMaxInFlight(int maxInFlight) {
+    checkArgument(maxInFlight > 0, "Maximum in flight parts must be one or more.");
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Set whether the results of the parts are aggregated in the order they complete, instead of the order of the parts in the
+   * collection. This avoids holding the results of fast parts while waiting for a slow one before them.
+   *
+   * @param completionOrder whether to aggregate in completion order.
+   */
+  public void setCompletionOrder(boolean completionOrder) {
+    this.completionOrder = completionOrder;
+  }
+
+  /**
+   * Set an expression to reduce the results of the parts into a single value instead of collecting them into a list, so that the
+   * results don't need to be retained. The expression is evaluated against the result of each successful part, with the value
+   * accumulated so far (initially {@code null}) bound as {@code accumulator}, and must return the new accumulated value. For
+   * instance: {@code #[(accumulator default 0) + payload]}.
+   *
+   * @param reduceExpression the reduce expression.
+   */
+  public void setReduceExpression(String reduceExpression) {
+    this.reduceExpression = reduceExpression;
+  }
 }
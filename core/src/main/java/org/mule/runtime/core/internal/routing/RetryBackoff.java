@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Long.MAX_VALUE;
+import static java.lang.Math.min;
+import static java.lang.Math.pow;
+import static java.util.concurrent.ThreadLocalRandom.current;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+/**
+ * Calculates the delay before each retry, growing it exponentially from the configured base delay.
+ * <p>
+ * The delay for the {@code n}th retry is {@code baseDelay * multiplier ^ (n - 1)}, bounded by {@code maxDelay}. Then, a random
+ * portion of it, up to {@code jitterFactor}, is subtracted, so that events that failed at the same time are not all retried at
+ * the same time.
+ *
+ * @since 4.4.0
+ */
+final class RetryBackoff {
+
+  /**
+   * Keeps the same delay for all the retries.
+   */
+  static final RetryBackoff CONSTANT = new RetryBackoff(1, MAX_VALUE, 0);
+
+  private final double multiplier;
+  private final long maxDelayMillis;
+  private final double jitterFactor;
+
+  /**
+   * Creates a new instance
+   *
+   * @param multiplier     the factor to multiply the delay by on each retry. {@code 1} keeps the delay constant.
+   * @param maxDelayMillis the maximum delay between retries
+   * @param jitterFactor   the maximum portion of the delay to randomly subtract, between {@code 0} and {@code 1}.
+   */
+  RetryBackoff(double multiplier, long maxDelayMillis, double jitterFactor) {
+    checkArgument(multiplier >= 1, "multiplier must be greater than or equal to one");
+    checkArgument(maxDelayMillis >= 0, "maxDelayMillis must not be negative");
+    checkArgument(jitterFactor >= 0 && jitterFactor <= 1, "jitterFactor must be between zero and one");
+    this.multiplier = multiplier;
+    this.maxDelayMillis = maxDelayMillis;
+    this.jitterFactor = jitterFactor;
+  }
+
+  /**
+   * @param baseDelayMillis the delay for the first retry
+   * @param retryNumber     the number of the retry about to be performed, starting at {@code 1}
+   * @return the delay before performing the retry
+   */
+  long delayFor(long baseDelayMillis, int retryNumber) {
+    long delay = baseDelayMillis;
+    if (multiplier != 1 && retryNumber > 1) {
+      // calculated as a double, so that it saturates instead of overflowing
+      delay = (long) min(baseDelayMillis * pow(multiplier, retryNumber - 1), maxDelayMillis);
+    }
+    delay = min(delay, maxDelayMillis);
+
+    if (jitterFactor > 0 && delay > 0) {
+      delay -= (long) (delay * jitterFactor * current().nextDouble());
+    }
+    return delay;
+  }
+}
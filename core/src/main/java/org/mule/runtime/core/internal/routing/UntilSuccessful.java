@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.Long.MAX_VALUE;
 import static java.util.Collections.singletonList;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.core.privileged.processor.MessageProcessors.buildNewChainWithListOfProcessors;
@@ -21,6 +22,7 @@ import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
+import org.mule.runtime.core.api.management.stats.RetryStatistics;
 import org.mule.runtime.core.api.processor.AbstractMuleObjectOwner;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
@@ -39,6 +41,10 @@ import org.reactivestreams.Publisher;
 /**
  * UntilSuccessful attempts to route a message to the message processor it contains. Routing is considered successful if no
  * exception has been raised and, optionally, if the response matches an expression.
+ * <p>
+ * The delay between retries may grow exponentially, by setting a {@link #setBackoffMultiplier(double) multiplier}, up to a
+ * {@link #setMaxMillisBetweenRetries(long) maximum}, and a {@link #setJitterFactor(double) jitter} may be applied to it so that
+ * events that failed together are not retried together.
  */
 public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
@@ -54,13 +60,21 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
   @Inject
   private ConfigurationComponentLocator componentLocator;
 
+  @Inject
+  private UntilSuccessfulRetryTimer retryTimer;
+
   private String maxRetries = DEFAULT_RETRIES;
   private String millisBetweenRetries = DEFAULT_MILLIS_BETWEEN_RETRIES;
+  private double backoffMultiplier = 1;
+  private long maxMillisBetweenRetries = MAX_VALUE;
+  private double jitterFactor = 0;
   private MessageProcessorChain nestedChain;
   private Predicate<CoreEvent> shouldRetry;
   private Scheduler timer;
   private List<Processor> processors;
   private ProcessingStrategy processingStrategy;
+  private RetryBackoff backoff;
+  private RetryStatistics retryStatistics;
 
   @Override
   public void initialise() throws InitialisationException {
@@ -73,7 +87,9 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
 
     super.initialise();
 
+    backoff = new RetryBackoff(backoffMultiplier, maxMillisBetweenRetries, jitterFactor);
     timer = schedulerService.cpuLightScheduler();
+    retryStatistics = new RetryStatistics(getLocation() != null ? getLocation().getLocation() : null);
     shouldRetry = event -> event.getError().isPresent();
 
     final Optional<ProcessingStrategy> processingStrategyFromRootContainer = getProcessingStrategy(componentLocator, this);
@@ -108,7 +124,7 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
   @Override
   public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
     return new UntilSuccessfulRouter(this, publisher, nestedChain, processingStrategy, expressionManager, shouldRetry, timer,
-                                     maxRetries, millisBetweenRetries)
+                                     retryTimer, backoff, retryStatistics, maxRetries, millisBetweenRetries)
                                          .getDownstreamPublisher();
   }
 
@@ -142,6 +158,41 @@ public class UntilSuccessful extends AbstractMuleObjectOwner implements Scope {
     this.millisBetweenRetries = millisBetweenRetries;
   }
 
+  /**
+   * @param backoffMultiplier the factor to multiply the delay between retries by on each retry. Default value is 1, keeping the
+   *                          delay constant.
+   * @since 4.4.0
+   */
+  public void setBackoffMultiplier(double backoffMultiplier) {
+    this.backoffMultiplier = backoffMultiplier;
+  }
+
+  /**
+   * @param maxMillisBetweenRetries the maximum number of milliseconds between retries, when a backoff multiplier is set. Unbounded
+   *                                by default.
+   * @since 4.4.0
+   */
+  public void setMaxMillisBetweenRetries(long maxMillisBetweenRetries) {
+    this.maxMillisBetweenRetries = maxMillisBetweenRetries;
+  }
+
+  /**
+   * @param jitterFactor the maximum portion, between 0 and 1, of the delay between retries to randomly subtract from it. Default
+   *                     value is 0.
+   * @since 4.4.0
+   */
+  public void setJitterFactor(double jitterFactor) {
+    this.jitterFactor = jitterFactor;
+  }
+
+  /**
+   * @return the statistics of the retries performed by this scope.
+   * @since 4.4.0
+   */
+  public RetryStatistics getRetryStatistics() {
+    return retryStatistics;
+  }
+
   /**
    * Configure the nested {@link Processor}'s that error handling and transactional behaviour should be applied to.
    *
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.InitialisationException;
+import org.mule.runtime.api.lifecycle.Lifecycle;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerConfig;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.internal.util.HashedWheelTimer;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+
+/**
+ * Holds the {@link HashedWheelTimer} shared by all the {@link UntilSuccessful} scopes of an application to wait for the delay
+ * between retries.
+ * <p>
+ * Having a single timer for all the retries makes a retry storm cost a constant amount of work per tick, instead of a delayed
+ * task in a scheduler for each retry. The timer runs in a scheduler of the application, it is started and stopped along with it,
+ * and the retries still waiting in it when stopped are failed.
+ * <p>
+ * Retries are never performed in the timer thread, since that would stall the retries of every scope. Once due, a retry is handed
+ * over to the scheduler of its scope, and if that is not possible the retry is failed in another scheduler.
+ *
+ * @since 4.4.0
+ */
+public final class UntilSuccessfulRetryTimer implements Lifecycle {
+
+  private static final long TICK_MILLIS = 10;
+  private static final int TICKS_PER_WHEEL = 512;
+
+  private static final Logger LOGGER = getLogger(UntilSuccessfulRetryTimer.class);
+
+  @Inject
+  private SchedulerService schedulerService;
+
+  private Scheduler timerScheduler;
+  private Scheduler failureScheduler;
+  private HashedWheelTimer timer;
+
+  @Override
+  public void initialise() throws InitialisationException {
+    timerScheduler = schedulerService.customScheduler(SchedulerConfig.config()
+        .withMaxConcurrentTasks(1)
+        .withName("UntilSuccessful-RetryTimer"));
+    failureScheduler = schedulerService.cpuLightScheduler();
+    timer = new HashedWheelTimer("UntilSuccessful-RetryTimer", TICK_MILLIS, MILLISECONDS, TICKS_PER_WHEEL);
+  }
+
+  @Override
+  public void start() throws MuleException {
+    try {
+      timer.start(timerScheduler);
+    } catch (RejectedExecutionException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  @Override
+  public void stop() throws MuleException {
+    final RejectedExecutionException stopped = new RejectedExecutionException("until-successful retry timer stopped");
+    for (Runnable task : timer.stop()) {
+      if (task instanceof PendingRetry) {
+        ((PendingRetry) task).failLater(stopped);
+      }
+    }
+  }
+
+  @Override
+  public void dispose() {
+    if (timerScheduler != null) {
+      timerScheduler.stop();
+    }
+    if (failureScheduler != null) {
+      failureScheduler.stop();
+    }
+  }
+
+  /**
+   * Waits for the given {@code delay} before handing the {@code retry} over to the given {@code scheduler}.
+   *
+   * @param scheduler where the retry is performed once due
+   * @param retry     performs the retry
+   * @param onFailure fails the retried event when the retry can't be performed
+   * @param delay     the delay before the retry, in milliseconds
+   * @throws RejectedExecutionException if the timer is stopped
+   */
+  void schedule(Executor scheduler, Runnable retry, Consumer<Throwable> onFailure, long delay) {
+    timer.newTimeout(new PendingRetry(scheduler, retry, onFailure), delay, MILLISECONDS);
+  }
+
+  /**
+   * A retry waiting for its delay to elapse in the timer.
+   */
+  private final class PendingRetry implements Runnable {
+
+    private final Executor scheduler;
+    private final Runnable retry;
+    private final Consumer<Throwable> onFailure;
+
+    private PendingRetry(Executor scheduler, Runnable retry, Consumer<Throwable> onFailure) {
+      this.scheduler = scheduler;
+      this.retry = retry;
+      this.onFailure = onFailure;
+    }
+
+    /**
+     * Called by the timer thread once the retry is due, only hands it over.
+     */
+    @Override
+    public void run() {
+      try {
+        scheduler.execute(retry);
+      } catch (RejectedExecutionException e) {
+        LOGGER.debug("Retry rejected by the scheduler, failing it", e);
+        failLater(e);
+      }
+    }
+
+    /**
+     * Fails the retried event in the failure scheduler, without performing the retry.
+     *
+     * @param cause the reason why the retry was not performed
+     */
+    private void failLater(Throwable cause) {
+      try {
+        failureScheduler.execute(() -> onFailure.accept(cause));
+      } catch (RejectedExecutionException e) {
+        LOGGER.debug("Failure scheduler stopped, failing the retry in the current thread", e);
+        onFailure.accept(cause);
+      }
+    }
+  }
+}
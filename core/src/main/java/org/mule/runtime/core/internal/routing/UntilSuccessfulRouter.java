@@ -29,6 +29,7 @@ import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.el.ExpressionManagerSession;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.management.stats.RetryStatistics;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyExhaustedException;
@@ -40,10 +41,12 @@ import org.mule.runtime.core.internal.util.rx.ConditionalExecutorServiceDecorato
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -58,6 +61,9 @@ import reactor.util.context.Context;
  * <p>
  * The retrial chain isolation is implemented using two {@link reactor.core.publisher.FluxSink}s, one for the entry inside the
  * retrial chain, and another for publishing successful events, or exhaustion errors.
+ * <p>
+ * When an {@link UntilSuccessfulRetryTimer} is provided, the delay before each retry is waited in it instead of scheduling a
+ * delayed task for each retry, unless a transaction is active, in which case the retry has to be performed in the same thread.
  *
  * @since 4.2.3, 4.3.0
  */
@@ -73,6 +79,9 @@ class UntilSuccessfulRouter {
   private final Component owner;
   private final Predicate<CoreEvent> shouldRetry;
   private final ConditionalExecutorServiceDecorator delayScheduler;
+  private final UntilSuccessfulRetryTimer retryTimer;
+  private final RetryBackoff backoff;
+  private final RetryStatistics statistics;
 
   private final Flux<CoreEvent> upstreamFlux;
   private final Flux<CoreEvent> innerFlux;
@@ -98,9 +107,21 @@ class UntilSuccessfulRouter {
                         ProcessingStrategy processingStrategy, ExtendedExpressionManager expressionManager,
                         Predicate<CoreEvent> shouldRetry, Scheduler delayScheduler,
                         String maxRetries, String millisBetweenRetries) {
+    this(owner, publisher, nestedChain, processingStrategy, expressionManager, shouldRetry, delayScheduler, null,
+         RetryBackoff.CONSTANT, new RetryStatistics(null), maxRetries, millisBetweenRetries);
+  }
+
+  UntilSuccessfulRouter(Component owner, Publisher<CoreEvent> publisher, Processor nestedChain,
+                        ProcessingStrategy processingStrategy, ExtendedExpressionManager expressionManager,
+                        Predicate<CoreEvent> shouldRetry, Scheduler delayScheduler, UntilSuccessfulRetryTimer retryTimer,
+                        RetryBackoff backoff, RetryStatistics statistics,
+                        String maxRetries, String millisBetweenRetries) {
     this.owner = owner;
     this.shouldRetry = shouldRetry;
     this.delayScheduler = new ConditionalExecutorServiceDecorator(delayScheduler, s -> isTransactionActive());
+    this.retryTimer = retryTimer;
+    this.backoff = backoff;
+    this.statistics = statistics;
     this.retryContextResolver = new EventInternalContextResolver<>(RETRY_CTX_INTERNAL_PARAM_KEY,
                                                                    HashMap::new);
 
@@ -127,6 +148,10 @@ class UntilSuccessfulRouter {
         .transform(innerPublisher -> applyWithChildContext(innerPublisher, nestedChain,
                                                            Optional.of(owner.getLocation())))
         .doOnNext(successfulEvent -> {
+          RetryContext ctx = getRetryContextForEvent(successfulEvent);
+          if (ctx != null && ctx.getAttemptNumber() > 0) {
+            statistics.incrementRecoveredEvents();
+          }
           // Scope execution was successful, pop current ctx
           downstreamRecorder.next(right(Throwable.class, eventWithCurrentContextDeleted(successfulEvent)));
           completeRouterIfNecessary();
@@ -184,20 +209,46 @@ class UntilSuccessfulRouter {
                      ctx.maxRetries != RETRY_COUNT_FOREVER ? ctx.maxRetries : "unlimited");
 
         // Schedule retry with delay
-        UntilSuccessfulRouter.this.delayScheduler.schedule(() -> innerRecorder.next(eventWithCurrentContext(ctx.event, ctx)),
-                                                           ctx.delayInMillis, MILLISECONDS);
+        final long delay = backoff.delayFor(ctx.delayInMillis, ctx.getAttemptNumber());
+        statistics.addRetryScheduled(delay);
+        scheduleRetry(() -> {
+          statistics.retryPerformed();
+          innerRecorder.next(eventWithCurrentContext(ctx.event, ctx));
+        }, cause -> {
+          LOGGER.error("Retry could not be performed. Failing...", cause);
+          statistics.retryAborted();
+          fail(ctx, messagingError, error);
+        }, delay);
       } else { // Retries exhausted
         // Current context already pooped. No need to re-insert it
         LOGGER.error("Retry attempts exhausted. Failing...");
-        Throwable resolvedError = getThrowableFunction(ctx.event).apply(error);
-        // Delete current context from event
-        eventWithCurrentContextDeleted(messagingError.getEvent());
-        downstreamRecorder.next(left(resolvedError, CoreEvent.class));
-        completeRouterIfNecessary();
+        statistics.incrementExhaustedEvents();
+        fail(ctx, messagingError, error);
       }
     };
   }
 
+  private void fail(RetryContext ctx, MessagingException messagingError, Throwable error) {
+    Throwable resolvedError = getThrowableFunction(ctx.event).apply(error);
+    // Delete current context from event
+    eventWithCurrentContextDeleted(messagingError.getEvent());
+    downstreamRecorder.next(left(resolvedError, CoreEvent.class));
+    completeRouterIfNecessary();
+  }
+
+  private void scheduleRetry(Runnable retry, Consumer<Throwable> onFailure, long delay) {
+    if (retryTimer != null && !isTransactionActive()) {
+      try {
+        retryTimer.schedule(delayScheduler, retry, onFailure, delay);
+        return;
+      } catch (RejectedExecutionException e) {
+        LOGGER.debug("Retry timer stopped, scheduling the retry in the scheduler", e);
+      }
+    }
+
+    delayScheduler.schedule(retry, delay, MILLISECONDS);
+  }
+
   /**
    * If there are no events in-flight and the upstream publisher has received a completion signal, complete downstream publishers.
    */
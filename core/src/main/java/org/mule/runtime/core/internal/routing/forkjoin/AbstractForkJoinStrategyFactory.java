@@ -7,6 +7,7 @@
 
 package org.mule.runtime.core.internal.routing.forkjoin;
 
+import static java.lang.System.nanoTime;
 import static java.time.Duration.ofMillis;
 import static java.util.Optional.empty;
 import static java.util.stream.Collectors.toList;
@@ -35,6 +36,7 @@ import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.event.DefaultEventBuilder;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.message.ErrorBuilder;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimiter;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategyFactory;
@@ -48,12 +50,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.reactivestreams.Publisher;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -84,14 +88,23 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   @Override
   public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
                                                  long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    return createForkJoinStrategy(processingStrategy, maxConcurrency, null, delayErrors, timeout, timeoutScheduler,
+                                  timeoutErrorType);
+  }
+
+  @Override
+  public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency,
+                                                 AdaptiveConcurrencyLimiter concurrencyLimiter, boolean delayErrors,
+                                                 long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
     reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
     return (original, routingPairs) -> {
       final AtomicInteger count = new AtomicInteger();
       final CoreEvent.Builder resultBuilder = builder(original);
       return from(routingPairs)
           .map(addSequence(count))
-          .flatMapSequential(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
-                                              timeoutErrorType),
+          .flatMapSequential(limitConcurrency(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout,
+                                                               reactorTimeoutScheduler, timeoutErrorType),
+                                              concurrencyLimiter),
                              maxConcurrency)
           .reduce(new Pair<List<CoreEvent>, Boolean>(new ArrayList<>(), false), (pair, event) -> {
             // Accumulates events and check if there is a (new) error within those events
@@ -112,11 +125,11 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     };
   }
 
-  private boolean isOriginalError(Error newError, Optional<Error> originalError) {
+  boolean isOriginalError(Error newError, Optional<Error> originalError) {
     return originalError.map(error -> error.equals(newError)).orElse(false);
   }
 
-  private CoreEvent removeOriginalError(CoreEvent event, Optional<Error> originalError) {
+  CoreEvent removeOriginalError(CoreEvent event, Optional<Error> originalError) {
     return event.getError().map(err -> isOriginalError(err, originalError) ? CoreEvent.builder(event).error(null).build() : event)
         .orElse(event);
   }
@@ -132,16 +145,16 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   protected abstract Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
                                                                             CoreEvent.Builder resultBuilder);
 
-  private Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
+  Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
     return pair -> of(builder(pair.getEvent()).groupCorrelation(Optional.of(GroupCorrelation.of(count.getAndIncrement())))
         .build(), pair.getRoute());
   }
 
-  private Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(ProcessingStrategy processingStrategy,
-                                                                                 int maxConcurrency,
-                                                                                 boolean delayErrors, long timeout,
-                                                                                 reactor.core.scheduler.Scheduler timeoutScheduler,
-                                                                                 ErrorType timeoutErrorType) {
+  Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(ProcessingStrategy processingStrategy,
+                                                                         int maxConcurrency,
+                                                                         boolean delayErrors, long timeout,
+                                                                         reactor.core.scheduler.Scheduler timeoutScheduler,
+                                                                         ErrorType timeoutErrorType) {
 
     return pair -> {
       ReactiveProcessor route = publisher -> from(publisher)
@@ -163,6 +176,45 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     };
   }
 
+  Function<RoutingPair, Publisher<? extends CoreEvent>> limitConcurrency(
+      Function<RoutingPair, Publisher<? extends CoreEvent>> processor, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+    if (concurrencyLimiter == null) {
+      return processor;
+    }
+
+    return pair -> Mono.<Long>create(sink -> {
+      final AtomicBoolean cancelled = new AtomicBoolean();
+      sink.onCancel(() -> cancelled.set(true));
+      concurrencyLimiter.acquire(permit -> {
+        if (cancelled.get()) {
+          concurrencyLimiter.releaseWithoutSample(permit);
+        } else {
+          sink.success(permit);
+        }
+      });
+    }).flatMapMany(permit -> {
+      final long start = nanoTime();
+      // Each route/part results in a single event, release as soon as it is available
+      final AtomicBoolean released = new AtomicBoolean();
+      return Flux.<CoreEvent>from(processor.apply(pair))
+          .doOnNext(result -> {
+            if (released.compareAndSet(false, true)) {
+              concurrencyLimiter.release(permit, start, result.getError().isPresent());
+            }
+          })
+          .doOnError(e -> {
+            if (released.compareAndSet(false, true)) {
+              concurrencyLimiter.release(permit, start, true);
+            }
+          })
+          .doFinally(signal -> {
+            if (released.compareAndSet(false, true)) {
+              concurrencyLimiter.releaseWithoutSample(permit);
+            }
+          });
+    });
+  }
+
   private Mono<CoreEvent> onTimeout(ProcessingStrategy processingStrategy, boolean delayErrors, ErrorType timeoutErrorType,
                                     RoutingPair pair) {
     return defer(() -> delayErrors ? just(createTimeoutErrorEvent(timeoutErrorType, pair))
@@ -196,7 +248,7 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
         + pair.getEvent().getGroupCorrelation().get().getSequence() + "'";
   }
 
-  private CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
+  CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
     Map<String, Message> successMap = new LinkedHashMap<>();
     Map<String, Error> errorMap = new LinkedHashMap<>();
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Math.min;
+import static java.util.stream.Collectors.toList;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.DataType.MULE_MESSAGE_LIST;
+import static org.mule.runtime.api.metadata.DataType.OBJECT;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static reactor.core.Exceptions.propagate;
+import static reactor.core.publisher.Flux.from;
+
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.internal.processor.strategy.AdaptiveConcurrencyLimiter;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link ForkJoinStrategy} for routing pairs that come from a potentially large source, such as the splitting of a big
+ * collection, that:
+ * <ul>
+ * <li>Pulls routing pairs from the source lazily, keeping at most {@code maxInFlight} of them in process at the same time
+ * (further limited by {@code maxConcurrency}).
+ * <li>Optionally emits the results in the order the routes complete, instead of the order of the routing pairs, so that a slow
+ * route doesn't hold the results of the faster ones that follow it.
+ * <li>Either collects the results into a result {@link CoreEvent} with a {@link List} of {@link Message} in the payload, or
+ * reduces them to a single value with a {@code reducer} function, in which case results are not retained.
+ * <li>Does not merge variables, since that requires retaining all the result events.
+ * <li>Will process all routes, regardless of errors, and propagating a composite exception where there were one or more errors.
+ * </ul>
+ *
+ * @since 4.4.0
+ */
+public class StreamingForkJoinStrategyFactory extends AbstractForkJoinStrategyFactory {
+
+  private final int maxInFlight;
+  private final boolean completionOrder;
+  private final BiFunction<TypedValue<?>, CoreEvent, TypedValue<?>> reducer;
+
+  /**
+   * Creates a factory of strategies that collect the results into a {@link List}.
+   *
+   * @param maxInFlight     maximum number of routing pairs to be taken from the source and not yet aggregated.
+   * @param completionOrder whether the results are emitted in the order the routes complete instead of the order of the routing
+   *                        pairs.
+   */
+  public StreamingForkJoinStrategyFactory(int maxInFlight, boolean completionOrder) {
+    this(maxInFlight, completionOrder, null);
+  }
+
+  /**
+   * Creates a factory of strategies that reduce the results into a single value.
+   *
+   * @param maxInFlight     maximum number of routing pairs to be taken from the source and not yet aggregated.
+   * @param completionOrder whether the results are emitted in the order the routes complete instead of the order of the routing
+   *                        pairs.
+   * @param reducer         function that receives the value accumulated so far (initially a {@code null} value) and the result
+   *                        event of a successful route, and returns the new accumulated value. May be {@code null}, in which case
+   *                        results are collected into a {@link List}.
+   */
+  public StreamingForkJoinStrategyFactory(int maxInFlight, boolean completionOrder,
+                                          BiFunction<TypedValue<?>, CoreEvent, TypedValue<?>> reducer) {
+    super(false);
+    checkArgument(maxInFlight > 0, "maxInFlight must be greater than zero");
+    this.maxInFlight = maxInFlight;
+    this.completionOrder = completionOrder;
+    this.reducer = reducer;
+  }
+
+  @Override
+  public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency,
+                                                 AdaptiveConcurrencyLimiter concurrencyLimiter, boolean delayErrors,
+                                                 long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    final reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
+    final int window = min(maxConcurrency, maxInFlight);
+    final Function<RoutingPair, Publisher<? extends CoreEvent>> routePairProcessor =
+        limitConcurrency(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
+                                          timeoutErrorType),
+                         concurrencyLimiter);
+
+    return (original, routingPairs) -> {
+      final AtomicInteger count = new AtomicInteger();
+      final Flux<RoutingPair> pairs = from(routingPairs).map(addSequence(count));
+      final Flux<CoreEvent> results = completionOrder
+          ? pairs.flatMap(routePairProcessor, window)
+          : pairs.flatMapSequential(routePairProcessor, window);
+
+      return results
+          .reduce(new StreamingResult(original), StreamingResult::add)
+          .map(StreamingResult::toResultEvent);
+    };
+  }
+
+  @Override
+  protected Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original, CoreEvent.Builder resultBuilder) {
+    return list -> resultBuilder.message(of(list.stream().map(event -> event.getMessage()).collect(toList()))).build();
+  }
+
+  @Override
+  public DataType getResultDataType() {
+    return reducer == null ? MULE_MESSAGE_LIST : OBJECT;
+  }
+
+  /**
+   * Aggregates the results of the routes as they are emitted, retaining only what is needed to build the result event.
+   */
+  private final class StreamingResult {
+
+    private final CoreEvent original;
+    private final List<CoreEvent> successes = new ArrayList<>();
+    private final List<CoreEvent> failures = new ArrayList<>();
+    private TypedValue<?> accumulated = TypedValue.of(null);
+
+    private StreamingResult(CoreEvent original) {
+      this.original = original;
+    }
+
+    private StreamingResult add(CoreEvent event) {
+      if (event.getError().map(err -> !isOriginalError(err, original.getError())).orElse(false)) {
+        failures.add(event);
+      } else if (reducer != null) {
+        accumulated = reducer.apply(accumulated, removeOriginalError(event, original.getError()));
+      } else {
+        successes.add(removeOriginalError(event, original.getError()));
+      }
+      return this;
+    }
+
+    private CoreEvent toResultEvent() {
+      if (!failures.isEmpty()) {
+        List<CoreEvent> results = new ArrayList<>(successes.size() + failures.size());
+        results.addAll(successes);
+        results.addAll(failures);
+        throw propagate(createCompositeRoutingException(results));
+      }
+
+      if (reducer != null) {
+        return builder(original).message(Message.builder().payload(accumulated).build()).build();
+      } else {
+        return createResultEvent(original, builder(original)).apply(successes);
+      }
+    }
+  }
+}
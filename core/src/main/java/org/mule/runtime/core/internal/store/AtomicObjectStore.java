@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.api.store.ObjectStoreException;
+
+import java.io.Serializable;
+
+/**
+ * An {@link ObjectStore} which can check for the presence of a key and store a value for it in a single operation.
+ * <p>
+ * Components doing a {@link ObjectStore#contains(String)} followed by a {@link ObjectStore#store(String, Serializable)} should
+ * use {@link #storeIfAbsent(String, Serializable)} instead when the store implements this interface, which saves a round trip
+ * to the underlying storage and closes the race between both calls.
+ *
+ * @param <T> the type of the stored values
+ * @since 4.4.0
+ */
+public interface AtomicObjectStore<T extends Serializable> extends ObjectStore<T> {
+
+  /**
+   * Stores the given {@code value} under the given {@code key}, only if there's no value already associated to it.
+   *
+   * @param key   the identifier of the object to store
+   * @param value the object to store
+   * @return {@code true} if the value was stored, {@code false} if there was already a value for the {@code key}
+   * @throws ObjectStoreException if the store is not available or any other implementation-specific error occurred
+   */
+  boolean storeIfAbsent(String key, T value) throws ObjectStoreException;
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.store;
+
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.PartitionableObjectStore;
+
+import java.io.Serializable;
+
+/**
+ * A {@link PartitionableObjectStore} which can check for the presence of a key and store a value for it in a single operation.
+ *
+ * @param <T> the type of the stored values
+ * @see AtomicObjectStore
+ * @since 4.4.0
+ */
+public interface AtomicPartitionableObjectStore<T extends Serializable> extends PartitionableObjectStore<T> {
+
+  /**
+   * Stores the given {@code value} under the given {@code key} of the given partition, only if there's no value already
+   * associated to it.
+   *
+   * @param key           the identifier of the object to store
+   * @param value         the object to store
+   * @param partitionName the partition to store the object in
+   * @return {@code true} if the value was stored, {@code false} if there was already a value for the {@code key}
+   * @throws ObjectStoreException if the store is not available or any other implementation-specific error occurred
+   */
+  boolean storeIfAbsent(String key, T value, String partitionName) throws ObjectStoreException;
+}
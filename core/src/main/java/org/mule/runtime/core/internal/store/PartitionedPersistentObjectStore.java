@@ -6,6 +6,9 @@
  */
 package org.mule.runtime.core.internal.store;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.isLogStructuredPartition;
 import static org.slf4j.LoggerFactory.getLogger;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
@@ -18,6 +21,7 @@ import org.mule.runtime.core.api.config.i18n.CoreMessages;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition;
 import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
 
 import java.io.File;
@@ -36,10 +40,17 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   private static final Logger LOGGER = getLogger(PartitionedPersistentObjectStore.class);
   public static final String OBJECT_STORE_DIR = "objectstore";
 
+  /**
+   * System property to make new partitions use a {@link LogStructuredObjectStorePartition} instead of writing one file per
+   * entry. Partitions already on disk keep the format they were created with.
+   */
+  public static final String LOG_STRUCTURED_PARTITIONS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectStore.logStructured";
+
   protected MuleContext muleContext;
   private File storeDirectory;
   private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<>();
   private boolean initialized = false;
+  private boolean logStructured = getBoolean(LOG_STRUCTURED_PARTITIONS_PROPERTY);
 
   public PartitionedPersistentObjectStore() {
     super();
@@ -82,8 +93,10 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   public void close(String partitionName) throws ObjectStoreException {}
 
   private void createPartition(String partitionName) throws ObjectStoreException {
-    PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory(partitionName));
+    File partitionDirectory = getNewPartitionDirectory(partitionName);
+    PersistentObjectStorePartition persistentObjectStorePartition = logStructured
+        ? new LogStructuredObjectStorePartition(muleContext, partitionName, partitionDirectory)
+        : new PersistentObjectStorePartition(muleContext, partitionName, partitionDirectory);
     persistentObjectStorePartition.open();
     partitionsByName.putIfAbsent(partitionName, persistentObjectStorePartition);
   }
@@ -191,8 +204,9 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
-        PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
+        PersistentObjectStorePartition persistentObjectStorePartition = isLogStructuredPartition(partitionDirectory)
+            ? new LogStructuredObjectStorePartition(muleContext, partitionDirectory)
+            : new PersistentObjectStorePartition(muleContext, partitionDirectory);
         persistentObjectStorePartition.open();
         partitionsByName.putIfAbsent(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
       } catch (Exception e) {
@@ -206,6 +220,13 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     muleContext = context;
   }
 
+  /**
+   * @param logStructured whether partitions created from now on have to be {@link LogStructuredObjectStorePartition}s.
+   */
+  public void setLogStructured(boolean logStructured) {
+    this.logStructured = logStructured;
+  }
+
   @Override
   public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
     expire(entryTTL, maxEntries, DEFAULT_PARTITION_NAME);
@@ -32,6 +32,7 @@ public class CursorProviderJanitor {
   private final MutableStreamingStatistics statistics;
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final AtomicBoolean released = new AtomicBoolean(false);
+  private volatile Runnable releaseListener;
 
   /**
    * Creates a new instance
@@ -82,9 +83,40 @@ public class CursorProviderJanitor {
         statistics.decrementOpenCursors(openCursorsCount.get());
       }
       provider = null;
+      notifyReleased(releaseListener);
     }
   }
 
+  /**
+   * Sets a {@code listener} to be notified once the resources of the underlying {@link CursorProvider} are released. If they
+   * already were, it is notified right away.
+   *
+   * @param listener the action to run upon release. It may be run more than once, so it must be idempotent.
+   */
+  void setReleaseListener(Runnable listener) {
+    releaseListener = listener;
+    if (released.get()) {
+      notifyReleased(listener);
+    }
+  }
+
+  private void notifyReleased(Runnable listener) {
+    if (listener != null) {
+      try {
+        listener.run();
+      } catch (Exception e) {
+        LOGGER.warn("Exception was found notifying the release of a CursorProvider. Execution will continue", e);
+      }
+    }
+  }
+
+  /**
+   * @return whether the resources of the underlying {@link CursorProvider} were already released
+   */
+  public boolean isReleased() {
+    return released.get();
+  }
+
   /**
    * Releases the resources associated to the given {@code cursor}.
    *
@@ -6,9 +6,12 @@
  */
 package org.mule.runtime.core.internal.streaming;
 
+import static java.lang.Long.getLong;
 import static java.lang.System.identityHashCode;
 import static java.lang.Thread.currentThread;
-import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.mule.runtime.core.internal.streaming.CursorManager.STREAMING_VERBOSE;
 import static org.mule.runtime.core.internal.streaming.CursorUtils.unwrap;
@@ -21,12 +24,18 @@ import org.mule.runtime.api.lifecycle.Lifecycle;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.api.scheduler.SchedulerConfig;
 import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.internal.util.HashedWheelTimer;
+import org.mule.runtime.core.internal.util.HashedWheelTimer.Timeout;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.inject.Inject;
 
@@ -45,15 +54,31 @@ import org.slf4j.Logger;
  * Notice that this <b>DOES NOT</b> replace the cleanup and tracking job that is performed in {@link CursorManager}. That still
  * remains the main cleanup mechanism as we cannot rely on garbage collection for releasing streaming resources. This is only a
  * mitigation for cases like described above.
+ * <p>
+ * Providers reclaimed this way were not released by their owner, so they are counted as leaks of the flow which created them
+ * (see {@link #getLeakedProvidersPerFlow()}). Optionally, providers which are not released after
+ * {@link #IDLE_PROVIDER_TIMEOUT_PROPERTY} milliseconds are reported as idle (see {@link #getIdleProvidersPerFlow()}). When debug
+ * logging is enabled for this class, the stack trace where each provider was tracked is captured and logged along with those
+ * reports.
  *
  * @since 4.2.0
  */
 public class StreamingGhostBuster implements Lifecycle {
 
-  private static final long POLL_INTERVAL = SECONDS.toMillis(5);
+  /**
+   * Milliseconds after which a tracked provider which was not released yet is reported as idle. Zero or less disables it.
+   */
+  public static final String IDLE_PROVIDER_TIMEOUT_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "streaming.ghostBuster.idleProviderTimeout";
+
   private static final Logger LOGGER = getLogger(StreamingGhostBuster.class);
+  private static final String UNKNOWN_FLOW = "unknown";
+  private static final long IDLE_TIMER_TICK_MILLIS = 100;
+  private static final int IDLE_TIMER_TICKS_PER_WHEEL = 512;
 
   private final ReferenceQueue<ManagedCursorProvider> referenceQueue = new ReferenceQueue<>();
+  private final Map<String, LongAdder> leakedProviders = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> idleProviders = new ConcurrentHashMap<>();
   private volatile boolean stopped = false;
   private Future taskHandle;
 
@@ -62,11 +87,24 @@ public class StreamingGhostBuster implements Lifecycle {
 
   private Scheduler scheduler;
 
+  private long idleProviderTimeout;
+  private Scheduler idleTimerScheduler;
+  private HashedWheelTimer idleTimer;
+
   @Override
   public void initialise() throws InitialisationException {
     scheduler = schedulerService.customScheduler(SchedulerConfig.config()
         .withMaxConcurrentTasks(1)
         .withName("StreamingManager-CursorProviderCollector"));
+
+    idleProviderTimeout = getLong(IDLE_PROVIDER_TIMEOUT_PROPERTY, 0L);
+    if (idleProviderTimeout > 0) {
+      idleTimerScheduler = schedulerService.customScheduler(SchedulerConfig.config()
+          .withMaxConcurrentTasks(1)
+          .withName("StreamingManager-IdleCursorProviderTimer"));
+      idleTimer = new HashedWheelTimer("StreamingManager-IdleCursorProviderTimer", IDLE_TIMER_TICK_MILLIS, MILLISECONDS,
+                                       IDLE_TIMER_TICKS_PER_WHEEL);
+    }
   }
 
   @Override
@@ -76,6 +114,13 @@ public class StreamingGhostBuster implements Lifecycle {
     } catch (RejectedExecutionException e) {
       throw new MuleRuntimeException(e);
     }
+    if (idleTimer != null) {
+      try {
+        idleTimer.start(idleTimerScheduler);
+      } catch (RejectedExecutionException e) {
+        throw new MuleRuntimeException(e);
+      }
+    }
     stopped = false;
   }
 
@@ -84,11 +129,17 @@ public class StreamingGhostBuster implements Lifecycle {
     stopped = true;
     taskHandle.cancel(true);
     taskHandle = null;
+    if (idleTimer != null) {
+      idleTimer.stop();
+    }
   }
 
   @Override
   public void dispose() {
     scheduler.stop();
+    if (idleTimerScheduler != null) {
+      idleTimerScheduler.stop();
+    }
   }
 
   /**
@@ -98,16 +149,51 @@ public class StreamingGhostBuster implements Lifecycle {
    * @return a {@link WeakReference} wrapping the {@code cursorProvider}
    */
   public WeakReference<ManagedCursorProvider> track(ManagedCursorProvider cursorProvider) {
-    return new StreamingWeakReference(cursorProvider, referenceQueue);
+    StreamingWeakReference reference = new StreamingWeakReference(cursorProvider, referenceQueue);
+    if (idleTimer != null) {
+      try {
+        Timeout idleTimeout = idleTimer.newTimeout(() -> checkIdle(reference), idleProviderTimeout, MILLISECONDS);
+        reference.idleTimeout = idleTimeout;
+        // providers are usually released long before being collected, don't keep their timeouts in the wheel until then
+        cursorProvider.getJanitor().setReleaseListener(idleTimeout::cancel);
+      } catch (RejectedExecutionException e) {
+        // stopped, idle providers are not reported anymore
+      }
+    }
+    return reference;
+  }
+
+  /**
+   * @return the amount of providers which were reclaimed through garbage collection without having been released, by the name of
+   *         the flow which created them
+   */
+  public Map<String, Long> getLeakedProvidersPerFlow() {
+    return snapshot(leakedProviders);
+  }
+
+  /**
+   * @return the amount of providers which were still not released {@link #IDLE_PROVIDER_TIMEOUT_PROPERTY} milliseconds after
+   *         being tracked, by the name of the flow which created them
+   */
+  public Map<String, Long> getIdleProvidersPerFlow() {
+    return snapshot(idleProviders);
+  }
+
+  private Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+    Map<String, Long> snapshot = new HashMap<>();
+    counters.forEach((flow, count) -> snapshot.put(flow, count.sum()));
+    return unmodifiableMap(snapshot);
   }
 
   private void bustGhosts() {
     while (!stopped && !currentThread().isInterrupted()) {
       try {
-        StreamingWeakReference ghost = (StreamingWeakReference) referenceQueue.remove(POLL_INTERVAL);
-        if (ghost != null) {
+        // blocks until the garbage collector enqueues a reference, so ghosts are busted as soon as they are collected
+        StreamingWeakReference ghost = (StreamingWeakReference) referenceQueue.remove();
+        do {
           bust(ghost);
-        }
+          ghost = (StreamingWeakReference) referenceQueue.poll();
+        } while (ghost != null);
       } catch (InterruptedException e) {
         currentThread().interrupt();
         if (LOGGER.isDebugEnabled()) {
@@ -125,6 +211,13 @@ public class StreamingGhostBuster implements Lifecycle {
         LOGGER.info("StreamingGhostBuster disposing ghost: {}, provider: {} created by {}", ghost.id,
                     identityHashCode(innerDelegate), originatingLocation.map(ComponentLocation::getLocation).orElse("unknown"));
       }
+      if (!ghost.janitor.isReleased()) {
+        leakedProviders.computeIfAbsent(ghost.flowName, k -> new LongAdder()).increment();
+        if (ghost.allocationSite != null) {
+          LOGGER.debug("Cursor provider {} of flow '{}' was collected without being released", ghost.id, ghost.flowName,
+                       ghost.allocationSite);
+        }
+      }
       ghost.dispose();
     } catch (Exception e) {
       if (LOGGER.isWarnEnabled()) {
@@ -135,6 +228,18 @@ public class StreamingGhostBuster implements Lifecycle {
     }
   }
 
+  private void checkIdle(StreamingWeakReference reference) {
+    if (reference.get() == null || reference.janitor.isReleased()) {
+      return;
+    }
+
+    idleProviders.computeIfAbsent(reference.flowName, k -> new LongAdder()).increment();
+    if (reference.allocationSite != null) {
+      LOGGER.debug("Cursor provider {} of flow '{}' is still not released after {} ms", reference.id, reference.flowName,
+                   idleProviderTimeout, reference.allocationSite);
+    }
+  }
+
   /*
    * MG says:
    *
@@ -150,12 +255,19 @@ public class StreamingGhostBuster implements Lifecycle {
 
     private final int id;
     private final CursorProviderJanitor janitor;
+    private final String flowName;
+    private final AllocationSite allocationSite;
+    private volatile Timeout idleTimeout;
     private boolean clear = false;
 
     public StreamingWeakReference(ManagedCursorProvider referent, ReferenceQueue<ManagedCursorProvider> referenceQueue) {
       super(referent, referenceQueue);
       this.janitor = referent.getJanitor();
       this.id = referent.getId();
+      Optional<ComponentLocation> location = referent.getOriginatingLocation();
+      this.flowName = location.map(ComponentLocation::getRootContainerName).orElse(UNKNOWN_FLOW);
+      // capturing the stack trace is expensive, only do it when it is going to be logged
+      this.allocationSite = LOGGER.isDebugEnabled() ? new AllocationSite(id) : null;
     }
 
     public void dispose() {
@@ -174,6 +286,22 @@ public class StreamingGhostBuster implements Lifecycle {
     public void clear() {
       super.clear();
       clear = true;
+      Timeout timeout = idleTimeout;
+      if (timeout != null) {
+        timeout.cancel();
+      }
+    }
+  }
+
+  /**
+   * Captures the stack trace of the point in which a provider was tracked.
+   */
+  private static final class AllocationSite extends Exception {
+
+    private static final long serialVersionUID = -1516546581546413554L;
+
+    private AllocationSite(int id) {
+      super("Cursor provider " + id + " was tracked here");
     }
   }
 }
@@ -6,8 +6,10 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import static java.lang.Math.min;
 import static java.lang.Thread.currentThread;
 import static java.lang.Thread.interrupted;
+import static org.mule.runtime.api.util.DataUnit.KB;
 import static org.mule.runtime.api.util.Preconditions.checkState;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -30,12 +32,15 @@ import org.slf4j.Logger;
 public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer implements InputStreamBuffer {
 
   private static final Logger LOGGER = getLogger(AbstractInputStreamBuffer.class);
+  private static final int TRANSFER_BUFFER_SIZE = KB.toBytes(8);
 
   protected final InputStream stream;
   protected final ByteBufferManager bufferManager;
 
   protected boolean streamFullyConsumed = false;
 
+  private ByteBuffer transferBuffer;
+
   /**
    * Creates a new instance
    *
@@ -96,11 +101,15 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
   protected abstract ByteBuffer doGet(long position, int length);
 
   protected int consumeStream(ByteBuffer buffer) throws IOException {
+    if (!buffer.hasArray()) {
+      return consumeStreamThroughHeap(buffer);
+    }
+
     final byte[] dest = buffer.array();
 
     int totalRead = 0;
     int remaining = buffer.remaining();
-    int offset = buffer.position();
+    int offset = buffer.arrayOffset() + buffer.position();
 
     while (remaining > 0) {
       try {
@@ -144,7 +153,40 @@ public abstract class AbstractInputStreamBuffer extends AbstractStreamingBuffer
     }
 
     if (totalRead > 0) {
-      buffer.position(offset);
+      buffer.position(offset - buffer.arrayOffset());
+    }
+
+    return totalRead;
+  }
+
+  /**
+   * {@link InputStream} can only write into arrays, so buffers without an accessible one (such as direct buffers) are filled
+   * through a small heap buffer, which is reused for all the fills of this buffer.
+   */
+  private int consumeStreamThroughHeap(ByteBuffer buffer) throws IOException {
+    final int transferSize = min(buffer.remaining(), TRANSFER_BUFFER_SIZE);
+    if (transferBuffer == null || transferBuffer.capacity() < transferSize) {
+      transferBuffer = ByteBuffer.allocate(transferSize);
+    }
+
+    int totalRead = 0;
+    while (buffer.hasRemaining()) {
+      transferBuffer.clear();
+      transferBuffer.limit(min(transferBuffer.capacity(), buffer.remaining()));
+
+      int read = consumeStream(transferBuffer);
+      if (read <= 0) {
+        return totalRead > 0 ? totalRead : read;
+      }
+
+      transferBuffer.flip();
+      buffer.put(transferBuffer);
+      totalRead += read;
+
+      // same as when reading into an array, don't block waiting for more data once something was read
+      if (streamFullyConsumed || stream.available() < 1) {
+        break;
+      }
     }
 
     return totalRead;
@@ -6,6 +6,15 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerConfig;
+import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
 import org.mule.runtime.core.api.streaming.bytes.factory.InMemoryCursorStreamProviderFactory;
 import org.mule.runtime.core.internal.streaming.bytes.factory.NullCursorStreamProviderFactory;
@@ -13,17 +22,27 @@ import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.api.streaming.bytes.ByteStreamingManager;
 import org.mule.runtime.core.api.streaming.bytes.CursorStreamProviderFactory;
 import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.runtime.core.internal.streaming.bytes.factory.MappedFileStoreCursorStreamProviderFactory;
+
+import javax.inject.Inject;
 
 /**
  * Default implementation of {@link ByteStreamingManager}
  *
  * @since 4.0
  */
-public class DefaultByteStreamingManager implements ByteStreamingManager {
+public class DefaultByteStreamingManager implements ByteStreamingManager, Disposable {
+
+  public static final String FILE_STORE_WRITER_THREADS_PROPERTY = SYSTEM_PROPERTY_PREFIX + "streaming.fileStore.writerThreads";
 
   private final ByteBufferManager bufferManager;
   protected final StreamingManager streamingManager;
 
+  @Inject
+  private SchedulerService schedulerService;
+
+  private Scheduler fileStoreWriteScheduler;
+
   public DefaultByteStreamingManager(ByteBufferManager bufferManager, StreamingManager streamingManager) {
     this.bufferManager = bufferManager;
     this.streamingManager = streamingManager;
@@ -53,6 +72,40 @@ public class DefaultByteStreamingManager implements ByteStreamingManager {
     return new InMemoryCursorStreamProviderFactory(bufferManager, InMemoryCursorStreamConfig.getDefault(), streamingManager);
   }
 
+  /**
+   * Creates a {@link CursorStreamProviderFactory} which buffers in memory up to the configured threshold, and in a memory mapped
+   * temporal file after that
+   *
+   * @param config the configuration for the produced providers
+   * @return a new {@link CursorStreamProviderFactory}
+   * @since 4.4.0
+   */
+  public CursorStreamProviderFactory getMappedFileStoreCursorProviderFactory(FileStoreCursorStreamConfig config) {
+    return new MappedFileStoreCursorStreamProviderFactory(bufferManager, config, getFileStoreWriteScheduler(), streamingManager);
+  }
+
+  private synchronized Scheduler getFileStoreWriteScheduler() {
+    if (fileStoreWriteScheduler == null) {
+      int threads = getInteger(FILE_STORE_WRITER_THREADS_PROPERTY, min(4, getRuntime().availableProcessors()));
+      fileStoreWriteScheduler = schedulerService.ioScheduler(SchedulerConfig.config()
+          .withMaxConcurrentTasks(threads)
+          .withName("streaming-buffer-writer"));
+    }
+    return fileStoreWriteScheduler;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized void dispose() {
+    if (fileStoreWriteScheduler != null) {
+      // already queued writes are completed, buffers still open write the rest of their data themselves
+      fileStoreWriteScheduler.stop();
+      fileStoreWriteScheduler = null;
+    }
+  }
+
   protected ByteBufferManager getBufferManager() {
     return bufferManager;
   }
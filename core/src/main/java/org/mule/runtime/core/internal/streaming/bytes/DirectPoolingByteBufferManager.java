@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Integer.numberOfTrailingZeros;
+import static java.lang.Math.max;
+import static org.mule.runtime.api.util.DataUnit.KB;
+import static org.mule.runtime.api.util.DataUnit.MB;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.runtime.core.internal.util.ByteBufferCleaner;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link MemoryBoundByteBufferManager} implementation which hands out buffers backed by direct (off-heap) memory, so that large
+ * amounts of streamed data do not put pressure on the garbage collector.
+ * <p>
+ * Direct memory is expensive to allocate and is only freed by the garbage collector, so it is obtained in big slabs which are
+ * split in chunks of a fixed size class (powers of two between {@link #MIN_CHUNK_SIZE} and the max pooled capacity). Chunks are
+ * never returned to the system, they are recycled through:
+ * <ul>
+ * <li>a small per thread cache, which requires no synchronization at all</li>
+ * <li>a lock-free queue per size class shared by all threads</li>
+ * </ul>
+ * A requested buffer is a slice of a chunk of the smallest fitting size class, so its capacity is exactly the requested one.
+ * Requests bigger than the max pooled capacity are served with ephemeral heap buffers.
+ * <p>
+ * Only the memory of the buffers in use is accounted against the max streaming memory. Idle chunks are not, since they are
+ * outside of the heap the cap is calculated from.
+ * <p>
+ * Upon {@link #dispose()}, the slabs are freed as soon as all the pooled buffers are released. From then on, requests are served
+ * with ephemeral heap buffers.
+ *
+ * @since 4.4.0
+ */
+public class DirectPoolingByteBufferManager extends MemoryBoundByteBufferManager implements Disposable {
+
+  public static final String SLAB_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "streaming.direct.slabSize";
+  public static final String MAX_POOLED_CAPACITY_PROPERTY = SYSTEM_PROPERTY_PREFIX + "streaming.direct.maxPooledCapacity";
+  public static final String THREAD_CACHE_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "streaming.direct.threadCacheSize";
+
+  static final int MIN_CHUNK_SIZE = KB.toBytes(1);
+
+  private static final Logger LOGGER = getLogger(DirectPoolingByteBufferManager.class);
+
+  private final int slabSize;
+  private final int maxPooledCapacity;
+  private final int threadCacheSize;
+  private final SizeClass[] sizeClasses;
+  private final ThreadLocal<ThreadCache> threadCaches;
+  private final Queue<ByteBuffer> slabs = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger chunksInUse = new AtomicInteger(0);
+  private final AtomicBoolean slabsFreed = new AtomicBoolean(false);
+
+  private volatile boolean disposed = false;
+
+  /**
+   * Creates a new instance which takes its configuration from system properties, and bounds the memory in use as defined by
+   * {@link MemoryBoundByteBufferManager}.
+   */
+  public DirectPoolingByteBufferManager() {
+    this(new DefaultMemoryManager(),
+         getInteger(SLAB_SIZE_PROPERTY, MB.toBytes(1)),
+         getInteger(MAX_POOLED_CAPACITY_PROPERTY, KB.toBytes(256)),
+         getInteger(THREAD_CACHE_SIZE_PROPERTY, KB.toBytes(256)));
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param memoryManager     a {@link MemoryManager} used to determine the runtime's max memory
+   * @param slabSize          the amount of bytes of direct memory to allocate at once
+   * @param maxPooledCapacity the biggest capacity served with pooled direct memory. Rounded up to a power of two.
+   * @param threadCacheSize   the amount of bytes each thread may keep for itself
+   */
+  public DirectPoolingByteBufferManager(MemoryManager memoryManager, int slabSize, int maxPooledCapacity, int threadCacheSize) {
+    super(memoryManager);
+    checkArgument(maxPooledCapacity > 0, "maxPooledCapacity must be greater than zero");
+    checkArgument(threadCacheSize >= 0, "threadCacheSize cannot be negative");
+    this.maxPooledCapacity = sizeClassCapacity(maxPooledCapacity);
+    checkArgument(slabSize >= this.maxPooledCapacity, "slabSize cannot be smaller than maxPooledCapacity");
+    this.slabSize = slabSize;
+    this.threadCacheSize = threadCacheSize;
+
+    sizeClasses = new SizeClass[sizeClassIndex(this.maxPooledCapacity) + 1];
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new SizeClass(MIN_CHUNK_SIZE << i);
+    }
+    final int sizeClassesCount = sizeClasses.length;
+    threadCaches = ThreadLocal.withInitial(() -> new ThreadCache(sizeClassesCount));
+  }
+
+  @Override
+  public ManagedByteBufferWrapper allocateManaged(int capacity) {
+    if (capacity > maxPooledCapacity) {
+      return new ManagedByteBufferWrapper(allocateIfFits(capacity), buffer -> doDeallocate(buffer.getDelegate()));
+    }
+
+    // counted before checking disposal, so that the slabs are not freed while the chunk is taken
+    chunksInUse.incrementAndGet();
+    if (disposed) {
+      chunkReleased();
+      return new ManagedByteBufferWrapper(allocateIfFits(capacity), buffer -> doDeallocate(buffer.getDelegate()));
+    }
+
+    final SizeClass sizeClass = sizeClasses[sizeClassIndex(sizeClassCapacity(capacity))];
+    try {
+      reserveIfFits(sizeClass.chunkSize);
+    } catch (RuntimeException | Error e) {
+      chunkReleased();
+      throw e;
+    }
+
+    final ByteBuffer chunk;
+    try {
+      chunk = take(sizeClass);
+    } catch (RuntimeException | Error e) {
+      releaseReservation(sizeClass.chunkSize);
+      chunkReleased();
+      throw e;
+    }
+
+    ByteBuffer buffer = chunk.duplicate();
+    buffer.limit(capacity);
+    final AtomicBoolean released = new AtomicBoolean(false);
+    return new ManagedByteBufferWrapper(buffer.slice(), wrapper -> {
+      // releasing twice would hand the same chunk to two different owners
+      if (released.compareAndSet(false, true)) {
+        release(sizeClass, chunk);
+      }
+    });
+  }
+
+  private ByteBuffer take(SizeClass sizeClass) {
+    ByteBuffer chunk = threadCaches.get().poll(sizeClass);
+    if (chunk == null) {
+      chunk = sizeClass.sharedChunks.poll();
+    }
+    if (chunk == null) {
+      chunk = sizeClass.allocateSlab();
+    }
+    return chunk;
+  }
+
+  private void release(SizeClass sizeClass, ByteBuffer chunk) {
+    releaseReservation(sizeClass.chunkSize);
+    try {
+      if (disposed) {
+        return;
+      }
+
+      chunk.clear();
+      if (!threadCaches.get().offer(sizeClass, chunk)) {
+        sizeClass.sharedChunks.offer(chunk);
+      }
+    } finally {
+      chunkReleased();
+    }
+  }
+
+  private void chunkReleased() {
+    if (chunksInUse.decrementAndGet() == 0 && disposed) {
+      freeSlabs();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    disposed = true;
+    threadCaches.remove();
+    if (chunksInUse.get() == 0) {
+      freeSlabs();
+    }
+  }
+
+  /**
+   * Frees the direct memory of all the slabs. Only called once disposed and no chunk is in use, so the chunks still referenced
+   * by the caches of other threads are never accessed again.
+   */
+  private void freeSlabs() {
+    if (!slabsFreed.compareAndSet(false, true)) {
+      return;
+    }
+
+    for (SizeClass sizeClass : sizeClasses) {
+      sizeClass.sharedChunks.clear();
+    }
+
+    ByteBuffer slab;
+    while ((slab = slabs.poll()) != null) {
+      ByteBufferCleaner.clean(slab);
+    }
+  }
+
+  /**
+   * @return the capacity of the size class that fits {@code capacity}
+   */
+  static int sizeClassCapacity(int capacity) {
+    return capacity <= MIN_CHUNK_SIZE ? MIN_CHUNK_SIZE : highestOneBit(capacity - 1) << 1;
+  }
+
+  private static int sizeClassIndex(int sizeClassCapacity) {
+    return numberOfTrailingZeros(sizeClassCapacity) - numberOfTrailingZeros(MIN_CHUNK_SIZE);
+  }
+
+  /**
+   * Chunks of a given size, and the slabs they are carved from.
+   */
+  private final class SizeClass {
+
+    private final int chunkSize;
+    private final int chunksPerSlab;
+    private final int threadCacheChunks;
+    private final Queue<ByteBuffer> sharedChunks = new ConcurrentLinkedQueue<>();
+
+    private SizeClass(int chunkSize) {
+      this.chunkSize = chunkSize;
+      this.chunksPerSlab = max(1, slabSize / chunkSize);
+      this.threadCacheChunks = threadCacheSize / chunkSize;
+    }
+
+    /**
+     * Allocates a new slab, keeping one of its chunks for the caller and sharing the rest.
+     */
+    private ByteBuffer allocateSlab() {
+      ByteBuffer slab;
+      try {
+        slab = ByteBuffer.allocateDirect(chunkSize * chunksPerSlab);
+      } catch (OutOfMemoryError e) {
+        // Direct memory exhausted (see -XX:MaxDirectMemorySize). The reservation was already accounted, so fall back to heap.
+        if (LOGGER.isDebugEnabled()) {
+          LOGGER.debug("Could not allocate direct memory slab for chunks of {} bytes, using heap memory instead", chunkSize, e);
+        }
+        return ByteBuffer.allocate(chunkSize);
+      }
+      slabs.offer(slab);
+
+      ByteBuffer first = null;
+      for (int i = 0; i < chunksPerSlab; i++) {
+        slab.limit((i + 1) * chunkSize).position(i * chunkSize);
+        ByteBuffer chunk = slab.slice();
+        if (first == null) {
+          first = chunk;
+        } else {
+          sharedChunks.offer(chunk);
+        }
+      }
+      return first;
+    }
+  }
+
+  /**
+   * Per thread LIFO stacks of chunks for each size class. Only accessed by its owner thread.
+   * <p>
+   * It doesn't reference the manager, so that the manager can be collected even if the threads that cached chunks are still
+   * alive.
+   */
+  private static final class ThreadCache {
+
+    private final ByteBuffer[][] chunks;
+    private final int[] counts;
+
+    private ThreadCache(int sizeClassesCount) {
+      chunks = new ByteBuffer[sizeClassesCount][];
+      counts = new int[sizeClassesCount];
+    }
+
+    private ByteBuffer poll(SizeClass sizeClass) {
+      final int index = sizeClassIndex(sizeClass.chunkSize);
+      if (counts[index] == 0) {
+        return null;
+      }
+      final int top = --counts[index];
+      final ByteBuffer chunk = chunks[index][top];
+      chunks[index][top] = null;
+      return chunk;
+    }
+
+    private boolean offer(SizeClass sizeClass, ByteBuffer chunk) {
+      final int index = sizeClassIndex(sizeClass.chunkSize);
+      if (counts[index] >= sizeClass.threadCacheChunks) {
+        return false;
+      }
+      if (chunks[index] == null) {
+        chunks[index] = new ByteBuffer[sizeClass.threadCacheChunks];
+      }
+      chunks[index][counts[index]++] = chunk;
+      return true;
+    }
+  }
+}
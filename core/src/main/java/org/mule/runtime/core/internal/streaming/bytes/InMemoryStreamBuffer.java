@@ -8,7 +8,6 @@ package org.mule.runtime.core.internal.streaming.bytes;
 
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
-import static java.lang.System.arraycopy;
 import static java.nio.ByteBuffer.wrap;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 
@@ -200,19 +199,28 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
   }
 
   private ByteBuffer softCopy(long position, int length) {
-    final int offset = toIntExact(position);
-    return wrap(actingBuffer.array(), offset, min(length, actingBuffer.limit() - offset)).slice();
+    return view(position, length).slice();
   }
 
   protected ByteBuffer hardCopy(long position, int length) {
-    final int offset = toIntExact(position);
-    length = min(length, actingBuffer.limit() - offset);
+    ByteBuffer view = view(position, length);
 
-    byte[] b = new byte[length];
-    arraycopy(actingBuffer.array(), offset, b, 0, length);
+    byte[] b = new byte[view.remaining()];
+    view.get(b);
     return wrap(b);
   }
 
+  /**
+   * @return a view of the {@link #actingBuffer} positioned on the requested range. Works with both heap and direct buffers.
+   */
+  private ByteBuffer view(long position, int length) {
+    final int offset = toIntExact(position);
+    ByteBuffer view = actingBuffer.duplicate();
+    view.limit(offset + min(length, actingBuffer.limit() - offset));
+    view.position(offset);
+    return view;
+  }
+
   private boolean canDoSoftCopy() {
     return streamFullyConsumed
         || actingBuffer.capacity() >= maxBufferSize
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.core.api.streaming.bytes.AbstractCursorStreamProvider;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+
+/**
+ * An implementation of {@link AbstractCursorStreamProvider} which yields cursors that buffer in memory up to a threshold, and in
+ * a memory mapped temporal file after that.
+ *
+ * @see MappedFileStoreStreamBuffer
+ * @since 4.4.0
+ */
+public final class MappedFileStoreCursorStreamProvider extends AbstractCursorStreamProvider {
+
+  private final MappedFileStoreStreamBuffer buffer;
+
+  /**
+   * Creates a new instance
+   *
+   * @param wrappedStream            the stream to buffer from
+   * @param config                   the config of the generated buffer
+   * @param bufferManager            the {@link ByteBufferManager} that will be used to allocate the in memory buffers
+   * @param writeExecutor            the {@link Executor} on which the data spilled to disk is written
+   * @param originatingLocation      indicates where the cursor was created
+   * @param trackCursorProviderClose if the provider should save the stack trace from where it was closed
+   */
+  public MappedFileStoreCursorStreamProvider(InputStream wrappedStream,
+                                             FileStoreCursorStreamConfig config,
+                                             ByteBufferManager bufferManager,
+                                             Executor writeExecutor,
+                                             ComponentLocation originatingLocation,
+                                             boolean trackCursorProviderClose) {
+    super(wrappedStream, originatingLocation, trackCursorProviderClose);
+    buffer = new MappedFileStoreStreamBuffer(wrappedStream, config, bufferManager, writeExecutor);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected CursorStream doOpenCursor() {
+    return new BufferedCursorStream(buffer, this);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void releaseResources() {
+    if (buffer != null) {
+      buffer.close();
+    }
+  }
+}
@@ -0,0 +1,436 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.DataUnit.MB;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.ManagedByteBufferWrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds up to
+ * {@link FileStoreCursorStreamConfig#getMaxInMemorySize()} bytes in memory and spills the rest of the stream into a temporal
+ * file.
+ * <p>
+ * Spilled data is read through memory mapped segments of that file, so cursors get read only views of the mapped pages instead
+ * of copies of the data. Because the mapped pages are shared, any number of cursors can read the same provider without
+ * additional memory per cursor.
+ * <p>
+ * Writing to the file is done asynchronously on the given {@link Executor}, so the thread consuming the stream does not block on
+ * disk I/O. Spilled data which is still being written (or whose segment has not been completely written yet) is served from the
+ * chunk in which it was read. Those chunks are never reused, so views handed to cursors remain valid after the data is flushed.
+ * At most {@link FileStoreCursorStreamConfig#getBucketsCount()} chunks can be awaiting to be written, after that consuming the
+ * stream waits for the writes to catch up.
+ *
+ * @since 4.4.0
+ */
+public class MappedFileStoreStreamBuffer extends AbstractInputStreamBuffer {
+
+  public static final String SEGMENT_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "streaming.fileStore.mappedSegmentSize";
+
+  private static final Logger LOGGER = getLogger(MappedFileStoreStreamBuffer.class);
+  private static final ByteBuffer[] NO_SEGMENTS = new ByteBuffer[0];
+
+  private final int bucketSize;
+  private final long headSize;
+  private final int segmentSize;
+  private final Executor writeExecutor;
+
+  private final ManagedByteBufferWrapper[] head;
+  private final Map<Long, ByteBuffer> spillChunks = new ConcurrentHashMap<>();
+  private final Queue<SpillChunk> pendingWrites = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean writing = new AtomicBoolean(false);
+  private final Semaphore writePermits;
+
+  private ByteBuffer currentSpillChunk;
+  private long bufferTip = 0;
+
+  private File file;
+  private FileChannel channel;
+
+  /**
+   * Segments of the file mapped so far. Only modified by the writer, which replaces the whole array.
+   */
+  private volatile ByteBuffer[] segments = NO_SEGMENTS;
+  private volatile long flushedTip = 0;
+  private volatile IOException writeFailure;
+
+  /**
+   * Creates a new instance which maps the file in segments of the size defined by the {@link #SEGMENT_SIZE_PROPERTY} system
+   * property
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration
+   * @param bufferManager the {@link ByteBufferManager} used to allocate the in memory buffers
+   * @param writeExecutor the {@link Executor} on which the spilled data is written
+   */
+  public MappedFileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager,
+                                     Executor writeExecutor) {
+    this(stream, config, bufferManager, writeExecutor, getInteger(SEGMENT_SIZE_PROPERTY, MB.toBytes(1)));
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration
+   * @param bufferManager the {@link ByteBufferManager} used to allocate the in memory buffers
+   * @param writeExecutor the {@link Executor} on which the spilled data is written
+   * @param segmentSize   the size of each mapped region of the file. Rounded down to a multiple of the bucket size.
+   */
+  public MappedFileStoreStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager,
+                                     Executor writeExecutor, int segmentSize) {
+    super(stream, bufferManager);
+    checkArgument(segmentSize > 0, "segmentSize must be greater than zero");
+    this.bucketSize = config.getBucketSize();
+    this.headSize = (long) bucketSize * config.getBucketsCount();
+    this.segmentSize = max(1, segmentSize / bucketSize) * bucketSize;
+    this.writeExecutor = writeExecutor;
+    head = new ManagedByteBufferWrapper[config.getBucketsCount()];
+    writePermits = new Semaphore(config.getBucketsCount());
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return doGet(position, length, true);
+  }
+
+  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
+    readLock.lock();
+    try {
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      if (consumeStreamIfNecessary) {
+        readLock.unlock();
+        writeLock.lock();
+
+        try {
+          ByteBuffer refetch = getFromCurrentData(position, length);
+          if (refetch != null) {
+            return refetch;
+          }
+
+          final long requiredUpperBound = position + length;
+          while (!streamFullyConsumed && bufferTip < requiredUpperBound) {
+            if (consumeForwardData() > 0) {
+              refetch = getFromCurrentData(position, length);
+              if (refetch != null) {
+                return refetch;
+              }
+            }
+          }
+          return doGet(position, length, false);
+        } catch (IOException e) {
+          throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+        } finally {
+          // classic lock downgrade
+          readLock.lock();
+          writeLock.unlock();
+        }
+      } else {
+        return getFromCurrentData(position, length);
+      }
+    } finally {
+      readLock.unlock();
+    }
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    return copy(position, toIntExact(min(length, bufferTip - position)));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Never copies the data, the returned buffer is a view over the memory or the mapped file segment which holds it.
+   */
+  @Override
+  protected ByteBuffer copy(long position, int length) {
+    if (position < headSize) {
+      ByteBuffer bucket = head[toIntExact(position / bucketSize)].getDelegate();
+      return view(bucket, toIntExact(position % bucketSize), length, bucket.position());
+    }
+
+    final long spillPosition = position - headSize;
+
+    // chunks are only discarded after their segment is published, so they must be looked up first
+    ByteBuffer chunk = spillChunks.get(spillPosition / bucketSize);
+    if (chunk != null) {
+      return view(chunk, toIntExact(spillPosition % bucketSize), length, chunk.position());
+    }
+
+    ByteBuffer[] currentSegments = segments;
+    int segmentIndex = toIntExact(spillPosition / segmentSize);
+    if (segmentIndex < currentSegments.length) {
+      ByteBuffer segment = currentSegments[segmentIndex];
+      return view(segment, toIntExact(spillPosition % segmentSize), length, segment.capacity());
+    }
+
+    throw new MuleRuntimeException(createStaticMessage("Buffered data at position " + position + " is no longer available"));
+  }
+
+  /**
+   * @return a slice of {@code buffer} starting at {@code offset}, up to {@code length} bytes or {@code dataLimit}.
+   */
+  private ByteBuffer view(ByteBuffer buffer, int offset, int length, int dataLimit) {
+    ByteBuffer view = buffer.duplicate();
+    view.limit(offset + min(length, dataLimit - offset));
+    view.position(offset);
+    return view.slice();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    if (bufferTip < headSize) {
+      return consumeIntoHead();
+    }
+
+    return consumeIntoSpillChunk();
+  }
+
+  private int consumeIntoHead() throws IOException {
+    final int index = toIntExact(bufferTip / bucketSize);
+    if (head[index] == null) {
+      head[index] = bufferManager.allocateManaged(bucketSize);
+    }
+
+    int read = consumeStream(head[index].getDelegate());
+    if (read > 0) {
+      bufferTip += read;
+    }
+
+    return read;
+  }
+
+  private int consumeIntoSpillChunk() throws IOException {
+    if (writeFailure != null) {
+      throw new IOException("Could not write buffer file " + file.getAbsolutePath(), writeFailure);
+    }
+
+    final long spillTip = bufferTip - headSize;
+    if (currentSpillChunk == null) {
+      if (channel == null) {
+        openFile();
+      }
+      // never taken from the buffer manager, since views of the chunk handed to cursors may outlive it
+      currentSpillChunk = ByteBuffer.allocate(bucketSize);
+      spillChunks.put(spillTip / bucketSize, currentSpillChunk);
+    }
+
+    int read = consumeStream(currentSpillChunk);
+    if (read > 0) {
+      bufferTip += read;
+    }
+
+    if (!currentSpillChunk.hasRemaining() || streamFullyConsumed) {
+      ByteBuffer data = currentSpillChunk.duplicate();
+      data.flip();
+      currentSpillChunk = null;
+      scheduleWrite(new SpillChunk((bufferTip - headSize) - data.remaining(), data, streamFullyConsumed));
+    }
+
+    return read;
+  }
+
+  private void openFile() throws IOException {
+    file = createBufferFile("mapped");
+    channel = FileChannel.open(file.toPath(), CREATE_NEW, READ, WRITE);
+  }
+
+  private void scheduleWrite(SpillChunk chunk) throws IOException {
+    try {
+      writePermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the buffer file to be written");
+    }
+
+    pendingWrites.offer(chunk);
+    if (writing.compareAndSet(false, true)) {
+      try {
+        writeExecutor.execute(this::drainPendingWrites);
+      } catch (RejectedExecutionException e) {
+        drainPendingWrites();
+      }
+    }
+  }
+
+  /**
+   * Writes the pending chunks in the order in which they were read. Only one thread at a time runs this method.
+   */
+  private void drainPendingWrites() {
+    try {
+      SpillChunk chunk;
+      while ((chunk = pendingWrites.poll()) != null) {
+        try {
+          write(chunk);
+        } finally {
+          writePermits.release();
+        }
+      }
+    } finally {
+      writing.set(false);
+    }
+
+    // a chunk may have been offered after the queue was found empty but before the flag was reset
+    if (!pendingWrites.isEmpty() && writing.compareAndSet(false, true)) {
+      try {
+        writeExecutor.execute(this::drainPendingWrites);
+      } catch (RejectedExecutionException e) {
+        drainPendingWrites();
+      }
+    }
+  }
+
+  private void write(SpillChunk chunk) {
+    if (closed.get() || writeFailure != null) {
+      return;
+    }
+
+    try {
+      long filePosition = chunk.filePosition;
+      while (chunk.data.hasRemaining()) {
+        filePosition += channel.write(chunk.data, filePosition);
+      }
+
+      flushedTip = filePosition;
+      mapFlushedSegments(chunk.last);
+    } catch (IOException e) {
+      if (closed.get()) {
+        return;
+      }
+      // the data is kept in memory, only subsequent spills will fail
+      writeFailure = e;
+      LOGGER.warn("Could not write streaming buffer file {}", file.getAbsolutePath(), e);
+    }
+  }
+
+  private void mapFlushedSegments(boolean streamFinished) throws IOException {
+    while (segments.length < flushedTip / segmentSize) {
+      mapSegment(segmentSize);
+    }
+
+    final int tail = toIntExact(flushedTip - (long) segments.length * segmentSize);
+    if (streamFinished && tail > 0) {
+      mapSegment(tail);
+    }
+  }
+
+  private void mapSegment(int size) throws IOException {
+    final ByteBuffer[] currentSegments = segments;
+    final int index = currentSegments.length;
+    final long segmentStart = (long) index * segmentSize;
+
+    ByteBuffer[] newSegments = new ByteBuffer[index + 1];
+    System.arraycopy(currentSegments, 0, newSegments, 0, index);
+    newSegments[index] = channel.map(READ_ONLY, segmentStart, size);
+    segments = newSegments;
+
+    for (long chunkIndex = segmentStart / bucketSize; chunkIndex * bucketSize < segmentStart + size; chunkIndex++) {
+      spillChunks.remove(chunkIndex);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void doClose() {
+    for (int i = 0; i < head.length; i++) {
+      if (head[i] != null) {
+        head[i].release();
+        head[i] = null;
+      }
+    }
+
+    currentSpillChunk = null;
+    spillChunks.clear();
+    pendingWrites.clear();
+    // mapped pages are released once the segments are garbage collected
+    segments = NO_SEGMENTS;
+
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close buffer file channel", e);
+      }
+      if (!file.delete()) {
+        LOGGER.debug("Could not delete buffer file {}, will be deleted on exit", file.getAbsolutePath());
+        file.deleteOnExit();
+      }
+    }
+  }
+
+  /**
+   * @return the file the data is spilled to, or {@code null} if nothing was spilled yet
+   */
+  File getBufferFile() {
+    return file;
+  }
+
+  /**
+   * @return the amount of spilled bytes which have already been written to the file
+   */
+  long getFlushedSize() {
+    return flushedTip;
+  }
+
+  private static final class SpillChunk {
+
+    private final long filePosition;
+    private final ByteBuffer data;
+    private final boolean last;
+
+    private SpillChunk(long filePosition, ByteBuffer data, boolean last) {
+      this.filePosition = filePosition;
+      this.data = data;
+      this.last = last;
+    }
+  }
+}
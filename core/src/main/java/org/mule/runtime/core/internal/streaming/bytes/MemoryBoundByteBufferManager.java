@@ -68,8 +68,22 @@ public abstract class MemoryBoundByteBufferManager implements ByteBufferManager
    * @throws MaxStreamingMemoryExceededException if the memory cap is exceeded by this operation
    */
   protected final ByteBuffer allocateIfFits(int capacity) {
+    reserveIfFits(capacity);
+    return ByteBuffer.allocate(capacity);
+  }
+
+  /**
+   * Accounts for {@code capacity} bytes of streaming memory without allocating any buffer. For implementations which obtain their
+   * memory by other means than {@link #allocateIfFits(int)}. The reservation must be undone through
+   * {@link #releaseReservation(long)}.
+   *
+   * @param capacity the amount of bytes to account for
+   * @throws MaxStreamingMemoryExceededException if the memory cap is exceeded by this operation
+   * @since 4.4.0
+   */
+  protected final void reserveIfFits(long capacity) {
     if (streamingMemory.addAndGet(capacity) <= maxStreamingMemory) {
-      return ByteBuffer.allocate(capacity);
+      return;
     }
 
     streamingMemory.addAndGet(-capacity);
@@ -78,6 +92,16 @@ public abstract class MemoryBoundByteBufferManager implements ByteBufferManager
                                                                              maxStreamingMemory)));
   }
 
+  /**
+   * Undoes a reservation done through {@link #reserveIfFits(long)}.
+   *
+   * @param capacity the amount of bytes that are no longer in use
+   * @since 4.4.0
+   */
+  protected final void releaseReservation(long capacity) {
+    streamingMemory.addAndGet(-capacity);
+  }
+
   /**
    * Tries to allocate the {@link ByteBuffer} by delegating to {@link #allocateIfFits(int)}. If the memory cap is exceeded a
    * {@link MaxStreamingMemoryExceededException} is thrown.
@@ -109,7 +133,7 @@ public abstract class MemoryBoundByteBufferManager implements ByteBufferManager
    * @param byteBuffer a {@link ByteBuffer}
    */
   protected void doDeallocate(ByteBuffer byteBuffer) {
-    streamingMemory.addAndGet(-byteBuffer.capacity());
+    releaseReservation(byteBuffer.capacity());
   }
 
   private long calculateMaxStreamingMemory(MemoryManager memoryManager) {
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes.factory;
+
+import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.event.EventContext;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.factory.AbstractCursorStreamProviderFactory;
+import org.mule.runtime.core.internal.streaming.bytes.FileStoreCursorStreamConfig;
+import org.mule.runtime.core.internal.streaming.bytes.MappedFileStoreCursorStreamProvider;
+
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+
+/**
+ * An implementation of {@link AbstractCursorStreamProviderFactory} which always generates instances of
+ * {@link MappedFileStoreCursorStreamProvider}
+ *
+ * @see MappedFileStoreCursorStreamProvider
+ * @since 4.4.0
+ */
+public class MappedFileStoreCursorStreamProviderFactory extends AbstractCursorStreamProviderFactory {
+
+  private final FileStoreCursorStreamConfig config;
+  private final Executor writeExecutor;
+
+  /**
+   * Creates a new instance
+   *
+   * @param bufferManager    the {@link ByteBufferManager} that will be used to allocate the in memory buffers
+   * @param config           the config for the generated providers
+   * @param writeExecutor    the {@link Executor} on which the data spilled to disk is written
+   * @param streamingManager the {@link StreamingManager} tracking the generated providers
+   */
+  public MappedFileStoreCursorStreamProviderFactory(ByteBufferManager bufferManager,
+                                                    FileStoreCursorStreamConfig config,
+                                                    Executor writeExecutor,
+                                                    StreamingManager streamingManager) {
+    super(bufferManager, streamingManager);
+    this.config = config;
+    this.writeExecutor = writeExecutor;
+  }
+
+  @Override
+  protected Object resolve(InputStream inputStream, EventContext eventContext, ComponentLocation originatingLocation) {
+    return doResolve(inputStream, originatingLocation);
+  }
+
+  @Override
+  protected Object resolve(InputStream inputStream, CoreEvent event, ComponentLocation originatingLocation) {
+    return doResolve(inputStream, originatingLocation);
+  }
+
+  private Object doResolve(InputStream inputStream, ComponentLocation originatingLocation) {
+    return new MappedFileStoreCursorStreamProvider(inputStream, config, getBufferManager(), writeExecutor, originatingLocation,
+                                                   trackCursorProviderClose);
+  }
+}
@@ -62,6 +62,13 @@ public class Bucket<T> implements Serializable {
     return index == position.getBucketIndex() && position.getItemIndex() < items.size();
   }
 
+  /**
+   * @return the amount of items in {@code this} bucket
+   */
+  int size() {
+    return items.size();
+  }
+
   /**
    * @return {@code this} bucket's index
    */
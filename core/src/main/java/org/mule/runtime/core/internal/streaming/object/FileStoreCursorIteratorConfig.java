@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Math.max;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE;
+import static org.mule.runtime.extension.api.ExtensionConstants.DEFAULT_OBJECT_STREAMING_MAX_BUFFER_SIZE;
+
+/**
+ * Configuration for a {@link ObjectStreamBuffer} which uses a local file for buffering
+ *
+ * @since 4.4.0
+ */
+public final class FileStoreCursorIteratorConfig {
+
+  private final int maxInMemoryInstances;
+  private final int bucketSize;
+
+  /**
+   * @return A new instance configured with default settings
+   */
+  public static FileStoreCursorIteratorConfig getDefault() {
+    return new FileStoreCursorIteratorConfig(DEFAULT_OBJECT_STREAMING_MAX_BUFFER_SIZE,
+                                             DEFAULT_OBJECT_STREAMING_BUFFER_INCREMENT_SIZE);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param maxInMemoryInstances the maximum amount of instances to be held in memory. Rounded down to a multiple of
+   *                             {@code bucketSize}, with a minimum of one bucket.
+   * @param bucketSize           the amount of instances which are written to and read from the file at once
+   */
+  public FileStoreCursorIteratorConfig(int maxInMemoryInstances, int bucketSize) {
+    checkArgument(bucketSize > 0, "bucketSize must be greater than zero");
+    checkArgument(maxInMemoryInstances > 0, "maxInMemoryInstances must be greater than zero");
+
+    this.bucketSize = bucketSize;
+    this.maxInMemoryInstances = max(1, maxInMemoryInstances / bucketSize) * bucketSize;
+  }
+
+  /**
+   * @return The maximum amount of instances to be held in memory
+   */
+  public int getMaxInMemoryInstances() {
+    return maxInMemoryInstances;
+  }
+
+  /**
+   * @return The amount of instances in each bucket
+   */
+  public int getBucketSize() {
+    return bucketSize;
+  }
+
+  /**
+   * @return The maximum amount of buckets to be held in memory
+   */
+  public int getMaxInMemoryBuckets() {
+    return maxInMemoryInstances / bucketSize;
+  }
+}
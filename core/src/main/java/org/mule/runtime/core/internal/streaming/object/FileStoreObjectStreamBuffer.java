@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.object;
+
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.nio.ByteBuffer.wrap;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Arrays.copyOf;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+
+/**
+ * An {@link AbstractObjectStreamBuffer} implementation which holds a bounded amount of items in memory and serializes the rest
+ * into a local segment file, so that streams of any size can be repeatedly iterated.
+ * <p>
+ * Items are grouped in fixed size buckets. Once a bucket is full it is serialized as a single record appended to the file. The
+ * only per bucket state kept in memory is the offset of its record, so the index of a stream of millions of items takes a few
+ * kilobytes. Reading a spilled bucket deserializes the whole record, which is kept in a small cache of recently used buckets
+ * since cursors tend to iterate sequentially.
+ * <p>
+ * There's no limit on the amount of buffered items, other than the disk space.
+ *
+ * @param <T> The generic type of the items in the stream
+ * @since 4.4.0
+ */
+public class FileStoreObjectStreamBuffer<T> extends AbstractObjectStreamBuffer<T> {
+
+  private static final Logger LOGGER = getLogger(FileStoreObjectStreamBuffer.class);
+  private static final int INITIAL_INDEX_CAPACITY = 64;
+
+  private final FileStoreCursorIteratorConfig config;
+  private final SerializationProtocol serializer;
+  private final int maxCachedBuckets;
+
+  private final Map<Integer, Bucket<T>> cachedBuckets = new ConcurrentHashMap<>();
+  private final Queue<Integer> cacheOrder = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Offset in the file of the record of each spilled bucket. The offset after the last record is the file's tip.
+   */
+  private long[] bucketOffsets = new long[INITIAL_INDEX_CAPACITY];
+  private int spilledBuckets = 0;
+
+  private File file;
+  private FileChannel channel;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream     the stream to be buffered
+   * @param config     this buffer's configuration
+   * @param serializer the {@link SerializationProtocol} used to write the items to the file
+   */
+  public FileStoreObjectStreamBuffer(Iterator<T> stream, FileStoreCursorIteratorConfig config,
+                                     SerializationProtocol serializer) {
+    super(stream);
+    this.config = config;
+    this.serializer = serializer;
+    // the bucket being filled is always held in memory
+    maxCachedBuckets = max(1, config.getMaxInMemoryBuckets() - 1);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Position toPosition(long position) {
+    return new Position(toIntExact(position / config.getBucketSize()), (int) (position % config.getBucketSize()));
+  }
+
+  @Override
+  protected void initialize(Optional<Position> maxPosition, Bucket<T> initialBucket) {
+    setCurrentBucket(new Bucket<>(0, config.getBucketSize()));
+  }
+
+  @Override
+  protected Bucket<T> getPresentBucket(Position position) {
+    final Bucket<T> currentBucket = getCurrentBucket();
+    final int bucketIndex = position.getBucketIndex();
+
+    if (currentBucket == null || bucketIndex > currentBucket.getIndex()) {
+      return null;
+    } else if (bucketIndex == currentBucket.getIndex()) {
+      return currentBucket;
+    }
+
+    Bucket<T> bucket = cachedBuckets.get(bucketIndex);
+    if (bucket == null) {
+      bucket = cache(readBucket(bucketIndex));
+    }
+
+    return bucket;
+  }
+
+  @Override
+  protected Bucket<T> onBucketOverflow(Bucket<T> overflownBucket) {
+    writeBucket(overflownBucket);
+    cache(overflownBucket);
+
+    return new Bucket<>(overflownBucket.getIndex() + 1, config.getBucketSize());
+  }
+
+  @Override
+  protected void validateMaxBufferSizeNotExceeded(int instancesCount) {
+    // bounded by disk space only
+  }
+
+  private Bucket<T> cache(Bucket<T> bucket) {
+    Bucket<T> previous = cachedBuckets.putIfAbsent(bucket.getIndex(), bucket);
+    if (previous != null) {
+      // concurrently read by another cursor
+      return previous;
+    }
+
+    cacheOrder.offer(bucket.getIndex());
+    while (cachedBuckets.size() > maxCachedBuckets) {
+      Integer evicted = cacheOrder.poll();
+      if (evicted == null) {
+        break;
+      }
+      cachedBuckets.remove(evicted);
+    }
+
+    return bucket;
+  }
+
+  /**
+   * Appends the given {@code bucket} to the file. Invoked while holding the write lock.
+   */
+  private void writeBucket(Bucket<T> bucket) {
+    List<T> items = new ArrayList<>(bucket.size());
+    for (int i = 0; i < bucket.size(); i++) {
+      items.add(bucket.get(i).orElse(null));
+    }
+
+    try {
+      if (channel == null) {
+        file = createBufferFile("objects");
+        channel = FileChannel.open(file.toPath(), CREATE_NEW, READ, WRITE);
+      }
+
+      final ByteBuffer record = wrap(serializer.serialize(items));
+      long offset = bucketOffsets[spilledBuckets];
+      while (record.hasRemaining()) {
+        offset += channel.write(record, offset);
+      }
+
+      if (spilledBuckets + 1 == bucketOffsets.length) {
+        bucketOffsets = copyOf(bucketOffsets, bucketOffsets.length * 2);
+      }
+      bucketOffsets[++spilledBuckets] = offset;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not write object streaming buffer file"), e);
+    }
+  }
+
+  /**
+   * Reads the bucket of the given {@code index} from the file. Can be invoked concurrently while holding the read lock.
+   */
+  private Bucket<T> readBucket(int index) {
+    final long offset = bucketOffsets[index];
+    final ByteBuffer record = ByteBuffer.allocate(toIntExact(bucketOffsets[index + 1] - offset));
+
+    try {
+      while (record.hasRemaining()) {
+        if (channel.read(record, offset + record.position()) < 0) {
+          throw new EOFException("Unexpected end of object streaming buffer file " + file.getAbsolutePath());
+        }
+      }
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not read object streaming buffer file"), e);
+    }
+
+    List<T> items = serializer.deserialize(record.array());
+    Bucket<T> bucket = new Bucket<>(index, config.getBucketSize());
+    items.forEach(bucket::add);
+
+    return bucket;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void doClose() {
+    cachedBuckets.clear();
+    cacheOrder.clear();
+
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOGGER.debug("Found exception trying to close object streaming buffer file channel", e);
+      }
+      if (!file.delete()) {
+        LOGGER.debug("Could not delete object streaming buffer file {}, will be deleted on exit", file.getAbsolutePath());
+        file.deleteOnExit();
+      }
+    }
+  }
+
+  /**
+   * @return the file the items are spilled to, or {@code null} if nothing was spilled yet
+   */
+  File getBufferFile() {
+    return file;
+  }
+
+  /**
+   * @return the amount of buckets currently held in memory, including the one being filled
+   */
+  int getInMemoryBucketsCount() {
+    return cachedBuckets.size() + 1;
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer;
+
+import static java.lang.Integer.getInteger;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.core.api.management.stats.TransformerResolutionStatistics;
+import org.mule.runtime.core.api.transformer.Transformer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the {@link Transformer} resolved for a pair of source and result {@link DataType}s.
+ * <p/>
+ * Lookups don't take any lock. The absence of a transformer is cached as well, so failed implicit conversions are not resolved
+ * again each time. The cache must be {@link #invalidate() invalidated} when the registered transformers change. A resolution that
+ * was computed concurrently with an invalidation is discarded the next time it is looked up, so stale results are never returned.
+ * <p/>
+ * The cache is bounded: when it gets full it is emptied, since the set of data type pairs used by an application is usually
+ * small and stable.
+ *
+ * @since 4.4.0
+ */
+public final class TransformerResolutionCache {
+
+  public static final String MAX_ENTRIES_PROPERTY = SYSTEM_PROPERTY_PREFIX + "transformer.resolutionCache.maxEntries";
+
+  private static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  /**
+   * Computes the transformer for a pair of data types when it is not cached.
+   */
+  @FunctionalInterface
+  public interface TransformerLookup {
+
+    /**
+     * @return the transformer for the given data types, or {@code null} if there is none
+     */
+    Transformer lookup(DataType source, DataType result) throws ResolverException;
+  }
+
+  private final ConcurrentMap<DataTypePair, Resolution> resolutions = new ConcurrentHashMap<>();
+  private final AtomicLong epoch = new AtomicLong();
+  private final int maxEntries;
+  private volatile TransformerResolutionStatistics statistics;
+
+  public TransformerResolutionCache() {
+    this(getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES));
+  }
+
+  public TransformerResolutionCache(int maxEntries) {
+    this.maxEntries = maxEntries;
+    this.statistics = new TransformerResolutionStatistics();
+    this.statistics.setEnabled(true);
+  }
+
+  /**
+   * @param statistics where to report hits and misses of this cache
+   */
+  public void setStatistics(TransformerResolutionStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  public TransformerResolutionStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Returns the cached transformer for the given data types, resolving and caching it with {@code lookup} if needed.
+   *
+   * @param source the source data type
+   * @param result the result data type
+   * @param lookup computes the transformer when it is not cached
+   * @return the transformer for the given data types, or {@code null} if there is none
+   * @throws ResolverException if thrown by {@code lookup}. Failures are not cached.
+   */
+  public Transformer resolve(DataType source, DataType result, TransformerLookup lookup) throws ResolverException {
+    final DataTypePair key = new DataTypePair(source, result);
+    final long currentEpoch = epoch.get();
+
+    final Resolution cached = resolutions.get(key);
+    if (cached != null && cached.epoch == currentEpoch) {
+      if (cached.transformer != null) {
+        statistics.incHits();
+      } else {
+        statistics.incNegativeHits();
+      }
+      return cached.transformer;
+    }
+
+    statistics.incMisses();
+    final Transformer transformer = lookup.lookup(source, result);
+
+    if (resolutions.size() >= maxEntries) {
+      resolutions.clear();
+    }
+    resolutions.put(key, new Resolution(transformer, currentEpoch));
+    return transformer;
+  }
+
+  /**
+   * Discards all the cached resolutions.
+   */
+  public void invalidate() {
+    epoch.incrementAndGet();
+    resolutions.clear();
+    statistics.incInvalidations();
+  }
+
+  /**
+   * @return the number of cached resolutions, including stale ones not yet discarded.
+   */
+  public int size() {
+    return resolutions.size();
+  }
+
+  private static final class Resolution {
+
+    private final Transformer transformer;
+    private final long epoch;
+
+    private Resolution(Transformer transformer, long epoch) {
+      this.transformer = transformer;
+      this.epoch = epoch;
+    }
+  }
+
+  private static final class DataTypePair {
+
+    private final DataType source;
+    private final DataType result;
+    private final int hash;
+
+    private DataTypePair(DataType source, DataType result) {
+      this.source = source;
+      this.result = result;
+      this.hash = 31 * source.hashCode() + result.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof DataTypePair)) {
+        return false;
+      }
+      DataTypePair other = (DataTypePair) obj;
+      return hash == other.hash && source.equals(other.source) && result.equals(other.result);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
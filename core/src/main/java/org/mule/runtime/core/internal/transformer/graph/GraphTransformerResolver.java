@@ -7,49 +7,39 @@
 package org.mule.runtime.core.internal.transformer.graph;
 
 import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.core.api.management.stats.TransformerResolutionStatistics;
 import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.internal.registry.TransformerResolver;
 import org.mule.runtime.core.internal.transformer.ResolverException;
+import org.mule.runtime.core.internal.transformer.TransformerResolutionCache;
 import org.mule.runtime.core.api.config.i18n.CoreMessages;
 
 import java.util.List;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-
-import org.apache.commons.collections.map.LRUMap;
 
 public class GraphTransformerResolver implements TransformerResolver {
 
-  private ReentrantReadWriteLock readWriteLock;
   private SynchronizedTransformationGraph graph;
   private CompositeConverterFilter converterFilter;
-  private LRUMap cache;
+  private TransformerResolutionCache cache;
   private TransformationGraphLookupStrategy lookupStrategyTransformation;
 
   public GraphTransformerResolver() {
-    this.readWriteLock = new ReentrantReadWriteLock();
     this.graph = new SynchronizedTransformationGraph();
     lookupStrategyTransformation = new TransformationGraphLookupStrategy(graph);
     converterFilter = new CompositeConverterFilter(new TypeMatchingVertexesFilter(),
                                                    new TransformationLengthConverterFilter(),
                                                    new PriorityWeightingConverterFilter(),
                                                    new NameConverterFilter());
-    cache = new LRUMap();
+    cache = new TransformerResolutionCache();
   }
 
   @Override
   public Transformer resolve(DataType source, DataType result) throws ResolverException {
-    String cacheKey = getDataTypeSourceResultPairHash(source, result);
-
-    readWriteLock.readLock().lock();
-    try {
-      if (cache.containsKey(cacheKey)) {
-        return (Converter) cache.get(cacheKey);
-      }
-    } finally {
-      readWriteLock.readLock().unlock();
-    }
+    return cache.resolve(source, result, this::lookupConverter);
+  }
 
+  private Transformer lookupConverter(DataType source, DataType result) throws ResolverException {
     List<Converter> converters =
         converterFilter.filter(lookupStrategyTransformation.lookupConverters(source, result), source, result);
 
@@ -57,48 +47,29 @@ public class GraphTransformerResolver implements TransformerResolver {
       throw new ResolverException(CoreMessages.transformHasMultipleMatches(source.getType(), result.getType(), converters));
     }
 
-    Transformer converter = (converters.size() == 0) ? null : converters.get(0);
-
-
-    readWriteLock.writeLock().lock();
-    try {
-      cache.put(cacheKey, converter);
-    } finally {
-      readWriteLock.writeLock().unlock();
-    }
-
-    return converter;
-  }
-
-  private String getDataTypeSourceResultPairHash(DataType source, DataType result) {
-    StringBuilder builder = new StringBuilder();
-    builder.append(source.getClass().getName());
-    builder.append(source.hashCode());
-    builder.append(":");
-    builder.append(result.getClass().getName());
-    builder.append(result.hashCode());
-
-    return builder.toString();
+    return (converters.size() == 0) ? null : converters.get(0);
   }
 
   @Override
-  public void transformerChange(Transformer transformer, RegistryAction registryAction) {
-    readWriteLock.writeLock().lock();
+  public synchronized void transformerChange(Transformer transformer, RegistryAction registryAction) {
+    if (!(transformer instanceof Converter)) {
+      return;
+    }
 
-    try {
-      if (!(transformer instanceof Converter)) {
-        return;
-      }
+    if (registryAction == RegistryAction.ADDED) {
+      graph.addConverter((Converter) transformer);
+    } else if (registryAction == RegistryAction.REMOVED) {
+      graph.removeConverter((Converter) transformer);
+    }
 
-      cache.clear();
+    // invalidate after changing the graph, so resolutions computed with the previous graph are discarded
+    cache.invalidate();
+  }
 
-      if (registryAction == RegistryAction.ADDED) {
-        graph.addConverter((Converter) transformer);
-      } else if (registryAction == RegistryAction.REMOVED) {
-        graph.removeConverter((Converter) transformer);
-      }
-    } finally {
-      readWriteLock.writeLock().unlock();
-    }
+  /**
+   * @return the statistics of the resolution cache of this resolver
+   */
+  public TransformerResolutionStatistics getCacheStatistics() {
+    return cache.getStatistics();
   }
 }
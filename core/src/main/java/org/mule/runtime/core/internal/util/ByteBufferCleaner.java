@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+
+/**
+ * Frees the memory of direct and memory-mapped {@link ByteBuffer}s right away, instead of waiting for the garbage collector to
+ * collect them.
+ * <p>
+ * The buffer must not be accessed after being cleaned, not even through a slice or a duplicate of it, since that would access
+ * memory which is no longer reserved. If the running JVM doesn't allow freeing the memory explicitly, cleaning is a no-op and the
+ * memory is freed when the buffer is collected.
+ *
+ * @since 4.4.0
+ */
+public final class ByteBufferCleaner {
+
+  private static final Logger LOGGER = getLogger(ByteBufferCleaner.class);
+
+  private static final Consumer<ByteBuffer> CLEANER = resolveCleaner();
+
+  private ByteBufferCleaner() {}
+
+  /**
+   * Frees the memory of the given {@code buffer} if it is a direct one that owns its memory. Heap buffers, slices and duplicates
+   * are ignored.
+   *
+   * @param buffer the buffer to clean
+   */
+  public static void clean(ByteBuffer buffer) {
+    if (buffer == null || !buffer.isDirect()) {
+      return;
+    }
+
+    try {
+      CLEANER.accept(buffer);
+    } catch (RuntimeException e) {
+      LOGGER.debug("Could not clean direct buffer, it will be released when collected", e);
+    }
+  }
+
+  private static Consumer<ByteBuffer> resolveCleaner() {
+    // Java 9+
+    try {
+      final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      final Object unsafe = theUnsafe.get(null);
+      return buffer -> invoke(invokeCleaner, unsafe, buffer);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // not available, try the Java 8 way
+    }
+
+    try {
+      final Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      final Method cleanMethod = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      return buffer -> {
+        final Object cleaner = invoke(cleanerMethod, buffer);
+        // slices and duplicates have no cleaner, the memory belongs to the buffer they were created from
+        if (cleaner != null) {
+          invoke(cleanMethod, cleaner);
+        }
+      };
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOGGER.debug("Direct buffers can't be cleaned explicitly in this JVM, they will be released when collected", e);
+      return buffer -> {
+      };
+    }
+  }
+
+  private static Object invoke(Method method, Object target, Object... args) {
+    try {
+      return method.invoke(target, args);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.lang.Thread.interrupted;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+/**
+ * A timer optimized for scheduling big amounts of timeouts which are most likely cancelled before they expire, or which don't
+ * need a precise expiration, such as idle checks or retry delays.
+ * <p>
+ * Timeouts are kept in a circular array of buckets (the wheel) which is advanced one bucket per tick by a single worker task.
+ * Scheduling and cancelling are O(1) and lock free: new timeouts are handed to the worker through a queue, and cancelled ones are
+ * only flagged and dropped the next time their bucket is visited. The price is precision: timeouts expire on the first tick after
+ * their deadline.
+ * <p>
+ * Tasks are executed on the worker thread, so they must be short and must not block. The worker task occupies a thread of the
+ * {@link Executor} given on {@link #start(Executor)} until the timer is stopped.
+ *
+ * @since 4.4.0
+ */
+public final class HashedWheelTimer {
+
+  private static final Logger LOGGER = getLogger(HashedWheelTimer.class);
+
+  private final String name;
+  private final long tickNanos;
+  private final List<Timeout>[] wheel;
+  private final int mask;
+  private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+  // guarded by this
+  private Thread worker;
+  private CountDownLatch workerDone;
+  private volatile long startTime;
+  private volatile boolean stopped = true;
+
+  /**
+   * Creates a new instance
+   *
+   * @param name          the name of the timer
+   * @param tickDuration  the duration of each tick
+   * @param unit          the {@link TimeUnit} of the {@code tickDuration}
+   * @param ticksPerWheel the amount of buckets in the wheel. Rounded up to a power of two.
+   */
+  public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+    checkArgument(tickDuration > 0, "tickDuration must be greater than zero");
+    checkArgument(ticksPerWheel > 0, "ticksPerWheel must be greater than zero");
+
+    this.name = name;
+    this.tickNanos = unit.toNanos(tickDuration);
+    int wheelSize = ticksPerWheel == 1 ? 1 : highestOneBit(ticksPerWheel - 1) << 1;
+    wheel = new List[wheelSize];
+    for (int i = 0; i < wheelSize; i++) {
+      wheel[i] = new ArrayList<>();
+    }
+    mask = wheelSize - 1;
+  }
+
+  /**
+   * Starts the timer, submitting its worker task to the given {@code executor}. Does nothing if it is already started.
+   *
+   * @param executor where the worker task runs until the timer is stopped
+   * @throws RejectedExecutionException if the {@code executor} does not accept the worker task
+   */
+  public synchronized void start(Executor executor) {
+    if (workerDone != null) {
+      return;
+    }
+
+    stopped = false;
+    startTime = nanoTime();
+    final CountDownLatch done = new CountDownLatch(1);
+    executor.execute(() -> {
+      try {
+        synchronized (this) {
+          worker = currentThread();
+        }
+        run();
+      } finally {
+        synchronized (this) {
+          worker = null;
+          // don't leak the interruption of stop to the executor's thread
+          interrupted();
+        }
+        done.countDown();
+      }
+    });
+    workerDone = done;
+  }
+
+  /**
+   * Stops the timer and waits for its worker task to finish. The tasks that were not executed yet are not executed by the timer
+   * anymore, they are returned instead so that the caller can decide what to do with them.
+   *
+   * @return the tasks of the timeouts that were neither executed nor cancelled.
+   */
+  public List<Runnable> stop() {
+    final CountDownLatch done;
+    synchronized (this) {
+      stopped = true;
+      done = worker == currentThread() ? null : workerDone;
+      workerDone = null;
+      if (worker != null && worker != currentThread()) {
+        worker.interrupt();
+      }
+    }
+
+    if (done != null) {
+      boolean interrupted = false;
+      while (done.getCount() > 0) {
+        try {
+          done.await();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        currentThread().interrupt();
+      }
+    }
+
+    final List<Runnable> unexecuted = new ArrayList<>();
+    for (List<Timeout> bucket : wheel) {
+      for (Timeout timeout : bucket) {
+        if (!timeout.cancelled) {
+          unexecuted.add(timeout.task);
+        }
+      }
+      bucket.clear();
+    }
+    Timeout timeout;
+    while ((timeout = pendingTimeouts.poll()) != null) {
+      if (!timeout.cancelled) {
+        unexecuted.add(timeout.task);
+      }
+    }
+    return unexecuted;
+  }
+
+  /**
+   * Schedules the given {@code task} to be executed after the given {@code delay}
+   *
+   * @return a {@link Timeout} which can be used to cancel the execution
+   * @throws RejectedExecutionException if the timer is not started or is stopped
+   */
+  public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+    Timeout timeout = new Timeout(task, nanoTime() - startTime + unit.toNanos(delay));
+    pendingTimeouts.offer(timeout);
+    // If it was stopped concurrently, the timeout is either returned by stop or removed here, so it is never silently dropped
+    if (stopped && pendingTimeouts.remove(timeout)) {
+      throw new RejectedExecutionException("Timer '" + name + "' is stopped");
+    }
+    return timeout;
+  }
+
+  private void run() {
+    long tick = 0;
+    while (!stopped) {
+      final long tickDeadline = tickNanos * (tick + 1);
+      final long sleepNanos = tickDeadline - (nanoTime() - startTime);
+      if (sleepNanos > 0) {
+        try {
+          NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+
+      transferPendingTimeouts(tick);
+      expire(wheel[(int) (tick & mask)]);
+      tick++;
+    }
+  }
+
+  private void transferPendingTimeouts(long currentTick) {
+    // bounded, so that a burst of new timeouts does not starve the expiration
+    for (int i = 0; i < 100_000; i++) {
+      Timeout timeout = pendingTimeouts.poll();
+      if (timeout == null) {
+        return;
+      }
+      if (timeout.cancelled) {
+        continue;
+      }
+
+      long deadlineTick = timeout.deadline / tickNanos;
+      timeout.remainingRounds = (deadlineTick - currentTick) / wheel.length;
+      // already expired timeouts are run in the current tick
+      wheel[(int) (max(deadlineTick, currentTick) & mask)].add(timeout);
+    }
+  }
+
+  private void expire(List<Timeout> bucket) {
+    if (bucket.isEmpty()) {
+      return;
+    }
+
+    List<Timeout> expired = null;
+    int kept = 0;
+    for (int i = 0; i < bucket.size(); i++) {
+      Timeout timeout = bucket.get(i);
+      if (timeout.cancelled) {
+        continue;
+      }
+      if (timeout.remainingRounds <= 0) {
+        if (expired == null) {
+          expired = new ArrayList<>();
+        }
+        expired.add(timeout);
+      } else {
+        timeout.remainingRounds--;
+        bucket.set(kept++, timeout);
+      }
+    }
+    bucket.subList(kept, bucket.size()).clear();
+
+    if (expired != null) {
+      for (Timeout timeout : expired) {
+        try {
+          timeout.task.run();
+        } catch (Throwable t) {
+          LOGGER.warn("Exception found executing timer task", t);
+        }
+      }
+    }
+  }
+
+  /**
+   * Handle of a task scheduled in a {@link HashedWheelTimer}
+   */
+  public static final class Timeout {
+
+    private final Runnable task;
+    private final long deadline;
+    private long remainingRounds;
+    private volatile boolean cancelled = false;
+
+    private Timeout(Runnable task, long deadline) {
+      this.task = task;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Prevents the task from being executed, if it wasn't already
+     */
+    public void cancel() {
+      cancelled = true;
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+  }
+}
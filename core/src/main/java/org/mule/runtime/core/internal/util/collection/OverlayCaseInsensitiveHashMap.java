@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.collection;
+
+import static java.util.Collections.unmodifiableMap;
+import static org.mule.runtime.core.internal.util.collection.OverlayMap.overlay;
+
+import org.mule.runtime.api.util.CaseInsensitiveMapWrapper;
+import org.mule.runtime.api.util.collection.SmallMap;
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
+
+import java.io.ObjectStreamException;
+import java.util.Map;
+
+/**
+ * A {@link CaseInsensitiveHashMap} whose immutable versions are copied as {@link OverlayMap}s, sharing their entries instead of
+ * copying them.
+ * <p>
+ * Once {@link #toImmutableCaseInsensitiveMap()} is called this map must not be modified anymore, since its entries may be shared
+ * by the copies of the immutable version. When serialized it is replaced by a regular {@link CaseInsensitiveHashMap}, so the
+ * serialized form doesn't depend on this class.
+ *
+ * @param <K> the generic type of the keys
+ * @param <V> the generic type of the values
+ * @since 4.4.0
+ */
+public class OverlayCaseInsensitiveHashMap<K, V> extends CaseInsensitiveHashMap<K, V> {
+
+  private static final long serialVersionUID = -2379163587436121447L;
+
+  /**
+   * Creates a modifiable copy of the given {@code map}. If it is the immutable version of an
+   * {@link OverlayCaseInsensitiveHashMap}, the copy shares its entries and keeps only the changes done to it.
+   *
+   * @param map the map to copy
+   * @param <K> the generic type of the keys
+   * @param <V> the generic type of the values
+   * @return a modifiable copy of the {@code map}
+   */
+  public static <K, V> CaseInsensitiveHashMap<K, V> copyOf(CaseInsensitiveHashMap<K, V> map) {
+    if (map instanceof ImmutableOverlayCaseInsensitiveHashMap) {
+      return map.copy();
+    }
+
+    final OverlayCaseInsensitiveHashMap<K, V> copy = new OverlayCaseInsensitiveHashMap<>(newDelegate());
+    copy.putAll(map);
+    return copy;
+  }
+
+  private OverlayCaseInsensitiveHashMap(Map<K, V> delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public CaseInsensitiveHashMap<K, V> copy() {
+    return new OverlayCaseInsensitiveHashMap<>(copyDelegate(delegate));
+  }
+
+  @Override
+  public CaseInsensitiveHashMap<K, V> toImmutableCaseInsensitiveMap() {
+    if (isEmpty()) {
+      return emptyCaseInsensitiveMap();
+    }
+    return new ImmutableOverlayCaseInsensitiveHashMap<>(this);
+  }
+
+  private Object writeReplace() throws ObjectStreamException {
+    return new CaseInsensitiveHashMap<>(this);
+  }
+
+  private static <K, V> Map<K, V> newDelegate() {
+    return new CaseInsensitiveMapWrapper(new SmallMap<>());
+  }
+
+  private static <K, V> Map<K, V> copyDelegate(Map<K, V> map) {
+    if (map instanceof CaseInsensitiveMapWrapper) {
+      return ((CaseInsensitiveMapWrapper) map).copy();
+    }
+
+    final Map<K, V> copy = newDelegate();
+    copy.putAll(map);
+    return copy;
+  }
+
+  private static final class ImmutableOverlayCaseInsensitiveHashMap<K, V> extends OverlayCaseInsensitiveHashMap<K, V> {
+
+    private static final long serialVersionUID = 6095470346581245370L;
+
+    private final transient Map<K, V> base;
+
+    private ImmutableOverlayCaseInsensitiveHashMap(OverlayCaseInsensitiveHashMap<K, V> map) {
+      super(unmodifiableMap(map.delegate));
+      base = map.delegate;
+    }
+
+    @Override
+    public CaseInsensitiveHashMap<K, V> toImmutableCaseInsensitiveMap() {
+      return this;
+    }
+
+    @Override
+    public CaseInsensitiveHashMap<K, V> copy() {
+      return new OverlayCaseInsensitiveHashMap<>(overlay(base, OverlayCaseInsensitiveHashMap::newDelegate,
+                                                         OverlayCaseInsensitiveHashMap::copyDelegate));
+    }
+
+    private Object writeReplace() throws ObjectStreamException {
+      return new CaseInsensitiveHashMap<>(this).toImmutableCaseInsensitiveMap();
+    }
+  }
+}
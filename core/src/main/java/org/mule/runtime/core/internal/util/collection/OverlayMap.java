@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.collection;
+
+import static java.util.Collections.emptyMap;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@link Map} that shares the entries of another map which is no longer modified, the base, and keeps only the changes done on
+ * top of it. Creating one is O(1) regardless of the size of the base, and so is each addition or change, which makes it suitable
+ * for the copies of a map that are done just to add or change a few entries, as with the variables of an event.
+ * <p>
+ * Removing an entry of the base is O(n) instead: the remaining entries are flattened into the changes and the base is dropped,
+ * so that the removed value is not kept reachable through the base for as long as this map lives.
+ * <p>
+ * Lookups check the changes first and then the base. Since the base may in turn be an {@link OverlayMap}, the amount of levels is
+ * tracked so that the entries are flattened into a regular map once the amount of levels would make lookups too costly. See
+ * {@link #overlay(Map, Supplier, UnaryOperator)}.
+ * <p>
+ * The key comparison semantics are the ones of the maps provided by the given factory, which must be the same as the ones of the
+ * base. The entries of {@link #entrySet()} are immutable, and the iterators of its views don't support removal.
+ * <p>
+ * When serialized, the entries are flattened into a map provided by the factory, so the serialized form doesn't depend on this
+ * class. This implementation is not thread-safe.
+ *
+ * @param <K> the generic type of the keys
+ * @param <V> the generic type of the values
+ * @since 4.4.0
+ */
+public final class OverlayMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+  private static final long serialVersionUID = 4419870465729311522L;
+
+  /**
+   * Bases smaller than this are just copied, since for those a copy is cheaper than an overlay.
+   */
+  private static final int MIN_OVERLAY_BASE_SIZE = 8;
+
+  /**
+   * The maximum amount of levels of overlays, so that lookups on a map never go through more than this amount of maps.
+   */
+  private static final int MAX_DEPTH = 4;
+
+  private transient Map<K, V> base;
+  private final transient Supplier<Map<K, Object>> mapFactory;
+  private final transient int depth;
+
+  private transient Map<K, V> changes;
+  private transient int size;
+
+  /**
+   * Creates a modifiable map with the entries of the given {@code base}, which must not be modified afterwards.
+   * <p>
+   * If the {@code base} is small it is copied with the given {@code copier}, and if it already has the maximum amount of levels
+   * of overlays its entries are flattened into a new map provided by the {@code mapFactory}. Otherwise the entries are shared.
+   *
+   * @param base       the map to copy
+   * @param mapFactory provides new empty maps with the same key semantics as the {@code base}
+   * @param copier     copies a {@code base} that is not worth sharing
+   * @param <K>        the generic type of the keys
+   * @param <V>        the generic type of the values
+   * @return a modifiable map with the entries of the {@code base}
+   */
+  public static <K, V> Map<K, V> overlay(Map<K, V> base, Supplier<Map<K, Object>> mapFactory, UnaryOperator<Map<K, V>> copier) {
+    if (base instanceof OverlayMap) {
+      final OverlayMap<K, V> overlayBase = (OverlayMap<K, V>) base;
+      if (overlayBase.depth >= MAX_DEPTH || overlayBase.size < MIN_OVERLAY_BASE_SIZE) {
+        final Map<K, V> flattened = (Map<K, V>) mapFactory.get();
+        flattened.putAll(base);
+        return flattened;
+      }
+      return new OverlayMap<>(base, overlayBase.depth + 1, mapFactory);
+    }
+
+    if (base.size() < MIN_OVERLAY_BASE_SIZE) {
+      return copier.apply(base);
+    }
+    return new OverlayMap<>(base, 1, mapFactory);
+  }
+
+  private OverlayMap(Map<K, V> base, int depth, Supplier<Map<K, Object>> mapFactory) {
+    this.base = base;
+    this.depth = depth;
+    this.mapFactory = mapFactory;
+    this.size = base.size();
+  }
+
+  /**
+   * @return the amount of levels of overlays, including this one.
+   */
+  int getDepth() {
+    return depth;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    if (changes != null && changes.containsKey(key)) {
+      return true;
+    }
+    return base.containsKey(key);
+  }
+
+  @Override
+  public V get(Object key) {
+    if (changes != null) {
+      final V value = changes.get(key);
+      if (value != null || changes.containsKey(key)) {
+        return value;
+      }
+    }
+    return base.get(key);
+  }
+
+  @Override
+  public V put(K key, V value) {
+    if (changes == null) {
+      changes = (Map<K, V>) mapFactory.get();
+    }
+
+    if (changes.containsKey(key)) {
+      return changes.put(key, value);
+    }
+
+    changes.put(key, value);
+    if (base.containsKey(key)) {
+      return base.get(key);
+    }
+    size++;
+    return null;
+  }
+
+  @Override
+  public V remove(Object key) {
+    if (base.containsKey(key)) {
+      compact();
+    }
+
+    if (changes != null && changes.containsKey(key)) {
+      size--;
+      return changes.remove(key);
+    }
+    return null;
+  }
+
+  @Override
+  public void clear() {
+    base = emptyMap();
+    changes = null;
+    size = 0;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<Entry<K, V>>() {
+
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /**
+   * Flattens the entries into the changes and drops the base, which is no longer referenced from this map.
+   */
+  private void compact() {
+    final Map<K, V> flattened = (Map<K, V>) mapFactory.get();
+    flattened.putAll(this);
+    changes = flattened;
+    base = emptyMap();
+  }
+
+  private Object writeReplace() throws ObjectStreamException {
+    final Map<K, V> flattened = (Map<K, V>) mapFactory.get();
+    flattened.putAll(this);
+    return flattened;
+  }
+
+  /**
+   * Iterates the entries of the base that were not changed, followed by the changed ones.
+   */
+  private final class EntryIterator implements Iterator<Entry<K, V>> {
+
+    private final Iterator<Entry<K, V>> baseIterator = base.entrySet().iterator();
+    private Iterator<Entry<K, V>> changesIterator;
+    private Entry<K, V> next;
+
+    @Override
+    public boolean hasNext() {
+      if (next == null) {
+        next = advance();
+      }
+      return next != null;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Entry<K, V> current = next;
+      next = null;
+      return current;
+    }
+
+    private Entry<K, V> advance() {
+      while (baseIterator.hasNext()) {
+        final Entry<K, V> entry = baseIterator.next();
+        if (changes == null || !changes.containsKey(entry.getKey())) {
+          return new SimpleImmutableEntry<>(entry);
+        }
+      }
+
+      if (changes == null) {
+        return null;
+      }
+      if (changesIterator == null) {
+        changesIterator = changes.entrySet().iterator();
+      }
+      return changesIterator.hasNext() ? new SimpleImmutableEntry<>(changesIterator.next()) : null;
+    }
+  }
+}
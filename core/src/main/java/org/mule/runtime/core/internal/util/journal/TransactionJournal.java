@@ -6,14 +6,25 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+
 import org.mule.runtime.api.util.Preconditions;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,31 +32,51 @@ import org.slf4j.LoggerFactory;
 /**
  * Keeps track of transactional operation made over a transactional resource.
  *
- * Uses two files for keeping track of the transactions and empties a file once all the entries in such file are resolved.
+ * Uses a sequence of segment files for keeping track of the transactions. New transactions are always logged in the last
+ * segment, which is rolled once it reaches the maximum size. Older segments are deleted as soon as all the transactions in them
+ * are resolved, so a long running transaction does not prevent the journal from rolling.
+ *
+ * Entries logged concurrently by different transactions are group committed, see {@link TransactionJournalFile}. The journal
+ * lock is only held to register the entry, the actual file write happens outside of it.
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
- * manually remove the entries related to such transaction to clear the cache.
+ * manually remove the entries related to such transaction to clear the cache. The entries of the transactions that were already
+ * complete when loading a log file are not kept, so the cache only grows with the pending transactions, not with the size of
+ * the log files.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   public static final String TX1_LOG_FILE_NAME = "tx1.log";
   public static final String TX2_LOG_FILE_NAME = "tx2.log";
 
+  private static final Pattern LOG_FILE_NAME_PATTERN = Pattern.compile("tx(\\d+)\\.log");
+  private static final String LOG_FILE_NAME_FORMAT = "tx%d.log";
+
   private static final int MAXIMUM_LOG_FILE_ENTRIES = 50000;
   private static final int ONE_MEGABYTE_IN_BYTES = 1024 * 1024;
 
   private transient Logger logger = LoggerFactory.getLogger(getClass());
 
+  private final File logFileDirectory;
   private final TransactionCompletePredicate transactionCompletePredicate;
+  private final JournalEntrySerializer journalEntrySerializer;
 
   /**
-   * Log file in which we are currently writing new entries.
+   * Log files by segment number. All but the last one only have old entries and will be deleted as soon as all the
+   * transactions in them are resolved.
+   */
+  private final ConcurrentSkipListMap<Integer, TransactionJournalFile<T, K>> logFiles = new ConcurrentSkipListMap<>();
+
+  /**
+   * Log file in which each pending transaction is being written.
    */
-  private TransactionJournalFile<T, K> currentLogFile;
+  private final Map<T, TransactionJournalFile<T, K>> txLogFiles = new ConcurrentHashMap<>();
+
   /**
-   * Log file which has old entries and will be cleared as soon as all the transaction in it are resolved.
+   * Log file in which we are currently writing new entries.
    */
-  private TransactionJournalFile<T, K> notCurrentLogFile;
+  private volatile TransactionJournalFile<T, K> currentLogFile;
+  private int currentLogFileNumber;
 
   /**
    * Maximum transaction log file size in bytes.
@@ -62,22 +93,17 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    */
   public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
                             JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes) {
-    File logFileDirectory = new File(logFilesDirectory);
+    this.logFileDirectory = new File(logFilesDirectory);
     if (!logFileDirectory.exists()) {
       Preconditions.checkState(logFileDirectory.mkdirs(),
                                "Could not create directory for queue transaction logger " + logFileDirectory);
     }
     calculateJournalFileSize(maximumFileSizeInMegabytes);
-    File logFile1 = new File(logFileDirectory, TX1_LOG_FILE_NAME);
-    File logFile2 = new File(logFileDirectory, TX2_LOG_FILE_NAME);
-    logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
-
-    this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
-    this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
     this.transactionCompletePredicate = transactionCompletePredicate;
-
+    this.journalEntrySerializer = journalEntrySerializer;
+    loadLogFiles();
+    logger.info(format("Using directory for tx logs %s, current file %s", logFileDirectory.getAbsolutePath(),
+                       currentLogFile.getFile().getName()));
   }
 
   private void calculateJournalFileSize(Integer maximumFileSizeInMegabytes) {
@@ -87,14 +113,54 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     }
   }
 
+  private void loadLogFiles() {
+    File[] files = logFileDirectory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        Matcher matcher = LOG_FILE_NAME_PATTERN.matcher(file.getName());
+        if (matcher.matches()) {
+          int number = parseInt(matcher.group(1));
+          logFiles.put(number, createLogFile(file));
+        }
+      }
+    }
+
+    if (logFiles.isEmpty()) {
+      currentLogFileNumber = 1;
+      currentLogFile = createLogFile(new File(logFileDirectory, TX1_LOG_FILE_NAME));
+      logFiles.put(currentLogFileNumber, currentLogFile);
+    } else {
+      currentLogFileNumber = logFiles.lastKey();
+      currentLogFile = logFiles.lastEntry().getValue();
+    }
+
+    for (TransactionJournalFile<T, K> logFile : new ArrayList<>(logFiles.values())) {
+      for (T txId : logFile.getAllLogEntries().keySet()) {
+        txLogFiles.put(txId, logFile);
+      }
+      deleteIfUnused(logFile);
+    }
+  }
+
+  private TransactionJournalFile<T, K> createLogFile(File file) {
+    return new TransactionJournalFile(file, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+  }
+
   /**
    * Log an update operation over a transactional resource
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    K entry = (K) journalEntry;
+    TransactionJournalFile<T, K> logFile;
+    long sequence;
+    byte[] serializedEntry = currentLogFile.serialize(entry);
+    synchronized (this) {
+      logFile = determineLogFile(entry.getTxId());
+      sequence = logFile.append(entry, serializedEntry);
+    }
+    logFile.awaitWritten(sequence);
   }
 
   /**
@@ -104,11 +170,22 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    K entry = (K) journalEntry;
+    TransactionJournalFile<T, K> logFile;
+    long sequence;
+    byte[] serializedEntry = currentLogFile.serialize(entry);
+    synchronized (this) {
+      logFile = determineLogFile(entry.getTxId());
+      sequence = logFile.append(entry, serializedEntry);
+    }
+    logFile.awaitWritten(sequence);
     if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+      synchronized (this) {
+        logFile.clearEntriesForTransaction(entry.getTxId());
+        txLogFiles.remove(entry.getTxId());
+        deleteIfUnused(logFile);
+      }
     }
   }
 
@@ -117,7 +194,7 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    * @return all the transaction entries for a certain transaction identifier
    */
   public Collection<K> getLogEntriesForTx(T txId) {
-    TransactionJournalFile logFile = determineLogFileWithoutModifyingCurrent(txId);
+    TransactionJournalFile<T, K> logFile = txLogFiles.get(txId);
     if (logFile == null || !logFile.containsTx(txId)) {
       return Collections.emptyList();
     }
@@ -129,68 +206,92 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    */
   public synchronized Multimap<T, K> getAllLogEntries() {
     LinkedHashMultimap<T, K> logEntries = LinkedHashMultimap.create();
-    logEntries.putAll(currentLogFile.getAllLogEntries());
-    logEntries.putAll(notCurrentLogFile.getAllLogEntries());
+    for (TransactionJournalFile<T, K> logFile : logFiles.values()) {
+      logEntries.putAll(logFile.getAllLogEntries());
+    }
     return logEntries;
   }
 
+  /**
+   * Hands the entries of each pending transaction to the given callback, one transaction at a time and going through the log
+   * files from the oldest to the newest, without building a copy of the whole journal as {@link #getAllLogEntries()} does.
+   * <p>
+   * The entries are taken from the memory cache rather than read again from the log files: the cache has to be there anyway
+   * because committing or rolling back a recovered XA transaction reads its entries through
+   * {@link #getLogEntriesForTx(Object)}, and it only holds the pending transactions.
+   *
+   * @param callback receives the transaction identifier and a copy of its entries
+   */
+  public void forEachTransaction(BiConsumer<T, Collection<K>> callback) {
+    List<TransactionJournalFile<T, K>> files;
+    synchronized (this) {
+      files = new ArrayList<>(logFiles.values());
+    }
+    for (TransactionJournalFile<T, K> logFile : files) {
+      logFile.forEachTransaction(callback);
+    }
+  }
+
   /**
    * Release the resources used by the transaction journal
    */
   public synchronized void close() {
-    currentLogFile.close();
-    notCurrentLogFile.close();
+    for (TransactionJournalFile<T, K> logFile : logFiles.values()) {
+      logFile.close();
+    }
   }
 
   /**
    * Removes all the entries from the transactional journal
    */
   public synchronized void clear() {
+    for (TransactionJournalFile<T, K> logFile : logFiles.values()) {
+      if (logFile != currentLogFile) {
+        logFile.delete();
+      }
+    }
+    logFiles.clear();
+    txLogFiles.clear();
     currentLogFile.clear();
-    notCurrentLogFile.clear();
+    logFiles.put(currentLogFileNumber, currentLogFile);
   }
 
-  private TransactionJournalFile determineLogFile(T txId) {
-    final TransactionJournalFile logFile = determineLogFileWithoutModifyingCurrent(txId);
+  private TransactionJournalFile<T, K> determineLogFile(T txId) {
+    final TransactionJournalFile<T, K> logFile = txLogFiles.get(txId);
     if (logFile != null) {
       return logFile;
     }
     // we keep this condition for backward compatibility.
     if (maximumFileSizeInBytes == null) {
-      if (currentLogFile.size() > MAXIMUM_LOG_FILE_ENTRIES && notCurrentLogFile.size() == 0) {
-        debugLogFilesSwap();
-        changeCurrentLogFile();
+      if (currentLogFile.size() > MAXIMUM_LOG_FILE_ENTRIES) {
+        rollCurrentLogFile();
       }
     } else {
-      if (currentLogFile.fileLength() > maximumFileSizeInBytes && notCurrentLogFile.size() == 0) {
-        debugLogFilesSwap();
-        changeCurrentLogFile();
+      if (currentLogFile.fileLength() > maximumFileSizeInBytes) {
+        rollCurrentLogFile();
       }
     }
+    txLogFiles.put(txId, currentLogFile);
     return currentLogFile;
   }
 
-  private void debugLogFilesSwap() {
+  private void rollCurrentLogFile() {
+    TransactionJournalFile<T, K> previousLogFile = currentLogFile;
+    currentLogFileNumber++;
+    currentLogFile = createLogFile(new File(logFileDirectory, format(LOG_FILE_NAME_FORMAT, currentLogFileNumber)));
+    logFiles.put(currentLogFileNumber, currentLogFile);
     if (logger.isDebugEnabled()) {
-      logger.debug("Changing files, current file size: " + currentLogFile.fileLength() + " other file size: "
-          + notCurrentLogFile.fileLength());
+      logger.debug("Rolling log file, previous file size: " + previousLogFile.fileLength() + ", pending log files: "
+          + logFiles.size());
     }
+    deleteIfUnused(previousLogFile);
   }
 
-  private void changeCurrentLogFile() {
-    TransactionJournalFile aux = currentLogFile;
-    currentLogFile = notCurrentLogFile;
-    notCurrentLogFile = aux;
-  }
-
-  private TransactionJournalFile determineLogFileWithoutModifyingCurrent(T txId) {
-    if (currentLogFile.containsTx(txId)) {
-      return currentLogFile;
-    }
-    if (notCurrentLogFile.containsTx(txId)) {
-      return notCurrentLogFile;
+  private void deleteIfUnused(TransactionJournalFile<T, K> logFile) {
+    if (logFile != currentLogFile && logFile.size() == 0) {
+      logFiles.values().remove(logFile);
+      logFile.delete();
     }
-    return null;
   }
 
 }
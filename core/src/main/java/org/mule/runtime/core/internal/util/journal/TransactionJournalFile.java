@@ -13,6 +13,7 @@ import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -24,12 +25,18 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 
 /**
  * Manages a transaction journal file.
+ * <p/>
+ * Writes are group committed: {@link #append(JournalEntry, byte[])} only registers the entry in memory and queues its serialized
+ * form, while {@link #awaitWritten(long)} makes sure it reached the file. The first thread to call {@link #awaitWritten(long)}
+ * writes every pending entry in a single operation, so concurrent transactions share one file write instead of doing one each.
  *
  * @param <T> type of the transaction identifier
  * @param <K> type of the journal entry
@@ -50,9 +57,17 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
 
   private Multimap<T, K> entries = LinkedHashMultimap.create();
 
-  private DataOutputStream logFileOutputStream;
+  private FileOutputStream logFileOutputStream;
   private int journalOperations = 0;
 
+  /**
+   * Serializes the file writes. When both locks are needed, this one must be acquired before the monitor of this instance.
+   */
+  private final Object writeLock = new Object();
+  private final List<byte[]> pendingWrites = new ArrayList<>();
+  private long appendedSequence = 0;
+  private volatile long writtenSequence = 0;
+
   /**
    * @param journalFile                  journal file to use. Will be created if it doesn't exists. If exists then transaction
    *                                     entries will get loaded from it.
@@ -75,10 +90,82 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * 
    * @param journalEntry operation details
    */
-  public synchronized void logOperation(K journalEntry) {
+  public void logOperation(K journalEntry) {
+    awaitWritten(append(journalEntry, serialize(journalEntry)));
+  }
+
+  /**
+   * @param journalEntry operation details
+   * @return the serialized form of the entry, as it will be written to the file
+   */
+  byte[] serialize(K journalEntry) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    journalEntrySerializer.serialize(journalEntry, new DataOutputStream(bytes));
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Registers the journal entry without writing it to the file. {@link #awaitWritten(long)} must be called with the returned
+   * sequence before considering the operation logged.
+   *
+   * @param journalEntry    operation details
+   * @param serializedEntry the entry as returned by {@link #serialize(JournalEntry)}
+   * @return the sequence number of the entry within this file
+   */
+  synchronized long append(K journalEntry, byte[] serializedEntry) {
     entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
+    pendingWrites.add(serializedEntry);
     journalOperations++;
+    return ++appendedSequence;
+  }
+
+  /**
+   * Waits until the entry with the given sequence is written to the file, writing it along with any other pending entry if no
+   * other thread is already doing so.
+   *
+   * @param sequence sequence returned by {@link #append(JournalEntry, byte[])}
+   */
+  void awaitWritten(long sequence) {
+    if (writtenSequence >= sequence) {
+      return;
+    }
+    synchronized (writeLock) {
+      // another thread may have written our entry while we were waiting for the lock
+      if (writtenSequence < sequence) {
+        writePendingEntries();
+      }
+    }
+  }
+
+  private void writePendingEntries() {
+    List<byte[]> batch;
+    long batchSequence;
+    synchronized (this) {
+      if (pendingWrites.isEmpty()) {
+        return;
+      }
+      batch = new ArrayList<>(pendingWrites);
+      pendingWrites.clear();
+      batchSequence = appendedSequence;
+    }
+
+    int batchLength = 0;
+    for (byte[] serializedEntry : batch) {
+      batchLength += serializedEntry.length;
+    }
+    byte[] buffer = new byte[batchLength];
+    int position = 0;
+    for (byte[] serializedEntry : batch) {
+      System.arraycopy(serializedEntry, 0, buffer, position, serializedEntry.length);
+      position += serializedEntry.length;
+    }
+
+    try {
+      logFileOutputStream.write(buffer);
+      writtenSequence = batchSequence;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    }
   }
 
   /**
@@ -88,9 +175,13 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    *
    * @param txId transaction identifier
    */
-  public synchronized void clearEntriesForTransaction(T txId) {
-    doClearEntriesForTransaction(txId);
-    clearFileIfNeeded();
+  public void clearEntriesForTransaction(T txId) {
+    synchronized (writeLock) {
+      synchronized (this) {
+        doClearEntriesForTransaction(txId);
+        clearFileIfNeeded();
+      }
+    }
   }
 
   protected void doClearEntriesForTransaction(T txId) {
@@ -119,7 +210,17 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    *
    * Will not remove the transaction context.
    */
-  public synchronized void close() {
+  public void close() {
+    synchronized (writeLock) {
+      writePendingEntries();
+      closeOutputStream();
+    }
+  }
+
+  private void closeOutputStream() {
+    if (logFileOutputStream == null) {
+      return;
+    }
     try {
       logFileOutputStream.close();
     } catch (IOException e) {
@@ -155,11 +256,34 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   /**
    * Remove all the entries from the transaction journal and cleans the transaction journal fle.
    */
-  public synchronized void clear() {
-    close();
-    entries.clear();
-    FileUtils.deleteQuietly(journalFile);
-    createLogOutputStream();
+  public void clear() {
+    synchronized (writeLock) {
+      synchronized (this) {
+        discardPendingEntries();
+        entries.clear();
+        FileUtils.deleteQuietly(journalFile);
+        createLogOutputStream();
+      }
+    }
+  }
+
+  /**
+   * Closes the journal file and deletes it. Meant for files with no pending transactions.
+   */
+  void delete() {
+    synchronized (writeLock) {
+      synchronized (this) {
+        discardPendingEntries();
+        entries.clear();
+        FileUtils.deleteQuietly(journalFile);
+      }
+    }
+  }
+
+  private void discardPendingEntries() {
+    closeOutputStream();
+    pendingWrites.clear();
+    writtenSequence = appendedSequence;
   }
 
   private void createLogOutputStream() {
@@ -171,7 +295,7 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
       }
     }
     try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
+      this.logFileOutputStream = new FileOutputStream(journalFile, true);
     } catch (FileNotFoundException e) {
       throw new MuleRuntimeException(e);
     }
@@ -230,6 +354,34 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
     }
   }
 
+  /**
+   * Hands the entries of each transaction held by this file to the given callback, one transaction at a time.
+   *
+   * @param callback receives the transaction identifier and a copy of its entries
+   */
+  void forEachTransaction(BiConsumer<T, Collection<K>> callback) {
+    List<T> txIds;
+    synchronized (this) {
+      txIds = new ArrayList<>(entries.keySet());
+    }
+    for (T txId : txIds) {
+      Collection<K> txEntries;
+      synchronized (this) {
+        txEntries = new ArrayList<>(entries.get(txId));
+      }
+      if (!txEntries.isEmpty()) {
+        callback.accept(txId, txEntries);
+      }
+    }
+  }
+
+  /**
+   * @return the journal file
+   */
+  File getFile() {
+    return journalFile;
+  }
+
   /**
    * @return the number different transaction identifier held by the journal.
    */
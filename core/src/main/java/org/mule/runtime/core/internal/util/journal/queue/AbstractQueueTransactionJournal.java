@@ -17,6 +17,7 @@ import com.google.common.collect.Multimap;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.function.BiConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -125,6 +126,15 @@ public abstract class AbstractQueueTransactionJournal<T, K extends JournalEntry<
     return logFile.getLogEntriesForTx(txId);
   }
 
+  /**
+   * Iterates the pending transactions of the journal one at a time.
+   *
+   * @param callback receives the transaction identifier and its entries
+   */
+  public void forEachTransaction(BiConsumer<T, Collection<K>> callback) {
+    logFile.forEachTransaction(callback);
+  }
+
   protected TransactionJournal<T, K> getJournal() {
     return logFile;
   }
@@ -12,10 +12,9 @@ import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.core.internal.util.queue.QueueProvider;
 import org.mule.runtime.core.internal.util.queue.RecoverableQueueStore;
 
-import com.google.common.collect.Multimap;
-
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 
@@ -48,53 +47,58 @@ public class LocalTxQueueTransactionRecoverer {
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Executing transaction recovery");
     }
-    Multimap<Integer, LocalQueueTxJournalEntry> allEntries = localTxQueueTransactionJournal.getAllLogEntries();
+    AtomicInteger txRecovered = new AtomicInteger();
+    localTxQueueTransactionJournal.forEachTransaction((txId, entries) -> {
+      if (recover(entries)) {
+        txRecovered.incrementAndGet();
+      }
+    });
     if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Found " + allEntries.size() + " txs to recover");
+      LOGGER.debug("Recovered " + txRecovered.get() + " txs to recover");
     }
-    int txRecovered = 0;
-    for (Integer txId : allEntries.keySet()) {
-      Collection<LocalQueueTxJournalEntry> entries = allEntries.get(txId);
-      Object commitOrRollback = find(entries, object -> {
-        LocalQueueTxJournalEntry logEntry = (LocalQueueTxJournalEntry) object;
-        return logEntry.isCommit() || logEntry.isRollback();
-      });
-      if (commitOrRollback != null) {
-        continue;
-      }
-      txRecovered++;
-      for (LocalQueueTxJournalEntry logEntry : entries) {
-        if (logEntry.isRemove()) {
-          String queueName = logEntry.getQueueName();
-          RecoverableQueueStore queue = queueProvider.getRecoveryQueue(queueName);
-          Serializable polledValue = logEntry.getValue();
-          if (!queue.contains(polledValue)) {
-            if (LOGGER.isDebugEnabled()) {
-              LOGGER.debug("re-adding polled element that was not commited to queue " + queue.getName());
-            }
-            try {
-              queue.putNow(polledValue);
-            } catch (InterruptedException e) {
-              throw new MuleRuntimeException(e);
-            }
+    this.localTxQueueTransactionJournal.clear();
+  }
+
+  /**
+   * @param entries journal entries of a single transaction
+   * @return true if the transaction was pending and its operations were undone, false if it was already resolved
+   */
+  private boolean recover(Collection<LocalQueueTxJournalEntry> entries) {
+    Object commitOrRollback = find(entries, object -> {
+      LocalQueueTxJournalEntry logEntry = (LocalQueueTxJournalEntry) object;
+      return logEntry.isCommit() || logEntry.isRollback();
+    });
+    if (commitOrRollback != null) {
+      return false;
+    }
+    for (LocalQueueTxJournalEntry logEntry : entries) {
+      if (logEntry.isRemove()) {
+        String queueName = logEntry.getQueueName();
+        RecoverableQueueStore queue = queueProvider.getRecoveryQueue(queueName);
+        Serializable polledValue = logEntry.getValue();
+        if (!queue.contains(polledValue)) {
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("re-adding polled element that was not commited to queue " + queue.getName());
           }
-        } else if (logEntry.isAdd() || logEntry.isAddFirst()) {
-          Serializable offeredValue = logEntry.getValue();
-          String queueName = logEntry.getQueueName();
-          RecoverableQueueStore queue = queueProvider.getRecoveryQueue(queueName);
-          if (queue.contains(offeredValue)) {
-            if (LOGGER.isDebugEnabled()) {
-              LOGGER.debug("removing offer element that was not commited to queue " + queue.getName());
-            }
-            queue.remove(offeredValue);
+          try {
+            queue.putNow(polledValue);
+          } catch (InterruptedException e) {
+            throw new MuleRuntimeException(e);
+          }
+        }
+      } else if (logEntry.isAdd() || logEntry.isAddFirst()) {
+        Serializable offeredValue = logEntry.getValue();
+        String queueName = logEntry.getQueueName();
+        RecoverableQueueStore queue = queueProvider.getRecoveryQueue(queueName);
+        if (queue.contains(offeredValue)) {
+          if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("removing offer element that was not commited to queue " + queue.getName());
           }
+          queue.remove(offeredValue);
         }
       }
     }
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Recovered " + txRecovered + " txs to recover");
-    }
-    this.localTxQueueTransactionJournal.clear();
+    return true;
   }
 
 }
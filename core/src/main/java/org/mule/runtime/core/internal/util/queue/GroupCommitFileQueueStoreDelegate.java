@@ -0,0 +1,942 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Math.max;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.util.queue.DualRandomAccessFileQueueStoreDelegate.MAX_LENGTH_PER_FILE_PROPERTY_KEY;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.util.ByteBufferCleaner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} implementation that stores the queue data in memory-mapped segment files written by a
+ * single writer task, run on a custom scheduler of the {@link MuleContext}.
+ * <p/>
+ * Instead of every producer and consumer writing to the file while holding the queue monitor, write operations (appends and
+ * removal marks) are handed over to the writer thread, which applies all the operations submitted concurrently as one batch and
+ * flushes them to disk once (group commit) before releasing the callers. The offsets of the entries are kept in a
+ * {@link LongRingBuffer}, and the lock protecting it is never held while doing I/O.
+ * <p/>
+ * Segments are pre-sized to {@link DualRandomAccessFileQueueStoreDelegate#MAX_LENGTH_PER_FILE_PROPERTY_KEY} bytes and deleted
+ * once all of their entries have been consumed. A segment is only deleted, and so unmapped, while holding the lock the writer
+ * holds when flushing segments, and never before the batch that sealed it was flushed.
+ * <p/>
+ * An operation either is fully written or has no effect: if a batch can't be written, whatever was already written of it is
+ * rolled back, and if the caller gives up waiting before the writer picks its operation up, the operation is discarded.
+ *
+ * @since 4.4.0
+ */
+public class GroupCommitFileQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  /**
+   * System property to make persistent queues use this delegate instead of {@link DualRandomAccessFileQueueStoreDelegate}.
+   */
+  public static final String GROUP_COMMIT_PROPERTY_KEY = SYSTEM_PROPERTY_PREFIX + "queue.groupCommit";
+
+  /**
+   * System property to set the maximum amount of operations flushed together by the writer thread.
+   */
+  public static final String MAX_BATCH_SIZE_PROPERTY_KEY = SYSTEM_PROPERTY_PREFIX + "queue.groupCommit.maxBatchSize";
+
+  /**
+   * System property to set the maximum time, in milliseconds, an operation waits for the writer thread to write it.
+   */
+  public static final String COMMIT_TIMEOUT_PROPERTY_KEY = SYSTEM_PROPERTY_PREFIX + "queue.groupCommit.commitTimeout";
+
+  private static final int ONE_MEGABYTE = 1024 * 1024;
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String QUEUE_DIRECTORY_SUFFIX = "-segments";
+  private static final String SEGMENT_FILE_EXTENSION = ".qseg";
+  private static final long WRITER_POLL_INTERVAL_MILLIS = 10;
+
+  private static final byte END_OF_DATA = 0;
+  private static final byte LIVE = 1;
+  private static final byte REMOVED = 2;
+  // state + data length + crc
+  private static final int RECORD_HEADER_SIZE = Byte.BYTES + 2 * Integer.BYTES;
+
+  protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ObjectSerializer serializer;
+  private final int capacity;
+  private final int maxSegmentSize = Integer.getInteger(MAX_LENGTH_PER_FILE_PROPERTY_KEY, ONE_MEGABYTE);
+  private final int maxBatchSize = Integer.getInteger(MAX_BATCH_SIZE_PROPERTY_KEY, 256);
+  private final long commitTimeoutMillis = Long.getLong(COMMIT_TIMEOUT_PROPERTY_KEY, 60000L);
+  private final File queueDirectory;
+
+  private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  // only accessed by the writer thread once the delegate is constructed
+  private Segment writeSegment;
+  // only accessed by the writer thread, segments replaced as write segment in the batch being written.
+  private final List<Segment> rolledSegments = new ArrayList<>();
+  // Held while flushing, sealing or deleting segments, so that no segment is unmapped while it is being flushed.
+  private final ReentrantLock segmentsLock = new ReentrantLock();
+
+  private final LinkedBlockingQueue<WriteRequest> writeRequests = new LinkedBlockingQueue<>();
+  private final Scheduler writerScheduler;
+  private final Future<?> writer;
+  // Operations hold the read lock while submitting requests or accessing the mapped segments, so that once closed nothing is
+  // submitted anymore and no segment is accessed after being unmapped.
+  private final ReentrantReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+  private volatile boolean running = true;
+
+  private final ReentrantLock ringLock = new ReentrantLock();
+  private final Condition notEmpty = ringLock.newCondition();
+  private final Condition notFull = ringLock.newCondition();
+  // guarded by ringLock
+  private final LongRingBuffer offsets = new LongRingBuffer();
+  // guarded by ringLock, entries accepted but not yet committed by the writer.
+  private int pendingAppends = 0;
+
+  public GroupCommitFileQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity) {
+    this.serializer = muleContext.getObjectSerializer();
+    this.capacity = capacity;
+    this.queueDirectory = createQueueDirectory(new File(workingDirectory, QUEUE_STORE_DIRECTORY), queueName);
+
+    recover();
+
+    writerScheduler = muleContext.getSchedulerService()
+        .customScheduler(muleContext.getSchedulerBaseConfig().withName("queue-store-writer." + queueName)
+            .withMaxConcurrentTasks(1));
+    writer = writerScheduler.submit(this::runWriter);
+
+    if (logger.isDebugEnabled()) {
+      logger.debug(format("Queue %s has %s messages", queueName, getSize()));
+    }
+  }
+
+  @Override
+  public void putNow(Serializable o) {
+    byte[] data = serialize(o);
+    reserve(1);
+    awaitCommitOrFail(submit(WriteRequest.append(data, false), () -> unreserve(1)));
+  }
+
+  @Override
+  public boolean offer(Serializable o, int room, long timeout) throws InterruptedException {
+    checkInterrupted();
+    byte[] data = o == null ? null : serialize(o);
+    ringLock.lock();
+    try {
+      if (capacity > 0) {
+        if (capacity <= room) {
+          throw new IllegalStateException("Can not add more objects than the capacity in one time");
+        }
+        long nanos = MILLISECONDS.toNanos(timeout);
+        while (offsets.size() + pendingAppends >= capacity - room) {
+          if (timeout < 0) {
+            notFull.await();
+          } else {
+            if (nanos <= 0L) {
+              return false;
+            }
+            nanos = notFull.awaitNanos(nanos);
+          }
+        }
+      }
+      if (data == null) {
+        return true;
+      }
+      pendingAppends++;
+    } finally {
+      ringLock.unlock();
+    }
+
+    awaitCommit(submit(WriteRequest.append(data, false), () -> unreserve(1)));
+    return true;
+  }
+
+  @Override
+  public Serializable poll(long timeout) throws InterruptedException {
+    checkInterrupted();
+    long offset;
+    ringLock.lock();
+    try {
+      long nanos = MILLISECONDS.toNanos(timeout);
+      while (offsets.isEmpty()) {
+        if (nanos <= 0L) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      offset = offsets.pollFirst();
+      notFull.signal();
+    } finally {
+      ringLock.unlock();
+    }
+
+    // The offset is no longer reachable from the ring, so its segment can't be deleted until it is released.
+    byte[] data;
+    try {
+      data = read(offset);
+    } catch (RuntimeException e) {
+      restore(offset);
+      throw e;
+    }
+    awaitCommit(submit(WriteRequest.remove(offset), () -> restore(offset)));
+    release(offset);
+    return deserialize(data);
+  }
+
+  @Override
+  public Serializable peek() throws InterruptedException {
+    checkInterrupted();
+    byte[] data;
+    ringLock.lock();
+    try {
+      if (offsets.isEmpty()) {
+        return null;
+      }
+      data = read(offsets.peekFirst());
+    } finally {
+      ringLock.unlock();
+    }
+    return deserialize(data);
+  }
+
+  @Override
+  public void untake(Serializable item) throws InterruptedException {
+    checkInterrupted();
+    byte[] data = serialize(item);
+    reserve(1);
+    awaitCommit(submit(WriteRequest.append(data, true), () -> unreserve(1)));
+  }
+
+  @Override
+  public int getSize() {
+    ringLock.lock();
+    try {
+      return offsets.size();
+    } finally {
+      ringLock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() throws InterruptedException {
+    checkInterrupted();
+    long[] removed;
+    ringLock.lock();
+    try {
+      removed = new long[offsets.size()];
+      for (int i = 0; i < removed.length; i++) {
+        removed[i] = offsets.pollFirst();
+      }
+      notFull.signalAll();
+    } finally {
+      ringLock.unlock();
+    }
+
+    if (removed.length > 0) {
+      awaitCommit(submit(WriteRequest.remove(removed), () -> restore(removed)));
+      for (long offset : removed) {
+        release(offset);
+      }
+    }
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Serializable> items) {
+    if (items.isEmpty()) {
+      return true;
+    }
+    List<byte[]> data = new ArrayList<>(items.size());
+    for (Serializable item : items) {
+      data.add(serialize(item));
+    }
+    reserve(data.size());
+    awaitCommitOrFail(submit(new WriteRequest(data, false, null), () -> unreserve(data.size())));
+    return true;
+  }
+
+  @Override
+  public void remove(Serializable value) {
+    long offset = -1;
+    ringLock.lock();
+    try {
+      for (int i = 0; i < offsets.size(); i++) {
+        if (deserialize(read(offsets.get(i))).equals(value)) {
+          offset = offsets.removeAt(i);
+          notFull.signal();
+          break;
+        }
+      }
+    } finally {
+      ringLock.unlock();
+    }
+
+    if (offset != -1) {
+      final long removed = offset;
+      awaitCommitOrFail(submit(WriteRequest.remove(removed), () -> restore(removed)));
+      release(removed);
+    }
+  }
+
+  @Override
+  public boolean contains(Serializable value) {
+    ringLock.lock();
+    try {
+      for (int i = 0; i < offsets.size(); i++) {
+        if (deserialize(read(offsets.get(i))).equals(value)) {
+          return true;
+        }
+      }
+      return false;
+    } finally {
+      ringLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    lifecycleLock.writeLock().lock();
+    try {
+      if (!running) {
+        return;
+      }
+      running = false;
+    } finally {
+      lifecycleLock.writeLock().unlock();
+    }
+
+    // The writer must be done before the segments are unmapped
+    boolean interrupted = false;
+    while (!writer.isDone()) {
+      try {
+        writer.get();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      } catch (ExecutionException e) {
+        logger.error("Writer of queue store " + queueDirectory.getName() + " failed", e.getCause());
+      }
+    }
+    if (interrupted) {
+      currentThread().interrupt();
+    }
+    writerScheduler.stop();
+
+    // Nothing is submitted once closed, so there is something left only if the writer died unexpectedly
+    List<WriteRequest> leftovers = new ArrayList<>();
+    writeRequests.drainTo(leftovers);
+    failAll(leftovers, new IllegalStateException(closedMessage()));
+
+    lifecycleLock.writeLock().lock();
+    try {
+      for (Segment segment : segments.values()) {
+        flushQuietly(segment);
+        ByteBufferCleaner.clean(segment.buffer);
+      }
+    } finally {
+      lifecycleLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    close();
+    segments.clear();
+    deleteQuietly(queueDirectory);
+  }
+
+  private void reserve(int entries) {
+    ringLock.lock();
+    try {
+      pendingAppends += entries;
+    } finally {
+      ringLock.unlock();
+    }
+  }
+
+  private void unreserve(int entries) {
+    ringLock.lock();
+    try {
+      pendingAppends -= entries;
+      notFull.signalAll();
+    } finally {
+      ringLock.unlock();
+    }
+  }
+
+  private void restore(long... removed) {
+    ringLock.lock();
+    try {
+      for (int i = removed.length - 1; i >= 0; i--) {
+        offsets.addFirst(removed[i]);
+      }
+      notEmpty.signalAll();
+    } finally {
+      ringLock.unlock();
+    }
+  }
+
+  /**
+   * Hands the given {@code request} over to the writer thread.
+   *
+   * @param request the operation to write
+   * @param undo    reverts the in-memory changes done by the caller for the operation, in case it ends up not being written
+   * @return the submitted request
+   */
+  private WriteRequest submit(WriteRequest request, Runnable undo) {
+    lifecycleLock.readLock().lock();
+    try {
+      if (!running) {
+        undo.run();
+        throw new IllegalStateException(closedMessage());
+      }
+      request.undo = undo;
+      writeRequests.add(request);
+      return request;
+    } finally {
+      lifecycleLock.readLock().unlock();
+    }
+  }
+
+  private void awaitCommitOrFail(WriteRequest request) {
+    try {
+      awaitCommit(request);
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  private void awaitCommit(WriteRequest request) throws InterruptedException {
+    try {
+      request.committed.get(commitTimeoutMillis, MILLISECONDS);
+    } catch (InterruptedException e) {
+      if (request.cancel()) {
+        request.undo.run();
+        throw e;
+      }
+      // The writer is already writing the operation, so its outcome has to be known regardless
+      try {
+        awaitWritten(request);
+      } finally {
+        currentThread().interrupt();
+      }
+    } catch (TimeoutException e) {
+      if (request.cancel()) {
+        request.undo.run();
+        throw new MuleRuntimeException(createStaticMessage(format("Timed out after %d ms waiting for queue store %s to write",
+                                                                  commitTimeoutMillis, queueDirectory.getName())));
+      }
+      awaitWritten(request);
+    } catch (ExecutionException e) {
+      // the writer rolled back whatever it wrote of the operation
+      request.undo.run();
+      throw new MuleRuntimeException(e.getCause());
+    }
+  }
+
+  private void awaitWritten(WriteRequest request) {
+    final long deadline = nanoTime() + MILLISECONDS.toNanos(commitTimeoutMillis);
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          request.committed.get(max(0, deadline - nanoTime()), NANOSECONDS);
+          return;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    } catch (ExecutionException e) {
+      request.undo.run();
+      throw new MuleRuntimeException(e.getCause());
+    } catch (TimeoutException e) {
+      throw new MuleRuntimeException(createStaticMessage(format("Timed out after %d ms waiting for queue store %s to write, "
+          + "the operation may or may not have been written", commitTimeoutMillis, queueDirectory.getName())));
+    } finally {
+      if (interrupted) {
+        currentThread().interrupt();
+      }
+    }
+  }
+
+  private void runWriter() {
+    List<WriteRequest> batch = new ArrayList<>(maxBatchSize);
+    while (running || !writeRequests.isEmpty()) {
+      try {
+        WriteRequest first = writeRequests.poll(WRITER_POLL_INTERVAL_MILLIS, MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        writeRequests.drainTo(batch, maxBatchSize - 1);
+        commit(batch);
+      } catch (InterruptedException e) {
+        // keep going until closed, so no caller is left waiting for its commit
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void commit(List<WriteRequest> batch) {
+    // requests whose callers gave up waiting are discarded
+    batch.removeIf(request -> !request.claim());
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    Set<Segment> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+    List<Long> appended = new ArrayList<>();
+    List<Long> removed = new ArrayList<>();
+    try {
+      for (WriteRequest request : batch) {
+        if (request.appended != null) {
+          request.appendedOffsets = new long[request.appended.size()];
+          for (int i = 0; i < request.appendedOffsets.length; i++) {
+            request.appendedOffsets[i] = appendRecord(request.appended.get(i), touched);
+            appended.add(request.appendedOffsets[i]);
+          }
+        } else {
+          for (long offset : request.removed) {
+            setState(offset, REMOVED, touched);
+            removed.add(offset);
+          }
+        }
+      }
+      force(touched);
+    } catch (RuntimeException | IOException e) {
+      logger.error("Could not write queue entries to " + queueDirectory.getAbsolutePath(), e);
+      rollback(appended, removed);
+      failAll(batch, e);
+      return;
+    } finally {
+      sealRolledSegments();
+    }
+
+    boolean published = false;
+    ringLock.lock();
+    try {
+      for (WriteRequest request : batch) {
+        if (request.appendedOffsets == null) {
+          continue;
+        }
+        if (request.first) {
+          for (int i = request.appendedOffsets.length - 1; i >= 0; i--) {
+            offsets.addFirst(request.appendedOffsets[i]);
+          }
+        } else {
+          for (long offset : request.appendedOffsets) {
+            offsets.addLast(offset);
+          }
+        }
+        pendingAppends -= request.appendedOffsets.length;
+        published = true;
+      }
+      if (published) {
+        notEmpty.signalAll();
+      }
+    } finally {
+      ringLock.unlock();
+    }
+
+    for (WriteRequest request : batch) {
+      request.committed.complete(null);
+    }
+  }
+
+  /**
+   * Reverts what was written of a batch that couldn't be fully written, so that none of its operations takes effect when the
+   * queue is recovered.
+   */
+  private void rollback(List<Long> appended, List<Long> removed) {
+    Set<Segment> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+    try {
+      for (long offset : removed) {
+        setState(offset, LIVE, touched);
+      }
+      for (long offset : appended) {
+        setState(offset, REMOVED, touched);
+      }
+      force(touched);
+    } catch (RuntimeException e) {
+      logger.error("Could not roll back queue entries in " + queueDirectory.getAbsolutePath()
+          + ", the entries of the failed operations may be recovered when the queue is restarted", e);
+    }
+
+    for (long offset : appended) {
+      release(offset);
+    }
+  }
+
+  private void failAll(List<WriteRequest> batch, Exception cause) {
+    for (WriteRequest request : batch) {
+      if (request.claim() || request.isClaimed()) {
+        request.committed.completeExceptionally(cause);
+      }
+    }
+  }
+
+  private long appendRecord(byte[] data, Set<Segment> touched) throws IOException {
+    int recordSize = RECORD_HEADER_SIZE + data.length;
+    if (writeSegment.writePosition + recordSize > writeSegment.capacity) {
+      rollWriteSegment(recordSize);
+    }
+
+    int position = writeSegment.writePosition;
+    ByteBuffer view = writeSegment.buffer.duplicate();
+    view.position(position);
+    view.put(LIVE);
+    view.putInt(data.length);
+    view.putInt(crc(data));
+    view.put(data);
+
+    writeSegment.writePosition += recordSize;
+    writeSegment.live.incrementAndGet();
+    touched.add(writeSegment);
+    return toOffset(writeSegment.id, position);
+  }
+
+  private void setState(long offset, byte state, Set<Segment> touched) {
+    Segment segment = segments.get(segmentId(offset));
+    segment.buffer.put(position(offset), state);
+    touched.add(segment);
+  }
+
+  /**
+   * Replaces the write segment with a new one. The replaced segment is sealed once the batch is flushed, since it may have been
+   * written in the batch.
+   */
+  private void rollWriteSegment(int minimumSize) throws IOException {
+    rolledSegments.add(writeSegment);
+    writeSegment = createSegment(writeSegment.id + 1, Math.max(maxSegmentSize, minimumSize + 1));
+  }
+
+  private void force(Set<Segment> touched) {
+    segmentsLock.lock();
+    try {
+      for (Segment segment : touched) {
+        segment.buffer.force();
+      }
+    } finally {
+      segmentsLock.unlock();
+    }
+  }
+
+  /**
+   * Seals the segments replaced as write segment in the batch just written, deleting those whose entries were all consumed.
+   */
+  private void sealRolledSegments() {
+    if (rolledSegments.isEmpty()) {
+      return;
+    }
+    segmentsLock.lock();
+    try {
+      for (Segment segment : rolledSegments) {
+        segment.sealed = true;
+        if (segment.live.get() == 0) {
+          deleteSegment(segment);
+        }
+      }
+    } finally {
+      segmentsLock.unlock();
+      rolledSegments.clear();
+    }
+  }
+
+  private void release(long offset) {
+    lifecycleLock.readLock().lock();
+    try {
+      // once closed the segments are already unmapped
+      if (!running) {
+        return;
+      }
+      Segment segment = segments.get(segmentId(offset));
+      if (segment == null) {
+        return;
+      }
+      segmentsLock.lock();
+      try {
+        if (segment.live.decrementAndGet() == 0 && segment.sealed) {
+          deleteSegment(segment);
+        }
+      } finally {
+        segmentsLock.unlock();
+      }
+    } finally {
+      lifecycleLock.readLock().unlock();
+    }
+  }
+
+  private byte[] read(long offset) {
+    lifecycleLock.readLock().lock();
+    try {
+      if (!running) {
+        throw new IllegalStateException(closedMessage());
+      }
+      ByteBuffer view = segments.get(segmentId(offset)).buffer.duplicate();
+      view.position(position(offset) + Byte.BYTES);
+      byte[] data = new byte[view.getInt()];
+      view.position(view.position() + Integer.BYTES);
+      view.get(data);
+      return data;
+    } finally {
+      lifecycleLock.readLock().unlock();
+    }
+  }
+
+  private void recover() {
+    File[] segmentFiles = queueDirectory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION));
+    try {
+      if (segmentFiles != null) {
+        for (File segmentFile : segmentFiles) {
+          String name = segmentFile.getName();
+          long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length()));
+          segments.put(id, openSegment(id, segmentFile, (int) segmentFile.length()));
+        }
+      }
+
+      for (Segment segment : segments.values()) {
+        replay(segment);
+        segment.sealed = segment != segments.lastEntry().getValue();
+        if (segment.sealed && segment.live.get() == 0) {
+          deleteSegment(segment);
+        }
+      }
+
+      writeSegment = segments.isEmpty() ? createSegment(0, maxSegmentSize) : segments.lastEntry().getValue();
+    } catch (IOException | NumberFormatException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  private void replay(Segment segment) {
+    ByteBuffer view = segment.buffer.duplicate();
+    int position = 0;
+    while (position + RECORD_HEADER_SIZE <= segment.capacity) {
+      view.position(position);
+      byte state = view.get();
+      int length = view.getInt();
+      int crc = view.getInt();
+      if (state == END_OF_DATA || length < 0 || position + RECORD_HEADER_SIZE + length > segment.capacity) {
+        break;
+      }
+
+      if (state == LIVE) {
+        byte[] data = new byte[length];
+        view.get(data);
+        if (crc(data) != crc) {
+          // partially written entry, nothing after it was committed.
+          logger.warn(format("Discarding corrupted entry at offset %d of queue file %s", position,
+                             segment.file.getAbsolutePath()));
+          break;
+        }
+        offsets.addLast(toOffset(segment.id, position));
+        segment.live.incrementAndGet();
+      } else if (state != REMOVED) {
+        break;
+      }
+      position += RECORD_HEADER_SIZE + length;
+    }
+
+    // Clean whatever is after the last valid record so that new appends can safely reuse that space.
+    for (int i = position; i < segment.capacity; i++) {
+      segment.buffer.put(i, END_OF_DATA);
+    }
+    segment.writePosition = position;
+  }
+
+  private Segment createSegment(long id, int size) throws IOException {
+    File segmentFile = new File(queueDirectory, format("%020d%s", id, SEGMENT_FILE_EXTENSION));
+    try (RandomAccessFile file = new RandomAccessFile(segmentFile, "rw")) {
+      file.setLength(size);
+    }
+    Segment segment = openSegment(id, segmentFile, size);
+    segments.put(id, segment);
+    return segment;
+  }
+
+  private Segment openSegment(long id, File segmentFile, int size) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(segmentFile, "rw")) {
+      FileChannel channel = file.getChannel();
+      // The mapping remains valid after the channel is closed.
+      return new Segment(id, segmentFile, channel.map(READ_WRITE, 0, size), size);
+    }
+  }
+
+  private void deleteSegment(Segment segment) {
+    if (segment.deleted.compareAndSet(false, true)) {
+      segments.remove(segment.id, segment);
+      ByteBufferCleaner.clean(segment.buffer);
+      deleteQuietly(segment.file);
+    }
+  }
+
+  private void flushQuietly(Segment segment) {
+    try {
+      segment.buffer.force();
+    } catch (RuntimeException e) {
+      logger.warn("Could not flush queue file " + segment.file.getAbsolutePath(), e);
+    }
+  }
+
+  private File createQueueDirectory(File queuesDirectory, String queueName) {
+    File directory = new File(queuesDirectory, queueName + QUEUE_DIRECTORY_SUFFIX);
+    if (!directory.exists() && !directory.mkdirs()) {
+      // if file system does not support the name provided then use a hex representation of the name.
+      directory = new File(queuesDirectory, new BigInteger(queueName.getBytes(UTF_8)).toString(16) + QUEUE_DIRECTORY_SUFFIX);
+      Preconditions.checkState(directory.exists() || directory.mkdirs(),
+                               "Could not create queue store directory " + directory.getAbsolutePath());
+    }
+    return directory;
+  }
+
+  private byte[] serialize(Serializable item) {
+    return serializer.getInternalProtocol().serialize(item);
+  }
+
+  private Serializable deserialize(byte[] data) {
+    return serializer.getInternalProtocol().deserialize(data);
+  }
+
+  private String closedMessage() {
+    return "Queue store " + queueDirectory.getName() + " is closed";
+  }
+
+  private void checkInterrupted() throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  private static long toOffset(long segmentId, int position) {
+    return (segmentId << Integer.SIZE) | position;
+  }
+
+  private static long segmentId(long offset) {
+    return offset >>> Integer.SIZE;
+  }
+
+  private static int position(long offset) {
+    return (int) offset;
+  }
+
+  private static int crc(byte[] data) {
+    CRC32 crc = new CRC32();
+    crc.update(data, 0, data.length);
+    return (int) crc.getValue();
+  }
+
+  private static final class Segment {
+
+    private final long id;
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicBoolean deleted = new AtomicBoolean();
+    // guarded by segmentsLock once the delegate is constructed
+    private boolean sealed;
+    // only accessed by the writer thread
+    private int writePosition;
+
+    private Segment(long id, File file, MappedByteBuffer buffer, int capacity) {
+      this.id = id;
+      this.file = file;
+      this.buffer = buffer;
+      this.capacity = capacity;
+    }
+  }
+
+  private static final class WriteRequest {
+
+    private static final int PENDING = 0;
+    private static final int CLAIMED = 1;
+    private static final int CANCELLED = 2;
+
+    private final List<byte[]> appended;
+    private final boolean first;
+    private final long[] removed;
+    private final CompletableFuture<Void> committed = new CompletableFuture<>();
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+    private Runnable undo;
+    private long[] appendedOffsets;
+
+    private WriteRequest(List<byte[]> appended, boolean first, long[] removed) {
+      this.appended = appended;
+      this.first = first;
+      this.removed = removed;
+    }
+
+    private static WriteRequest append(byte[] data, boolean first) {
+      return new WriteRequest(Collections.singletonList(data), first, null);
+    }
+
+    private static WriteRequest remove(long... offsets) {
+      return new WriteRequest(null, false, offsets);
+    }
+
+    /**
+     * Called by the writer before writing the operation.
+     *
+     * @return {@code false} if the operation was cancelled and must not be written.
+     */
+    private boolean claim() {
+      return state.compareAndSet(PENDING, CLAIMED);
+    }
+
+    private boolean isClaimed() {
+      return state.get() == CLAIMED;
+    }
+
+    /**
+     * Called by the caller when it gives up waiting for the operation.
+     *
+     * @return {@code true} if the operation will not be written, {@code false} if the writer already started writing it.
+     */
+    private boolean cancel() {
+      return state.compareAndSet(PENDING, CANCELLED);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Growable double ended queue of primitive {@code long}s backed by a circular array, so that keeping track of file offsets does
+ * not require boxing every entry as {@link java.util.LinkedList} does.
+ * <p/>
+ * This class is not thread safe.
+ */
+final class LongRingBuffer {
+
+  private static final int DEFAULT_INITIAL_CAPACITY = 64;
+
+  private long[] elements;
+  private int head;
+  private int size;
+
+  LongRingBuffer() {
+    this(DEFAULT_INITIAL_CAPACITY);
+  }
+
+  LongRingBuffer(int initialCapacity) {
+    int capacity = Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1;
+    elements = new long[capacity];
+  }
+
+  void addLast(long value) {
+    ensureCapacity();
+    elements[(head + size) & (elements.length - 1)] = value;
+    size++;
+  }
+
+  void addFirst(long value) {
+    ensureCapacity();
+    head = (head - 1) & (elements.length - 1);
+    elements[head] = value;
+    size++;
+  }
+
+  long peekFirst() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return elements[head];
+  }
+
+  long pollFirst() {
+    long value = peekFirst();
+    head = (head + 1) & (elements.length - 1);
+    size--;
+    return value;
+  }
+
+  long get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return elements[(head + index) & (elements.length - 1)];
+  }
+
+  /**
+   * Removes the element at the given index, shifting the following ones. This is O(n) and meant for infrequent operations.
+   */
+  long removeAt(int index) {
+    long value = get(index);
+    int mask = elements.length - 1;
+    for (int i = index; i < size - 1; i++) {
+      elements[(head + i) & mask] = elements[(head + i + 1) & mask];
+    }
+    size--;
+    return value;
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  void clear() {
+    head = 0;
+    size = 0;
+  }
+
+  private void ensureCapacity() {
+    if (size < elements.length) {
+      return;
+    }
+
+    long[] newElements = new long[elements.length << 1];
+    int firstChunk = elements.length - head;
+    System.arraycopy(elements, head, newElements, 0, firstChunk);
+    System.arraycopy(elements, 0, newElements, firstChunk, head);
+    elements = newElements;
+    head = 0;
+  }
+}
@@ -0,0 +1,705 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Long.getLong;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Comparator.comparingLong;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.util.FileUtils.cleanDirectory;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+/**
+ * A {@link PersistentObjectStorePartition} which, instead of writing one file per key, appends every store and remove operation
+ * to a log of segment files and keeps an in-memory hash index pointing to the location of the latest value of each key.
+ * <p>
+ * This makes {@link #contains(String)} a pure in-memory lookup and {@link #store(String, Serializable)} and
+ * {@link #remove(String)} a single append, regardless of the amount of entries in the partition.
+ * <p>
+ * Each record carries a CRC so that, when the partition is opened after a crash, a partially written tail is detected and
+ * truncated while the index is rebuilt by replaying the segments in order. Segments whose live data falls below
+ * {@link #COMPACTION_THRESHOLD_PROPERTY} are compacted by copying their live records to the active segment and deleting them.
+ * <p>
+ * Appends are not forced to the storage device unless {@link #SYNC_WRITES_PROPERTY} is set, so an operation that already
+ * returned may be lost if the operating system crashes, although not if only the JVM does. The active segment is always forced
+ * before rolling it and before deleting a compacted segment, so that compaction never loses data.
+ *
+ * @param <T> the type of the stored values
+ * @since 4.4.0
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends PersistentObjectStorePartition<T> {
+
+  /**
+   * System property to set the maximum size in bytes of each segment file. Once reached, a new segment is started.
+   */
+  public static final String MAX_SEGMENT_SIZE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectStore.logStructured.maxSegmentSize";
+
+  /**
+   * System property to set the percentage (0 to 100) of live data below which a sealed segment gets compacted.
+   */
+  public static final String COMPACTION_THRESHOLD_PROPERTY =
+      SYSTEM_PROPERTY_PREFIX + "objectStore.logStructured.compactionThreshold";
+
+  /**
+   * System property to force every store and remove to the storage device before returning, at the cost of a much slower write.
+   * Disabled by default.
+   */
+  public static final String SYNC_WRITES_PROPERTY = SYSTEM_PROPERTY_PREFIX + "objectStore.logStructured.syncWrites";
+
+  static final String SEGMENT_FILE_EXTENSION = ".seg";
+
+  private static final Logger LOGGER = getLogger(LogStructuredObjectStorePartition.class);
+
+  private static final long DEFAULT_MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+  private static final long DEFAULT_COMPACTION_THRESHOLD = 50;
+
+  private static final byte OP_STORE = 1;
+  private static final byte OP_REMOVE = 2;
+
+  // payload length + crc
+  private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+  // operation + timestamp + key length + value length
+  private static final int PAYLOAD_FIXED_SIZE = Byte.BYTES + Long.BYTES + 2 * Integer.BYTES;
+
+  private final MuleContext muleContext;
+  private final ObjectSerializer serializer;
+  private final long maxSegmentSize;
+  private final long compactionThreshold;
+  private final boolean syncWrites;
+
+  private final Map<String, RecordLocation> index = new ConcurrentHashMap<>();
+  private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private Segment activeSegment;
+  private volatile boolean opened = false;
+
+  // Reads only need to be protected against segments being closed under them by compaction or clear. Appends are serialized
+  // through the write lock.
+  private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+  private final Lock rLock = rwLock.readLock();
+  private final Lock wLock = rwLock.writeLock();
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory) {
+    super(muleContext, partitionName, partitionDirectory);
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+    this.maxSegmentSize = getLong(MAX_SEGMENT_SIZE_PROPERTY, DEFAULT_MAX_SEGMENT_SIZE);
+    this.compactionThreshold = getLong(COMPACTION_THRESHOLD_PROPERTY, DEFAULT_COMPACTION_THRESHOLD);
+    this.syncWrites = getBoolean(SYNC_WRITES_PROPERTY);
+  }
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory)
+      throws ObjectStoreNotAvailableException {
+    super(muleContext, partitionDirectory);
+    this.muleContext = muleContext;
+    this.serializer = muleContext.getObjectSerializer();
+    this.maxSegmentSize = getLong(MAX_SEGMENT_SIZE_PROPERTY, DEFAULT_MAX_SEGMENT_SIZE);
+    this.compactionThreshold = getLong(COMPACTION_THRESHOLD_PROPERTY, DEFAULT_COMPACTION_THRESHOLD);
+    this.syncWrites = getBoolean(SYNC_WRITES_PROPERTY);
+  }
+
+  /**
+   * @param partitionDirectory the directory of a partition
+   * @return whether the given directory holds a partition written by this implementation
+   */
+  public static boolean isLogStructuredPartition(File partitionDirectory) {
+    String[] segmentFiles = partitionDirectory.list((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION));
+    return segmentFiles != null && segmentFiles.length > 0;
+  }
+
+  @Override
+  public synchronized void open() throws ObjectStoreException {
+    super.open();
+
+    wLock.lock();
+    try {
+      if (opened) {
+        return;
+      }
+      recover();
+      opened = true;
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() throws ObjectStoreException {
+    wLock.lock();
+    try {
+      closeSegments();
+      try {
+        cleanDirectory(getPartitionDirectory());
+        getPartitionDirectory().delete();
+      } catch (IOException e) {
+        throw new ObjectStoreException(createStaticMessage("Could not close object store partition"), e);
+      }
+      opened = false;
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    wLock.lock();
+    try {
+      closeSegments();
+      try {
+        cleanDirectory(getPartitionDirectory());
+        createOrRetrievePartitionDescriptorFile();
+      } catch (IOException e) {
+        throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+      }
+      rollSegment(0);
+      opened = true;
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    assureOpened();
+    return unmodifiableList(new ArrayList<>(index.keySet()));
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    assureOpened();
+    return index.containsKey(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    assureOpened();
+    byte[] serializedValue = serializeValue(value);
+
+    wLock.lock();
+    try {
+      if (index.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+      index.put(key, append(OP_STORE, key, serializedValue, currentTimeMillis()));
+      afterAppend();
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    assureOpened();
+
+    rLock.lock();
+    try {
+      RecordLocation location = index.get(key);
+      if (location == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      return load(location);
+    } finally {
+      rLock.unlock();
+    }
+  }
+
+  @Override
+  public Map<String, T> retrieveAll() throws ObjectStoreException {
+    assureOpened();
+
+    rLock.lock();
+    try {
+      Map<String, T> values = new LinkedHashMap<>(index.size());
+      for (Entry<String, RecordLocation> entry : index.entrySet()) {
+        values.put(entry.getKey(), load(entry.getValue()));
+      }
+      return values;
+    } finally {
+      rLock.unlock();
+    }
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    assureOpened();
+
+    wLock.lock();
+    try {
+      RecordLocation location = index.get(key);
+      if (location == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+      T value = load(location);
+      removeEntry(key, location);
+      afterAppend();
+      return value;
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    assureOpened();
+
+    wLock.lock();
+    try {
+      List<Entry<String, RecordLocation>> entries = new ArrayList<>(index.entrySet());
+      entries.sort(comparingLong(entry -> entry.getValue().timestamp));
+
+      int startIndex = 0;
+      if (maxEntries != UNBOUNDED) {
+        int excess = entries.size() - maxEntries;
+        for (; startIndex < excess; startIndex++) {
+          Entry<String, RecordLocation> entry = entries.get(startIndex);
+          removeEntry(entry.getKey(), entry.getValue());
+        }
+      }
+
+      if (entryTTL != UNBOUNDED) {
+        final long now = currentTimeMillis();
+        for (int i = startIndex; i < entries.size(); i++) {
+          Entry<String, RecordLocation> entry = entries.get(i);
+          if ((now - entry.getValue().timestamp) >= entryTTL) {
+            removeEntry(entry.getKey(), entry.getValue());
+          } else {
+            break;
+          }
+        }
+      }
+
+      if (syncWrites) {
+        force(activeSegment);
+      }
+
+      // expiration runs in the object store monitor, so compact every eligible segment while at it.
+      compact();
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  /**
+   * Compacts every sealed segment which live data ratio is below the configured threshold.
+   */
+  public void compact() throws ObjectStoreException {
+    wLock.lock();
+    try {
+      for (Segment segment : new ArrayList<>(segments.headMap(activeSegment.id, false).values())) {
+        if (shouldCompact(segment)) {
+          compact(segment);
+        }
+      }
+    } finally {
+      wLock.unlock();
+    }
+  }
+
+  int getSegmentsCount() {
+    return segments.size();
+  }
+
+  private void assureOpened() throws ObjectStoreException {
+    if (!opened) {
+      open();
+    }
+  }
+
+  private void removeEntry(String key, RecordLocation location) throws ObjectStoreException {
+    append(OP_REMOVE, key, new byte[0], currentTimeMillis());
+    index.remove(key);
+    location.segment.liveBytes -= location.length;
+  }
+
+  private void afterAppend() throws ObjectStoreException {
+    if (syncWrites) {
+      force(activeSegment);
+    }
+    if (activeSegment.size < maxSegmentSize) {
+      return;
+    }
+
+    rollSegment(activeSegment.id + 1);
+
+    // Amortize compaction on segment roll: at most one sealed segment is compacted per roll, so the cost of each append
+    // stays bounded.
+    for (Segment segment : segments.headMap(activeSegment.id, false).values()) {
+      if (shouldCompact(segment)) {
+        compact(segment);
+        return;
+      }
+    }
+  }
+
+  private boolean shouldCompact(Segment segment) {
+    return segment != activeSegment && segment.liveBytes * 100 < segment.size * compactionThreshold;
+  }
+
+  private void compact(Segment segment) throws ObjectStoreException {
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Compacting segment %s of partition '%s' (%d live bytes out of %d)", segment.file.getName(),
+                          getPartitionName(), segment.liveBytes, segment.size));
+    }
+
+    try {
+      long position = 0;
+      while (position < segment.size) {
+        Record record = readRecord(segment, position);
+        if (record == null) {
+          break;
+        }
+
+        RecordLocation current = index.get(record.key);
+        if (record.operation == OP_STORE && current != null && current.segment == segment && current.offset == position) {
+          index.put(record.key, append(OP_STORE, record.key, record.value, record.timestamp));
+        } else if (record.operation == OP_REMOVE && current == null && isStoredBefore(record.key, segment)) {
+          // An older segment still holds a previous value for this key, so the tombstone has to survive until that one is
+          // compacted as well.
+          append(OP_REMOVE, record.key, record.value, record.timestamp);
+        }
+        position += RECORD_HEADER_SIZE + record.payloadLength;
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not compact segment " + segment.file.getAbsolutePath()), e);
+    }
+
+    // the copied records must be durable before the only other copy is gone
+    force(activeSegment);
+    segments.remove(segment.id);
+    closeQuietly(segment);
+    if (!segment.file.delete()) {
+      LOGGER.warn("Could not delete compacted segment " + segment.file.getAbsolutePath());
+    }
+
+    if (activeSegment.size >= maxSegmentSize) {
+      rollSegment(activeSegment.id + 1);
+    }
+  }
+
+  /**
+   * @return whether a segment older than the given one has a store record for the key, live or not.
+   */
+  private boolean isStoredBefore(String key, Segment segment) {
+    for (Segment older : segments.headMap(segment.id, false).values()) {
+      if (older.storedKeys.contains(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private RecordLocation append(byte operation, String key, byte[] value, long timestamp) throws ObjectStoreException {
+    byte[] keyBytes = key.getBytes(UTF_8);
+    int payloadLength = PAYLOAD_FIXED_SIZE + keyBytes.length + value.length;
+
+    ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadLength);
+    buffer.putInt(payloadLength);
+    buffer.putInt(0);
+    buffer.put(operation);
+    buffer.putLong(timestamp);
+    buffer.putInt(keyBytes.length);
+    buffer.put(keyBytes);
+    buffer.putInt(value.length);
+    buffer.put(value);
+    buffer.putInt(Integer.BYTES, crc(buffer.array(), RECORD_HEADER_SIZE, payloadLength));
+    buffer.flip();
+
+    Segment segment = activeSegment;
+    long offset = segment.size;
+    try {
+      while (buffer.hasRemaining()) {
+        segment.channel.write(buffer, offset + buffer.position());
+      }
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not write to segment " + segment.file.getAbsolutePath()), e);
+    }
+
+    int recordLength = RECORD_HEADER_SIZE + payloadLength;
+    segment.size += recordLength;
+    if (operation == OP_STORE) {
+      RecordLocation previous = index.get(key);
+      if (previous != null) {
+        previous.segment.liveBytes -= previous.length;
+      }
+      segment.liveBytes += recordLength;
+      segment.storedKeys.add(key);
+    }
+    return new RecordLocation(segment, offset, recordLength, timestamp);
+  }
+
+  private T load(RecordLocation location) throws ObjectStoreException {
+    Record record;
+    try {
+      record = readRecord(location.segment, location.offset);
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    }
+    if (record == null || record.operation != OP_STORE) {
+      throw new ObjectStoreException(createStaticMessage(format("Corrupted record at offset %d of segment %s",
+                                                                location.offset, location.segment.file.getAbsolutePath())));
+    }
+    return deserializeValue(record.value);
+  }
+
+  /**
+   * @return the record at the given position, or {@code null} if it is incomplete or its checksum doesn't match.
+   */
+  private Record readRecord(Segment segment, long position) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+    if (!readFully(segment.channel, header, position)) {
+      return null;
+    }
+    header.flip();
+    int payloadLength = header.getInt();
+    int crc = header.getInt();
+    if (payloadLength < PAYLOAD_FIXED_SIZE || position + RECORD_HEADER_SIZE + payloadLength > segment.channel.size()) {
+      return null;
+    }
+
+    ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+    if (!readFully(segment.channel, payload, position + RECORD_HEADER_SIZE)
+        || crc(payload.array(), 0, payloadLength) != crc) {
+      return null;
+    }
+    payload.flip();
+
+    Record record = new Record();
+    record.payloadLength = payloadLength;
+    record.operation = payload.get();
+    record.timestamp = payload.getLong();
+    byte[] keyBytes = new byte[payload.getInt()];
+    payload.get(keyBytes);
+    record.key = new String(keyBytes, UTF_8);
+    record.value = new byte[payload.getInt()];
+    payload.get(record.value);
+    return record;
+  }
+
+  private boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void recover() throws ObjectStoreException {
+    File[] segmentFiles = getPartitionDirectory().listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION));
+    if (segmentFiles != null) {
+      for (File segmentFile : segmentFiles) {
+        String name = segmentFile.getName();
+        try {
+          long id = Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length()));
+          segments.put(id, openSegment(id, segmentFile));
+        } catch (NumberFormatException e) {
+          LOGGER.warn(format("Skipping unexpected file %s in partition '%s'", name, getPartitionName()));
+        }
+      }
+    }
+
+    try {
+      for (Segment segment : segments.values()) {
+        replay(segment);
+      }
+    } catch (IOException e) {
+      closeSegments();
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                getPartitionDirectory().getAbsolutePath())),
+                                     e);
+    }
+
+    if (segments.isEmpty()) {
+      rollSegment(0);
+    } else {
+      activeSegment = segments.lastEntry().getValue();
+    }
+  }
+
+  private void replay(Segment segment) throws IOException {
+    long position = 0;
+    long fileSize = segment.channel.size();
+    while (position < fileSize) {
+      Record record = readRecord(segment, position);
+      if (record == null) {
+        break;
+      }
+
+      int recordLength = RECORD_HEADER_SIZE + record.payloadLength;
+      RecordLocation previous = index.remove(record.key);
+      if (previous != null) {
+        previous.segment.liveBytes -= previous.length;
+      }
+      if (record.operation == OP_STORE) {
+        index.put(record.key, new RecordLocation(segment, position, recordLength, record.timestamp));
+        segment.liveBytes += recordLength;
+        segment.storedKeys.add(record.key);
+      }
+      position += recordLength;
+    }
+
+    if (position < fileSize) {
+      // A partially written record, most likely from a crash while appending. Anything after it cannot be trusted.
+      LOGGER.warn(format("Truncating segment %s of partition '%s' at offset %d of %d, trailing data is corrupted",
+                         segment.file.getAbsolutePath(), getPartitionName(), position, fileSize));
+      segment.channel.truncate(position);
+    }
+    segment.size = position;
+  }
+
+  private void rollSegment(long id) throws ObjectStoreException {
+    if (activeSegment != null && activeSegment.channel.isOpen()) {
+      force(activeSegment);
+    }
+
+    File segmentFile = new File(getPartitionDirectory(), format("%020d%s", id, SEGMENT_FILE_EXTENSION));
+    activeSegment = openSegment(id, segmentFile);
+    segments.put(id, activeSegment);
+  }
+
+  private void force(Segment segment) throws ObjectStoreException {
+    try {
+      segment.channel.force(false);
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not sync segment " + segment.file.getAbsolutePath()), e);
+    }
+  }
+
+  private Segment openSegment(long id, File segmentFile) throws ObjectStoreException {
+    try {
+      Segment segment = new Segment(id, segmentFile, FileChannel.open(segmentFile.toPath(), CREATE, READ, WRITE));
+      segment.size = segment.channel.size();
+      return segment;
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not open segment " + segmentFile.getAbsolutePath()), e);
+    }
+  }
+
+  private void closeSegments() {
+    for (Iterator<Segment> iterator = segments.values().iterator(); iterator.hasNext();) {
+      closeQuietly(iterator.next());
+      iterator.remove();
+    }
+    index.clear();
+    activeSegment = null;
+  }
+
+  private void closeQuietly(Segment segment) {
+    try {
+      segment.channel.close();
+    } catch (IOException e) {
+      LOGGER.warn("Could not close segment " + segment.file.getAbsolutePath(), e);
+    }
+  }
+
+  private byte[] serializeValue(T value) throws ObjectStoreException {
+    try {
+      return serializer.getInternalProtocol().serialize(value);
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private T deserializeValue(byte[] bytes) throws ObjectStoreException {
+    try {
+      T value = serializer.getInternalProtocol().deserialize(bytes);
+      if (value instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      }
+      return value;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private static int crc(byte[] bytes, int offset, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(bytes, offset, length);
+    return (int) crc.getValue();
+  }
+
+  private static final class Segment {
+
+    private final long id;
+    private final File file;
+    private final FileChannel channel;
+
+    // Only modified while holding the write lock
+    private final Set<String> storedKeys = new HashSet<>();
+    private long size;
+    private long liveBytes;
+
+    private Segment(long id, File file, FileChannel channel) {
+      this.id = id;
+      this.file = file;
+      this.channel = channel;
+    }
+  }
+
+  private static final class RecordLocation {
+
+    private final Segment segment;
+    private final long offset;
+    private final int length;
+    private final long timestamp;
+
+    private RecordLocation(Segment segment, long offset, int length, long timestamp) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.timestamp = timestamp;
+    }
+  }
+
+  private static final class Record {
+
+    private int payloadLength;
+    private byte operation;
+    private long timestamp;
+    private String key;
+    private byte[] value;
+  }
+}
@@ -19,6 +19,7 @@ import org.mule.runtime.api.lifecycle.Disposable;
 import org.mule.runtime.api.lifecycle.Initialisable;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
 import org.mule.runtime.api.store.ObjectDoesNotExistException;
 import org.mule.runtime.api.store.ObjectStore;
 import org.mule.runtime.api.store.ObjectStoreException;
@@ -29,6 +30,7 @@ import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.UUID;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
+import org.mule.runtime.core.internal.store.AtomicObjectStore;
 import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
 
 import java.io.Serializable;
@@ -44,7 +46,7 @@ import org.slf4j.LoggerFactory;
  * The MonitoredObjectStoreWrapper wraps an ObjectStore which does not support direct expiry and adds this behavior
  */
 public class MonitoredObjectStoreWrapper<T extends Serializable> extends TemplateObjectStore<T>
-    implements Runnable, MuleContextAware, Initialisable, Disposable {
+    implements AtomicObjectStore<T>, Runnable, MuleContextAware, Initialisable, Disposable {
 
   private static Logger LOGGER = LoggerFactory.getLogger(MonitoredObjectStoreWrapper.class);
 
@@ -94,6 +96,29 @@ public class MonitoredObjectStoreWrapper<T extends Serializable> extends Templat
     getStore().store(key, new StoredObject<>(value, time, key));
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The operation is atomic if the wrapped store is an {@link AtomicObjectStore}. Otherwise, it relies on the wrapped store
+   * rejecting keys which are already present.
+   */
+  @Override
+  public boolean storeIfAbsent(String key, T value) throws ObjectStoreException {
+    validateKey(key);
+    StoredObject<T> storedObject = new StoredObject<>(value, currentTimeMillis(), key);
+    ObjectStore<StoredObject<T>> store = getStore();
+    if (store instanceof AtomicObjectStore) {
+      return ((AtomicObjectStore<StoredObject<T>>) store).storeIfAbsent(key, storedObject);
+    }
+
+    try {
+      store.store(key, storedObject);
+      return true;
+    } catch (ObjectAlreadyExistsException e) {
+      return false;
+    }
+  }
+
   @Override
   protected T doRetrieve(String key) throws ObjectStoreException {
     return getStore().retrieve(key).getItem();
@@ -143,6 +168,22 @@ public class MonitoredObjectStoreWrapper<T extends Serializable> extends Templat
     return baseStore;
   }
 
+  /**
+   * @return the time-to-live for each entry, in milliseconds, or {@code null} if it was not set.
+   * @since 4.4.0
+   */
+  public Long getEntryTtl() {
+    return entryTtl;
+  }
+
+  /**
+   * @return the maximum number of entries that this store keeps around, or {@code null} if it was not set.
+   * @since 4.4.0
+   */
+  public Integer getMaxEntries() {
+    return maxEntries;
+  }
+
   @Override
   public void setMuleContext(MuleContext context) {
     this.context = context;
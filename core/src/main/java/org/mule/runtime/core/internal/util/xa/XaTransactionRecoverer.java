@@ -13,10 +13,7 @@ import org.mule.runtime.core.internal.util.queue.PersistentXaTransactionContext;
 import org.mule.runtime.core.internal.util.queue.QueueProvider;
 import org.mule.runtime.core.api.transaction.xa.ResourceManagerException;
 
-import com.google.common.collect.Multimap;
-
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 import javax.transaction.xa.XAException;
@@ -51,14 +48,11 @@ public class XaTransactionRecoverer {
     // For XAResource.TMSTARTRSCAN and XAResource.TMNOFLAGS (only possible values despite XAResource.TMENDRSCAN we returns
     // the set of Xid to recover (no commit, no rollback) and bitronix will commit, rollback for Xid that are
     // dangling transactions and will do nothing for those that are currently being executed.
-    Multimap<Xid, XaQueueTxJournalEntry> xidXaJournalEntryMultimap = xaTxQueueTransactionJournal.getAllLogEntries();
     if (logger.isDebugEnabled()) {
       logger.debug("Executing XA recover");
-      logger.debug("Found " + xidXaJournalEntryMultimap.size() + " in the tx log");
     }
     List<Xid> txsToRecover = new ArrayList<Xid>();
-    for (Xid xid : xidXaJournalEntryMultimap.keySet()) {
-      Collection<XaQueueTxJournalEntry> entries = xidXaJournalEntryMultimap.get(xid);
+    xaTxQueueTransactionJournal.forEachTransaction((xid, entries) -> {
       Object commitOrRollback = find(entries, new Predicate() {
 
         @Override
@@ -67,11 +61,10 @@ public class XaTransactionRecoverer {
           return logEntry.isCommit() || logEntry.isRollback();
         }
       });
-      if (commitOrRollback != null) {
-        continue;
+      if (commitOrRollback == null) {
+        txsToRecover.add(xid);
       }
-      txsToRecover.add(xid);
-    }
+    });
     if (logger.isDebugEnabled()) {
       logger.debug("found " + txsToRecover.size() + " txs to recover");
     }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.api.classloader;
+
+import static java.lang.Boolean.getBoolean;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.jar.Attributes.Name.CLASS_PATH;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import org.slf4j.Logger;
+
+/**
+ * Index of the folders that contain classes or resources in the URLs of a class loader, used to tell that a class or resource
+ * is not present without looking it up in each of the URLs.
+ * <p>
+ * The folders of jar and zip files are read from their central directories once. The folders of directory URLs are not indexed
+ * since their content may change, so those are checked on each lookup.
+ *
+ * @since 4.4.0
+ */
+final class ClassLoaderIndex {
+
+  /**
+   * System property to disable the use of an index for the lookups of the artifact class loaders.
+   */
+  static final String DISABLE_INDEX_PROPERTY = SYSTEM_PROPERTY_PREFIX + "classloading.index.disable";
+
+  private static final Logger LOGGER = getLogger(ClassLoaderIndex.class);
+
+  private static final char PATH_SEPARATOR = '/';
+
+  private final Set<String> archiveFolders;
+  private final List<File> directories;
+
+  private ClassLoaderIndex(Set<String> archiveFolders, List<File> directories) {
+    this.archiveFolders = unmodifiableSet(archiveFolders);
+    this.directories = unmodifiableList(directories);
+  }
+
+  /**
+   * Creates the index for the given {@code urls}.
+   *
+   * @param urls the URLs of a class loader
+   * @return the index, or {@code null} if the content of the {@code urls} can't be indexed, in which case every lookup has to go
+   *         through the {@code urls}.
+   */
+  static ClassLoaderIndex create(URL[] urls) {
+    if (getBoolean(DISABLE_INDEX_PROPERTY)) {
+      return null;
+    }
+
+    final Set<String> archiveFolders = new HashSet<>();
+    final List<File> directories = new ArrayList<>();
+    try {
+      for (URL url : urls) {
+        if (!"file".equals(url.getProtocol())) {
+          return null;
+        }
+
+        final File file = new File(url.toURI());
+        if (file.isDirectory()) {
+          directories.add(file);
+        } else if (file.isFile()) {
+          if (!indexArchive(file, archiveFolders)) {
+            return null;
+          }
+        }
+      }
+    } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+      LOGGER.debug("Unable to index the URLs of a class loader, lookups will not use an index", e);
+      return null;
+    }
+
+    return new ClassLoaderIndex(archiveFolders, directories);
+  }
+
+  private static boolean indexArchive(File file, Set<String> archiveFolders) throws IOException {
+    try (JarFile jarFile = new JarFile(file, false)) {
+      final Manifest manifest = jarFile.getManifest();
+      if (manifest != null && manifest.getMainAttributes().containsKey(CLASS_PATH)) {
+        // the class loader will add the URLs in the manifest, which are not known here
+        return false;
+      }
+
+      final Enumeration<? extends ZipEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        addFolders(entries.nextElement().getName(), archiveFolders);
+      }
+      return true;
+    }
+  }
+
+  private static void addFolders(String entryName, Set<String> archiveFolders) {
+    String folder = folderOf(entryName);
+    while (archiveFolders.add(folder) && !folder.isEmpty()) {
+      folder = folderOf(folder);
+    }
+  }
+
+  private static String folderOf(String name) {
+    int end = name.length();
+    if (end > 0 && name.charAt(end - 1) == PATH_SEPARATOR) {
+      end--;
+    }
+    final int lastSeparator = name.lastIndexOf(PATH_SEPARATOR, end - 1);
+    return lastSeparator < 0 ? "" : name.substring(0, lastSeparator);
+  }
+
+  /**
+   * @param className the binary name of a class
+   * @return {@code false} if the class is not present in any of the indexed URLs, {@code true} if it may be.
+   */
+  boolean mayContainClass(String className) {
+    final int lastDot = className.lastIndexOf('.');
+    return mayContainFolder(lastDot < 0 ? "" : className.substring(0, lastDot).replace('.', PATH_SEPARATOR));
+  }
+
+  /**
+   * @param resourceName the name of a resource
+   * @return {@code false} if the resource is not present in any of the indexed URLs, {@code true} if it may be.
+   */
+  boolean mayContainResource(String resourceName) {
+    if (resourceName.contains("./") || resourceName.contains("//") || resourceName.indexOf('\\') >= 0) {
+      // not in the form of the entries of the index, let the class loader resolve it
+      return true;
+    }
+    final String name = resourceName.startsWith("/") ? resourceName.substring(1) : resourceName;
+    return mayContainFolder(folderOf(name));
+  }
+
+  private boolean mayContainFolder(String folder) {
+    if (archiveFolders.contains(folder)) {
+      return true;
+    }
+    for (File directory : directories) {
+      if (folder.isEmpty() || new File(directory, folder).isDirectory()) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
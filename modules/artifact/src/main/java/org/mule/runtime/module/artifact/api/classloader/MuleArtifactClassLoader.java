@@ -10,6 +10,7 @@ import static java.lang.Integer.toHexString;
 import static java.lang.String.format;
 import static java.lang.System.identityHashCode;
 import static java.lang.reflect.Modifier.isAbstract;
+import static java.util.Collections.emptyEnumeration;
 import static org.apache.commons.io.FilenameUtils.normalize;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
@@ -29,10 +30,11 @@ import java.net.URLClassLoader;
 import java.sql.Driver;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -101,8 +103,10 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
   private ResourceReleaser jdbcResourceReleaserInstance;
   private final ResourceReleaser scalaClassValueReleaserInstance;
   private final ArtifactDescriptor artifactDescriptor;
-  private final Object descriptorMappingLock = new Object();
-  private final Map<BundleDescriptor, URLClassLoader> descriptorMapping = new HashMap<>();
+  private final Map<BundleDescriptor, URLClassLoader> descriptorMapping = new ConcurrentHashMap<>();
+  private final Object indexLock = new Object();
+  private volatile boolean indexCreated;
+  private volatile ClassLoaderIndex index;
 
   /**
    * Constructs a new {@link MuleArtifactClassLoader} for the given URLs
@@ -186,22 +190,72 @@ public class MuleArtifactClassLoader extends FineGrainedControlClassLoader imple
           if (match.isPresent()) {
             URL url = match.get();
             BundleDescriptor matchDescriptor = toBundleDescriptor(url, groupId);
-            // We don't want class loaders in limbo
-            synchronized (descriptorMappingLock) {
-              if (descriptorMapping.get(matchDescriptor) == null) {
-                URLClassLoader urlClassLoader =
-                    new URLClassLoader(new URL[] {url}, getSystemClassLoader(), new NonCachingURLStreamHandlerFactory());
-                descriptorMapping.put(matchDescriptor, urlClassLoader);
-              }
-            }
-            return descriptorMapping.get(matchDescriptor).findResource(normalizedResource);
+            // We don't want class loaders in limbo, computeIfAbsent creates at most one for each descriptor
+            return descriptorMapping
+                .computeIfAbsent(matchDescriptor,
+                                 d -> new URLClassLoader(new URL[] {url}, getSystemClassLoader(),
+                                                         new NonCachingURLStreamHandlerFactory()))
+                .findResource(normalizedResource);
           }
         }
       }
     }
+
+    final ClassLoaderIndex index = getIndex();
+    if (index != null && !index.mayContainResource(name)) {
+      return null;
+    }
     return super.findResource(name);
   }
 
+  @Override
+  public Enumeration<URL> findResources(String name) throws IOException {
+    final ClassLoaderIndex index = getIndex();
+    if (index != null && !index.mayContainResource(name)) {
+      return emptyEnumeration();
+    }
+    return super.findResources(name);
+  }
+
+  @Override
+  public Class<?> findLocalClass(String name) throws ClassNotFoundException {
+    final ClassLoaderIndex index = getIndex();
+    if (index != null && !index.mayContainClass(name)) {
+      // it may still have been defined by other means than reading it from the URLs
+      Class<?> result = findLoadedClass(name);
+      if (result != null) {
+        return result;
+      }
+      throw new ClassNotFoundException(name);
+    }
+    return super.findLocalClass(name);
+  }
+
+  @Override
+  protected void addURL(URL url) {
+    synchronized (indexLock) {
+      super.addURL(url);
+      // created again on the next lookup, so it covers the added URL
+      index = null;
+      indexCreated = false;
+    }
+  }
+
+  /**
+   * @return the index of the URLs of this class loader, created on the first lookup, or {@code null} if they can't be indexed.
+   */
+  private ClassLoaderIndex getIndex() {
+    if (!indexCreated) {
+      synchronized (indexLock) {
+        if (!indexCreated) {
+          index = ClassLoaderIndex.create(getURLs());
+          indexCreated = true;
+        }
+      }
+    }
+    return index;
+  }
+
   private String asPath(BundleDescriptor descriptor) {
     String groupIdPath = getGroupIdPath(descriptor.getGroupId());
     String versionPath = WILDCARD.equals(descriptor.getVersion()) ? "" : descriptor.getVersion();
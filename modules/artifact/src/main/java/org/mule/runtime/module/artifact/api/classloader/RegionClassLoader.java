@@ -11,6 +11,11 @@ import static java.lang.Integer.toHexString;
 import static java.lang.String.format;
 import static java.lang.System.identityHashCode;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.emptyNavigableMap;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableNavigableMap;
 import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.io.FilenameUtils.normalize;
@@ -22,7 +27,6 @@ import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.module.artifact.classloader.ClassLoaderResourceReleaser;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.core.api.util.CompoundEnumeration;
-import org.mule.runtime.core.api.util.func.CheckedFunction;
 import org.mule.runtime.module.artifact.api.classloader.exception.ClassNotFoundInRegionException;
 import org.mule.runtime.module.artifact.api.descriptor.ArtifactDescriptor;
 import org.mule.runtime.module.artifact.api.descriptor.BundleDependency;
@@ -38,9 +42,12 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 
 import org.slf4j.Logger;
@@ -60,6 +67,9 @@ import org.slf4j.Logger;
  * <p/>
  * Only a region member can export a given package, but same resources can be exported by many members. The order in which the
  * resources are found will depend on the order in which the class loaders were added to the region.
+ * <p/>
+ * The package and resource mappings are immutable snapshots, replaced each time the region members change, so that looking up
+ * classes and resources doesn't take any lock.
  */
 public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
 
@@ -71,15 +81,12 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
   private static final String CLASS_EXTENSION = ".class";
   private static final Logger LOGGER = getLogger(RegionClassLoader.class);
 
-  private final ReadWriteLock innerStateRWLock = new ReentrantReadWriteLock();
-  private final Lock innerStateReadLock = innerStateRWLock.readLock();
-  private final Lock innerStateWriteLock = innerStateRWLock.writeLock();
+  private final Lock innerStateWriteLock = new ReentrantLock();
 
-  private final List<RegionMemberClassLoader> registeredClassLoaders = new ArrayList<>();
-  private final Map<String, ArtifactClassLoader> packageMapping = new HashMap<>();
-  private final Map<String, List<ArtifactClassLoader>> resourceMapping = new HashMap<>();
-  private final Object descriptorMappingLock = new Object();
-  private final Map<BundleDescriptor, URLClassLoader> descriptorMapping = new HashMap<>();
+  private final List<RegionMemberClassLoader> registeredClassLoaders = new CopyOnWriteArrayList<>();
+  private volatile Map<String, ArtifactClassLoader> packageMapping = emptyMap();
+  private volatile NavigableMap<String, List<ArtifactClassLoader>> resourceMapping = emptyNavigableMap();
+  private final Map<BundleDescriptor, URLClassLoader> descriptorMapping = new ConcurrentHashMap<>();
 
   private ArtifactClassLoader ownerClassLoader;
 
@@ -147,46 +154,52 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
         throw new IllegalArgumentException(createClassLoaderAlreadyInRegionError(artifactClassLoader.getArtifactId()));
       }
 
-      if (ownerClassLoader == null) {
-        ownerClassLoader = artifactClassLoader;
-      } else {
-        registeredClassLoaders.add(new RegionMemberClassLoader(artifactClassLoader, filter));
-      }
+      // the new mappings are built on copies and published once complete
+      final Map<String, ArtifactClassLoader> newPackageMapping = new HashMap<>(packageMapping);
+      final NavigableMap<String, List<ArtifactClassLoader>> newResourceMapping = new TreeMap<>(resourceMapping);
 
       filter.getExportedClassPackages().forEach(p -> {
         LookupStrategy packageLookupStrategy = getClassLoaderLookupPolicy().getPackageLookupStrategy(p);
         if (!(packageLookupStrategy instanceof ChildFirstLookupStrategy)) {
           throw new IllegalStateException(illegalPackageMappingError(p, packageLookupStrategy));
-        } else if (packageMapping.containsKey(p)) {
-          throw new IllegalStateException(duplicatePackageMappingError(p, packageMapping.get(p), artifactClassLoader));
+        } else if (newPackageMapping.containsKey(p)) {
+          throw new IllegalStateException(duplicatePackageMappingError(p, newPackageMapping.get(p), artifactClassLoader));
         } else {
-          packageMapping.put(p, artifactClassLoader);
+          newPackageMapping.put(p, artifactClassLoader);
         }
       });
 
       for (String exportedResource : filter.getExportedResources()) {
-        List<ArtifactClassLoader> classLoaders =
-            resourceMapping.computeIfAbsent(normalize(exportedResource, true), k -> new ArrayList<>());
-
-        classLoaders.add(artifactClassLoader);
+        addResourceMapping(newResourceMapping, normalize(exportedResource, true), artifactClassLoader);
       }
 
       // *.class files may be requested as resources.
       for (String exportedClassPackage : filter.getExportedClassPackages()) {
         String packageAsDirectory =
             DOT_REPLACEMENT_PATTERN.matcher(exportedClassPackage).replaceAll(PATH_SEPARATOR);
-        List<ArtifactClassLoader> classLoaders =
-            resourceMapping.computeIfAbsent(packageAsDirectory, k -> new ArrayList<>());
-        classLoaders.add(artifactClassLoader);
-        classLoaders =
-            resourceMapping.computeIfAbsent(packageAsDirectory + PATH_SEPARATOR, k -> new ArrayList<>());
-        classLoaders.add(artifactClassLoader);
+        addResourceMapping(newResourceMapping, packageAsDirectory, artifactClassLoader);
+        addResourceMapping(newResourceMapping, packageAsDirectory + PATH_SEPARATOR, artifactClassLoader);
+      }
+
+      if (ownerClassLoader == null) {
+        ownerClassLoader = artifactClassLoader;
+      } else {
+        registeredClassLoaders.add(new RegionMemberClassLoader(artifactClassLoader, filter));
       }
+      packageMapping = unmodifiableMap(newPackageMapping);
+      resourceMapping = unmodifiableNavigableMap(newResourceMapping);
     } finally {
       innerStateWriteLock.unlock();
     }
   }
 
+  private static void addResourceMapping(Map<String, List<ArtifactClassLoader>> resourceMapping, String resource,
+                                         ArtifactClassLoader artifactClassLoader) {
+    List<ArtifactClassLoader> classLoaders = new ArrayList<>(resourceMapping.getOrDefault(resource, emptyList()));
+    classLoaders.add(artifactClassLoader);
+    resourceMapping.put(resource, unmodifiableList(classLoaders));
+  }
+
   static String illegalPackageMappingError(String p, LookupStrategy packageLookupStrategy) {
     return format("Attempt to map package '%s' which was already defined on the region lookup policy with '%s'",
                   p, packageLookupStrategy.getClass().getName());
@@ -249,22 +262,17 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
 
   @Override
   public Class<?> findLocalClass(String name) throws ClassNotFoundException {
-    innerStateReadLock.lock();
-    try {
-      final String packageName = getPackageName(name);
-
-      final ArtifactClassLoader artifactClassLoader = packageMapping.get(packageName);
-      if (artifactClassLoader != null) {
-        try {
-          return artifactClassLoader.findLocalClass(name);
-        } catch (ClassNotFoundException e) {
-          throw new ClassNotFoundInRegionException(name, getArtifactId(), artifactClassLoader.getArtifactId(), e);
-        }
-      } else {
-        throw new ClassNotFoundInRegionException(name, getArtifactId());
+    final String packageName = getPackageName(name);
+
+    final ArtifactClassLoader artifactClassLoader = packageMapping.get(packageName);
+    if (artifactClassLoader != null) {
+      try {
+        return artifactClassLoader.findLocalClass(name);
+      } catch (ClassNotFoundException e) {
+        throw new ClassNotFoundInRegionException(name, getArtifactId(), artifactClassLoader.getArtifactId(), e);
       }
-    } finally {
-      innerStateReadLock.unlock();
+    } else {
+      throw new ClassNotFoundInRegionException(name, getArtifactId());
     }
   }
 
@@ -313,19 +321,13 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
             for (BundleDependency dependency : classLoaderModel.getDependencies()) {
               BundleDescriptor descriptor = dependency.getDescriptor();
               if (isRequestedArtifact(descriptor, requiredDescriptor, () -> false)) {
-                return descriptorMapping.computeIfAbsent(descriptor, (CheckedFunction<BundleDescriptor, URLClassLoader>) d -> {
-                  // We don't want class loaders in limbo
-                  synchronized (descriptorMappingLock) {
-                    if (descriptorMapping.containsKey(descriptor)) {
-                      return descriptorMapping.get(descriptor);
-                    } else {
-                      try {
-                        return new URLClassLoader(new URL[] {dependency.getBundleUri().toURL()}, getSystemClassLoader(),
-                                                  new NonCachingURLStreamHandlerFactory());
-                      } catch (MalformedURLException e) {
-                        throw new MuleRuntimeException(e);
-                      }
-                    }
+                // We don't want class loaders in limbo, computeIfAbsent creates at most one for each descriptor
+                return descriptorMapping.computeIfAbsent(descriptor, d -> {
+                  try {
+                    return new URLClassLoader(new URL[] {dependency.getBundleUri().toURL()}, getSystemClassLoader(),
+                                              new NonCachingURLStreamHandlerFactory());
+                  } catch (MalformedURLException e) {
+                    throw new MuleRuntimeException(e);
                   }
                 }).findResource(normalizedResource);
               }
@@ -374,13 +376,12 @@ public class RegionClassLoader extends MuleDeployableArtifactClassLoader {
     String normalizedName = normalize(name, true);
     List<Enumeration<URL>> enumerations = new ArrayList<>(registeredClassLoaders.size());
     if (normalizedName.endsWith("/")) {
-      List<Map.Entry<String, List<ArtifactClassLoader>>> entries = resourceMapping.entrySet()
-          .stream()
-          .filter(entry -> entry.getKey().startsWith(name))
-          .collect(toList());
-      for (Map.Entry<String, List<ArtifactClassLoader>> entry : entries) {
-        List<ArtifactClassLoader> artifactClassLoaders = entry.getValue();
-        for (ArtifactClassLoader artifactClassLoader : artifactClassLoaders) {
+      // the mapping is sorted, so the resources within the folder are the ones from its name until the first that isn't within
+      for (Map.Entry<String, List<ArtifactClassLoader>> entry : resourceMapping.tailMap(name, true).entrySet()) {
+        if (!entry.getKey().startsWith(name)) {
+          break;
+        }
+        for (ArtifactClassLoader artifactClassLoader : entry.getValue()) {
           enumerations.add(artifactClassLoader.findResources(name));
         }
       }
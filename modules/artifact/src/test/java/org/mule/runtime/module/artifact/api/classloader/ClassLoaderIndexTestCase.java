@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.artifact.api.classloader;
+
+import static java.util.jar.Attributes.Name.CLASS_PATH;
+import static java.util.jar.Attributes.Name.MANIFEST_VERSION;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mule.runtime.module.artifact.api.classloader.ClassLoaderIndex.DISABLE_INDEX_PROPERTY;
+import static org.mule.tck.junit4.rule.SystemProperty.callWithProperty;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class ClassLoaderIndexTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void classesInArchive() throws Exception {
+    ClassLoaderIndex index = ClassLoaderIndex.create(new URL[] {createJar(null, "org/foo/Bar.class")});
+
+    assertThat(index.mayContainClass("org.foo.Bar"), is(true));
+    assertThat(index.mayContainClass("org.foo.Other"), is(true));
+    assertThat(index.mayContainClass("org.other.Bar"), is(false));
+    assertThat(index.mayContainClass("org.foo.bar.Bar"), is(false));
+  }
+
+  @Test
+  public void resourcesInArchive() throws Exception {
+    ClassLoaderIndex index = ClassLoaderIndex.create(new URL[] {createJar(null, "META-INF/services/org.foo.Service")});
+
+    assertThat(index.mayContainResource("META-INF/services/org.foo.Service"), is(true));
+    assertThat(index.mayContainResource("/META-INF/services/org.foo.Service"), is(true));
+    assertThat(index.mayContainResource("META-INF/services/"), is(true));
+    assertThat(index.mayContainResource("META-INF/other/resource.xml"), is(false));
+    assertThat(index.mayContainResource("config.xml"), is(true));
+  }
+
+  @Test
+  public void directoriesAreCheckedOnEachLookup() throws Exception {
+    File directory = temporaryFolder.newFolder("classes");
+    ClassLoaderIndex index = ClassLoaderIndex.create(new URL[] {directory.toURI().toURL()});
+
+    assertThat(index.mayContainClass("org.foo.Bar"), is(false));
+    assertThat(new File(directory, "org/foo").mkdirs(), is(true));
+    assertThat(index.mayContainClass("org.foo.Bar"), is(true));
+  }
+
+  @Test
+  public void archiveWithManifestClassPathIsNotIndexed() throws Exception {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(MANIFEST_VERSION, "1.0");
+    manifest.getMainAttributes().put(CLASS_PATH, "other.jar");
+
+    assertThat(ClassLoaderIndex.create(new URL[] {createJar(manifest, "org/foo/Bar.class")}), is(nullValue()));
+  }
+
+  @Test
+  public void nonFileUrlIsNotIndexed() throws Exception {
+    assertThat(ClassLoaderIndex.create(new URL[] {new URL("http://localhost/lib.jar")}), is(nullValue()));
+  }
+
+  @Test
+  public void disabledIndex() throws Throwable {
+    URL jar = createJar(null, "org/foo/Bar.class");
+    assertThat(ClassLoaderIndex.create(new URL[] {jar}), is(notNullValue()));
+
+    assertThat(callWithProperty(DISABLE_INDEX_PROPERTY, "true", () -> ClassLoaderIndex.create(new URL[] {jar})),
+               is(nullValue()));
+  }
+
+  private URL createJar(Manifest manifest, String... entries) throws IOException {
+    File jar = temporaryFolder.newFile();
+    try (JarOutputStream out = manifest == null
+        ? new JarOutputStream(new FileOutputStream(jar))
+        : new JarOutputStream(new FileOutputStream(jar), manifest)) {
+      for (String entry : entries) {
+        out.putNextEntry(new JarEntry(entry));
+        out.closeEntry();
+      }
+    }
+    return jar.toURI().toURL();
+  }
+}
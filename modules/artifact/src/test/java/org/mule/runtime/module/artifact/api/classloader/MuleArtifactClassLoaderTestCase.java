@@ -17,10 +17,16 @@ import static org.mule.runtime.core.api.util.ClassUtils.getResource;
 import org.mule.runtime.module.artifact.api.descriptor.ArtifactDescriptor;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URL;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class MuleArtifactClassLoaderTestCase extends AbstractMuleTestCase {
 
@@ -28,6 +34,9 @@ public class MuleArtifactClassLoaderTestCase extends AbstractMuleTestCase {
   private static final String JAR_RESOURCE_NAME = "hello.txt";
   private static final String API_LINE = "#%RAML 1.0";
 
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   private final URL apiLocation;
   private final URL apiLibraryLocation;
   private final URL jarLocation;
@@ -89,6 +98,22 @@ public class MuleArtifactClassLoaderTestCase extends AbstractMuleTestCase {
     findAndValidate(classLoader, "resource::com.organization:test-artifact:*:raml:zip", API_RESOURCE_NAME, apiLocation, API_LINE);
   }
 
+  @Test
+  public void findsResourceFromAddedUrlAfterLookup() throws Exception {
+    MuleArtifactClassLoader classLoader = createClassLoader();
+    String resourceName = "org/foo/bar.txt";
+    assertThat(classLoader.findResource(resourceName), is(nullValue()));
+
+    File jar = temporaryFolder.newFile("added.jar");
+    try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+      out.putNextEntry(new JarEntry(resourceName));
+      out.closeEntry();
+    }
+    classLoader.addURL(jar.toURI().toURL());
+
+    assertThat(classLoader.findResource(resourceName), is(notNullValue()));
+  }
+
   private MuleArtifactClassLoader createClassLoader() {
     return new MuleArtifactClassLoader("test", mock(ArtifactDescriptor.class),
                                        new URL[] {apiLocation, apiLibraryLocation, jarLocation, testsJarLocation},
@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.module.deployment.impl.internal.artifact;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.getLastModifiedTime;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.Files.newInputStream;
+import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.Files.setLastModifiedTime;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Arrays.asList;
+import static java.util.Comparator.comparing;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.meta.model.ExtensionModel;
+import org.mule.runtime.deployment.model.api.plugin.ArtifactPluginDescriptor;
+import org.mule.runtime.deployment.model.api.plugin.LoaderDescriber;
+import org.mule.runtime.extension.api.loader.ExtensionModelLoader;
+import org.mule.runtime.module.artifact.api.descriptor.BundleDescriptor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Keeps the {@link ExtensionModel}s of the artifact plugins serialized on disk, so that the {@link ExtensionModelLoader}s don't
+ * have to be run again for the same plugin when an artifact is redeployed, or when another artifact uses the same plugin.
+ * <p>
+ * Each model is stored under a key calculated from all the inputs of its loading: the runtime version, the plugin's
+ * {@link BundleDescriptor}, the checksum of the plugin's content, the {@link LoaderDescriber} and the extensions the plugin
+ * depends on. Any change on those results in a different key, so a stale model is never used.
+ * <p>
+ * The cache is best effort: a model that fails to be read is deleted and loaded again, and a model that can't be serialized is
+ * recorded as such, so that neither its serialization nor the checksum of the plugin is attempted again for the same plugin
+ * version. Only the classes of the model packages may be written or read, so that a tampered cache file can't be used to
+ * instantiate arbitrary classes.
+ * <p>
+ * The models of older contents of a plugin are deleted when a new one is stored, and the models not used for
+ * {@link #MAX_UNUSED_DAYS} days are deleted the first time a cache is used.
+ *
+ * @since 4.4.0
+ */
+class ExtensionModelCache {
+
+  private static final Logger LOGGER = getLogger(ExtensionModelCache.class);
+
+  private static final String MODEL_SUFFIX = ".model";
+  private static final String NOT_CACHEABLE_SUFFIX = ".notCacheable";
+  private static final String TEMP_SUFFIX = ".tmp";
+  private static final String KEY_SEPARATOR = "-";
+
+  static final long MAX_UNUSED_DAYS = 30;
+
+  /**
+   * The packages of the classes that a serialized model may reference.
+   */
+  static final List<String> MODEL_PACKAGES = asList("java.lang.",
+                                                    "java.util.",
+                                                    "java.math.",
+                                                    "com.google.common.collect.",
+                                                    "org.mule.metadata.",
+                                                    "org.mule.runtime.api.",
+                                                    "org.mule.runtime.extension.api.",
+                                                    "org.mule.runtime.extension.internal.",
+                                                    "org.mule.runtime.module.extension.");
+
+  private final Path cacheFolder;
+  private final String runtimeVersion;
+  private final List<String> allowedPackages;
+  private final AtomicBoolean pruned = new AtomicBoolean();
+
+  /**
+   * Creates a new instance
+   *
+   * @param cacheFolder    the folder where the serialized models are stored. It is created if it doesn't exist.
+   * @param runtimeVersion the version of the runtime, so that models stored by another version are not used.
+   */
+  ExtensionModelCache(File cacheFolder, String runtimeVersion) {
+    this(cacheFolder, runtimeVersion, MODEL_PACKAGES);
+  }
+
+  ExtensionModelCache(File cacheFolder, String runtimeVersion, List<String> allowedPackages) {
+    this.cacheFolder = cacheFolder.toPath();
+    this.runtimeVersion = runtimeVersion;
+    this.allowedPackages = allowedPackages;
+  }
+
+  /**
+   * Calculates the key of the model of a plugin.
+   *
+   * @param pluginDescriptor the descriptor of the plugin
+   * @param loaderDescriber  the describer used to load the model of the plugin
+   * @param extensions       the extensions the plugin may depend on
+   * @return the key, or empty if the content of the plugin can't be determined or its model is known not to be cacheable, in
+   *         which case its model must not be cached.
+   */
+  Optional<String> keyFor(ArtifactPluginDescriptor pluginDescriptor, LoaderDescriber loaderDescriber,
+                          Set<ExtensionModel> extensions) {
+    final BundleDescriptor bundleDescriptor = pluginDescriptor.getBundleDescriptor();
+    if (bundleDescriptor == null || pluginDescriptor.getClassLoaderModel() == null) {
+      return Optional.empty();
+    }
+
+    try {
+      // cheap to calculate, so that the content of a plugin which model is not cacheable isn't read
+      final MessageDigest pluginDigest = MessageDigest.getInstance("SHA-256");
+      update(pluginDigest, runtimeVersion);
+      update(pluginDigest, bundleDescriptor.toString());
+      update(pluginDigest, loaderDescriber.getId());
+      final String pluginKey = toHex(pluginDigest.digest());
+      if (exists(cacheFolder.resolve(pluginKey + NOT_CACHEABLE_SUFFIX))) {
+        return Optional.empty();
+      }
+
+      final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      update(digest, new TreeMap<>(loaderDescriber.getAttributes()).toString());
+      extensions.stream()
+          .sorted(comparing(ExtensionModel::getName))
+          .forEach(extension -> update(digest, extension.getName() + ":" + extension.getVersion()));
+
+      for (URL url : pluginDescriptor.getClassLoaderModel().getUrls()) {
+        if (!"file".equals(url.getProtocol())) {
+          return Optional.empty();
+        }
+        if (!updateWithContent(digest, new File(url.toURI()))) {
+          return Optional.empty();
+        }
+      }
+
+      return Optional.of(pluginKey + KEY_SEPARATOR + toHex(digest.digest()));
+    } catch (NoSuchAlgorithmException | URISyntaxException | IOException e) {
+      LOGGER.debug("Unable to calculate the ExtensionModel cache key for plugin '{}'", pluginDescriptor.getName(), e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Gets the model stored for the given {@code key}, loading it with {@code loader} and storing it if there is none.
+   *
+   * @param key         the key calculated with {@link #keyFor(ArtifactPluginDescriptor, LoaderDescriber, Set)}
+   * @param classLoader the class loader of the plugin, to resolve the classes referenced by a stored model
+   * @param loader      loads the model when it is not stored
+   * @return the model
+   */
+  ExtensionModel get(String key, ClassLoader classLoader, Supplier<ExtensionModel> loader) {
+    if (pruned.compareAndSet(false, true)) {
+      prune();
+    }
+
+    final Path modelFile = cacheFolder.resolve(key + MODEL_SUFFIX);
+    if (exists(modelFile)) {
+      final ExtensionModel extensionModel = read(modelFile, classLoader);
+      if (extensionModel != null) {
+        return extensionModel;
+      }
+    }
+
+    final ExtensionModel extensionModel = loader.get();
+    if (extensionModel != null) {
+      write(key, modelFile, extensionModel);
+    }
+    return extensionModel;
+  }
+
+  private ExtensionModel read(Path modelFile, ClassLoader classLoader) {
+    try (ObjectInputStream in = new PluginObjectInputStream(new BufferedInputStream(newInputStream(modelFile)), classLoader,
+                                                            allowedPackages)) {
+      final ExtensionModel extensionModel = (ExtensionModel) in.readObject();
+      // so that it is not pruned while in use
+      setLastModifiedTime(modelFile, FileTime.fromMillis(System.currentTimeMillis()));
+      return extensionModel;
+    } catch (Exception e) {
+      LOGGER.debug("Unable to read the cached ExtensionModel from '{}'. It will be loaded again", modelFile, e);
+      deleteQuietly(modelFile);
+      return null;
+    }
+  }
+
+  private void write(String key, Path modelFile, ExtensionModel extensionModel) {
+    Path tempFile = null;
+    try {
+      createDirectories(cacheFolder);
+      // written to a temp file and moved, so that other artifacts reading it never see it partially written
+      tempFile = createTempFile(cacheFolder, key, TEMP_SUFFIX);
+      try (ObjectOutputStream out = new ModelObjectOutputStream(new BufferedOutputStream(newOutputStream(tempFile)),
+                                                                allowedPackages)) {
+        out.writeObject(extensionModel);
+      }
+      move(tempFile, modelFile, ATOMIC_MOVE, REPLACE_EXISTING);
+      deleteOtherContents(key);
+    } catch (NotSerializableException | InvalidClassException e) {
+      LOGGER.debug("ExtensionModel '{}' can't be cached, since '{}' can't be serialized", extensionModel.getName(),
+                   e.getMessage());
+      markNotCacheable(pluginKeyOf(key));
+    } catch (IOException e) {
+      LOGGER.debug("Unable to cache ExtensionModel '{}'", extensionModel.getName(), e);
+    } finally {
+      if (tempFile != null) {
+        deleteQuietly(tempFile);
+      }
+    }
+  }
+
+  private void markNotCacheable(String pluginKey) {
+    try {
+      createDirectories(cacheFolder);
+      final Path marker = cacheFolder.resolve(pluginKey + NOT_CACHEABLE_SUFFIX);
+      if (!exists(marker)) {
+        newOutputStream(marker).close();
+      }
+    } catch (IOException e) {
+      LOGGER.debug("Unable to mark ExtensionModel cache key '{}' as not cacheable", pluginKey, e);
+    }
+  }
+
+  /**
+   * Deletes the models stored for other contents of the same plugin, which won't be used again.
+   */
+  private void deleteOtherContents(String key) {
+    final String pluginKeyPrefix = pluginKeyOf(key) + KEY_SEPARATOR;
+    try (DirectoryStream<Path> models = newDirectoryStream(cacheFolder, pluginKeyPrefix + "*" + MODEL_SUFFIX)) {
+      for (Path model : models) {
+        if (!model.getFileName().toString().equals(key + MODEL_SUFFIX)) {
+          deleteQuietly(model);
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.debug("Unable to delete the outdated cached ExtensionModels of '{}'", key, e);
+    }
+  }
+
+  /**
+   * Deletes the models not used for {@link #MAX_UNUSED_DAYS} and the marks of not cacheable models as old as that, along with the
+   * temporary files left by interrupted writes.
+   */
+  private void prune() {
+    if (!exists(cacheFolder)) {
+      return;
+    }
+
+    final long now = System.currentTimeMillis();
+    try (DirectoryStream<Path> files = newDirectoryStream(cacheFolder)) {
+      for (Path file : files) {
+        final String name = file.getFileName().toString();
+        final long age = now - getLastModifiedTime(file).toMillis();
+        if (((name.endsWith(MODEL_SUFFIX) || name.endsWith(NOT_CACHEABLE_SUFFIX)) && age > DAYS.toMillis(MAX_UNUSED_DAYS))
+            || (name.endsWith(TEMP_SUFFIX) && age > HOURS.toMillis(1))) {
+          deleteQuietly(file);
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.debug("Unable to prune the ExtensionModels cache at '{}'", cacheFolder, e);
+    }
+  }
+
+  private static String pluginKeyOf(String key) {
+    return key.substring(0, key.indexOf(KEY_SEPARATOR));
+  }
+
+  private static boolean isAllowed(Class<?> type, List<String> allowedPackages) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    return type.isPrimitive() || isAllowed(type.getName(), allowedPackages);
+  }
+
+  private static boolean isAllowed(String className, List<String> allowedPackages) {
+    for (String allowedPackage : allowedPackages) {
+      if (className.startsWith(allowedPackage)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean updateWithContent(MessageDigest digest, File file) throws IOException {
+    if (file.isFile()) {
+      update(digest, file.getName());
+      byte[] buffer = new byte[8192];
+      try (InputStream in = newInputStream(file.toPath())) {
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          digest.update(buffer, 0, read);
+        }
+      }
+      return true;
+    } else if (file.isDirectory()) {
+      // exploded plugins are accounted by the paths, sizes and modification times of their files
+      final Map<String, File> files = new TreeMap<>();
+      collectFiles(file, file.getAbsolutePath().length(), files);
+      files.forEach((path, f) -> update(digest, path + ":" + f.length() + ":" + f.lastModified()));
+      return true;
+    }
+    return false;
+  }
+
+  private static void collectFiles(File folder, int rootLength, Map<String, File> files) {
+    final File[] children = folder.listFiles();
+    if (children == null) {
+      return;
+    }
+    for (File child : children) {
+      if (child.isDirectory()) {
+        collectFiles(child, rootLength, files);
+      } else {
+        files.put(child.getAbsolutePath().substring(rootLength), child);
+      }
+    }
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    digest.update(String.valueOf(value).getBytes(UTF_8));
+    digest.update((byte) 0);
+  }
+
+  private static String toHex(byte[] bytes) {
+    final StringBuilder builder = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return builder.toString();
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      deleteIfExists(file);
+    } catch (IOException e) {
+      LOGGER.debug("Unable to delete '{}'", file, e);
+    }
+  }
+
+  /**
+   * Fails to write a model referencing classes out of the allowed packages, so that it is marked as not cacheable instead of
+   * being rejected each time it is read.
+   */
+  private static final class ModelObjectOutputStream extends ObjectOutputStream {
+
+    private final List<String> allowedPackages;
+
+    private ModelObjectOutputStream(OutputStream out, List<String> allowedPackages) throws IOException {
+      super(out);
+      this.allowedPackages = allowedPackages;
+    }
+
+    @Override
+    protected void annotateClass(Class<?> cl) throws IOException {
+      if (!isAllowed(cl, allowedPackages)) {
+        throw new InvalidClassException(cl.getName(), "not allowed in a cached ExtensionModel");
+      }
+    }
+
+    @Override
+    protected void annotateProxyClass(Class<?> cl) throws IOException {
+      throw new InvalidClassException(cl.getName(), "proxies are not allowed in a cached ExtensionModel");
+    }
+  }
+
+  /**
+   * Resolves the classes of a stored model with the class loader of the plugin that is being deployed, instead of the one that
+   * loaded the plugin when the model was stored. Only the classes of the allowed packages are resolved.
+   */
+  private static final class PluginObjectInputStream extends ObjectInputStream {
+
+    private final ClassLoader classLoader;
+    private final List<String> allowedPackages;
+
+    private PluginObjectInputStream(InputStream in, ClassLoader classLoader, List<String> allowedPackages) throws IOException {
+      super(in);
+      this.classLoader = classLoader;
+      this.allowedPackages = allowedPackages;
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+      // checked on the name, so that a class out of the allowed packages is not even loaded
+      String className = desc.getName();
+      int arrayDepth = 0;
+      while (className.charAt(arrayDepth) == '[') {
+        arrayDepth++;
+      }
+      if (arrayDepth > 0) {
+        // arrays of primitives have a single letter after the dimensions, arrays of objects have L<class name>;
+        className = className.length() == arrayDepth + 1 ? null : className.substring(arrayDepth + 1, className.length() - 1);
+      }
+      if (className != null && !isAllowed(className, allowedPackages)) {
+        throw new InvalidClassException(desc.getName(), "not allowed in a cached ExtensionModel");
+      }
+
+      try {
+        return Class.forName(desc.getName(), false, classLoader);
+      } catch (ClassNotFoundException e) {
+        return super.resolveClass(desc);
+      }
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+      throw new InvalidClassException("proxies are not allowed in a cached ExtensionModel");
+    }
+  }
+}
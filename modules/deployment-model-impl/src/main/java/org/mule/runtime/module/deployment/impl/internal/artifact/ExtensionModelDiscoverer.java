@@ -7,12 +7,16 @@
 
 package org.mule.runtime.module.deployment.impl.internal.artifact;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static java.util.stream.Collectors.toSet;
 import static org.mule.runtime.api.dsl.DslResolvingContext.getDefault;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.container.api.MuleFoldersUtil.getExecutionFolder;
 import org.mule.runtime.api.deployment.meta.MulePluginModel;
 import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.util.Pair;
+import org.mule.runtime.core.api.config.MuleManifest;
 import org.mule.runtime.core.api.extension.MuleExtensionModelProvider;
 import org.mule.runtime.core.api.registry.SpiServiceRegistry;
 import org.mule.runtime.core.api.extension.RuntimeExtensionModelProvider;
@@ -24,6 +28,7 @@ import org.mule.runtime.module.extension.internal.loader.ExtensionModelLoaderRep
 
 import com.google.common.collect.ImmutableSet;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -37,6 +42,29 @@ import java.util.Set;
  */
 public class ExtensionModelDiscoverer {
 
+  /**
+   * System property to enable caching on disk the {@link ExtensionModel}s of the artifact plugins, so that they are not loaded
+   * again when the same plugin is deployed again.
+   *
+   * @since 4.4.0
+   */
+  public static final String EXTENSION_MODELS_CACHE_PROPERTY = SYSTEM_PROPERTY_PREFIX + "extensionModels.cache";
+
+  private static final String EXTENSION_MODELS_CACHE_FOLDER = "extension-models";
+
+  private final ExtensionModelCache cache;
+
+  public ExtensionModelDiscoverer() {
+    this(getBoolean(EXTENSION_MODELS_CACHE_PROPERTY)
+        ? new ExtensionModelCache(new File(getExecutionFolder(), EXTENSION_MODELS_CACHE_FOLDER),
+                                  MuleManifest.getProductVersion())
+        : null);
+  }
+
+  ExtensionModelDiscoverer(ExtensionModelCache cache) {
+    this.cache = cache;
+  }
+
   /**
    * For each artifactPlugin discovers the {@link ExtensionModel}.
    *
@@ -71,11 +99,9 @@ public class ExtensionModelDiscoverer {
       final ArtifactPluginDescriptor artifactPluginDescriptor = artifactPlugin.getFirst();
       Optional<LoaderDescriber> loaderDescriber = artifactPluginDescriptor.getExtensionModelDescriptorProperty();
       ClassLoader artifactClassloader = artifactPlugin.getSecond().getClassLoader();
-      String artifactName = artifactPluginDescriptor.getName();
       ExtensionModel extension = loaderDescriber
-          .map(describer -> discoverExtensionThroughJsonDescriber(loaderRepository, describer,
-                                                                  extensions, artifactClassloader,
-                                                                  artifactName))
+          .map(describer -> discoverExtension(loaderRepository, artifactPluginDescriptor, describer, extensions,
+                                              artifactClassloader))
           .orElse(null);
       if (extension != null) {
         descriptorsWithExtensions.add(new Pair<>(artifactPluginDescriptor, extension));
@@ -84,6 +110,23 @@ public class ExtensionModelDiscoverer {
     return descriptorsWithExtensions;
   }
 
+  private ExtensionModel discoverExtension(ExtensionModelLoaderRepository loaderRepository,
+                                           ArtifactPluginDescriptor artifactPluginDescriptor, LoaderDescriber loaderDescriber,
+                                           Set<ExtensionModel> extensions, ClassLoader artifactClassloader) {
+    final String artifactName = artifactPluginDescriptor.getName();
+    if (cache == null) {
+      return discoverExtensionThroughJsonDescriber(loaderRepository, loaderDescriber, extensions, artifactClassloader,
+                                                   artifactName);
+    }
+
+    return cache.keyFor(artifactPluginDescriptor, loaderDescriber, extensions)
+        .map(key -> cache.get(key, artifactClassloader,
+                              () -> discoverExtensionThroughJsonDescriber(loaderRepository, loaderDescriber, extensions,
+                                                                          artifactClassloader, artifactName)))
+        .orElseGet(() -> discoverExtensionThroughJsonDescriber(loaderRepository, loaderDescriber, extensions,
+                                                               artifactClassloader, artifactName));
+  }
+
   /**
    * Discover the extension models provided by the runtime.
    *
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.module.deployment.impl.internal.artifact;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.write;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singletonMap;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.mule.runtime.module.deployment.impl.internal.artifact.ExtensionModelCache.MAX_UNUSED_DAYS;
+import static org.mule.runtime.module.deployment.impl.internal.artifact.ExtensionModelCache.MODEL_PACKAGES;
+
+import org.mule.runtime.api.meta.model.ExtensionModel;
+import org.mule.runtime.deployment.model.api.plugin.ArtifactPluginDescriptor;
+import org.mule.runtime.deployment.model.api.plugin.LoaderDescriber;
+import org.mule.runtime.module.artifact.api.descriptor.BundleDescriptor;
+import org.mule.runtime.module.artifact.api.descriptor.ClassLoaderModel.ClassLoaderModelBuilder;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class ExtensionModelCacheTestCase extends AbstractMuleTestCase {
+
+  private static final String RUNTIME_VERSION = "4.4.0";
+  // serializable mocks reference the classes of the mocking framework
+  private static final List<String> MOCK_PACKAGES = new ArrayList<>(MODEL_PACKAGES);
+
+  static {
+    MOCK_PACKAGES.add("org.mockito.");
+    MOCK_PACKAGES.add("net.bytebuddy.");
+  }
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File cacheFolder;
+  private File pluginJar;
+  private ArtifactPluginDescriptor pluginDescriptor;
+  private LoaderDescriber loaderDescriber;
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Before
+  public void before() throws Exception {
+    cacheFolder = temporaryFolder.newFolder("cache");
+    pluginJar = temporaryFolder.newFile("plugin.jar");
+    write(pluginJar.toPath(), "content".getBytes(UTF_8));
+
+    pluginDescriptor = new ArtifactPluginDescriptor("plugin");
+    pluginDescriptor.setBundleDescriptor(new BundleDescriptor.Builder().setGroupId("org.mule.test").setArtifactId("plugin")
+        .setVersion("1.0.0").setClassifier("mule-plugin").build());
+    pluginDescriptor.setClassLoaderModel(new ClassLoaderModelBuilder().containing(pluginJar.toURI().toURL()).build());
+
+    loaderDescriber = new LoaderDescriber("java");
+    loaderDescriber.addAttributes(singletonMap("type", "org.mule.test.Extension"));
+  }
+
+  @Test
+  public void storedModelIsUsedAcrossCacheInstances() {
+    ExtensionModel loaded = get(mocksCache(), serializableModel());
+    ExtensionModel cached = get(mocksCache(), serializableModel());
+
+    assertThat(loads.get(), is(1));
+    assertThat(cached, is(notNullValue()));
+    assertThat(cached, is(not(sameInstance(loaded))));
+    assertThat(cached.getName(), is("test"));
+  }
+
+  @Test
+  public void keyChangesWithPluginContent() throws Exception {
+    ExtensionModelCache cache = new ExtensionModelCache(cacheFolder, RUNTIME_VERSION);
+    String key = cache.keyFor(pluginDescriptor, loaderDescriber, emptySet()).get();
+
+    write(pluginJar.toPath(), "other content".getBytes(UTF_8));
+
+    assertThat(cache.keyFor(pluginDescriptor, loaderDescriber, emptySet()).get(), is(not(key)));
+  }
+
+  @Test
+  public void keyChangesWithRuntimeVersion() {
+    String key = new ExtensionModelCache(cacheFolder, RUNTIME_VERSION).keyFor(pluginDescriptor, loaderDescriber, emptySet())
+        .get();
+
+    assertThat(new ExtensionModelCache(cacheFolder, "4.4.1").keyFor(pluginDescriptor, loaderDescriber, emptySet()).get(),
+               is(not(key)));
+  }
+
+  @Test
+  public void corruptedModelIsLoadedAgain() throws Exception {
+    ExtensionModelCache cache = mocksCache();
+    get(cache, serializableModel());
+
+    for (File file : cacheFolder.listFiles()) {
+      write(file.toPath(), "corrupted".getBytes(UTF_8));
+    }
+
+    assertThat(get(cache, serializableModel()).getName(), is("test"));
+    assertThat(loads.get(), is(2));
+    assertThat(get(cache, serializableModel()).getName(), is("test"));
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void notSerializableModelIsNotStored() {
+    ExtensionModelCache cache = new ExtensionModelCache(cacheFolder, RUNTIME_VERSION);
+    ExtensionModel model = mock(ExtensionModel.class);
+
+    assertThat(get(cache, model), is(sameInstance(model)));
+    assertThat(get(cache, model), is(sameInstance(model)));
+    assertThat(loads.get(), is(2));
+    // known not to be cacheable, so the plugin content is not even hashed
+    assertThat(cache.keyFor(pluginDescriptor, loaderDescriber, emptySet()).isPresent(), is(false));
+  }
+
+  @Test
+  public void modelWithClassesOutOfModelPackagesIsNotStored() {
+    ExtensionModelCache cache = new ExtensionModelCache(cacheFolder, RUNTIME_VERSION);
+
+    get(cache, serializableModel());
+    get(cache, serializableModel());
+
+    assertThat(loads.get(), is(2));
+    assertThat(cacheFolder.listFiles((dir, name) -> name.endsWith(".model")), arrayWithSize(0));
+  }
+
+  @Test
+  public void storedModelWithClassesOutOfModelPackagesIsNotRead() {
+    get(mocksCache(), serializableModel());
+
+    get(new ExtensionModelCache(cacheFolder, RUNTIME_VERSION), serializableModel());
+
+    assertThat(loads.get(), is(2));
+  }
+
+  @Test
+  public void modelsOfOutdatedPluginContentDeleted() throws Exception {
+    ExtensionModelCache cache = mocksCache();
+    get(cache, serializableModel());
+
+    write(pluginJar.toPath(), "other content".getBytes(UTF_8));
+    get(cache, serializableModel());
+
+    assertThat(loads.get(), is(2));
+    assertThat(cacheFolder.listFiles((dir, name) -> name.endsWith(".model")), arrayWithSize(1));
+  }
+
+  @Test
+  public void unusedModelsPruned() throws Exception {
+    File unused = new File(cacheFolder, "unused.model");
+    write(unused.toPath(), "unused".getBytes(UTF_8));
+    unused.setLastModified(System.currentTimeMillis() - DAYS.toMillis(MAX_UNUSED_DAYS + 1));
+
+    get(mocksCache(), serializableModel());
+
+    assertThat(unused.exists(), is(false));
+  }
+
+  private ExtensionModel get(ExtensionModelCache cache, ExtensionModel model) {
+    Supplier<ExtensionModel> loader = () -> {
+      loads.incrementAndGet();
+      return model;
+    };
+    return cache.keyFor(pluginDescriptor, loaderDescriber, emptySet())
+        .map(key -> cache.get(key, getClass().getClassLoader(), loader))
+        .orElseGet(loader);
+  }
+
+  private ExtensionModelCache mocksCache() {
+    return new ExtensionModelCache(cacheFolder, RUNTIME_VERSION, MOCK_PACKAGES);
+  }
+
+  private ExtensionModel serializableModel() {
+    ExtensionModel model = mock(ExtensionModel.class, withSettings().serializable());
+    when(model.getName()).thenReturn("test");
+    return model;
+  }
+}
@@ -7,9 +7,13 @@
 package org.mule.runtime.module.deployment.internal;
 
 import static org.mule.runtime.core.internal.logging.LogUtil.log;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.management.stats.AllStatistics;
+import org.mule.runtime.core.api.management.stats.LifecycleStatistics.PhaseTiming;
 import org.mule.runtime.core.internal.logging.LogUtil;
 import org.mule.runtime.core.internal.util.splash.SimpleLoggingTable;
 import org.mule.runtime.core.internal.util.splash.SplashScreen;
+import org.mule.runtime.deployment.model.api.DeployableArtifact;
 import org.mule.runtime.module.deployment.api.DeploymentService;
 import org.mule.runtime.module.deployment.api.StartupListener;
 import org.mule.runtime.deployment.model.api.application.Application;
@@ -32,9 +36,16 @@ public class StartupSummaryDeploymentListener implements StartupListener {
   private static final String APPLICATION_LABEL = "APPLICATION";
   private static final String DOMAIN_OWNER_LABEL = "DOMAIN";
   private static final String STATUS_LABEL = "STATUS";
+  private static final String ARTIFACT_LABEL = "ARTIFACT";
+  private static final String PHASE_LABEL = "PHASE";
+  private static final String OBJECTS_LABEL = "OBJECTS";
+  private static final String TIME_LABEL = "TIME (ms)";
   private static final int ARTIFACT_NAME_LABEL_LENGTH = 45;
   private static final int STATUS_LABEL_LENGTH = 18;
   private static final int DOMAIN_OWNER_LABEL_LENGTH = 30;
+  private static final int PHASE_LABEL_LENGTH = 20;
+  private static final int OBJECTS_LABEL_LENGTH = 9;
+  private static final int TIME_LABEL_LENGTH = 12;
 
   private static final String UNKNOWN_ARTIFACT_NAME = "UNKNOWN";
 
@@ -57,9 +68,17 @@ public class StartupSummaryDeploymentListener implements StartupListener {
     domainTable.addColumn(DOMAIN_OWNER_LABEL, ARTIFACT_NAME_LABEL_LENGTH);
     domainTable.addColumn(STATUS_LABEL, STATUS_LABEL_LENGTH);
 
+    SimpleLoggingTable timingTable = new SimpleLoggingTable();
+    timingTable.addColumn(ARTIFACT_LABEL, ARTIFACT_NAME_LABEL_LENGTH);
+    timingTable.addColumn(PHASE_LABEL, PHASE_LABEL_LENGTH);
+    timingTable.addColumn(OBJECTS_LABEL, OBJECTS_LABEL_LENGTH);
+    timingTable.addColumn(TIME_LABEL, TIME_LABEL_LENGTH);
+    boolean timingsFound = false;
+
     for (String domain : domainDeploymentState.keySet()) {
       String[] data = new String[] {domain, domainDeploymentState.get(domain).toString()};
       domainTable.addDataRow(data);
+      timingsFound |= addTimings(timingTable, domain, deploymentService.findDomain(domain));
     }
 
     Map<String, ArtifactDeploymentStatusTracker.DeploymentState> applicationStates =
@@ -72,6 +91,7 @@ public class StartupSummaryDeploymentListener implements StartupListener {
         domainName = application.getDomain().getArtifactName();
       }
       applicationsPerDomain.put(domainName, applicationName);
+      timingsFound |= addTimings(timingTable, applicationName, application);
     }
 
     String message;
@@ -94,6 +114,36 @@ public class StartupSummaryDeploymentListener implements StartupListener {
       message = String.format("%n%s", domainTable);
     }
 
+    if (timingsFound) {
+      message = String.format("%s%n%s", message, timingTable);
+    }
+
     log(message);
   }
+
+  /**
+   * Adds a row to the {@code timingTable} for each of the lifecycle phases applied to the given {@code artifact}.
+   *
+   * @return whether any row was added
+   */
+  private boolean addTimings(SimpleLoggingTable timingTable, String artifactName, DeployableArtifact artifact) {
+    if (artifact == null || artifact.getArtifactContext() == null) {
+      return false;
+    }
+
+    MuleContext muleContext = artifact.getArtifactContext().getMuleContext();
+    AllStatistics statistics = muleContext == null ? null : muleContext.getStatistics();
+    if (statistics == null) {
+      return false;
+    }
+
+    boolean added = false;
+    for (PhaseTiming timing : statistics.getLifecycleStatistics().getPhaseTimings()) {
+      String phase = timing.isParallel() ? timing.getPhaseName() + " (parallel)" : timing.getPhaseName();
+      timingTable.addDataRow(new String[] {artifactName, phase, String.valueOf(timing.getObjectCount()),
+          String.valueOf(timing.getDurationMillis())});
+      added = true;
+    }
+    return added;
+  }
 }
@@ -6,9 +6,12 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.config;
 
+import static java.lang.Integer.getInteger;
+import static java.util.Comparator.comparingLong;
 import static java.util.Optional.ofNullable;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.api.util.collection.Collectors.toImmutableList;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.assertNotStopping;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
@@ -38,7 +41,6 @@ import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.extension.api.runtime.ExpirationPolicy;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 import org.mule.runtime.extension.api.runtime.config.ConfigurationProvider;
-import org.mule.runtime.extension.api.runtime.config.ConfigurationStats;
 import org.mule.runtime.extension.api.runtime.config.ExpirableConfigurationProvider;
 import org.mule.runtime.extension.api.values.ConfigurationParameterValueProvider;
 import org.mule.runtime.extension.api.values.ValueResolvingException;
@@ -50,14 +52,13 @@ import org.mule.runtime.module.extension.internal.runtime.resolver.ValueResolvin
 import org.mule.runtime.module.extension.internal.util.ReflectionCache;
 import org.mule.runtime.module.extension.internal.value.ValueProviderMediator;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.slf4j.Logger;
 
@@ -69,6 +70,10 @@ import org.slf4j.Logger;
  * {@link #resolverSet#resolve(Object)}, the resulting {@link ResolverSetResult} might not end up generating a new instance. This
  * is so because {@link ResolverSetResult} instances are put in a cache to guarantee that equivalent evaluations of the
  * {@code resolverSet} return the same instance.
+ * <p>
+ * The cache doesn't take any lock to get an existing instance, nor to expire the unused ones, so that expiring instances doesn't
+ * pause the operations using this provider. If the {@link #MAX_INSTANCES_PROPERTY} system property is set, the least recently
+ * used instances exceeding that amount are expired as well, as long as they are not in use.
  *
  * @since 4.0.0
  */
@@ -77,15 +82,23 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
 
   private static final Logger LOGGER = getLogger(DynamicConfigurationProvider.class);
 
+  /**
+   * System property to set the maximum amount of instances each dynamic configuration keeps, whether in use or not. It is only
+   * enforced when the expired instances are looked for: the least recently used instances that are not in use are then expired
+   * as well, until the amount of instances doesn't exceed the maximum. Unbounded by default.
+   *
+   * @since 4.4.0
+   */
+  public static final String MAX_INSTANCES_PROPERTY = SYSTEM_PROPERTY_PREFIX + "dynamicConfig.maxInstances";
+
   private final ConfigurationInstanceFactory configurationInstanceFactory;
   private final ResolverSet resolverSet;
   private final ConnectionProviderValueResolver connectionProviderResolver;
   private final ExpirationPolicy expirationPolicy;
 
   private final Map<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> cache = new ConcurrentHashMap<>();
-  private final ReadWriteLock cacheLock = new ReentrantReadWriteLock();
-  private final Lock cacheReadLock = cacheLock.readLock();
-  private final Lock cacheWriteLock = cacheLock.writeLock();
+  private final Map<Pair<ResolverSetResult, ResolverSetResult>, Object> creationLocks = new ConcurrentHashMap<>();
+  private final int maxInstances = getInteger(MAX_INSTANCES_PROPERTY, -1);
   private final ReflectionCache reflectionCache;
   private final ExpressionManager expressionManager;
 
@@ -144,49 +157,89 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
   }
 
   private ConfigurationInstance getConfiguration(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult, CoreEvent event)
-      throws Exception {
+      throws MuleException {
 
-    ConfigurationInstance configuration;
-    cacheReadLock.lock();
-    try {
-      configuration = cache.computeIfAbsent(resolverSetResult, (r) -> createConfiguration(r, event));
-      updateUsageStatistic(configuration);
+    ConfigurationInstance configuration = getCached(resolverSetResult);
+    if (configuration != null) {
       return configuration;
-    } catch (WrappingRuntimeException e) {
-      throw e.getWrappedException();
+    }
+
+    // The instance is not created within the compute operations of the cache, since those would block the gets of the other
+    // instances in the same bin of the map while it is initialised and started. Concurrent gets of the same instance wait for it
+    // to be created instead.
+    final Object creationLock = creationLocks.computeIfAbsent(resolverSetResult, k -> new Object());
+    try {
+      synchronized (creationLock) {
+        configuration = getCached(resolverSetResult);
+        if (configuration != null) {
+          return configuration;
+        }
+
+        configuration = createConfiguration(resolverSetResult, event);
+        updateUsageStatistic(configuration);
+        final ConfigurationInstance current = cache.putIfAbsent(resolverSetResult, configuration);
+        if (current == null) {
+          return configuration;
+        }
+
+        // created concurrently by a get that didn't see this lock, only one of them is kept
+        discard(configuration);
+        updateUsageStatistic(current);
+        return current;
+      }
     } finally {
-      cacheReadLock.unlock();
+      creationLocks.remove(resolverSetResult, creationLock);
     }
   }
 
+  private ConfigurationInstance getCached(Pair<ResolverSetResult, ResolverSetResult> resolverSetResult) {
+    final ConfigurationInstance configuration = cache.get(resolverSetResult);
+    if (configuration == null) {
+      return null;
+    }
+
+    updateUsageStatistic(configuration);
+    // if it was expired before its usage was updated, a new one has to be created
+    return cache.get(resolverSetResult) == configuration ? configuration : null;
+  }
+
   private void updateUsageStatistic(ConfigurationInstance configuration) {
     MutableConfigurationStats stats = (MutableConfigurationStats) configuration.getStatistics();
     stats.updateLastUsed();
   }
 
-  private ConfigurationInstance createConfiguration(Pair<ResolverSetResult, ResolverSetResult> values, CoreEvent event) {
+  private ConfigurationInstance createConfiguration(Pair<ResolverSetResult, ResolverSetResult> values, CoreEvent event)
+      throws MuleException {
     assertNotStopping(muleContext, "Mule is shutting down... Cannot create new dynamic configurations");
 
     ConfigurationInstance configuration;
     ResolverSetResult connectionProviderValues = values.getSecond();
-    try {
-      if (connectionProviderValues != null) {
-        configuration = configurationInstanceFactory.createConfiguration(getName(),
-                                                                         values.getFirst(),
-                                                                         event,
-                                                                         connectionProviderResolver,
-                                                                         connectionProviderValues);
-      } else {
-        configuration = configurationInstanceFactory.createConfiguration(getName(),
-                                                                         values.getFirst(),
-                                                                         event,
-                                                                         ofNullable(connectionProviderResolver));
-      }
-      registerConfiguration(configuration);
-      return configuration;
-    } catch (MuleException e) {
-      throw new WrappingRuntimeException(e);
+    if (connectionProviderValues != null) {
+      configuration = configurationInstanceFactory.createConfiguration(getName(),
+                                                                       values.getFirst(),
+                                                                       event,
+                                                                       connectionProviderResolver,
+                                                                       connectionProviderValues);
+    } else {
+      configuration = configurationInstanceFactory.createConfiguration(getName(),
+                                                                       values.getFirst(),
+                                                                       event,
+                                                                       ofNullable(connectionProviderResolver));
     }
+    registerConfiguration(configuration);
+    return configuration;
+  }
+
+  private void discard(ConfigurationInstance configuration) {
+    unRegisterConfiguration(configuration);
+    withContextClassLoader(getExtensionClassLoader(), () -> {
+      try {
+        stopIfNeeded(configuration);
+      } catch (Exception e) {
+        LOGGER.warn("Exception while stopping " + configuration.toString(), e);
+      }
+      disposeIfNeeded(configuration, LOGGER);
+    });
   }
 
   @Override
@@ -226,23 +279,68 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
     super.registerConfiguration(configuration);
   }
 
+  /**
+   * Removes from the cache the instances that are expired, and the least recently used ones exceeding the configured maximum.
+   * <p>
+   * Each instance is removed atomically with checking it is expired, so that this doesn't block the resolution of other
+   * instances, and an instance being obtained concurrently is not expired.
+   */
   @Override
   public List<ConfigurationInstance> getExpired() {
-    cacheWriteLock.lock();
-    try {
-      return cache.entrySet().stream().filter(entry -> isExpired(entry.getValue())).map(entry -> {
-        cache.remove(entry.getKey());
-        unRegisterConfiguration(entry.getValue());
-        return entry.getValue();
-      }).collect(toImmutableList());
-    } finally {
-      cacheWriteLock.unlock();
+    List<ConfigurationInstance> expired = new ArrayList<>();
+    for (Pair<ResolverSetResult, ResolverSetResult> key : cache.keySet()) {
+      cache.computeIfPresent(key, (k, configuration) -> {
+        if (isExpired(configuration)) {
+          expired.add(configuration);
+          return null;
+        }
+        return configuration;
+      });
+    }
+
+    if (maxInstances >= 0 && cache.size() > maxInstances) {
+      evictLeastRecentlyUsed(cache.size() - maxInstances, expired);
+    }
+
+    expired.forEach(this::unRegisterConfiguration);
+    return expired.stream().collect(toImmutableList());
+  }
+
+  private void evictLeastRecentlyUsed(int toEvict, List<ConfigurationInstance> evicted) {
+    List<Entry<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance>> candidates = new ArrayList<>();
+    for (Entry<Pair<ResolverSetResult, ResolverSetResult>, ConfigurationInstance> entry : cache.entrySet()) {
+      if (isUnused(entry.getValue())) {
+        candidates.add(entry);
+      }
+    }
+    candidates.sort(comparingLong(entry -> entry.getValue().getStatistics().getLastUsedMillis()));
+
+    for (int i = 0; i < candidates.size() && toEvict > 0; ++i) {
+      final ConfigurationInstance candidate = candidates.get(i).getValue();
+      final long lastUsed = candidate.getStatistics().getLastUsedMillis();
+      // it is only evicted if it was not used since it was chosen
+      if (cache.computeIfPresent(candidates.get(i).getKey(),
+                                 (k, configuration) -> isStillUnused(configuration, candidate, lastUsed)
+                                     ? null
+                                     : configuration) == null) {
+        evicted.add(candidate);
+        --toEvict;
+      }
     }
   }
 
   private boolean isExpired(ConfigurationInstance configuration) {
-    ConfigurationStats stats = configuration.getStatistics();
-    return stats.getActiveComponents() == 0 && expirationPolicy.isExpired(stats.getLastUsedMillis(), MILLISECONDS);
+    return isUnused(configuration)
+        && expirationPolicy.isExpired(configuration.getStatistics().getLastUsedMillis(), MILLISECONDS);
+  }
+
+  private boolean isUnused(ConfigurationInstance configuration) {
+    return configuration.getStatistics().getActiveComponents() == 0;
+  }
+
+  private boolean isStillUnused(ConfigurationInstance configuration, ConfigurationInstance candidate, long lastUsed) {
+    return configuration == candidate && isUnused(configuration)
+        && configuration.getStatistics().getLastUsedMillis() == lastUsed;
   }
 
   @Override
@@ -353,22 +451,4 @@ public final class DynamicConfigurationProvider extends LifecycleAwareConfigurat
         .filter(ob -> ob instanceof ConnectionProviderObjectBuilder)
         .map(ob -> ((ConnectionProviderObjectBuilder) ob).providerModel);
   }
-
-  /**
-   * Used to preserve exception throwing behaviour in {@link #getConfiguration} as the method {@link #createConfiguration} can no
-   * longer throw checked exception as it is used inside {@link Map#computeIfAbsent}.
-   */
-  private static class WrappingRuntimeException extends RuntimeException {
-
-    private final Exception wrappedException;
-
-    public WrappingRuntimeException(Exception e) {
-      super(e);
-      this.wrappedException = e;
-    }
-
-    public Exception getWrappedException() {
-      return wrappedException;
-    }
-  }
 }
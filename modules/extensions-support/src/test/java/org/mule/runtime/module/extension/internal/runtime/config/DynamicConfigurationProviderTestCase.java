@@ -14,6 +14,7 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertThat;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
@@ -30,6 +31,8 @@ import static org.mockito.Mockito.withSettings;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.util.ExtensionModelTestUtils.visitableMock;
 import static org.mule.runtime.api.util.collection.Collectors.toImmutableList;
+import static org.mule.runtime.module.extension.internal.runtime.config.DynamicConfigurationProvider.MAX_INSTANCES_PROPERTY;
+import static org.mule.tck.junit4.rule.SystemProperty.callWithProperty;
 import static org.mule.test.module.extension.internal.util.ExtensionsTestUtils.mockClassLoaderModelProperty;
 import static org.mule.test.module.extension.internal.util.ExtensionsTestUtils.mockConfigurationInstance;
 
@@ -236,6 +239,29 @@ public class DynamicConfigurationProviderTestCase extends AbstractConfigurationP
     assertThat(configs, containsInAnyOrder(instance1, instance2));
   }
 
+  @Test
+  public void getExpiredExceedingMaxInstances() throws Throwable {
+    provider.stop();
+    provider.dispose();
+
+    provider = callWithProperty(MAX_INSTANCES_PROPERTY, "1",
+                                () -> new DynamicConfigurationProvider(CONFIG_NAME, extensionModel, configurationModel,
+                                                                       resolverSet, connectionProviderResolver, expirationPolicy,
+                                                                       new ReflectionCache(), expressionManager, muleContext));
+    provider.initialise();
+    provider.start();
+
+    HeisenbergExtension instance1 = (HeisenbergExtension) provider.get(event).getValue();
+    timeSupplier.move(1, MINUTES);
+    HeisenbergExtension instance2 = makeAlternateInstance();
+
+    List<ConfigurationInstance> expired = ((DynamicConfigurationProvider) provider).getExpired();
+    List<Object> configs = expired.stream().map(ConfigurationInstance::getValue).collect(toImmutableList());
+    assertThat(configs, contains(instance1));
+
+    assertThat(provider.get(event).getValue(), is(sameInstance(instance2)));
+  }
+
   @Test
   public void configurationInstanceIsRemovedFromLifecycleTrackingAfterExpired() throws Exception {
     HeisenbergExtension instance = (HeisenbergExtension) provider.get(event).getValue();
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.exists;
+import static java.util.Comparator.comparing;
+import static java.util.regex.Pattern.compile;
+import static org.mule.runtime.api.util.MuleSystemProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.meta.model.ExtensionModel;
+import org.mule.runtime.dsl.api.ConfigResource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+
+/**
+ * Keeps track, on disk, of the configurations of an artifact that already passed the schema validations, so that those are not
+ * run again when the artifact is deployed with the same configuration, as happens when the runtime is restarted.
+ * <p>
+ * Each configuration is identified by a key calculated from everything the schema validation depends on: the runtime version, the
+ * names and content of the config files and the extensions available to the artifact. Any change on those results in a different
+ * key, so the validations are run again.
+ * <p>
+ * Config files that import other files are never recorded, since the content of the imported files is not known until the
+ * configuration is parsed. Neither are configurations that use snapshot versions of extensions.
+ *
+ * @since 4.4.0
+ */
+final class ConfigValidationSnapshot {
+
+  /**
+   * System property to enable skipping the schema validations of configurations that already passed them.
+   */
+  static final String CONFIG_VALIDATION_SNAPSHOT_PROPERTY = SYSTEM_PROPERTY_PREFIX + "config.validationSnapshot";
+
+  private static final Logger LOGGER = getLogger(ConfigValidationSnapshot.class);
+
+  private static final String VALIDATED_SUFFIX = ".validated";
+  private static final String SNAPSHOT_VERSION_SUFFIX = "-SNAPSHOT";
+  private static final Pattern IMPORT_PATTERN = compile("<([\\w-]+:)?import[\\s/>]");
+
+  private final Path snapshotFolder;
+  private final String runtimeVersion;
+
+  /**
+   * Creates a new instance
+   *
+   * @param snapshotFolder the folder where the validated configurations are recorded. It is created if it doesn't exist.
+   * @param runtimeVersion the version of the runtime, so that validations done by another version are not considered.
+   */
+  ConfigValidationSnapshot(File snapshotFolder, String runtimeVersion) {
+    this.snapshotFolder = snapshotFolder.toPath();
+    this.runtimeVersion = runtimeVersion;
+  }
+
+  /**
+   * Calculates the key of a configuration.
+   *
+   * @param configResources the config files of the artifact
+   * @param extensions      the extensions available to the artifact
+   * @return the key, or empty if the content of the configuration can't be fully determined, in which case it must always be
+   *         validated.
+   */
+  Optional<String> keyFor(ConfigResource[] configResources, Set<ExtensionModel> extensions) {
+    // the schema of a snapshot extension may change without its version changing
+    if (extensions.stream().anyMatch(extension -> extension.getVersion() == null
+        || extension.getVersion().endsWith(SNAPSHOT_VERSION_SUFFIX))) {
+      return Optional.empty();
+    }
+
+    try {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      update(digest, runtimeVersion.getBytes(UTF_8));
+      extensions.stream()
+          .sorted(comparing(ExtensionModel::getName))
+          .forEach(extension -> update(digest, (extension.getName() + ":" + extension.getVersion()).getBytes(UTF_8)));
+
+      // the names are part of the key since they are used to resolve relative locations
+      final Map<String, byte[]> contents = new TreeMap<>();
+      for (ConfigResource configResource : configResources) {
+        final URL url = configResource.getUrl();
+        if (url == null) {
+          return Optional.empty();
+        }
+
+        final byte[] content;
+        try (InputStream in = url.openStream()) {
+          content = toByteArray(in);
+        }
+        if (IMPORT_PATTERN.matcher(new String(content, UTF_8)).find()) {
+          return Optional.empty();
+        }
+        contents.put(configResource.getResourceName(), content);
+      }
+      contents.forEach((name, content) -> {
+        update(digest, name.getBytes(UTF_8));
+        update(digest, content);
+      });
+
+      return Optional.of(toHex(digest.digest()));
+    } catch (NoSuchAlgorithmException | IOException | RuntimeException e) {
+      LOGGER.debug("Unable to calculate the validation snapshot key of the artifact configuration", e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @param key the key calculated with {@link #keyFor(ConfigResource[], Set)}
+   * @return whether the configuration with the given {@code key} already passed the schema validations.
+   */
+  boolean isValidated(String key) {
+    return exists(snapshotFolder.resolve(key + VALIDATED_SUFFIX));
+  }
+
+  /**
+   * Records that the configuration with the given {@code key} passed the schema validations.
+   *
+   * @param key the key calculated with {@link #keyFor(ConfigResource[], Set)}
+   */
+  void markValidated(String key) {
+    try {
+      createDirectories(snapshotFolder);
+      final Path marker = snapshotFolder.resolve(key + VALIDATED_SUFFIX);
+      if (!exists(marker)) {
+        marker.toFile().createNewFile();
+      }
+    } catch (IOException e) {
+      LOGGER.debug("Unable to record the artifact configuration '{}' as validated", key, e);
+    }
+  }
+
+  private static void update(MessageDigest digest, byte[] value) {
+    digest.update(value);
+    digest.update((byte) 0);
+  }
+
+  private static String toHex(byte[] bytes) {
+    final StringBuilder builder = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return builder.toString();
+  }
+}
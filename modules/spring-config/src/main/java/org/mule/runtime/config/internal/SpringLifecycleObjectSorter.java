@@ -7,7 +7,9 @@
 package org.mule.runtime.config.internal;
 
 import org.mule.runtime.core.internal.lifecycle.phases.DefaultLifecycleObjectSorter;
+import org.mule.runtime.core.internal.lifecycle.phases.LifecycleObjectGraph;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -24,6 +26,7 @@ import org.springframework.beans.factory.config.BeanDefinition;
 public class SpringLifecycleObjectSorter extends DefaultLifecycleObjectSorter {
 
   private final SpringRegistry registry;
+  private final List<List<Object>> dependencyChains = new ArrayList<>();
 
   /**
    * Creates a new instance
@@ -44,6 +47,32 @@ public class SpringLifecycleObjectSorter extends DefaultLifecycleObjectSorter {
     final List<Object> dependencies = registry.getBeanDependencyResolver().resolveBeanDependencies(name);
     bucket.addAll(dependencies);
     bucket.add(object);
+
+    final List<Object> chain = new ArrayList<>(dependencies);
+    chain.add(object);
+    dependencyChains.add(chain);
     return dependencies.size() + 1;
   }
+
+  /**
+   * Each object depends on the objects that precede it in the list of dependencies resolved for each of the added objects. Since
+   * those lists are sorted but do not tell the direct dependencies apart from the transitive ones, this is conservative: objects
+   * in the same list are never processed concurrently, while objects with no list in common may be.
+   * <p>
+   * {@inheritDoc}
+   */
+  @Override
+  public LifecycleObjectGraph getObjectGraph() {
+    final LifecycleObjectGraph graph = new LifecycleObjectGraph();
+    getBuckets().forEach(graph::addGroup);
+
+    for (List<Object> chain : dependencyChains) {
+      // depending on the previous one is enough, since that one in turn depends on the ones before it
+      for (int i = 1; i < chain.size(); i++) {
+        graph.addDependency(chain.get(i), chain.get(i - 1));
+      }
+    }
+
+    return graph;
+  }
 }
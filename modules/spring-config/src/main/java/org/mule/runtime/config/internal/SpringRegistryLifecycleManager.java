@@ -36,7 +36,9 @@ import org.mule.runtime.core.internal.lifecycle.EmptyLifecycleCallback;
 import org.mule.runtime.core.internal.lifecycle.LifecycleInterceptor;
 import org.mule.runtime.core.internal.lifecycle.RegistryLifecycleCallback;
 import org.mule.runtime.core.internal.lifecycle.RegistryLifecycleManager;
+import org.mule.runtime.core.internal.lifecycle.phases.LifecycleObjectGraph;
 import org.mule.runtime.core.internal.lifecycle.phases.LifecycleObjectSorter;
+import org.mule.runtime.core.internal.lifecycle.phases.LifecyclePhase;
 import org.mule.runtime.core.internal.lifecycle.phases.MuleContextDisposePhase;
 import org.mule.runtime.core.internal.lifecycle.phases.MuleContextInitialisePhase;
 import org.mule.runtime.core.internal.lifecycle.phases.MuleContextStartPhase;
@@ -62,7 +64,7 @@ public class SpringRegistryLifecycleManager extends RegistryLifecycleManager {
 
     registerPhase(NotInLifecyclePhase.PHASE_NAME, new NotInLifecyclePhase(), new EmptyLifecycleCallback<>());
     registerPhase(Initialisable.PHASE_NAME, new SpringContextInitialisePhase(), callback);
-    registerPhase(Startable.PHASE_NAME, new MuleContextStartPhase(), callback);
+    registerPhase(Startable.PHASE_NAME, new SpringContextStartPhase(), callback);
     registerPhase(Stoppable.PHASE_NAME, new MuleContextStopPhase(), callback);
     registerPhase(Disposable.PHASE_NAME, new SpringContextDisposePhase(), callback);
   }
@@ -72,6 +74,14 @@ public class SpringRegistryLifecycleManager extends RegistryLifecycleManager {
     return getSpringRegistry().lookupEntriesForLifecycle(Object.class);
   }
 
+  @Override
+  protected LifecycleObjectGraph getObjectGraphForPhase(LifecyclePhase phase) {
+    if (phase instanceof SpringContextStartPhase) {
+      return getObjectGraph(((SpringContextStartPhase) phase).newDependencyAwareObjectSorter());
+    }
+    return super.getObjectGraphForPhase(phase);
+  }
+
   // ///////////////////////////////////////////////////////////////////////////////////
   // Spring custom lifecycle phases
   // ///////////////////////////////////////////////////////////////////////////////////
@@ -135,6 +145,23 @@ public class SpringRegistryLifecycleManager extends RegistryLifecycleManager {
     }
   }
 
+  /**
+   * The start phase, which also knows the dependencies between the beans so that the ones that don't depend on each other may be
+   * started concurrently.
+   */
+  class SpringContextStartPhase extends MuleContextStartPhase {
+
+    /**
+     * Unlike {@link #newLifecycleObjectSorter()}, which keeps the order in which the beans are started one after the other, the
+     * returned sorter provides the dependencies between the beans.
+     *
+     * @return a sorter aware of the dependencies between the beans
+     */
+    LifecycleObjectSorter newDependencyAwareObjectSorter() {
+      return new SpringLifecycleObjectSorter(orderedLifecycleTypes, getSpringRegistry());
+    }
+  }
+
   /**
    * Detects if a bean is an inner bean to prevent applying lifecycle to it since lifecycle is already applied by the owner, i.e.:
    * a flow
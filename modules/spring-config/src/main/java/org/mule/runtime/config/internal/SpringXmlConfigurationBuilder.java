@@ -21,6 +21,8 @@ import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.util.MuleSystemProperties.SHARE_ERROR_TYPE_REPOSITORY_PROPERTY;
 import static org.mule.runtime.ast.api.util.MuleAstUtils.emptyArtifact;
 import static org.mule.runtime.config.api.dsl.ArtifactDeclarationUtils.toArtifactast;
+import static org.mule.runtime.config.internal.ConfigValidationSnapshot.CONFIG_VALIDATION_SNAPSHOT_PROPERTY;
+import static org.mule.runtime.core.api.config.MuleManifest.getProductVersion;
 import static org.mule.runtime.core.api.config.bootstrap.ArtifactType.APP;
 import static org.mule.runtime.core.api.config.bootstrap.ArtifactType.DOMAIN;
 import static org.mule.runtime.core.api.config.bootstrap.ArtifactType.POLICY;
@@ -65,6 +67,7 @@ import org.mule.runtime.core.internal.registry.MuleRegistryHelper;
 import org.mule.runtime.deployment.model.api.artifact.ArtifactContext;
 import org.mule.runtime.dsl.api.ConfigResource;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
@@ -86,6 +89,8 @@ import org.springframework.context.ConfigurableApplicationContext;
 public class SpringXmlConfigurationBuilder extends AbstractResourceConfigurationBuilder
     implements ParentMuleContextAwareConfigurationBuilder, ArtifactContextFactory {
 
+  private static final String VALIDATION_SNAPSHOT_FOLDER = "config-validation";
+
   private ArtifactDeclaration artifactDeclaration;
   private boolean enableLazyInit = false;
   private boolean disableXmlValidations = false;
@@ -204,7 +209,7 @@ public class SpringXmlConfigurationBuilder extends AbstractResourceConfiguration
             .orElse(new DefaultComponentBuildingDefinitionRegistryFactory());
 
     final ArtifactAst artifactAst =
-        createApplicationModel(getExtensions(muleContext.getExtensionManager()),
+        createApplicationModel(muleContext, getExtensions(muleContext.getExtensionManager()),
                                artifactDeclaration, resolveArtifactConfigResources(), getArtifactProperties(),
                                disableXmlValidations);
 
@@ -233,7 +238,8 @@ public class SpringXmlConfigurationBuilder extends AbstractResourceConfiguration
     return extensionManager == null ? emptySet() : extensionManager.getExtensions();
   }
 
-  private ArtifactAst createApplicationModel(Set<ExtensionModel> extensions,
+  private ArtifactAst createApplicationModel(MuleContext muleContext,
+                                             Set<ExtensionModel> extensions,
                                              ArtifactDeclaration artifactDeclaration,
                                              ConfigResource[] artifactConfigResources,
                                              Map<String, String> artifactProperties,
@@ -245,12 +251,23 @@ public class SpringXmlConfigurationBuilder extends AbstractResourceConfiguration
         if (artifactConfigResources.length == 0) {
           artifactAst = emptyArtifact();
         } else {
-          final AstXmlParser parser = createMuleXmlParser(extensions, artifactProperties, disableXmlValidations);
+          final Optional<ConfigValidationSnapshot> validationSnapshot =
+              disableXmlValidations ? empty() : resolveValidationSnapshot(muleContext);
+          final Optional<String> snapshotKey =
+              validationSnapshot.flatMap(snapshot -> snapshot.keyFor(artifactConfigResources, extensions));
+          final boolean alreadyValidated = snapshotKey.map(key -> validationSnapshot.get().isValidated(key)).orElse(false);
+
+          final AstXmlParser parser =
+              createMuleXmlParser(extensions, artifactProperties, disableXmlValidations || alreadyValidated);
 
           artifactAst = parser.parse(stream(artifactConfigResources)
               .map((CheckedFunction<ConfigResource, Pair<String, InputStream>>) (configFile -> new Pair<>(configFile
                   .getResourceName(), configFile.getInputStream())))
               .collect(toList()));
+
+          if (snapshotKey.isPresent() && !alreadyValidated) {
+            validationSnapshot.get().markValidated(snapshotKey.get());
+          }
         }
       } else {
         artifactAst = toArtifactast(artifactDeclaration, extensions);
@@ -264,6 +281,18 @@ public class SpringXmlConfigurationBuilder extends AbstractResourceConfiguration
     }
   }
 
+  private Optional<ConfigValidationSnapshot> resolveValidationSnapshot(MuleContext muleContext) {
+    if (!getBoolean(CONFIG_VALIDATION_SNAPSHOT_PROPERTY)
+        || muleContext.getConfiguration() == null
+        || muleContext.getConfiguration().getWorkingDirectory() == null) {
+      return empty();
+    }
+
+    return of(new ConfigValidationSnapshot(new File(muleContext.getConfiguration().getWorkingDirectory(),
+                                                    VALIDATION_SNAPSHOT_FOLDER),
+                                           getProductVersion()));
+  }
+
   private AstXmlParser createMuleXmlParser(Set<ExtensionModel> extensions,
                                            Map<String, String> artifactProperties, boolean disableXmlValidations) {
     ConfigurationPropertiesResolver propertyResolver =
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.config.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.write;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.api.meta.model.ExtensionModel;
+import org.mule.runtime.dsl.api.ConfigResource;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class ConfigValidationSnapshotTestCase extends AbstractMuleTestCase {
+
+  private static final String RUNTIME_VERSION = "4.4.0";
+  private static final String CONFIG = "<mule xmlns=\"http://www.mulesoft.org/schema/mule/core\"><flow name=\"flow\"/></mule>";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private ConfigValidationSnapshot snapshot;
+  private File configFile;
+
+  @Before
+  public void before() throws Exception {
+    snapshot = new ConfigValidationSnapshot(temporaryFolder.newFolder("snapshot"), RUNTIME_VERSION);
+    configFile = temporaryFolder.newFile("config.xml");
+    write(configFile.toPath(), CONFIG.getBytes(UTF_8));
+  }
+
+  @Test
+  public void validatedConfigIsRecorded() throws Exception {
+    String key = keyFor(configFile).get();
+    assertThat(snapshot.isValidated(key), is(false));
+
+    snapshot.markValidated(key);
+
+    assertThat(snapshot.isValidated(keyFor(configFile).get()), is(true));
+  }
+
+  @Test
+  public void keyChangesWithConfigContent() throws Exception {
+    String key = keyFor(configFile).get();
+
+    write(configFile.toPath(), CONFIG.replace("flow", "otherFlow").getBytes(UTF_8));
+
+    assertThat(keyFor(configFile).get(), is(not(key)));
+  }
+
+  @Test
+  public void keyChangesWithExtensions() throws Exception {
+    String key = keyFor(configFile).get();
+
+    assertThat(snapshot.keyFor(configResources(configFile), singleton(extension("1.0.0"))).get(), is(not(key)));
+  }
+
+  @Test
+  public void keyChangesWithRuntimeVersion() throws Exception {
+    String key = keyFor(configFile).get();
+
+    assertThat(new ConfigValidationSnapshot(temporaryFolder.getRoot(), "4.4.1").keyFor(configResources(configFile), emptySet())
+        .get(), is(not(key)));
+  }
+
+  @Test
+  public void configWithImportsIsNotRecorded() throws Exception {
+    write(configFile.toPath(), CONFIG.replace("<flow", "<import file=\"other.xml\"/><flow").getBytes(UTF_8));
+
+    assertThat(keyFor(configFile).isPresent(), is(false));
+  }
+
+  @Test
+  public void configWithSnapshotExtensionIsNotRecorded() throws Exception {
+    assertThat(snapshot.keyFor(configResources(configFile), singleton(extension("1.0.0-SNAPSHOT"))).isPresent(), is(false));
+  }
+
+  private Optional<String> keyFor(File file) throws IOException {
+    return snapshot.keyFor(configResources(file), emptySet());
+  }
+
+  private ConfigResource[] configResources(File file) throws IOException {
+    return new ConfigResource[] {new ConfigResource(file.toURI().toURL())};
+  }
+
+  private ExtensionModel extension(String version) {
+    ExtensionModel extensionModel = mock(ExtensionModel.class);
+    when(extensionModel.getName()).thenReturn("test");
+    when(extensionModel.getVersion()).thenReturn(version);
+    return extensionModel;
+  }
+}
@@ -54,6 +54,8 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import reactor.core.publisher.Flux;
+
 @Warmup(iterations = 2)
 @Measurement(iterations = 50)
 @OutputTimeUnit(NANOSECONDS)
@@ -63,6 +65,8 @@ public class ForeachBenchmark extends AbstractBenchmark {
   private static final int PAYLOADS = 50000;
   private static final int NESTED_PAYLOADS = 5000;
   private static final int INNER_PAYLOADS = 100;
+  private static final int BATCH_SIZE = 100;
+  private static final int EVENTS = 500;
 
   private static final int CONCURRENCY = 10;
   private static final int PAYLOADS_CONCURRENT = 50000;
@@ -76,6 +80,7 @@ public class ForeachBenchmark extends AbstractBenchmark {
 
   private CoreEvent foreachEvent;
   private List<String> chainedPayloads;
+  private List<CoreEvent> events;
 
   @Setup(Level.Trial)
   public void setup() throws Exception {
@@ -109,6 +114,16 @@ public class ForeachBenchmark extends AbstractBenchmark {
     for (int i = 0; i < PAYLOADS_CONCURRENT; i++) {
       chainedPayloads.add("" + i);
     }
+
+    // Create events to be processed by the same foreach
+    events = new ArrayList<>();
+    for (int i = 0; i < EVENTS; i++) {
+      List<String> items = new ArrayList<>();
+      for (int j = 0; j < INNER_PAYLOADS; j++) {
+        items.add(i + "_" + j);
+      }
+      events.add(eventBuilder(muleContext).message(of(items)).build());
+    }
   }
 
   private Foreach createForeach() {
@@ -143,6 +158,49 @@ public class ForeachBenchmark extends AbstractBenchmark {
     return counter.get();
   }
 
+  @Benchmark
+  @BenchmarkMode(SingleShotTime)
+  public int singleForeachBatched() {
+    AtomicInteger counter = new AtomicInteger();
+    try {
+      Foreach singleForeach = createForeach();
+      Processor capturedEventProcessor = event -> {
+        counter.incrementAndGet();
+        return event;
+      };
+
+      singleForeach.setMessageProcessors(singletonList(capturedEventProcessor));
+      singleForeach.setBatchSize(BATCH_SIZE);
+      initialiseIfNeeded(singleForeach, muleContext);
+
+      singleForeach.process(singleForeachEvent);
+    } catch (Throwable t) {
+      LOGGER.error("Unexpected error on singleForeachBatched", t);
+    }
+    return counter.get();
+  }
+
+  @Benchmark
+  @BenchmarkMode(SingleShotTime)
+  public int eventsThroughSameForeach() {
+    AtomicInteger counter = new AtomicInteger();
+    try {
+      Foreach foreach = createForeach();
+      Processor capturedEventProcessor = event -> {
+        counter.incrementAndGet();
+        return event;
+      };
+
+      foreach.setMessageProcessors(singletonList(capturedEventProcessor));
+      initialiseIfNeeded(foreach, muleContext);
+
+      Flux.fromIterable(events).transform(foreach).blockLast();
+    } catch (Throwable t) {
+      LOGGER.error("Unexpected error on eventsThroughSameForeach", t);
+    }
+    return counter.get();
+  }
+
   @Benchmark
   @BenchmarkMode(SingleShotTime)
   public int nestedForeach() {
@@ -11,12 +11,14 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import org.mule.AbstractBenchmark;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.util.collection.SmallMap;
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
 
 import java.util.HashMap;
 import java.util.Map;
 
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.TearDown;
 
 @OutputTimeUnit(NANOSECONDS)
@@ -25,6 +27,19 @@ public class SmallMapBenchmark extends AbstractBenchmark {
   private static final String[] KEYS = new String[] {"one", "two", "three", "four", "five", "six", "seven"};
   private static final String[] VALUES = new String[] {"uno", "dos", "tres", "cuatro", "cinco", "seis", "siete"};
 
+  private static final int VARIABLES = 50;
+
+  private CaseInsensitiveHashMap<String, String> variables;
+
+  @Setup
+  public void setup() {
+    CaseInsensitiveHashMap<String, String> map = new CaseInsensitiveHashMap<>();
+    for (int i = 0; i < VARIABLES; i++) {
+      map.put("var" + i, "value" + i);
+    }
+    variables = map.toImmutableCaseInsensitiveMap();
+  }
+
   @TearDown
   public void teardown() throws MuleException {}
 
@@ -73,6 +88,26 @@ public class SmallMapBenchmark extends AbstractBenchmark {
     return map;
   }
 
+  @Benchmark
+  public Object caseInsensitiveMapOf50FullCopyAndPut() {
+    Map<String, String> map = new CaseInsensitiveHashMap<>(variables);
+    map.put("newVar", "newValue");
+    map.get("var0");
+    map.get("newVar");
+
+    return map;
+  }
+
+  @Benchmark
+  public Object caseInsensitiveMapOf50CopyAndPut() {
+    Map<String, String> map = variables.copy();
+    map.put("newVar", "newValue");
+    map.get("var0");
+    map.get("newVar");
+
+    return map;
+  }
+
   private void populate(Map<String, String> map, int size) {
     for (int i = 0; i < size; i++) {
       map.put(KEYS[i], VALUES[i]);